@@ -0,0 +1,52 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkRunner is the main class of the benchmarks jar.  It takes the usual JMH command line options, but unless told
+ * otherwise writes the results as JSON to <code>xacml-bench-&lt;version&gt;.json</code> so the results of two releases can be
+ * compared with any JMH result viewer or diff tool.
+ *
+ * @version $Revision$
+ */
+public class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+	}
+
+	/**
+	 * Gets the name of the result file for this version of the benchmarks.
+	 *
+	 * @return the name of the result file
+	 */
+	public static String getResultFile() {
+		String version	= BenchmarkRunner.class.getPackage().getImplementationVersion();
+		return "xacml-bench-" + (version == null ? "dev" : version) + ".json";
+	}
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLineOptions	= new CommandLineOptions(args);
+		if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListProfilers() ||
+				commandLineOptions.shouldListResultFormats() || commandLineOptions.shouldListWithParams()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+		ChainedOptionsBuilder optionsBuilder	= new OptionsBuilder().parent(commandLineOptions);
+		if (!commandLineOptions.getResultFormat().hasValue()) {
+			optionsBuilder.resultFormat(ResultFormatType.JSON);
+		}
+		if (!commandLineOptions.getResult().hasValue()) {
+			optionsBuilder.result(getResultFile());
+		}
+		new Runner(optionsBuilder.build()).run();
+	}
+}
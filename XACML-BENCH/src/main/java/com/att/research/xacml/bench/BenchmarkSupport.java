@@ -0,0 +1,229 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+import com.att.research.xacml.api.pdp.PDPEngine;
+import com.att.research.xacml.util.FactoryException;
+import com.att.research.xacml.util.XACMLProperties;
+import com.att.research.xacmlatt.pdp.ATTPDPEngineFactory;
+import com.att.research.xacmlatt.pdp.util.ATTPDPProperties;
+
+/**
+ * BenchmarkSupport holds the helpers shared by the benchmarks: locating the conformance tests, creating an
+ * {@link com.att.research.xacmlatt.pdp.ATTPDPEngine} for a root policy and generating synthetic policies and requests.
+ *
+ * @version $Revision$
+ */
+public final class BenchmarkSupport {
+	/**
+	 * The system property giving the directory of the XACML 3.0 conformance tests.  By default it is looked for in the
+	 * XACML-PDP test resources relative to the current directory.
+	 */
+	public static final String PROP_CONFORMANCE	= "xacml.bench.conformance";
+
+	public static final String CONFORMANCE_PATH	= "XACML-PDP/src/test/resources/testsets/conformance/xacml3.0-ct-v.0.4";
+
+	public static final String ID_ACTION		= "urn:oasis:names:tc:xacml:1.0:action:action-id";
+	public static final String ID_RESOURCE		= "urn:oasis:names:tc:xacml:1.0:resource:resource-id";
+	public static final String ID_SUBJECT		= "urn:oasis:names:tc:xacml:1.0:subject:subject-id";
+
+	/*
+	 * Synthetic policy sets are made of policies of at most this many rules
+	 */
+	public static final int RULES_PER_POLICY	= 100;
+
+	private static final String MATCH	= "<Target><AnyOf><AllOf><Match MatchId=\"urn:oasis:names:tc:xacml:1.0:function:string-equal\">"
+			+ "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">%s</AttributeValue>"
+			+ "<AttributeDesignator Category=\"%s\" AttributeId=\"%s\" DataType=\"http://www.w3.org/2001/XMLSchema#string\" MustBePresent=\"false\"/>"
+			+ "</Match></AllOf></AnyOf></Target>";
+	private static final String CATEGORY_ACTION		= "urn:oasis:names:tc:xacml:3.0:attribute-category:action";
+	private static final String CATEGORY_RESOURCE	= "urn:oasis:names:tc:xacml:3.0:attribute-category:resource";
+
+	private BenchmarkSupport() {
+	}
+
+	/**
+	 * Gets the directory holding the XACML 3.0 conformance tests.
+	 *
+	 * @return the <code>Path</code> to the conformance tests
+	 * @throws IllegalStateException if the directory cannot be found
+	 */
+	public static Path getConformanceDirectory() {
+		String property	= System.getProperty(PROP_CONFORMANCE);
+		if (property != null) {
+			return Paths.get(property);
+		}
+		for (Path path : new Path[] { Paths.get(CONFORMANCE_PATH), Paths.get("..", CONFORMANCE_PATH) }) {
+			if (Files.isDirectory(path)) {
+				return path;
+			}
+		}
+		throw new IllegalStateException("Cannot find the conformance tests, set -D" + PROP_CONFORMANCE);
+	}
+
+	/**
+	 * Gets the contents of a file from the conformance tests.
+	 *
+	 * @param fileName the name of the file, such as <code>IIA001Request.xml</code>
+	 * @return the contents of the file
+	 * @throws IOException if the file cannot be read
+	 */
+	public static String readConformanceFile(String fileName) throws IOException {
+		return new String(Files.readAllBytes(getConformanceDirectory().resolve(fileName)), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Creates a new <code>PDPEngine</code> using the standard factories with the given root policy and no PIP engines
+	 * other than the request itself.
+	 *
+	 * @param rootPolicy the <code>Path</code> to the root policy
+	 * @return a new <code>PDPEngine</code>
+	 * @throws FactoryException if the engine cannot be created
+	 */
+	public static PDPEngine newEngine(Path rootPolicy) throws FactoryException {
+		return newEngine(rootPolicy, new Properties());
+	}
+
+	/**
+	 * Creates a new <code>PDPEngine</code> using the standard factories with the given root policy, adding the standard
+	 * properties to the given <code>Properties</code>.
+	 *
+	 * @param rootPolicy the <code>Path</code> to the root policy
+	 * @param properties the <code>Properties</code> to create the engine with, such as the PDP options being measured
+	 * @return a new <code>PDPEngine</code>
+	 * @throws FactoryException if the engine cannot be created
+	 */
+	public static PDPEngine newEngine(Path rootPolicy, Properties properties) throws FactoryException {
+		properties.setProperty(XACMLProperties.PROP_ROOTPOLICIES, "root");
+		properties.setProperty("root.file", rootPolicy.toString());
+		properties.setProperty(XACMLProperties.PROP_PIPFINDERFACTORY, "com.att.research.xacml.std.pip.StdPIPFinderFactory");
+		properties.setProperty(ATTPDPProperties.PROP_EVALUATIONCONTEXTFACTORY, "com.att.research.xacmlatt.pdp.std.StdEvaluationContextFactory");
+		properties.setProperty(ATTPDPProperties.PROP_COMBININGALGORITHMFACTORY, "com.att.research.xacmlatt.pdp.std.StdCombiningAlgorithmFactory");
+		properties.setProperty(ATTPDPProperties.PROP_FUNCTIONDEFINITIONFACTORY, "com.att.research.xacmlatt.pdp.std.StdFunctionDefinitionFactory");
+		properties.setProperty(ATTPDPProperties.PROP_POLICYFINDERFACTORY, "com.att.research.xacmlatt.pdp.std.StdPolicyFinderFactory");
+		return new ATTPDPEngineFactory().newEngine(properties);
+	}
+
+	/**
+	 * Creates a new <code>PDPEngine</code> whose root policy is the given XML, written to a temporary file.
+	 *
+	 * @param policyXML the XML of the root policy
+	 * @return a new <code>PDPEngine</code>
+	 * @throws IOException if the policy cannot be written
+	 * @throws FactoryException if the engine cannot be created
+	 */
+	public static PDPEngine newEngine(String policyXML) throws IOException, FactoryException {
+		return newEngine(policyXML, new Properties());
+	}
+
+	/**
+	 * Creates a new <code>PDPEngine</code> whose root policy is the given XML, written to a temporary file, with the given
+	 * <code>Properties</code>.
+	 *
+	 * @param policyXML the XML of the root policy
+	 * @param properties the <code>Properties</code> to create the engine with
+	 * @return a new <code>PDPEngine</code>
+	 * @throws IOException if the policy cannot be written
+	 * @throws FactoryException if the engine cannot be created
+	 */
+	public static PDPEngine newEngine(String policyXML, Properties properties) throws IOException, FactoryException {
+		Path rootPolicy	= Files.createTempFile("xacml-bench-", ".xml");
+		rootPolicy.toFile().deleteOnExit();
+		Files.write(rootPolicy, policyXML.getBytes(StandardCharsets.UTF_8));
+		return newEngine(rootPolicy, properties);
+	}
+
+	private static String match(String value, String category, String attributeId) {
+		return String.format(MATCH, value, category, attributeId);
+	}
+
+	/**
+	 * Generates a <code>Policy</code> with the given number of rules.  Rule <code>i</code> permits action
+	 * <code>action-i</code>.
+	 *
+	 * @param policyId the PolicyId
+	 * @param rules the number of rules
+	 * @param ruleCombiningAlgorithm the RuleCombiningAlgId
+	 * @param target the XML of the policy's target
+	 * @return the XML of the <code>Policy</code>
+	 */
+	public static String generatePolicy(String policyId, int rules, String ruleCombiningAlgorithm, String target) {
+		StringBuilder stringBuilder	= new StringBuilder();
+		stringBuilder.append("<Policy xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" PolicyId=\"").append(policyId)
+			.append("\" Version=\"1.0\" RuleCombiningAlgId=\"").append(ruleCombiningAlgorithm).append("\">")
+			.append(target);
+		for (int i = 0 ; i < rules ; i++) {
+			stringBuilder.append("<Rule RuleId=\"rule-").append(i).append("\" Effect=\"Permit\">")
+				.append(match(getAction(i), CATEGORY_ACTION, ID_ACTION))
+				.append("</Rule>");
+		}
+		stringBuilder.append("</Policy>");
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Generates a <code>PolicySet</code> with the given total number of rules, split into policies of at most
+	 * {@link #RULES_PER_POLICY} rules.  Policy <code>p</code> targets resource <code>resource-p</code>, so a request only
+	 * has to look inside one policy.
+	 *
+	 * @param rules the total number of rules
+	 * @param policyCombiningAlgorithm the PolicyCombiningAlgId
+	 * @param ruleCombiningAlgorithm the RuleCombiningAlgId of every policy
+	 * @return the XML of the <code>PolicySet</code>
+	 */
+	public static String generatePolicySet(int rules, String policyCombiningAlgorithm, String ruleCombiningAlgorithm) {
+		StringBuilder stringBuilder	= new StringBuilder();
+		stringBuilder.append("<PolicySet xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" PolicySetId=\"urn:bench:policyset\" Version=\"1.0\" PolicyCombiningAlgId=\"")
+			.append(policyCombiningAlgorithm).append("\"><Target/>");
+		for (int p = 0 ; p < getPolicies(rules) ; p++) {
+			String policy	= generatePolicy("urn:bench:policy:" + p, Math.min(RULES_PER_POLICY, rules - p * RULES_PER_POLICY), ruleCombiningAlgorithm,
+					match(getResource(p), CATEGORY_RESOURCE, ID_RESOURCE));
+			stringBuilder.append(policy.replace(" xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\"", ""));
+		}
+		stringBuilder.append("</PolicySet>");
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Gets the number of policies {@link #generatePolicySet(int, String, String)} splits the given number of rules into.
+	 *
+	 * @param rules the total number of rules
+	 * @return the number of policies
+	 */
+	public static int getPolicies(int rules) {
+		return (rules + RULES_PER_POLICY - 1) / RULES_PER_POLICY;
+	}
+
+	public static String getAction(int rule) {
+		return "action-" + rule;
+	}
+
+	public static String getResource(int policy) {
+		return "resource-" + policy;
+	}
+
+	/**
+	 * Generates a JSON request for the given subject, resource and action.
+	 *
+	 * @param subject the subject-id
+	 * @param resource the resource-id
+	 * @param action the action-id
+	 * @return the JSON request
+	 */
+	public static String generateRequest(String subject, String resource, String action) {
+		return "{\"Request\":{"
+				+ "\"AccessSubject\":{\"Attribute\":[{\"AttributeId\":\"" + ID_SUBJECT + "\",\"Value\":\"" + subject + "\"}]},"
+				+ "\"Resource\":{\"Attribute\":[{\"AttributeId\":\"" + ID_RESOURCE + "\",\"Value\":\"" + resource + "\"}]},"
+				+ "\"Action\":{\"Attribute\":[{\"AttributeId\":\"" + ID_ACTION + "\",\"Value\":\"" + action + "\"}]}}}";
+	}
+}
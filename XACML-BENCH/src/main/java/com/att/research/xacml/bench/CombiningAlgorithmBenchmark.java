@@ -0,0 +1,93 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.bench;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.att.research.xacml.api.Decision;
+import com.att.research.xacml.api.Identifier;
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacmlatt.pdp.eval.EvaluationContext;
+import com.att.research.xacmlatt.pdp.eval.EvaluationResult;
+import com.att.research.xacmlatt.pdp.policy.Policy;
+import com.att.research.xacmlatt.pdp.policy.dom.DOMPolicyDef;
+import com.att.research.xacmlatt.pdp.std.StdEvaluationContext;
+
+/**
+ * CombiningAlgorithmBenchmark measures evaluating a single generated {@link com.att.research.xacmlatt.pdp.policy.Policy}
+ * with each of the standard rule combining algorithms, directly rather than through a <code>PDPEngine</code>.  The request
+ * matches only the last rule, so every algorithm has to reach it.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombiningAlgorithmBenchmark {
+	@Param({"deny-overrides", "permit-overrides", "ordered-deny-overrides", "deny-unless-permit", "permit-unless-deny", "ordered-permit-overrides", "first-applicable"})
+	public String algorithm;
+
+	@Param({"10", "100", "1000"})
+	public int rules;
+
+	private Policy policy;
+	private EvaluationContext evaluationContext;
+
+	private static Identifier getAlgorithm(String algorithm) {
+		switch(algorithm) {
+		case "deny-overrides":
+			return XACML3.ID_RULE_DENY_OVERRIDES;
+		case "permit-overrides":
+			return XACML3.ID_RULE_PERMIT_OVERRIDES;
+		case "ordered-deny-overrides":
+			return XACML3.ID_RULE_ORDERED_DENY_OVERRIDES;
+		case "deny-unless-permit":
+			return XACML3.ID_RULE_DENY_UNLESS_PERMIT;
+		case "permit-unless-deny":
+			return XACML3.ID_RULE_PERMIT_UNLESS_DENY;
+		case "ordered-permit-overrides":
+			return XACML3.ID_RULE_ORDERED_PERMIT_OVERRIDES;
+		case "first-applicable":
+			return XACML3.ID_RULE_FIRST_APPLICABLE;
+		default:
+			throw new IllegalArgumentException("Unknown rule combining algorithm " + algorithm);
+		}
+	}
+
+	@Setup
+	public void setUp() throws Exception {
+		String policyXML	= BenchmarkSupport.generatePolicy("urn:bench:policy", this.rules, getAlgorithm(this.algorithm).stringValue(), "<Target/>");
+		this.policy			= (Policy) DOMPolicyDef.load(new ByteArrayInputStream(policyXML.getBytes(StandardCharsets.UTF_8)));
+		this.evaluationContext	= new StdEvaluationContext(JSONRequest.load(BenchmarkSupport.generateRequest("bench", "resource", BenchmarkSupport.getAction(this.rules - 1))), null, null);
+		Decision decision	= this.policy.evaluate(this.evaluationContext).getDecision();
+		if (decision != Decision.PERMIT) {
+			throw new IllegalStateException(this.algorithm + " decided " + decision);
+		}
+	}
+
+	@Benchmark
+	public EvaluationResult evaluate() throws Exception {
+		return this.policy.evaluate(this.evaluationContext);
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.att.research.xacml.api.Decision;
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.api.Response;
+import com.att.research.xacml.api.Result;
+import com.att.research.xacml.api.pdp.PDPEngine;
+import com.att.research.xacml.std.dom.DOMRequest;
+import com.att.research.xacml.std.dom.DOMResponse;
+
+/**
+ * DecideBenchmark measures {@link com.att.research.xacmlatt.pdp.ATTPDPEngine#decide(Request)} on a selection of the XACML 3.0
+ * conformance tests that need nothing but their own policy and request.  The decisions are checked against the expected
+ * response before measuring, so a benchmark never times an error.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecideBenchmark {
+	/*
+	 * Target matching, rule combining, a condition, policy combining, and a multiple decision request
+	 */
+	@Param({"IIA001", "IIB001", "IIC001", "IID001", "IIIE303"})
+	public String test;
+
+	private PDPEngine pdpEngine;
+	private Request request;
+
+	@Setup
+	public void setUp() throws Exception {
+		this.pdpEngine	= BenchmarkSupport.newEngine(BenchmarkSupport.getConformanceDirectory().resolve(this.test + "Policy.xml"));
+		this.request	= loadRequest(this.pdpEngine, this.test);
+	}
+
+	/**
+	 * Loads the request of the given conformance test and checks that the given <code>PDPEngine</code> makes the expected
+	 * decisions for it.
+	 *
+	 * @param pdpEngine the <code>PDPEngine</code> loaded with the test's policy
+	 * @param test the name of the conformance test
+	 * @return the test's <code>Request</code>
+	 * @throws Exception if the test cannot be loaded or the decisions are not the expected ones
+	 */
+	static Request loadRequest(PDPEngine pdpEngine, String test) throws Exception {
+		Request request				= DOMRequest.load(BenchmarkSupport.readConformanceFile(test + "Request.xml"));
+		Response responseExpected	= DOMResponse.load(BenchmarkSupport.readConformanceFile(test + "Response.xml"));
+		List<Decision> decisionsExpected	= getDecisions(responseExpected);
+		List<Decision> decisions			= getDecisions(pdpEngine.decide(request));
+		if (!decisions.equals(decisionsExpected)) {
+			throw new IllegalStateException(test + " decided " + decisions + " instead of " + decisionsExpected);
+		}
+		return request;
+	}
+
+	private static List<Decision> getDecisions(Response response) {
+		List<Decision> decisions	= new ArrayList<Decision>();
+		for (Result result : response.getResults()) {
+			decisions.add(result.getDecision());
+		}
+		decisions.sort(null);
+		return decisions;
+	}
+
+	@Benchmark
+	public Response decide() throws Exception {
+		return this.pdpEngine.decide(this.request);
+	}
+}
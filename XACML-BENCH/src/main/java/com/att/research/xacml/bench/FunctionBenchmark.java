@@ -0,0 +1,155 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.att.research.xacml.api.DataTypeException;
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.std.datatypes.DataTypes;
+import com.att.research.xacmlatt.pdp.policy.Bag;
+import com.att.research.xacmlatt.pdp.policy.ExpressionResult;
+import com.att.research.xacmlatt.pdp.policy.FunctionArgument;
+import com.att.research.xacmlatt.pdp.policy.FunctionArgumentAttributeValue;
+import com.att.research.xacmlatt.pdp.policy.FunctionArgumentBag;
+import com.att.research.xacmlatt.pdp.std.StdFunctions;
+
+/**
+ * FunctionBenchmark measures one function from each of the families in {@link com.att.research.xacmlatt.pdp.std.StdFunctions}
+ * on constant arguments: equality, arithmetic, comparison, string, regular expression, date and time arithmetic, bag, set
+ * and higher order bag functions.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionBenchmark {
+	private static final int BAG_SIZE	= 10;
+
+	private List<FunctionArgument> argumentsStringEqual;
+	private List<FunctionArgument> argumentsIntegerAdd;
+	private List<FunctionArgument> argumentsIntegerGreaterThan;
+	private List<FunctionArgument> argumentsStringConcatenate;
+	private List<FunctionArgument> argumentsStringNormalize;
+	private List<FunctionArgument> argumentsRegexpMatch;
+	private List<FunctionArgument> argumentsDateTimeAdd;
+	private List<FunctionArgument> argumentsOneAndOnly;
+	private List<FunctionArgument> argumentsIsIn;
+	private List<FunctionArgument> argumentsIntersection;
+	private List<FunctionArgument> argumentsSubset;
+	private List<FunctionArgument> argumentsAnyOf;
+
+	private static FunctionArgument string(String value) throws DataTypeException {
+		return new FunctionArgumentAttributeValue(DataTypes.DT_STRING.createAttributeValue(value));
+	}
+
+	private static FunctionArgument integer(int value) throws DataTypeException {
+		return new FunctionArgumentAttributeValue(DataTypes.DT_INTEGER.createAttributeValue(value));
+	}
+
+	private static FunctionArgument strings(int first, int count) throws DataTypeException {
+		Bag bag	= new Bag();
+		for (int i = first ; i < first + count ; i++) {
+			bag.add(DataTypes.DT_STRING.createAttributeValue("value-" + i));
+		}
+		return new FunctionArgumentBag(bag);
+	}
+
+	@Setup
+	public void setUp() throws Exception {
+		this.argumentsStringEqual			= Arrays.asList(string("resource-42"), string("resource-42"));
+		this.argumentsIntegerAdd			= Arrays.asList(integer(40), integer(2));
+		this.argumentsIntegerGreaterThan	= Arrays.asList(integer(42), integer(3));
+		this.argumentsStringConcatenate		= Arrays.asList(string("resource"), string("-"), string("42"));
+		this.argumentsStringNormalize		= Arrays.asList(string("Resource-42"));
+		this.argumentsRegexpMatch			= Arrays.asList(string("^resource-[0-9]+$"), string("resource-42"));
+		this.argumentsDateTimeAdd			= Arrays.asList(new FunctionArgumentAttributeValue(DataTypes.DT_DATETIME.createAttributeValue("2019-01-01T12:00:00Z")),
+												new FunctionArgumentAttributeValue(DataTypes.DT_DAYTIMEDURATION.createAttributeValue("P1DT2H")));
+		this.argumentsOneAndOnly			= Arrays.asList(strings(0, 1));
+		this.argumentsIsIn					= Arrays.asList(string("value-" + (BAG_SIZE - 1)), strings(0, BAG_SIZE));
+		this.argumentsIntersection			= Arrays.asList(strings(0, BAG_SIZE), strings(BAG_SIZE / 2, BAG_SIZE));
+		this.argumentsSubset				= Arrays.asList(strings(BAG_SIZE / 2, BAG_SIZE / 2), strings(0, BAG_SIZE));
+		this.argumentsAnyOf					= Arrays.asList(new FunctionArgumentAttributeValue(DataTypes.DT_ANYURI.createAttributeValue(XACML3.ID_FUNCTION_STRING_EQUAL)),
+												string("value-" + (BAG_SIZE - 1)), strings(0, BAG_SIZE));
+	}
+
+	@Benchmark
+	public ExpressionResult equalityStringEqual() {
+		return StdFunctions.FD_STRING_EQUAL.evaluate(null, this.argumentsStringEqual);
+	}
+
+	@Benchmark
+	public ExpressionResult arithmeticIntegerAdd() {
+		return StdFunctions.FD_INTEGER_ADD.evaluate(null, this.argumentsIntegerAdd);
+	}
+
+	@Benchmark
+	public ExpressionResult comparisonIntegerGreaterThan() {
+		return StdFunctions.FD_INTEGER_GREATER_THAN.evaluate(null, this.argumentsIntegerGreaterThan);
+	}
+
+	@Benchmark
+	public ExpressionResult stringConcatenate() {
+		return StdFunctions.FD_STRING_CONCATENATE.evaluate(null, this.argumentsStringConcatenate);
+	}
+
+	@Benchmark
+	public ExpressionResult stringNormalizeToLowerCase() {
+		return StdFunctions.FD_STRING_NORMALIZE_TO_LOWER_CASE.evaluate(null, this.argumentsStringNormalize);
+	}
+
+	@Benchmark
+	public ExpressionResult regexpStringMatch() {
+		return StdFunctions.FD_STRING_REGEXP_MATCH.evaluate(null, this.argumentsRegexpMatch);
+	}
+
+	@Benchmark
+	public ExpressionResult dateTimeAddDayTimeDuration() {
+		return StdFunctions.FD_DATETIME_ADD_DAYTIMEDURATION.evaluate(null, this.argumentsDateTimeAdd);
+	}
+
+	@Benchmark
+	public ExpressionResult bagStringOneAndOnly() {
+		return StdFunctions.FD_STRING_ONE_AND_ONLY.evaluate(null, this.argumentsOneAndOnly);
+	}
+
+	@Benchmark
+	public ExpressionResult bagStringIsIn() {
+		return StdFunctions.FD_STRING_IS_IN.evaluate(null, this.argumentsIsIn);
+	}
+
+	@Benchmark
+	public ExpressionResult setStringIntersection() {
+		return StdFunctions.FD_STRING_INTERSECTION.evaluate(null, this.argumentsIntersection);
+	}
+
+	@Benchmark
+	public ExpressionResult setStringSubset() {
+		return StdFunctions.FD_STRING_SUBSET.evaluate(null, this.argumentsSubset);
+	}
+
+	@Benchmark
+	public ExpressionResult higherOrderAnyOf() {
+		return StdFunctions.FD_ANY_OF.evaluate(null, this.argumentsAnyOf);
+	}
+}
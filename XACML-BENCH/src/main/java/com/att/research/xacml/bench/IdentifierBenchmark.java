@@ -0,0 +1,72 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.att.research.xacml.api.Identifier;
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.std.IdentifierImpl;
+
+/**
+ * IdentifierBenchmark measures creating an {@link com.att.research.xacml.api.Identifier} from a string with and without the
+ * {@link com.att.research.xacml.std.IdentifierImpl#intern(String)} registry, and comparing an <code>Identifier</code> with the
+ * interned constant and with a separately created equal one.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdentifierBenchmark {
+	private String stringCategory;
+	private Identifier identifierInterned;
+	private Identifier identifierDistinct;
+
+	@Setup
+	public void setUp() {
+		this.stringCategory		= new String(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE.stringValue());
+		this.identifierInterned	= IdentifierImpl.intern(this.stringCategory);
+		this.identifierDistinct	= new IdentifierImpl(this.stringCategory);
+		if (this.identifierInterned != XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE || !this.identifierDistinct.equals(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE)) {
+			throw new IllegalStateException("Expected " + XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE);
+		}
+	}
+
+	@Benchmark
+	public Identifier create() {
+		return new IdentifierImpl(this.stringCategory);
+	}
+
+	@Benchmark
+	public Identifier intern() {
+		return IdentifierImpl.intern(this.stringCategory);
+	}
+
+	@Benchmark
+	public boolean equalsInterned() {
+		return this.identifierInterned.equals(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE);
+	}
+
+	@Benchmark
+	public boolean equalsDistinct() {
+		return this.identifierDistinct.equals(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE);
+	}
+}
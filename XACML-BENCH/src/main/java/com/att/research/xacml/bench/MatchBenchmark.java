@@ -0,0 +1,93 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.att.research.xacml.api.AttributeValue;
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.std.datatypes.DataTypes;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacmlatt.pdp.eval.EvaluationContext;
+import com.att.research.xacmlatt.pdp.eval.MatchResult;
+import com.att.research.xacmlatt.pdp.policy.ExpressionResult;
+import com.att.research.xacmlatt.pdp.policy.FunctionArgument;
+import com.att.research.xacmlatt.pdp.policy.FunctionArgumentAttributeValue;
+import com.att.research.xacmlatt.pdp.policy.Match;
+import com.att.research.xacmlatt.pdp.policy.MatchPredicate;
+import com.att.research.xacmlatt.pdp.policy.expressions.AttributeDesignator;
+import com.att.research.xacmlatt.pdp.std.StdEvaluationContext;
+import com.att.research.xacmlatt.pdp.std.StdFunctions;
+
+/**
+ * MatchBenchmark compares the two ways a string-equal {@link com.att.research.xacmlatt.pdp.policy.Match} can compare its
+ * literal to a value: through <code>FunctionDefinition.evaluate</code> and through the
+ * {@link com.att.research.xacmlatt.pdp.policy.MatchPredicate} of the function.  It also measures the whole
+ * <code>Match</code> against a request with three values for its designator.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchBenchmark {
+	private static final String REQUEST	= "{\"Request\":{\"Resource\":{\"Attribute\":["
+			+ "{\"AttributeId\":\"" + BenchmarkSupport.ID_RESOURCE + "\",\"Value\":[\"write\",\"read\",\"delete\"]}]}}}";
+
+	private EvaluationContext evaluationContext;
+	private Match match;
+	private FunctionArgument functionArgumentLiteral;
+	private AttributeValue<?> attributeValue;
+	private MatchPredicate matchPredicate;
+
+	@Setup
+	public void setUp() throws Exception {
+		AttributeDesignator attributeDesignator	= new AttributeDesignator();
+		attributeDesignator.setCategory(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE);
+		attributeDesignator.setAttributeId(XACML3.ID_RESOURCE_RESOURCE_ID);
+		attributeDesignator.setDataTypeId(XACML3.ID_DATATYPE_STRING);
+		attributeDesignator.setMustBePresent(false);
+
+		this.evaluationContext			= new StdEvaluationContext(JSONRequest.load(REQUEST), null, null);
+		this.match						= new Match(XACML3.ID_FUNCTION_STRING_EQUAL, DataTypes.DT_STRING.createAttributeValue("delete"), attributeDesignator, null);
+		this.functionArgumentLiteral	= new FunctionArgumentAttributeValue(this.match.getAttributeValue());
+		this.attributeValue				= DataTypes.DT_STRING.createAttributeValue("delete");
+		this.matchPredicate				= StdFunctions.FD_STRING_EQUAL.getMatchPredicate(this.match.getAttributeValue());
+		if (this.match.match(this.evaluationContext).getMatchCode() != MatchResult.MatchCode.MATCH || this.matchPredicate.match(this.attributeValue) != Boolean.TRUE) {
+			throw new IllegalStateException("string-equal did not match");
+		}
+	}
+
+	@Benchmark
+	public ExpressionResult evaluate() {
+		return StdFunctions.FD_STRING_EQUAL.evaluate(this.evaluationContext, Arrays.asList(this.functionArgumentLiteral, new FunctionArgumentAttributeValue(this.attributeValue)));
+	}
+
+	@Benchmark
+	public Boolean matchPredicate() {
+		return this.matchPredicate.match(this.attributeValue);
+	}
+
+	@Benchmark
+	public MatchResult matchDesignator() throws Exception {
+		return this.match.match(this.evaluationContext);
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.bench;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.att.research.xacml.api.Identifier;
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.api.pip.PIPEngine;
+import com.att.research.xacml.api.pip.PIPException;
+import com.att.research.xacml.api.pip.PIPFinder;
+import com.att.research.xacml.api.pip.PIPRequest;
+import com.att.research.xacml.api.pip.PIPResponse;
+import com.att.research.xacml.std.IdentifierImpl;
+import com.att.research.xacml.std.StdAttribute;
+import com.att.research.xacml.std.datatypes.DataTypes;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacml.std.pip.StdPIPRequest;
+import com.att.research.xacml.std.pip.StdPIPResponse;
+import com.att.research.xacml.std.pip.engines.RequestEngine;
+import com.att.research.xacml.std.pip.finders.CachingFinder;
+import com.att.research.xacml.std.pip.finders.EngineFinder;
+import com.att.research.xacml.std.pip.finders.RequestFinder;
+
+/**
+ * PIPFinderBenchmark measures getting attributes through the standard {@link com.att.research.xacml.api.pip.PIPFinder} chains
+ * from a number of in-memory engines, each of which provides one attribute.  The attribute asked for comes from the last
+ * engine registered, or from the request itself for the <code>RequestFinder</code>.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PIPFinderBenchmark {
+	@Param({"1", "10", "50"})
+	public int engines;
+
+	private EngineFinder engineFinder;
+	private CachingFinder cachingFinder;
+	private RequestFinder requestFinder;
+	private PIPRequest pipRequestEngine;
+	private PIPRequest pipRequestRequest;
+
+	/*
+	 * An engine that always returns the same value for the one attribute it provides
+	 */
+	private static class ConstantEngine implements PIPEngine {
+		private final String name;
+		private final PIPRequest pipRequestProvided;
+		private final PIPResponse pipResponse;
+
+		ConstantEngine(String nameIn, Identifier attributeId) throws Exception {
+			this.name				= nameIn;
+			this.pipRequestProvided	= new StdPIPRequest(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, attributeId, XACML3.ID_DATATYPE_STRING);
+			this.pipResponse		= new StdPIPResponse(new StdAttribute(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, attributeId, DataTypes.DT_STRING.createAttributeValue(nameIn)));
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public String getDescription() {
+			return "Constant value for " + this.pipRequestProvided.getAttributeId();
+		}
+
+		@Override
+		public Collection<PIPRequest> attributesRequired() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public Collection<PIPRequest> attributesProvided() {
+			return Collections.singletonList(this.pipRequestProvided);
+		}
+
+		@Override
+		public PIPResponse getAttributes(PIPRequest pipRequest, PIPFinder pipFinder) throws PIPException {
+			return (this.pipRequestProvided.equals(pipRequest) ? this.pipResponse : StdPIPResponse.PIP_RESPONSE_EMPTY);
+		}
+	}
+
+	@Setup
+	public void setUp() throws Exception {
+		this.engineFinder	= new EngineFinder();
+		Identifier attributeId	= null;
+		for (int i = 0 ; i < this.engines ; i++) {
+			attributeId	= new IdentifierImpl("urn:bench:attribute:" + i);
+			this.engineFinder.register(new ConstantEngine("engine-" + i, attributeId));
+		}
+		this.pipRequestEngine	= new StdPIPRequest(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, attributeId, XACML3.ID_DATATYPE_STRING);
+
+		Properties properties	= new Properties();
+		properties.setProperty(CachingFinder.PROP_CACHE, "true");
+		this.cachingFinder	= new CachingFinder(this.engineFinder, properties);
+
+		this.requestFinder		= new RequestFinder(this.engineFinder, new RequestEngine(JSONRequest.load(BenchmarkSupport.generateRequest("bench", "resource", "read"))));
+		this.pipRequestRequest	= new StdPIPRequest(XACML3.ID_ATTRIBUTE_CATEGORY_ACTION, XACML3.ID_ACTION_ACTION_ID, XACML3.ID_DATATYPE_STRING);
+
+		for (PIPResponse pipResponse : new PIPResponse[] { this.engineFinder(), this.cachingFinder(), this.requestFinder() }) {
+			if (pipResponse.getAttributes().size() != 1) {
+				throw new IllegalStateException("Expected one attribute, got " + pipResponse.getAttributes());
+			}
+		}
+	}
+
+	@Benchmark
+	public PIPResponse engineFinder() throws PIPException {
+		return this.engineFinder.getMatchingAttributes(this.pipRequestEngine, null);
+	}
+
+	@Benchmark
+	public PIPResponse cachingFinder() throws PIPException {
+		return this.cachingFinder.getMatchingAttributes(this.pipRequestEngine, null);
+	}
+
+	@Benchmark
+	public PIPResponse requestFinder() throws PIPException {
+		return this.requestFinder.getMatchingAttributes(this.pipRequestRequest, null);
+	}
+}
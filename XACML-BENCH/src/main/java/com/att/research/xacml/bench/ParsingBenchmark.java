@@ -0,0 +1,80 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.api.Response;
+import com.att.research.xacml.std.dom.DOMRequest;
+import com.att.research.xacml.std.dom.DOMResponse;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacml.std.json.JSONResponse;
+
+/**
+ * ParsingBenchmark measures turning conformance test requests from XML and JSON into {@link com.att.research.xacml.api.Request}s
+ * and their expected {@link com.att.research.xacml.api.Response}s back into XML and JSON.  The JSON forms are converted from
+ * the XML ones, so both formats carry the same content.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+	/*
+	 * A small request, one with many attributes and one with multiple decisions
+	 */
+	@Param({"IIA001", "IIC009", "IIIC003"})
+	public String test;
+
+	private String requestXML;
+	private String requestJSON;
+	private Response response;
+
+	@Setup
+	public void setUp() throws Exception {
+		this.requestXML		= BenchmarkSupport.readConformanceFile(this.test + "Request.xml");
+		Request request		= DOMRequest.load(this.requestXML);
+		this.requestJSON	= JSONRequest.toString(request, false);
+		this.response		= DOMResponse.load(BenchmarkSupport.readConformanceFile(this.test + "Response.xml"));
+	}
+
+	@Benchmark
+	public Request parseXMLRequest() throws Exception {
+		return DOMRequest.load(this.requestXML);
+	}
+
+	@Benchmark
+	public Request parseJSONRequest() throws Exception {
+		return JSONRequest.load(this.requestJSON);
+	}
+
+	@Benchmark
+	public String serializeXMLResponse() throws Exception {
+		return DOMResponse.toString(this.response, false);
+	}
+
+	@Benchmark
+	public String serializeJSONResponse() throws Exception {
+		return JSONResponse.toString(this.response, false);
+	}
+}
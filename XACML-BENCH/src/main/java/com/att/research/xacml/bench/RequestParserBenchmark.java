@@ -0,0 +1,109 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.bench;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.std.annotations.RequestParser;
+import com.att.research.xacml.std.annotations.XACMLAction;
+import com.att.research.xacml.std.annotations.XACMLAttribute;
+import com.att.research.xacml.std.annotations.XACMLEnvironment;
+import com.att.research.xacml.std.annotations.XACMLMultiRequest;
+import com.att.research.xacml.std.annotations.XACMLRequest;
+import com.att.research.xacml.std.annotations.XACMLRequestReference;
+import com.att.research.xacml.std.annotations.XACMLResource;
+import com.att.research.xacml.std.annotations.XACMLSubject;
+
+/**
+ * RequestParserBenchmark measures turning instances of classes annotated with
+ * {@link com.att.research.xacml.std.annotations.XACMLRequest} into {@link com.att.research.xacml.api.Request}s with
+ * {@link com.att.research.xacml.std.annotations.RequestParser#parseRequest(Object)}, for a request with attributes of several
+ * data types and for a multiple decision request.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestParserBenchmark {
+	@XACMLRequest(ReturnPolicyIdList = true)
+	public static class SimpleRequest {
+		@XACMLSubject(includeInResults = true)
+		String userID	= "John";
+
+		@XACMLSubject(attributeId = "urn:oasis:names:tc:xacml:1.0:subject:subject-id-qualifier")
+		boolean admin	= false;
+
+		@XACMLSubject(attributeId = "urn:oasis:names:tc:xacml:1.0:subject:request-time", datatype = "http://www.w3.org/2001/XMLSchema#time")
+		String requestTime	= "13:20:00-05:00";
+
+		@XACMLAction()
+		String action	= "access";
+
+		@XACMLAction(attributeId = "urn:oasis:names:tc:xacml:1.0:action:implied-action")
+		long impliedAction	= 7;
+
+		@XACMLResource()
+		String resource	= "www.mywebsite.com";
+
+		@XACMLEnvironment()
+		Date today	= new Date(0);
+
+		@XACMLAttribute(attributeId = "foo:bar:attribute")
+		Collection<Double> fooBar	= Arrays.asList(2.5, 3.5);
+
+		@XACMLAttribute(category = "foo:bar:category", attributeId = "foo:bar:attribute:many")
+		URI[] fooBarMany	= new URI[] {URI.create("file://opt/app/test"), URI.create("https://localhost:8443/")};
+	}
+
+	@XACMLRequest(multiRequest = @XACMLMultiRequest(values = {
+			@XACMLRequestReference(values = {"subject1", "action", "resource"}),
+			@XACMLRequestReference(values = {"subject2", "action", "resource"})}))
+	public static class MultiRequest {
+		@XACMLSubject(id = "subject1")
+		String userID1	= "John";
+
+		@XACMLSubject(id = "subject2")
+		String userID2	= "Ringo";
+
+		@XACMLAction(id = "action")
+		String action	= "access";
+
+		@XACMLResource(id = "resource")
+		String resource	= "www.mywebsite.com";
+	}
+
+	private final SimpleRequest simpleRequest	= new SimpleRequest();
+	private final MultiRequest multiRequest		= new MultiRequest();
+
+	@Benchmark
+	public Request parseSimpleRequest() throws Exception {
+		return RequestParser.parseRequest(this.simpleRequest);
+	}
+
+	@Benchmark
+	public Request parseMultiRequest() throws Exception {
+		return RequestParser.parseRequest(this.multiRequest);
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.bench;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.att.research.xacml.api.Decision;
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.api.Response;
+import com.att.research.xacml.api.pdp.PDPEngine;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacmlatt.pdp.util.ATTPDPProperties;
+
+/**
+ * SyntheticPolicyBenchmark measures decisions against generated policy sets of 10 to 100,000 rules, split into policies of
+ * {@link BenchmarkSupport#RULES_PER_POLICY} rules that each target one resource.  The permitted request matches the last rule
+ * of the last policy, and the not applicable request matches no policy, so both have to look at every policy target.  Each
+ * size is measured with the targets interpreted and compiled by {@link com.att.research.xacmlatt.pdp.util.PolicyCompiler}.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SyntheticPolicyBenchmark {
+	public static final String POLICY_COMBINING	= "urn:oasis:names:tc:xacml:3.0:policy-combining-algorithm:deny-overrides";
+	public static final String RULE_COMBINING	= "urn:oasis:names:tc:xacml:1.0:rule-combining-algorithm:first-applicable";
+
+	@Param({"10", "100", "1000", "10000", "100000"})
+	public int rules;
+
+	@Param({"false", "true"})
+	public boolean compile;
+
+	private PDPEngine pdpEngine;
+	private Request requestPermit;
+	private Request requestNotApplicable;
+
+	@Setup
+	public void setUp() throws Exception {
+		Properties properties	= new Properties();
+		properties.setProperty(ATTPDPProperties.PROP_COMPILEPOLICIES, Boolean.toString(this.compile));
+		this.pdpEngine	= BenchmarkSupport.newEngine(BenchmarkSupport.generatePolicySet(this.rules, POLICY_COMBINING, RULE_COMBINING), properties);
+		int lastPolicy	= BenchmarkSupport.getPolicies(this.rules) - 1;
+		int lastRule	= Math.min(this.rules, BenchmarkSupport.RULES_PER_POLICY) - 1;
+		this.requestPermit			= JSONRequest.load(BenchmarkSupport.generateRequest("bench", BenchmarkSupport.getResource(lastPolicy), BenchmarkSupport.getAction(lastRule)));
+		this.requestNotApplicable	= JSONRequest.load(BenchmarkSupport.generateRequest("bench", "unknown", BenchmarkSupport.getAction(lastRule)));
+		check(this.pdpEngine.decide(this.requestPermit), Decision.PERMIT);
+		check(this.pdpEngine.decide(this.requestNotApplicable), Decision.NOTAPPLICABLE);
+	}
+
+	private void check(Response response, Decision decisionExpected) {
+		Decision decision	= response.getResults().iterator().next().getDecision();
+		if (decision != decisionExpected) {
+			throw new IllegalStateException(this.rules + " rules decided " + decision + " instead of " + decisionExpected);
+		}
+	}
+
+	@Benchmark
+	public Response decidePermit() throws Exception {
+		return this.pdpEngine.decide(this.requestPermit);
+	}
+
+	@Benchmark
+	public Response decideNotApplicable() throws Exception {
+		return this.pdpEngine.decide(this.requestNotApplicable);
+	}
+}
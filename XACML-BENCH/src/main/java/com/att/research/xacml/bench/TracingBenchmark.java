@@ -0,0 +1,92 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.api.Response;
+import com.att.research.xacml.api.pdp.PDPEngine;
+import com.att.research.xacml.std.trace.LoggingTraceEngineFactory;
+import com.att.research.xacml.std.trace.NullTraceEngineFactory;
+import com.att.research.xacml.util.XACMLProperties;
+import com.att.research.xacmlatt.pdp.trace.ProfilingTraceEngine;
+import com.att.research.xacmlatt.pdp.trace.ProfilingTraceEngineFactory;
+
+/**
+ * TracingBenchmark runs the {@link DecideBenchmark} decisions with tracing off and on, so the cost of tracing that is
+ * turned off can be compared with no tracing at all:
+ * <ul>
+ * <li><code>off</code> - the default {@link com.att.research.xacml.std.trace.NullTraceEngine}</li>
+ * <li><code>logging</code> - a {@link com.att.research.xacml.std.trace.LoggingTraceEngine} whose logger is below debug, so it
+ * is installed but does not trace</li>
+ * <li><code>on</code> - a {@link ProfilingTraceEngine} that traces every request</li>
+ * </ul>
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TracingBenchmark {
+	@Param({"IIA001", "IIC001", "IIIE303"})
+	public String test;
+
+	@Param({"off", "logging", "on"})
+	public String tracing;
+
+	private PDPEngine pdpEngine;
+	private Request request;
+
+	private String getTraceEngineFactory() {
+		switch (this.tracing) {
+		case "off":
+			return NullTraceEngineFactory.class.getName();
+		case "logging":
+			return LoggingTraceEngineFactory.class.getName();
+		case "on":
+			return ProfilingTraceEngineFactory.class.getName();
+		default:
+			throw new IllegalArgumentException("Unknown tracing " + this.tracing);
+		}
+	}
+
+	@Setup
+	public void setUp() throws Exception {
+		//
+		// The engine gets its TraceEngine when it makes its first decision, which loadRequest does
+		//
+		System.setProperty(XACMLProperties.PROP_TRACEENGINEFACTORY, this.getTraceEngineFactory());
+		System.setProperty(ProfilingTraceEngine.PROP_SAMPLE_RATE, "1");
+		try {
+			this.pdpEngine	= BenchmarkSupport.newEngine(BenchmarkSupport.getConformanceDirectory().resolve(this.test + "Policy.xml"));
+			this.request	= DecideBenchmark.loadRequest(this.pdpEngine, this.test);
+		} finally {
+			System.clearProperty(XACMLProperties.PROP_TRACEENGINEFACTORY);
+			System.clearProperty(ProfilingTraceEngine.PROP_SAMPLE_RATE);
+		}
+	}
+
+	@Benchmark
+	public Response decide() throws Exception {
+		return this.pdpEngine.decide(this.request);
+	}
+}
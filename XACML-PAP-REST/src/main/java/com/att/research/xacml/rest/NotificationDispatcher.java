@@ -0,0 +1,302 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.rest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * NotificationDispatcher delivers the PAP's notifications (configuration updates to PDPs and change notices to Admin Consoles)
+ * from a fixed pool of threads.
+ *
+ * Notifications are coalesced by key: only the current state of a PDP or Admin Console matters, so a notification that is
+ * submitted while another one for the same key is still waiting replaces it, and one submitted while another is being
+ * delivered is sent once that delivery finishes.  The queue therefore never holds more than one notification per key.
+ *
+ * A delivery that throws is retried after <code>backoff</code>, <code>2 * backoff</code>, <code>4 * backoff</code>, ... milliseconds
+ * up to <code>retries</code> times, after which the notification is abandoned.  A notification submitted while an earlier one
+ * for the same key is waiting to be retried replaces it and is sent straight away, with its own retries.
+ *
+ * @version $Revision$
+ */
+public class NotificationDispatcher {
+	private static final Log logger	= LogFactory.getLog(NotificationDispatcher.class);
+
+	/**
+	 * Notification is a single message to deliver.
+	 */
+	public interface Notification {
+		/**
+		 * Delivers the notification.
+		 *
+		 * @throws Exception if the delivery failed and should be retried
+		 */
+		public void deliver() throws Exception;
+
+		/**
+		 * Called when the delivery has failed on every retry.
+		 *
+		 * @param lastFailure the <code>Exception</code> thrown by the last attempt
+		 */
+		public default void abandoned(Exception lastFailure) {
+		}
+	}
+
+	/*
+	 * The state kept for each key with a notification waiting or being delivered.
+	 */
+	private class Entry implements Runnable {
+		private final String key;
+		private Notification notification;
+		private long submittedNanos;
+		private int attempts;
+		private boolean running;
+		private boolean resubmitted;
+		private ScheduledFuture<?> retry;
+
+		public Entry(String keyIn, Notification notificationIn) {
+			this.key			= keyIn;
+			this.notification	= notificationIn;
+			this.submittedNanos	= System.nanoTime();
+		}
+
+		@Override
+		public void run() {
+			Notification notificationToDeliver;
+			long notificationSubmittedNanos;
+			synchronized(mapEntries) {
+				this.running				= true;
+				this.resubmitted			= false;
+				this.retry					= null;
+				this.attempts++;
+				notificationToDeliver		= this.notification;
+				notificationSubmittedNanos	= this.submittedNanos;
+			}
+			inFlight.incrementAndGet();
+			Exception failure	= null;
+			try {
+				notificationToDeliver.deliver();
+			} catch (Exception e) {
+				failure	= e;
+			} finally {
+				inFlight.decrementAndGet();
+			}
+			finished(this, notificationToDeliver, notificationSubmittedNanos, failure);
+		}
+	}
+
+	private final int retries;
+	private final long backoff;
+	private final ScheduledThreadPoolExecutor executor;
+	private final Map<String, Entry> mapEntries	= new HashMap<String, Entry>();
+
+	private final AtomicLong inFlight			= new AtomicLong();
+	private final AtomicLong submitted			= new AtomicLong();
+	private final AtomicLong coalesced			= new AtomicLong();
+	private final AtomicLong delivered			= new AtomicLong();
+	private final AtomicLong retried			= new AtomicLong();
+	private final AtomicLong abandoned			= new AtomicLong();
+	private final AtomicLong totalLatencyNanos	= new AtomicLong();
+	private final AtomicLong maxLatencyNanos	= new AtomicLong();
+
+	public NotificationDispatcher(String name, int threads, int retriesIn, long backoffIn) {
+		this.retries	= Math.max(0, retriesIn);
+		this.backoff	= Math.max(1, backoffIn);
+		this.executor	= new ScheduledThreadPoolExecutor(Math.max(1, threads), new ThreadFactoryBuilder().setDaemon(true).setNameFormat(name + "-%d").build());
+		this.executor.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Queues the given <code>Notification</code> for delivery, replacing any notification for the same key that has not
+	 * been started yet.
+	 *
+	 * @param key identifies the receiver of the notification
+	 * @param notification the <code>Notification</code> to deliver
+	 */
+	public void submit(String key, Notification notification) {
+		this.submitted.incrementAndGet();
+		synchronized(this.mapEntries) {
+			Entry entry	= this.mapEntries.get(key);
+			if (entry != null) {
+				//
+				// Only the latest state matters, so the waiting notification is replaced.  If it is already being delivered
+				// it will be sent again when it finishes.
+				//
+				this.coalesced.incrementAndGet();
+				entry.notification		= notification;
+				entry.submittedNanos	= System.nanoTime();
+				if (entry.running) {
+					entry.resubmitted	= true;
+				} else {
+					entry.attempts	= 0;
+					//
+					// A new notification does not have to wait out the backoff of the one it replaces.  If the retry has
+					// already started it is waiting on the lock and will deliver the new notification.
+					//
+					if (entry.retry != null && entry.retry.cancel(false)) {
+						this.schedule(entry, 0);
+					}
+				}
+				return;
+			}
+			entry	= new Entry(key, notification);
+			this.mapEntries.put(key, entry);
+			this.schedule(entry, 0);
+		}
+	}
+
+	private void schedule(Entry entry, long delayMillis) {
+		if (this.executor.isShutdown()) {
+			this.mapEntries.remove(entry.key);
+			return;
+		}
+		if (delayMillis == 0) {
+			entry.retry	= null;
+			this.executor.execute(entry);
+		} else {
+			entry.retry	= this.executor.schedule(entry, delayMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void finished(Entry entry, Notification notificationDelivered, long notificationSubmittedNanos, Exception failure) {
+		Notification notificationAbandoned	= null;
+		synchronized(this.mapEntries) {
+			entry.running	= false;
+			if (entry.resubmitted) {
+				//
+				// A newer notification came in while this one was being delivered, send it whatever happened to this one
+				//
+				entry.attempts	= 0;
+				this.schedule(entry, 0);
+			} else if (failure == null) {
+				this.mapEntries.remove(entry.key);
+			} else if (entry.attempts <= this.retries) {
+				long delay	= this.backoff << Math.min(entry.attempts - 1, 20);
+				if (logger.isDebugEnabled()) {
+					logger.debug("Notification " + entry.key + " failed, retrying in " + delay + "ms: " + failure);
+				}
+				this.retried.incrementAndGet();
+				this.schedule(entry, delay);
+			} else {
+				this.mapEntries.remove(entry.key);
+				notificationAbandoned	= notificationDelivered;
+			}
+		}
+		if (failure == null) {
+			long latency	= System.nanoTime() - notificationSubmittedNanos;
+			this.delivered.incrementAndGet();
+			this.totalLatencyNanos.addAndGet(latency);
+			this.maxLatencyNanos.accumulateAndGet(latency, Math::max);
+		} else if (notificationAbandoned != null) {
+			logger.warn("Notification " + entry.key + " abandoned after " + entry.attempts + " attempts: " + failure);
+			this.abandoned.incrementAndGet();
+			try {
+				notificationAbandoned.abandoned(failure);
+			} catch (Exception e) {
+				logger.error("Notification " + entry.key + " failed handling abandonment: " + e, e);
+			}
+		}
+	}
+
+	/**
+	 * Stops delivering notifications.  Notifications that are waiting are dropped.
+	 */
+	public void shutdown() {
+		this.executor.shutdownNow();
+		synchronized(this.mapEntries) {
+			this.mapEntries.clear();
+		}
+	}
+
+	/**
+	 * Waits for the notifications that are currently queued, and any they lead to, to be delivered or abandoned.
+	 *
+	 * @param timeout the longest time to wait in milliseconds
+	 * @return true if there is nothing left to deliver
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public boolean awaitIdle(long timeout) throws InterruptedException {
+		long deadline	= System.currentTimeMillis() + timeout;
+		while (this.getQueueDepth() > 0) {
+			if (System.currentTimeMillis() >= deadline) {
+				return false;
+			}
+			Thread.sleep(10);
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the number of keys with a notification waiting to be delivered or being delivered.
+	 *
+	 * @return the queue depth
+	 */
+	public int getQueueDepth() {
+		synchronized(this.mapEntries) {
+			return this.mapEntries.size();
+		}
+	}
+
+	public long getInFlight() {
+		return this.inFlight.get();
+	}
+
+	public long getSubmitted() {
+		return this.submitted.get();
+	}
+
+	public long getCoalesced() {
+		return this.coalesced.get();
+	}
+
+	public long getDelivered() {
+		return this.delivered.get();
+	}
+
+	public long getRetried() {
+		return this.retried.get();
+	}
+
+	public long getAbandoned() {
+		return this.abandoned.get();
+	}
+
+	/**
+	 * Gets the average time from a notification being submitted to it being delivered.
+	 *
+	 * @return the average delivery latency in milliseconds
+	 */
+	public long getAverageLatencyMillis() {
+		long count	= this.delivered.get();
+		return (count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(this.totalLatencyNanos.get() / count));
+	}
+
+	public long getMaxLatencyMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(this.maxLatencyNanos.get());
+	}
+
+	@Override
+	public String toString() {
+		return "{queueDepth=" + this.getQueueDepth() +
+				",inFlight=" + this.getInFlight() +
+				",submitted=" + this.getSubmitted() +
+				",coalesced=" + this.getCoalesced() +
+				",delivered=" + this.getDelivered() +
+				",retried=" + this.getRetried() +
+				",abandoned=" + this.getAbandoned() +
+				",averageLatencyMillis=" + this.getAverageLatencyMillis() +
+				",maxLatencyMillis=" + this.getMaxLatencyMillis() + "}";
+	}
+}
@@ -0,0 +1,502 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.att.research.xacml.api.pap.PAPEngine;
+import com.att.research.xacml.api.pap.PAPException;
+import com.att.research.xacml.api.pap.PDP;
+import com.att.research.xacml.api.pap.PDPStatus;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Heartbeat with all known PDPs.
+ *
+ * Implementation note:
+ *
+ * Each sweep sends the heartbeat requests to the PDPs in parallel from a fixed pool of <code>maxInFlight</code> threads, so at most
+ * that many requests (and connections) are outstanding at once and one unresponsive PDP only holds up its own thread until it times
+ * out.  The response body is drained rather than the connection disconnected so <code>HttpURLConnection</code> can keep the
+ * connection alive for the next sweep.
+ *
+ * A PDP that fails is skipped for an exponentially increasing number of sweeps, up to <code>maxBackoff</code> milliseconds, so
+ * PDPs that are down do not use up threads that the healthy PDPs need to keep their cadence.  A sweep waits for the heartbeats
+ * until a single deadline, <code>heartbeatTimeout</code> milliseconds after it started, rather than for each one in turn.  A
+ * heartbeat that is still running then finishes on its own and its PDP is left out of the sweeps until it has.
+ *
+ * The heartbeat threads only record what the PDPs answered.  The sweep thread hands the new statuses to the <code>Listener</code>
+ * one at a time once it has stopped waiting, so the engine's PDPs and groups are never updated concurrently.
+ *
+ * @author glenngriffin
+ *
+ */
+public class PAPHeartbeat implements Runnable {
+	private static final Log logger	= LogFactory.getLog(PAPHeartbeat.class);
+
+	/**
+	 * Listener is told about changes to the PDPs' status.
+	 */
+	public interface Listener {
+		/**
+		 * Called from the sweep thread, one PDP at a time, when a PDP reported a different status than it had.
+		 *
+		 * @param pdp the <code>PDP</code>
+		 * @param newStatus the new <code>PDPStatus.Status</code> name
+		 * @throws PAPException if the status could not be set
+		 */
+		public void setPDPStatus(PDP pdp, String newStatus) throws PAPException;
+
+		/**
+		 * Called after a sweep in which at least one PDP changed status.
+		 */
+		public void pdpStatusesChanged();
+	}
+
+	/**
+	 * PDPStatistics is a snapshot of the heartbeat history of a single PDP.
+	 */
+	public static class PDPStatistics {
+		private final String id;
+		private final long heartbeats;
+		private final long lastLatencyMillis;
+		private final long averageLatencyMillis;
+		private final int consecutiveFailures;
+		private final int sweepsToSkip;
+
+		public PDPStatistics(String idIn, long heartbeatsIn, long lastLatencyMillisIn, long averageLatencyMillisIn, int consecutiveFailuresIn, int sweepsToSkipIn) {
+			this.id						= idIn;
+			this.heartbeats				= heartbeatsIn;
+			this.lastLatencyMillis		= lastLatencyMillisIn;
+			this.averageLatencyMillis	= averageLatencyMillisIn;
+			this.consecutiveFailures	= consecutiveFailuresIn;
+			this.sweepsToSkip			= sweepsToSkipIn;
+		}
+
+		public String getId() {
+			return this.id;
+		}
+
+		public long getHeartbeats() {
+			return this.heartbeats;
+		}
+
+		public long getLastLatencyMillis() {
+			return this.lastLatencyMillis;
+		}
+
+		public long getAverageLatencyMillis() {
+			return this.averageLatencyMillis;
+		}
+
+		public int getConsecutiveFailures() {
+			return this.consecutiveFailures;
+		}
+
+		public int getSweepsToSkip() {
+			return this.sweepsToSkip;
+		}
+
+		@Override
+		public String toString() {
+			return "{id=" + this.id +
+					",heartbeats=" + this.heartbeats +
+					",lastLatencyMillis=" + this.lastLatencyMillis +
+					",averageLatencyMillis=" + this.averageLatencyMillis +
+					",consecutiveFailures=" + this.consecutiveFailures +
+					",sweepsToSkip=" + this.sweepsToSkip + "}";
+		}
+	}
+
+	/*
+	 * What we remember about each PDP between sweeps.  Only the heartbeat thread for the PDP updates it while it is in flight.
+	 */
+	private static class PDPState {
+		private final URL url;
+		private volatile long heartbeats;
+		private volatile long lastLatencyNanos;
+		private volatile long totalLatencyNanos;
+		private volatile int consecutiveFailures;
+		private volatile int sweepsToSkip;
+		private volatile boolean inFlight;
+		private volatile String newStatus;
+
+		public PDPState(URL urlIn) {
+			this.url	= urlIn;
+		}
+	}
+
+	private final PAPEngine papEngine;
+	private final Listener listener;
+	private final int heartbeatInterval;
+	private final int heartbeatTimeout;
+	private final int maxInFlight;
+	private final int maxBackoff;
+	private final Map<String, PDPState> mapPDPStates	= new ConcurrentHashMap<String, PDPState>();
+	private ExecutorService executorService;
+
+	private volatile boolean isRunning = false;
+	private volatile long sweeps;
+	private volatile long lastSweepMillis;
+	private volatile long maxSweepMillis;
+
+	public PAPHeartbeat(PAPEngine engine, Listener listenerIn, int heartbeatIntervalIn, int heartbeatTimeoutIn, int maxInFlightIn, int maxBackoffIn) {
+		this.papEngine			= engine;
+		this.listener			= listenerIn;
+		this.heartbeatInterval	= heartbeatIntervalIn;
+		this.heartbeatTimeout	= heartbeatTimeoutIn;
+		this.maxInFlight		= Math.max(1, maxInFlightIn);
+		this.maxBackoff			= Math.max(heartbeatIntervalIn, maxBackoffIn);
+	}
+
+	public boolean isRunning() {
+		return this.isRunning;
+	}
+
+	public void terminate() {
+		this.isRunning = false;
+	}
+
+	protected synchronized ExecutorService getExecutorService() {
+		if (this.executorService == null) {
+			this.executorService	= Executors.newFixedThreadPool(this.maxInFlight, new ThreadFactoryBuilder().setDaemon(true).setNameFormat("xacml-pap-heartbeat-%d").build());
+		}
+		return this.executorService;
+	}
+
+	/**
+	 * Stops the heartbeat threads.  A later sweep starts new ones.
+	 */
+	public synchronized void shutdown() {
+		if (this.executorService != null) {
+			this.executorService.shutdownNow();
+			this.executorService	= null;
+		}
+	}
+
+	@Override
+	public void run() {
+		//
+		// Set ourselves as running
+		//
+		this.isRunning = true;
+		try {
+			while (this.isRunning()) {
+				//
+				// Wait out the rest of the interval so that sweeps start heartbeatInterval apart
+				//
+				Thread.sleep(Math.max(0, this.heartbeatInterval - this.lastSweepMillis));
+				//
+				// Check for shutdown
+				//
+				if (this.isRunning() == false) {
+					logger.info("isRunning is false, getting out of loop.");
+					break;
+				}
+				this.sweep();
+			}
+		} catch (InterruptedException e) {
+			logger.error("Heartbeat interrupted.  Shutting down");
+			this.terminate();
+		} finally {
+			this.shutdown();
+		}
+	}
+
+	/**
+	 * Sends a heartbeat to every PDP that is not being backed off or still answering an earlier sweep, waits for them until
+	 * <code>heartbeatTimeout</code> milliseconds after the sweep started and tells the <code>Listener</code> about each of them
+	 * that changed status.
+	 *
+	 * @throws InterruptedException if the thread is interrupted while waiting for the heartbeats
+	 */
+	public void sweep() throws InterruptedException {
+		long startNanos	= System.nanoTime();
+		//
+		// get the list of PDPs (may have changed since last time)
+		//
+		// (the engine decides whether it has to be locked to read them)
+		//
+		Set<PDP> pdps	= new HashSet<PDP>();
+		try {
+			pdps	= papEngine.getPDPs();
+		} catch (PAPException e) {
+			logger.error("Heartbeat unable to read PDPs from PAPEngine: " + e.getMessage(), e);
+		}
+		Set<String> pdpIds	= new HashSet<String>();
+		for (PDP pdp : pdps) {
+			pdpIds.add(pdp.getId());
+		}
+		this.mapPDPStates.keySet().retainAll(pdpIds);
+		//
+		// Start a heartbeat for each PDP that is due one
+		//
+		List<Future<?>> futures			= new ArrayList<Future<?>>();
+		ExecutorService executor		= this.getExecutorService();
+		for (PDP pdp : pdps) {
+			PDPState pdpState	= this.getPDPState(pdp);
+			if (pdpState == null) {
+				continue;
+			}
+			if (pdpState.inFlight) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Heartbeat '" + pdp.getId() + "' still waiting on the last sweep");
+				}
+				continue;
+			}
+			if (pdpState.sweepsToSkip > 0) {
+				pdpState.sweepsToSkip--;
+				continue;
+			}
+			pdpState.inFlight	= true;
+			futures.add(executor.submit(() -> this.heartbeat(pdp, pdpState)));
+		}
+		//
+		// Wait for them until the sweep's deadline, whatever has not answered by then is picked up by a later sweep
+		//
+		long deadlineNanos	= startNanos + TimeUnit.MILLISECONDS.toNanos(this.heartbeatTimeout);
+		int late			= 0;
+		for (Future<?> future : futures) {
+			try {
+				future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+			} catch (TimeoutException e) {
+				late++;
+			} catch (ExecutionException e) {
+				logger.error("Heartbeat failed: " + e.getCause(), e.getCause());
+			}
+		}
+		if (late > 0) {
+			logger.warn("Heartbeat sweep deadline passed with " + late + " of " + futures.size() + " PDPs still outstanding");
+		}
+		//
+		// Apply the new statuses one at a time, including any from heartbeats that missed an earlier sweep's deadline
+		//
+		boolean changeSeen	= false;
+		for (PDP pdp : pdps) {
+			PDPState pdpState	= this.mapPDPStates.get(pdp.getId());
+			if (pdpState == null || pdpState.inFlight || pdpState.newStatus == null) {
+				continue;
+			}
+			String newStatus	= pdpState.newStatus;
+			pdpState.newStatus	= null;
+			try {
+				this.listener.setPDPStatus(pdp, newStatus);
+			} catch (PAPException e) {
+				logger.error("Unable to set state for PDP '" + pdp.getId() + "': " + e, e);
+			}
+			changeSeen	= true;
+		}
+		long elapsedMillis		= TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+		this.lastSweepMillis	= elapsedMillis;
+		this.maxSweepMillis		= Math.max(this.maxSweepMillis, elapsedMillis);
+		this.sweeps++;
+		if (logger.isDebugEnabled()) {
+			logger.debug("Heartbeat sweep of " + futures.size() + " PDPs took " + elapsedMillis + "ms");
+		}
+		//
+		// if any of the PDPs changed state, tell the listener
+		//
+		if (changeSeen) {
+			this.listener.pdpStatusesChanged();
+		}
+	}
+
+	private PDPState getPDPState(PDP pdp) {
+		PDPState pdpState	= this.mapPDPStates.get(pdp.getId());
+		if (pdpState == null) {
+			// haven't seen this PDP before
+			// the id of the PDP is its url (though we add a query parameter)
+			String fullURLString = null;
+			try {
+				fullURLString = pdp.getId() + "?type=hb";
+				pdpState	= new PDPState(new URL(fullURLString));
+				this.mapPDPStates.put(pdp.getId(), pdpState);
+			} catch (MalformedURLException e) {
+				logger.error("PDP id '" + fullURLString + "' is not a valid URL: " + e, e);
+				return null;
+			}
+		}
+		return pdpState;
+	}
+
+	/**
+	 * Does a GET with type HeartBeat for the given PDP and then lets later sweeps send it another.
+	 */
+	private void heartbeat(PDP pdp, PDPState pdpState) {
+		try {
+			this.heartbeatInFlight(pdp, pdpState);
+		} finally {
+			pdpState.inFlight	= false;
+		}
+	}
+
+	private void heartbeatInFlight(PDP pdp, PDPState pdpState) {
+		long startNanos		= System.nanoTime();
+		String newStatus	= "";
+		boolean succeeded	= false;
+
+		HttpURLConnection connection = null;
+		try {
+			//
+			// Open up the connection
+			//
+			connection = (HttpURLConnection)pdpState.url.openConnection();
+			//
+			// Setup our method and headers
+			//
+			connection.setRequestMethod("GET");
+			connection.setConnectTimeout(heartbeatTimeout);
+			connection.setReadTimeout(heartbeatTimeout);
+			//
+			// Do the connect
+			//
+			connection.connect();
+			if (connection.getResponseCode() == 204) {
+				newStatus = connection.getHeaderField(XACMLRestProperties.PROP_PDP_HTTP_HEADER_HB);
+				if (newStatus == null) {
+					newStatus = PDPStatus.Status.UNKNOWN.toString();
+				}
+				succeeded = true;
+				if (logger.isDebugEnabled()) {
+					logger.debug("Heartbeat '" + pdp.getId() + "' status='" + newStatus + "'");
+				}
+			} else {
+				// anything else is an unexpected result
+				newStatus = PDPStatus.Status.UNKNOWN.toString();
+				logger.error("Heartbeat connect response code " + connection.getResponseCode() + ": " + pdp.getId());
+			}
+			//
+			// Read what is left so the connection can be reused
+			//
+			drain(connection);
+			connection = null;
+		} catch (UnknownHostException e) {
+			newStatus = PDPStatus.Status.NO_SUCH_HOST.toString();
+			logger.error("Heartbeat '" + pdp.getId() + "' NO_SUCH_HOST");
+		} catch (SocketTimeoutException e) {
+			newStatus = PDPStatus.Status.CANNOT_CONNECT.toString();
+			logger.error("Heartbeat '" + pdp.getId() + "' connection timeout: " + e );
+		} catch (ConnectException e) {
+			newStatus = PDPStatus.Status.CANNOT_CONNECT.toString();
+			logger.error("Heartbeat '" + pdp.getId() + "' cannot connect: " + e );
+		} catch (Exception e) {
+			newStatus = PDPStatus.Status.UNKNOWN.toString();
+			logger.error("Heartbeat '" + pdp.getId() + "' connect exception: " + e, e);
+		} finally {
+			// an unfinished connection cannot be reused
+			if (connection != null) {
+				connection.disconnect();
+			}
+		}
+		//
+		// Keep track of the latency and back off a failing PDP
+		//
+		long latencyNanos				= System.nanoTime() - startNanos;
+		pdpState.heartbeats++;
+		pdpState.lastLatencyNanos		= latencyNanos;
+		pdpState.totalLatencyNanos		+= latencyNanos;
+		if (succeeded) {
+			pdpState.consecutiveFailures	= 0;
+			pdpState.sweepsToSkip			= 0;
+		} else {
+			pdpState.consecutiveFailures++;
+			pdpState.sweepsToSkip			= this.getSweepsToSkip(pdpState.consecutiveFailures);
+		}
+
+		if ( ! pdp.getStatus().getStatus().toString().equals(newStatus)) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("previous status='" + pdp.getStatus().getStatus()+"'  new Status='" + newStatus + "'");
+			}
+			pdpState.newStatus	= newStatus;
+		}
+	}
+
+	/**
+	 * Gets the number of sweeps to skip after the given number of consecutive failures: 0, 1, 3, 7, ... so the time between
+	 * heartbeats doubles, up to <code>maxBackoff</code>.
+	 *
+	 * @param consecutiveFailures the number of failures in a row, at least 1
+	 * @return the number of sweeps to skip
+	 */
+	protected int getSweepsToSkip(int consecutiveFailures) {
+		int maxSkip	= Math.max(0, (this.maxBackoff / Math.max(1, this.heartbeatInterval)) - 1);
+		long skip	= (1L << Math.min(consecutiveFailures - 1, 30)) - 1;
+		return (int)Math.min(skip, maxSkip);
+	}
+
+	private static void drain(HttpURLConnection connection) throws IOException {
+		InputStream is	= null;
+		try {
+			is	= connection.getInputStream();
+		} catch (IOException e) {
+			is	= connection.getErrorStream();
+		}
+		if (is != null) {
+			try {
+				byte[] buffer	= new byte[1024];
+				while (is.read(buffer) >= 0) {
+					// discard
+				}
+			} finally {
+				is.close();
+			}
+		}
+	}
+
+	public long getSweeps() {
+		return this.sweeps;
+	}
+
+	public long getLastSweepMillis() {
+		return this.lastSweepMillis;
+	}
+
+	public long getMaxSweepMillis() {
+		return this.maxSweepMillis;
+	}
+
+	/**
+	 * Gets a snapshot of the heartbeat statistics for each PDP that is currently known.
+	 *
+	 * @return a <code>List</code> of <code>PDPStatistics</code>
+	 */
+	public List<PDPStatistics> getPDPStatistics() {
+		List<PDPStatistics> statistics	= new ArrayList<PDPStatistics>();
+		for (Map.Entry<String, PDPState> entry : this.mapPDPStates.entrySet()) {
+			PDPState pdpState	= entry.getValue();
+			long heartbeats		= pdpState.heartbeats;
+			statistics.add(new PDPStatistics(entry.getKey(),
+											 heartbeats,
+											 TimeUnit.NANOSECONDS.toMillis(pdpState.lastLatencyNanos),
+											 (heartbeats == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(pdpState.totalLatencyNanos / heartbeats)),
+											 pdpState.consecutiveFailures,
+											 pdpState.sweepsToSkip));
+		}
+		return statistics;
+	}
+}
@@ -9,17 +9,10 @@ package com.att.research.xacml.rest;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.ConnectException;
 import java.net.HttpURLConnection;
-import java.net.MalformedURLException;
-import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.net.URLDecoder;
-import java.net.UnknownHostException;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -47,6 +40,7 @@ import com.att.research.xacml.api.pap.PDPStatus;
 import com.att.research.xacml.std.pap.StdPDP;
 import com.att.research.xacml.std.pap.StdPDPGroup;
 import com.att.research.xacml.std.pap.StdPDPItemSetChangeNotifier.StdItemSetChangeListener;
+import com.att.research.xacml.std.pap.StdPDPPolicy;
 import com.att.research.xacml.std.pap.StdPDPStatus;
 import com.att.research.xacml.util.FactoryException;
 import com.att.research.xacml.util.XACMLProperties;
@@ -102,9 +96,14 @@ public class XACMLPapServlet extends HttpServlet implements StdItemSetChangeList
 	/*
 	// The heartbeat thread.
 	*/
-	private static Heartbeat heartbeat = null;
+	private static PAPHeartbeat heartbeat = null;
 	private static Thread heartbeatThread = null;
 	
+	/*
+	 * Sends the configuration updates to the PDPs and the change notifications to the ACs.
+	 */
+	private NotificationDispatcher notificationDispatcher = null;
+	
     /**
      * @see HttpServlet#HttpServlet()
      */
@@ -126,6 +125,13 @@ public class XACMLPapServlet extends HttpServlet implements StdItemSetChangeList
 			//
 			XACMLRest.loadXacmlProperties(null, null);
 			//
+			// Create the pool that PDP updates and AC notifications are sent from
+			//
+			this.notificationDispatcher = new NotificationDispatcher("xacml-pap-notification",
+					Integer.parseInt(XACMLProperties.getProperty(XACMLRestProperties.PROP_PAP_NOTIFICATION_THREADS, "10")),
+					Integer.parseInt(XACMLProperties.getProperty(XACMLRestProperties.PROP_PAP_NOTIFICATION_RETRIES, "3")),
+					Long.parseLong(XACMLProperties.getProperty(XACMLRestProperties.PROP_PAP_NOTIFICATION_BACKOFF, "1000")));
+			//
 			// Load our PAP engine, first create a factory
 			//
 			PAPEngineFactory factory = PAPEngineFactory.newInstance(XACMLProperties.getProperty(XACMLProperties.PROP_PAP_PAPENGINEFACTORY));
@@ -162,7 +168,21 @@ public class XACMLPapServlet extends HttpServlet implements StdItemSetChangeList
 			//
 			// After startup, the PAP does Heartbeats to each of the PDPs periodically
 			//
-			XACMLPapServlet.heartbeat = new Heartbeat(this.papEngine);
+			XACMLPapServlet.heartbeat = new PAPHeartbeat(this.papEngine, new PAPHeartbeat.Listener() {
+				@Override
+				public void setPDPStatus(PDP pdp, String newStatus) throws PAPException {
+					setPDPSummaryStatus(pdp, newStatus);
+				}
+
+				@Override
+				public void pdpStatusesChanged() {
+					notifyAC();
+				}
+			},
+				Integer.parseInt(XACMLProperties.getProperty(XACMLRestProperties.PROP_PAP_HEARTBEAT_INTERVAL, "10000")),
+				Integer.parseInt(XACMLProperties.getProperty(XACMLRestProperties.PROP_PAP_HEARTBEAT_TIMEOUT, "10000")),
+				Integer.parseInt(XACMLProperties.getProperty(XACMLRestProperties.PROP_PAP_HEARTBEAT_MAXINFLIGHT, "16")),
+				Integer.parseInt(XACMLProperties.getProperty(XACMLRestProperties.PROP_PAP_HEARTBEAT_MAXBACKOFF, "300000")));
 			XACMLPapServlet.heartbeatThread = new Thread(XACMLPapServlet.heartbeat);
 			XACMLPapServlet.heartbeatThread.start();
 		} catch (FactoryException | PAPException e) {
@@ -218,6 +238,9 @@ public class XACMLPapServlet extends HttpServlet implements StdItemSetChangeList
 				logger.error(e);
 			}
 		}
+		if (this.notificationDispatcher != null) {
+			this.notificationDispatcher.shutdown();
+		}
 	}
 	
 	/**
@@ -441,6 +464,29 @@ public class XACMLPapServlet extends HttpServlet implements StdItemSetChangeList
 				return;
 			}
 			//
+			// The content hash is the policy's ETag, if the PDP already has this
+			// content there is no need to send it again.
+			//
+			String etag = null;
+			try {
+				String hash = StdPDPPolicy.getHash(policy);
+				if (hash != null) {
+					etag = "\"" + hash + "\"";
+				}
+			} catch (PAPException | IOException e) {
+				logger.warn("Failed to hash policy " + policyId + ": " + e);
+			}
+			if (etag != null) {
+				response.setHeader("ETag", etag);
+				String ifNoneMatch = request.getHeader("If-None-Match");
+				if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*") ||
+						Splitter.on(',').trimResults().splitToList(ifNoneMatch).contains(etag))) {
+					logger.info("Policy " + policyId + " not modified for " + id);
+					response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+					return;
+				}
+			}
+			//
 			// Get its stream
 			//
 			try (InputStream is = policy.getStream(); OutputStream os = response.getOutputStream()) {
@@ -482,6 +528,15 @@ public class XACMLPapServlet extends HttpServlet implements StdItemSetChangeList
 			return false;
 		}
 		//
+		// A PDP that reports the manifest of the group's configuration has
+		// exactly those policies and pip configuration.
+		//
+		String localManifest = policies.getProperty(XACMLProperties.PROP_MANIFEST);
+		String pdpManifest = pdpProperties.getProperty(XACMLProperties.PROP_MANIFEST);
+		if (localManifest != null && pdpManifest != null) {
+			return localManifest.equals(pdpManifest);
+		}
+		//
 		// Compare the policies and pipconfig properties to the pdpProperties
 		//
 		try {
@@ -1083,197 +1138,6 @@ public class XACMLPapServlet extends HttpServlet implements StdItemSetChangeList
 		}
 	}
 
-	//
-	// Heartbeat thread - periodically check on PDPs' status
-	//
-	
-	/**
-	 * Heartbeat with all known PDPs.
-	 * 
-	 * Implementation note:
-	 * 
-	 * The PDPs are contacted Sequentially, not in Parallel.
-	 * 
-	 * If we did this in parallel using multiple threads we would simultaneously use
-	 * 		- 1 thread and
-	 * 		- 1 connection
-	 * for EACH PDP.
-	 * This could become a resource problem since we already use multiple threads and connections for updating the PDPs
-	 * when user changes occur.
-	 * Using separate threads can also make it tricky dealing with timeouts on PDPs that are non-responsive.
-	 * 
-	 * The Sequential operation does a heartbeat request to each PDP one at a time.
-	 * This has the flaw that any PDPs that do not respond will hold up the entire heartbeat sequence until they timeout.
-	 * If there are a lot of non-responsive PDPs and the timeout is large-ish (the default is 20 seconds)
-	 * it could take a long time to cycle through all of the PDPs.
-	 * That means that this may not notice a PDP being down in a predictable time.
-	 * 
-	 * @author glenngriffin
-	 *
-	 */
-	private class Heartbeat implements Runnable {
-		private PAPEngine papEngine;
-		private Set<PDP> pdps = new HashSet<PDP>();
-		private int heartbeatInterval;
-		private int heartbeatTimeout;
-		
-		public volatile boolean isRunning = false;
-		
-		public synchronized boolean isRunning() {
-			return this.isRunning;
-		}
-		
-		public synchronized void terminate() {
-			this.isRunning = false;
-		}
-		
-		public Heartbeat(PAPEngine engine) {
-			this.papEngine = engine;
-			this.heartbeatInterval = Integer.parseInt(XACMLProperties.getProperty(XACMLRestProperties.PROP_PAP_HEARTBEAT_INTERVAL, "10000"));
-			this.heartbeatTimeout = Integer.parseInt(XACMLProperties.getProperty(XACMLRestProperties.PROP_PAP_HEARTBEAT_TIMEOUT, "10000"));
-		}
-
-		@Override
-		public void run() {
-			//
-			// Set ourselves as running
-			//
-			synchronized(this) {
-				this.isRunning = true;
-			}
-			HashMap<String, URL> idToURLMap = new HashMap<String, URL>();
-			try {
-				while (this.isRunning()) {
-					// Wait the given time
-					Thread.sleep(heartbeatInterval);
-					
-					// get the list of PDPs (may have changed since last time)
-					pdps.clear();
-					synchronized(papEngine) {
-						try {
-							for (PDPGroup g : papEngine.getPDPGroups()) {
-								for (PDP p : g.getPdps()) {
-									pdps.add(p);
-								}
-							}
-						} catch (PAPException e) {
-							logger.error("Heartbeat unable to read PDPs from PAPEngine: " + e.getMessage(), e);
-						}
-					}
-					//
-					// Check for shutdown
-					//
-					if (this.isRunning() == false) {
-						logger.info("isRunning is false, getting out of loop.");
-						break;
-					}
-					
-					// try to get the summary status from each PDP
-					boolean changeSeen = false;
-					for (PDP pdp : pdps) {
-						//
-						// Check for shutdown
-						//
-						if (this.isRunning() == false) {
-							logger.info("isRunning is false, getting out of loop.");
-							break;
-						}
-						// the id of the PDP is its url (though we add a query parameter)
-						URL pdpURL = idToURLMap.get(pdp.getId());
-						if (pdpURL == null) {
-							// haven't seen this PDP before
-							String fullURLString = null;
-							try {
-								fullURLString = pdp.getId() + "?type=hb";
-								pdpURL = new URL(fullURLString);
-								idToURLMap.put(pdp.getId(), pdpURL);
-							} catch (MalformedURLException e) {
-								logger.error("PDP id '" + fullURLString + "' is not a valid URL: " + e, e);
-								continue;
-							}
-						}
-						
-						// Do a GET with type HeartBeat
-						String newStatus = "";
-						
-						HttpURLConnection connection = null;
-						try {
-
-							//
-							// Open up the connection
-							//
-							connection = (HttpURLConnection)pdpURL.openConnection();
-							//
-							// Setup our method and headers
-							//
-				            connection.setRequestMethod("GET");
-				            connection.setConnectTimeout(heartbeatTimeout);
-				            //
-				            // Do the connect
-				            //
-				            connection.connect();
-				            if (connection.getResponseCode() == 204) {
-				            	newStatus = connection.getHeaderField(XACMLRestProperties.PROP_PDP_HTTP_HEADER_HB);
-								if (logger.isDebugEnabled()) {
-									logger.debug("Heartbeat '" + pdp.getId() + "' status='" + newStatus + "'");
-								}
-				            } else {
-				            	// anything else is an unexpected result
-				            	newStatus = PDPStatus.Status.UNKNOWN.toString();
-				            	logger.error("Heartbeat connect response code " + connection.getResponseCode() + ": " + pdp.getId());
-				            }
-			            } catch (UnknownHostException e) {
-			            	newStatus = PDPStatus.Status.NO_SUCH_HOST.toString();
-			            	logger.error("Heartbeat '" + pdp.getId() + "' NO_SUCH_HOST");
-						} catch (SocketTimeoutException e) {
-			            	newStatus = PDPStatus.Status.CANNOT_CONNECT.toString();
-			            	logger.error("Heartbeat '" + pdp.getId() + "' connection timeout: " + e );
-						} catch (ConnectException e) {
-			            	newStatus = PDPStatus.Status.CANNOT_CONNECT.toString();
-			            	logger.error("Heartbeat '" + pdp.getId() + "' cannot connect: " + e );
-						} catch (Exception e) {
-			            	newStatus = PDPStatus.Status.UNKNOWN.toString();
-			            	logger.error("Heartbeat '" + pdp.getId() + "' connect exception: " + e, e);
-						} finally {
-							// cleanup the connection
-							connection.disconnect();
-						}
-
-						if ( ! pdp.getStatus().getStatus().toString().equals(newStatus)) {
-							if (logger.isDebugEnabled()) {
-								logger.debug("previous status='" + pdp.getStatus().getStatus()+"'  new Status='" + newStatus + "'");
-							}
-			            	try {
-								setPDPSummaryStatus(pdp, newStatus);
-							} catch (PAPException e) {
-								logger.error("Unable to set state for PDP '" + pdp.getId() + "': " + e, e);
-							}
-							changeSeen = true;
-						}
-						
-					}
-					//
-					// Check for shutdown
-					//
-					if (this.isRunning() == false) {
-						logger.info("isRunning is false, getting out of loop.");
-						break;
-					}
-
-					// if any of the PDPs changed state, tell the ACs to update
-					if (changeSeen) {
-						notifyAC();
-					}
-					
-				}
-			} catch (InterruptedException e) {
-				logger.error("Heartbeat interrupted.  Shutting down");
-				this.terminate();
-			}
-		}
-	}
-	
-	
 	//
 	// HELPER to change Group status when PDP status is changed
 	//
@@ -1330,22 +1194,23 @@ public class XACMLPapServlet extends HttpServlet implements StdItemSetChangeList
 
 	@Override
 	public void pdpChanged(PDP pdp) {
-		// kick off a thread to do an event notification for each PDP.
+		// queue an event notification for each PDP.
 		// This needs to be on a separate thread so that PDPs that do not respond (down, non-existent, etc)
 		// do not block the PSP response to the AC, which would freeze the GUI until all PDPs sequentially respond or time-out.
-		Thread t = new Thread(new UpdatePDPThread(pdp));
-		t.start();
+		// An update that is still waiting for the same PDP is replaced, it will read the latest group when it runs.
+		this.notificationDispatcher.submit("pdp:" + pdp.getId(), new UpdatePDPNotification(pdp));
 	}
 	
-	private class UpdatePDPThread implements Runnable {
+	private class UpdatePDPNotification implements NotificationDispatcher.Notification {
 		private PDP pdp;
 
 		// remember which PDP to notify
-		public UpdatePDPThread(PDP pdp) {
+		public UpdatePDPNotification(PDP pdp) {
 			this.pdp = pdp;
 		}
 
-		public void run() {
+		@Override
+		public void deliver() throws Exception {
 			// send the current configuration to one PDP
 			HttpURLConnection connection = null;
 			try {
@@ -1416,6 +1281,7 @@ public class XACMLPapServlet extends HttpServlet implements StdItemSetChangeList
 	    			logger.error("Failed to send property file to " + pdp.getId(), e);
 	    			// Since this is a server-side error, it probably does not reflect a problem on the client,
 	    			// so do not change the PDP status.
+	    			notifyAC();
 	    			return;
 	    		}
 	            //
@@ -1432,6 +1298,9 @@ public class XACMLPapServlet extends HttpServlet implements StdItemSetChangeList
 	            	logger.warn("Failed: " + connection.getResponseCode() + "  message: " + connection.getResponseMessage());
 					setPDPSummaryStatus(pdp, PDPStatus.Status.UNKNOWN);
 	            }
+	            
+	            // tell the AC to update it's status info
+	            notifyAC();
 			} catch (Exception e) {
 				logger.error("Unable to sync config with PDP '" + pdp.getId() + "': " + e, e);
 				try {
@@ -1439,15 +1308,22 @@ public class XACMLPapServlet extends HttpServlet implements StdItemSetChangeList
 				} catch (PAPException e1) {
 					logger.error("Unable to set status of PDP '" + pdp.getId() + "' to UNKNOWN: " + e, e);
 				}
+				// have the dispatcher retry
+				throw e;
 			} finally {
 				// cleanup the connection
-				connection.disconnect();
-				
-	            // tell the AC to update it's status info
-	            notifyAC();
+				if (connection != null) {
+					connection.disconnect();
+				}
 			}
 			
 		}
+
+		@Override
+		public void abandoned(Exception lastFailure) {
+			// the retries are over, tell the AC about the PDP's status once
+			notifyAC();
+		}
 	}
 
 	//
@@ -1455,88 +1331,90 @@ public class XACMLPapServlet extends HttpServlet implements StdItemSetChangeList
 	//
 	
 	private void notifyAC() {
-		// kick off a thread to do one event notification for all registered ACs
+		// queue one event notification for each registered AC
 		// This needs to be on a separate thread so that ACs can make calls back to PAP to get the updated Group data
 		// as part of processing this message on their end.
-		Thread t = new Thread(new NotifyACThread());
-		t.start();
+		// There should be no Concurrent exception here because the list is a CopyOnWriteArrayList.
+		for (String acURL : adminConsoleURLStringList) {
+			this.notificationDispatcher.submit("ac:" + acURL, new NotifyACNotification(acURL));
+		}
 	}
 	
-	private class NotifyACThread implements Runnable {
-	
-		public void run() {
-			List<String> disconnectedACs = new ArrayList<String>();
-// logger.debug("LIST SIZE="+adminConsoleURLStringList.size());
-			
-			// There should be no Concurrent exception here because the list is a CopyOnWriteArrayList.
-			// The "for each" loop uses the collection's iterator under the covers, so it should be correct.
-			for (String acURL : adminConsoleURLStringList) {
-				HttpURLConnection connection = null;
-				try {
-					
-					acURL += "?PAPNotification=true";
-					
+	private class NotifyACNotification implements NotificationDispatcher.Notification {
+		private String acURLString;
+
+		// remember which AC to notify
+		public NotifyACNotification(String acURLString) {
+			this.acURLString = acURLString;
+		}
+
+		@Override
+		public void deliver() throws Exception {
+			HttpURLConnection connection = null;
+			try {
+				
+				String acURL = this.acURLString + "?PAPNotification=true";
+				
 //TODO - Currently we just tell AC that "Something changed" without being specific.  Do we want to tell it which group/pdp changed?
 //TODO - If so, put correct parameters into the Query string here
-					acURL += "&objectType=all" + "&action=update";
-	
-					if (logger.isDebugEnabled()) {
-						logger.debug("creating url for id '" + acURL + "'");
-					}
-//TODO - currently always send both policies and pips.  Do we care enough to add code to allow sending just one or the other?
-//TODO		(need to change "cache=", implying getting some input saying which to change)
-					
-					URL url = new URL(acURL );
-					
-					//
-					// Open up the connection
-					//
-					connection = (HttpURLConnection)url.openConnection();
-					//
-					// Setup our method and headers
-					//
-		            connection.setRequestMethod("PUT");
-		            connection.setRequestProperty("Content-Type", "text/x-java-properties");
-		            //
-		            // Adding this in. It seems the HttpUrlConnection class does NOT
-		            // properly forward our headers for POST re-direction. It does so
-		            // for a GET re-direction.
-		            //
-		            // So we need to handle this ourselves.
-		            //
-		//TODO - is this needed for a PUT?  seems better to leave in for now?
-		            connection.setInstanceFollowRedirects(false);
-					//
-					// Do not include any data in the PUT because this is just a
-					// notification to the AC.
-					// The AC will use GETs back to the PAP to get what it needs
-					// to fill in the screens.
-					//
-					
-		            //
-		            // Do the connect
-		            //
-		            connection.connect();
-		            if (connection.getResponseCode() == 204) {
-		            	logger.info("Success. We updated correctly.");
-		            } else {
-		            	logger.warn("Failed: " + connection.getResponseCode() + "  message: " + connection.getResponseMessage());
-		            }
-					
-				} catch (Exception e) {
-					logger.error("Unable to sync config AC '" + acURL + "': " + e, e);
-					disconnectedACs.add(acURL);
-				} finally {
-					// cleanup the connection
+				acURL += "&objectType=all" + "&action=update";
+
+				if (logger.isDebugEnabled()) {
+					logger.debug("creating url for id '" + acURL + "'");
+				}
+				
+				URL url = new URL(acURL );
+				
+				//
+				// Open up the connection
+				//
+				connection = (HttpURLConnection)url.openConnection();
+				//
+				// Setup our method and headers
+				//
+	            connection.setRequestMethod("PUT");
+	            connection.setRequestProperty("Content-Type", "text/x-java-properties");
+	            //
+	            // Adding this in. It seems the HttpUrlConnection class does NOT
+	            // properly forward our headers for POST re-direction. It does so
+	            // for a GET re-direction.
+	            //
+	            // So we need to handle this ourselves.
+	            //
+	//TODO - is this needed for a PUT?  seems better to leave in for now?
+	            connection.setInstanceFollowRedirects(false);
+				//
+				// Do not include any data in the PUT because this is just a
+				// notification to the AC.
+				// The AC will use GETs back to the PAP to get what it needs
+				// to fill in the screens.
+				//
+				
+	            //
+	            // Do the connect
+	            //
+	            connection.connect();
+	            if (connection.getResponseCode() == 204) {
+	            	logger.info("Success. We updated correctly.");
+	            } else {
+	            	logger.warn("Failed: " + connection.getResponseCode() + "  message: " + connection.getResponseMessage());
+	            }
+			} catch (Exception e) {
+				logger.error("Unable to sync config AC '" + this.acURLString + "': " + e, e);
+				// have the dispatcher retry
+				throw e;
+			} finally {
+				// cleanup the connection
+				if (connection != null) {
 					connection.disconnect();
 				}
 			}
-			
-			// remove any ACs that are no longer connected
-			if (disconnectedACs.size() > 0) {
-				adminConsoleURLStringList.removeAll(disconnectedACs);
-			}
+		}
 
+		@Override
+		public void abandoned(Exception lastFailure) {
+			// remove the AC since it is no longer connected
+			adminConsoleURLStringList.remove(this.acURLString);
 		}
 	}
 
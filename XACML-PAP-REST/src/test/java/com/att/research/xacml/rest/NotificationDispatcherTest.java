@@ -0,0 +1,154 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.rest;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NotificationDispatcherTest {
+  private NotificationDispatcher dispatcher;
+
+  @Before
+  public void setUp() {
+    this.dispatcher = new NotificationDispatcher("test-notification", 4, 3, 10);
+  }
+
+  @After
+  public void tearDown() {
+    this.dispatcher.shutdown();
+  }
+
+  @Test
+  public void testCoalescing() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<Integer> deliveredStates = new CopyOnWriteArrayList<>();
+    this.dispatcher.submit("pdp:1", () -> {
+      started.countDown();
+      release.await(10, TimeUnit.SECONDS);
+      deliveredStates.add(0);
+    });
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    //
+    // While the first one is being delivered, the later ones replace each other
+    //
+    for (int i = 1; i <= 100; i++) {
+      int state = i;
+      this.dispatcher.submit("pdp:1", () -> deliveredStates.add(state));
+    }
+    assertEquals(1, this.dispatcher.getQueueDepth());
+    release.countDown();
+    assertTrue(this.dispatcher.awaitIdle(10000));
+    assertEquals(2, deliveredStates.size());
+    assertEquals(Integer.valueOf(100), deliveredStates.get(1));
+    assertEquals(100, this.dispatcher.getCoalesced());
+    assertEquals(2, this.dispatcher.getDelivered());
+  }
+
+  @Test
+  public void testResubmittedLatency() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    this.dispatcher.submit("pdp:1", () -> {
+      started.countDown();
+      Thread.sleep(300);
+    });
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    Thread.sleep(100);
+    this.dispatcher.submit("pdp:1", () -> { });
+    assertTrue(this.dispatcher.awaitIdle(10000));
+    //
+    // The first waited about 300ms and the second about 200ms, each from when it was submitted
+    //
+    assertEquals(2, this.dispatcher.getDelivered());
+    assertTrue(this.dispatcher.getMaxLatencyMillis() >= 300);
+    assertTrue(this.dispatcher.getAverageLatencyMillis() >= 200);
+  }
+
+  @Test
+  public void testCoalescedIntoBackoff() throws Exception {
+    this.dispatcher.shutdown();
+    this.dispatcher = new NotificationDispatcher("test-notification", 4, 3, 60000);
+    CountDownLatch failed = new CountDownLatch(1);
+    this.dispatcher.submit("ac:1", () -> {
+      failed.countDown();
+      throw new IOException("Connection refused");
+    });
+    assertTrue(failed.await(10, TimeUnit.SECONDS));
+    //
+    // The replacement is sent straight away rather than after the minute long backoff
+    //
+    CountDownLatch delivered = new CountDownLatch(1);
+    while (this.dispatcher.getRetried() == 0) {
+      Thread.sleep(10);
+    }
+    this.dispatcher.submit("ac:1", () -> delivered.countDown());
+    assertTrue(delivered.await(10, TimeUnit.SECONDS));
+    assertTrue(this.dispatcher.awaitIdle(10000));
+    assertEquals(1, this.dispatcher.getDelivered());
+  }
+
+  @Test
+  public void testBoundedThreads() throws Exception {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    for (int i = 0; i < 50; i++) {
+      this.dispatcher.submit("pdp:" + i, () -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(20);
+        running.decrementAndGet();
+      });
+    }
+    assertTrue(this.dispatcher.awaitIdle(10000));
+    assertEquals(50, this.dispatcher.getDelivered());
+    assertTrue(maxRunning.get() <= 4);
+  }
+
+  @Test
+  public void testRetry() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    this.dispatcher.submit("ac:1", () -> {
+      if (attempts.incrementAndGet() < 3) {
+        throw new IOException("Connection refused");
+      }
+    });
+    assertTrue(this.dispatcher.awaitIdle(10000));
+    assertEquals(3, attempts.get());
+    assertEquals(2, this.dispatcher.getRetried());
+    assertEquals(1, this.dispatcher.getDelivered());
+  }
+
+  @Test
+  public void testAbandoned() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    CountDownLatch abandoned = new CountDownLatch(1);
+    this.dispatcher.submit("ac:1", new NotificationDispatcher.Notification() {
+      @Override
+      public void deliver() throws Exception {
+        attempts.incrementAndGet();
+        throw new IOException("Connection refused");
+      }
+
+      @Override
+      public void abandoned(Exception lastFailure) {
+        abandoned.countDown();
+      }
+    });
+    assertTrue(abandoned.await(10, TimeUnit.SECONDS));
+    assertEquals(4, attempts.get());
+    assertEquals(1, this.dispatcher.getAbandoned());
+    assertEquals(0, this.dispatcher.getDelivered());
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.rest;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.att.research.xacml.api.pap.PAPEngine;
+import com.att.research.xacml.api.pap.PDP;
+import com.att.research.xacml.api.pap.PDPStatus;
+import com.att.research.xacml.std.pap.StdPDP;
+import com.att.research.xacml.std.pap.StdPDPStatus;
+import com.sun.net.httpserver.HttpServer;
+
+public class PAPHeartbeatTest {
+  private static final int INTERVAL = 1000;
+  private static final int TIMEOUT = 2000;
+
+  private HttpServer server;
+  private ExecutorService serverExecutor;
+  private final Set<PDP> pdps = new HashSet<>();
+  private final Map<String, Set<Integer>> remotePorts = new ConcurrentHashMap<>();
+  private final AtomicInteger changes = new AtomicInteger();
+  private final Set<Thread> listenerThreads = ConcurrentHashMap.newKeySet();
+  private PAPHeartbeat heartbeat;
+
+  /**
+   * Adds a fake PDP endpoint that answers heartbeats with the given status after the given delay.  A null status
+   * makes the endpoint answer with a server error.
+   */
+  private PDP addPDP(String name, String status, long delayMillis) {
+    this.server.createContext("/" + name, exchange -> {
+      this.remotePorts.computeIfAbsent(name, key -> ConcurrentHashMap.newKeySet()).add(exchange.getRemoteAddress().getPort());
+      try {
+        Thread.sleep(delayMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      //
+      // The request has to be read before the server will keep the connection open
+      //
+      exchange.getRequestBody().close();
+      if (status == null) {
+        exchange.sendResponseHeaders(500, -1);
+      } else {
+        exchange.getResponseHeaders().add(XACMLRestProperties.PROP_PDP_HTTP_HEADER_HB, status);
+        exchange.sendResponseHeaders(204, -1);
+      }
+      exchange.close();
+    });
+    return addPDP("http://localhost:" + this.server.getAddress().getPort() + "/" + name);
+  }
+
+  private PDP addPDP(String id) {
+    StdPDP pdp = new StdPDP(id, id);
+    this.pdps.add(pdp);
+    return pdp;
+  }
+
+  private static PDPStatus.Status getStatus(PDP pdp) {
+    return pdp.getStatus().getStatus();
+  }
+
+  private PAPHeartbeat.PDPStatistics getStatistics(PDP pdp) {
+    for (PAPHeartbeat.PDPStatistics statistics : this.heartbeat.getPDPStatistics()) {
+      if (statistics.getId().equals(pdp.getId())) {
+        return statistics;
+      }
+    }
+    return null;
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    this.serverExecutor = Executors.newCachedThreadPool();
+    this.server.setExecutor(this.serverExecutor);
+    this.server.start();
+
+    PAPEngine papEngine = mock(PAPEngine.class);
+    when(papEngine.getPDPs()).thenReturn(this.pdps);
+
+    this.heartbeat = new PAPHeartbeat(papEngine, new PAPHeartbeat.Listener() {
+      @Override
+      public void setPDPStatus(PDP pdp, String newStatus) {
+        listenerThreads.add(Thread.currentThread());
+        ((StdPDPStatus) pdp.getStatus()).setStatus(PDPStatus.Status.valueOf(newStatus));
+      }
+
+      @Override
+      public void pdpStatusesChanged() {
+        changes.incrementAndGet();
+      }
+    }, INTERVAL, TIMEOUT, 10, 4 * INTERVAL);
+  }
+
+  @After
+  public void tearDown() {
+    this.heartbeat.shutdown();
+    this.server.stop(0);
+    this.serverExecutor.shutdownNow();
+  }
+
+  @Test
+  public void testConcurrentSweep() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      addPDP("pdp" + i, PDPStatus.Status.UP_TO_DATE.toString(), 200);
+    }
+    this.heartbeat.sweep();
+    //
+    // 20 PDPs that take 200ms each, 10 at a time
+    //
+    assertTrue("Sweep took " + this.heartbeat.getLastSweepMillis() + "ms", this.heartbeat.getLastSweepMillis() < 2000);
+    for (PDP pdp : this.pdps) {
+      assertEquals(PDPStatus.Status.UP_TO_DATE, getStatus(pdp));
+      assertTrue(getStatistics(pdp).getLastLatencyMillis() >= 200);
+    }
+    assertEquals(1, this.changes.get());
+    //
+    // The statuses are set one at a time from the thread doing the sweep
+    //
+    assertEquals(1, this.listenerThreads.size());
+    assertTrue(this.listenerThreads.contains(Thread.currentThread()));
+
+    //
+    // Nothing changes on the next sweep
+    //
+    this.heartbeat.sweep();
+    assertEquals(1, this.changes.get());
+    assertEquals(2, this.heartbeat.getSweeps());
+  }
+
+  @Test
+  public void testBackoff() throws Exception {
+    PDP healthy = addPDP("healthy", PDPStatus.Status.UP_TO_DATE.toString(), 0);
+    PDP failing = addPDP("failing", null, 0);
+    int[] expectedHeartbeats = {1, 2, 2, 3, 3, 3, 3, 4, 4, 4, 4, 5};
+    for (int i = 0; i < expectedHeartbeats.length; i++) {
+      this.heartbeat.sweep();
+      assertEquals(i + 1, getStatistics(healthy).getHeartbeats());
+      assertEquals("sweep " + i, expectedHeartbeats[i], getStatistics(failing).getHeartbeats());
+    }
+    assertEquals(PDPStatus.Status.UP_TO_DATE, getStatus(healthy));
+    assertEquals(PDPStatus.Status.UNKNOWN, getStatus(failing));
+    assertEquals(5, getStatistics(failing).getConsecutiveFailures());
+    assertEquals(0, getStatistics(healthy).getConsecutiveFailures());
+  }
+
+  @Test
+  public void testSweepDeadline() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      addPDP("pdp" + i, PDPStatus.Status.UP_TO_DATE.toString(), 1500);
+    }
+    this.heartbeat.sweep();
+    //
+    // The second 10 are still queued behind the first when the deadline passes
+    //
+    assertTrue("Sweep took " + this.heartbeat.getLastSweepMillis() + "ms", this.heartbeat.getLastSweepMillis() < TIMEOUT + 500);
+    int answered = 0;
+    for (PDP pdp : this.pdps) {
+      answered += getStatistics(pdp).getHeartbeats();
+    }
+    assertEquals(10, answered);
+    //
+    // The late ones are not sent another heartbeat while they are still outstanding
+    //
+    this.heartbeat.sweep();
+    Thread.sleep(2 * TIMEOUT);
+    for (PDP pdp : this.pdps) {
+      assertTrue(getStatistics(pdp).getHeartbeats() <= 2);
+    }
+    //
+    // The late answers are applied by the next sweep
+    //
+    this.heartbeat.sweep();
+    for (PDP pdp : this.pdps) {
+      assertTrue(getStatistics(pdp).getHeartbeats() >= 1);
+      assertEquals(0, getStatistics(pdp).getConsecutiveFailures());
+      assertEquals(PDPStatus.Status.UP_TO_DATE, getStatus(pdp));
+    }
+  }
+
+  @Test
+  public void testCannotConnect() throws Exception {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    PDP pdp = addPDP("http://localhost:" + port + "/pdp");
+    this.heartbeat.sweep();
+    assertEquals(PDPStatus.Status.CANNOT_CONNECT, getStatus(pdp));
+    assertEquals(1, getStatistics(pdp).getConsecutiveFailures());
+  }
+
+  @Test
+  public void testConnectionReuse() throws Exception {
+    addPDP("pdp", PDPStatus.Status.UP_TO_DATE.toString(), 0);
+    for (int i = 0; i < 5; i++) {
+      this.heartbeat.sweep();
+    }
+    assertEquals(1, this.remotePorts.get("pdp").size());
+  }
+}
@@ -16,6 +16,8 @@ import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
 import java.util.Properties;
 import java.util.Set;
 
@@ -41,6 +43,8 @@ import com.att.research.xacmlatt.pdp.policy.PolicyDef;
 import com.att.research.xacmlatt.pdp.policy.dom.DOMPolicyDef;
 import com.att.research.xacmlatt.pdp.std.StdPolicyFinderFactory;
 import com.google.common.base.Splitter;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
 
 /**
  * Does the work for loading policy and PIP configurations sent from the PAP servlet.
@@ -52,9 +56,32 @@ import com.google.common.base.Splitter;
 public class XACMLPdpLoader {
 	private static final Log logger	= LogFactory.getLog(XACMLPdpLoader.class);
 	
+	//
+	// The manifest of the configuration the current engine was loaded from
+	//
+	private static volatile String loadedManifest = null;
+	
+	/**
+	 * Gets the manifest the PAP sent with the policy and PIP configuration of the engine that was last loaded.
+	 * 
+	 * @return the manifest or null if it is not known
+	 */
+	public static String getLoadedManifest() {
+		return loadedManifest;
+	}
+	
 	public static synchronized PDPEngine loadEngine(StdPDPStatus status, Properties policyProperties, Properties pipProperties) {
 		logger.info("loadEngine: " + policyProperties + " "+ pipProperties);
 		//
+		// The manifest covers both policies and pip configuration, it only
+		// applies if both come from the same place.
+		//
+		boolean hasManifest = ((policyProperties == null) == (pipProperties == null));
+		//
+		// The policies that could not be pulled, the manifest is not loaded until they are
+		//
+		Set<String> failedPolicies = new HashSet<String>();
+		//
 		// First load our policies
 		//
 		try {
@@ -79,7 +106,7 @@ public class XACMLPdpLoader {
 			//	- downloading of policies from remote locations, and
 			//	- creating new "<PolicyId>.file" properties for files existing local
 			//
-			XACMLPdpLoader.cachePolicies(policyProperties);
+			XACMLPdpLoader.cachePolicies(policyProperties, failedPolicies);
 			//
 			// Validate the policies
 			//
@@ -152,6 +179,14 @@ public class XACMLPdpLoader {
 			engine	= factory.newEngine();
 			logger.info("Loaded new PDP engine.");
 			status.setStatus(Status.UP_TO_DATE);
+			//
+			// Only skip the next push of this configuration if we have all of it, otherwise it is the chance to pull
+			// the policies again
+			//
+			if (! failedPolicies.isEmpty()) {
+				logger.warn("Policies that could not be pulled: " + failedPolicies);
+			}
+			loadedManifest = (hasManifest && failedPolicies.isEmpty() ? policyProperties.getProperty(XACMLProperties.PROP_MANIFEST) : null);
 		} catch (FactoryException e) {
 			String error = "Failed to create new PDP Engine";
 			logger.error(error, e);
@@ -297,6 +332,10 @@ public class XACMLPdpLoader {
 	 * 	- if not, see if the file exists in the local directory; if so create a ".file" property for it.
 	 * 	- if not, get the "&lt;PolicyID&gt;.url" property and try to GET the policy from that location (and set the ".file" property)
 	 * 
+	 * If the PAP sent a "&lt;PolicyID&gt;.hash" entry, a local file is only used when its content has that hash. Otherwise
+	 * the policy is pulled again, sending the local file's hash as the ETag so the PAP can answer that it has not been
+	 * modified, and the content that is pulled must match the hash.
+	 * 
 	 *  If the ".file" property is created, then true is returned to tell the caller that the props object changed.
 	 * 
 	 * @param props
@@ -304,6 +343,18 @@ public class XACMLPdpLoader {
 	 * @throws PAPException 
 	 */
 	public static synchronized boolean cachePolicies(Properties props) throws PAPException {
+		return cachePolicies(props, new HashSet<String>());
+	}
+	
+	/**
+	 * Gets the policies in the cache up-to-date as {@link #cachePolicies(Properties)} does.
+	 * 
+	 * @param props
+	 * @param failedPolicies the ids of the policies that could not be pulled are added to it
+	 * @return true/false if anything was changed in the props object
+	 * @throws PAPException
+	 */
+	public static synchronized boolean cachePolicies(Properties props, Set<String> failedPolicies) throws PAPException {
 		boolean changed = false;
 		String[] lists = new String[2];
 		lists[0] = props.getProperty(XACMLProperties.PROP_ROOTPOLICIES);
@@ -317,7 +368,7 @@ public class XACMLPdpLoader {
 			}
 			Iterable<String> policies = Splitter.on(',').trimResults().omitEmptyStrings().split(list);
 			for (String policy : policies) {
-				boolean policyExists = false;
+				Path localFile = null;
 				
 				// First look for ".file" property and verify the file exists
 				String propLocation	= props.getProperty(policy + StdPolicyFinderFactory.PROP_FILE);
@@ -325,89 +376,135 @@ public class XACMLPdpLoader {
 					//
 					// Does it exist?
 					//
-					policyExists = Files.exists(Paths.get(propLocation));
-					if (policyExists == false) {
+					if (Files.exists(Paths.get(propLocation))) {
+						localFile = Paths.get(propLocation);
+					} else {
 						logger.warn("Policy file " + policy + " expected at " + propLocation + " does NOT exist.");
 					}
 				}
 				
+				//
+				// Now construct the output file name
+				//
+				Path outFile = Paths.get(getPDPConfig().toAbsolutePath().toString(), policy);
+				
 				// If ".file" property does not exist, try looking for the local file anyway 
 				//	(it might exist without having a ".file" property set for it)
-				if (policyExists == false) {
+				if (localFile == null && Files.exists(outFile)) {
+					logger.info("Policy does exist: " + outFile.toAbsolutePath().toString());
+					localFile = outFile;
+				}
+				
+				//
+				// Is the local copy the one the PAP has?
+				//
+				String expectedHash = props.getProperty(policy + XACMLProperties.PROP_POLICY_HASH);
+				String localHash = null;
+				if (localFile != null && expectedHash != null) {
+					try (InputStream is = Files.newInputStream(localFile)) {
+						localHash = StdPDPPolicy.computeHash(is);
+					} catch (IOException e) {
+						logger.error("Failed to hash policy file " + localFile + ": " + e);
+					}
+					if (! expectedHash.equals(localHash)) {
+						logger.info("Policy " + policy + " has changed, local hash " + localHash + " expected " + expectedHash);
+					}
+				}
+				
+				Path policyFile = localFile;
+				if (localFile == null || (expectedHash != null && ! expectedHash.equals(localHash))) {
 					//
-					// Now construct the output file name
+					// There better be a URL to retrieve it
 					//
-					Path outFile = Paths.get(getPDPConfig().toAbsolutePath().toString(), policy);
+					policyFile = pullPolicy(policy, props.getProperty(policy + StdPolicyFinderFactory.PROP_URL), outFile, expectedHash);
+				}
+				
+				if (policyFile == null) {
+					failedPolicies.add(policy);
 					//
-					// Double check to see if we pulled it at some point
+					// Don't let the PDP engine load a copy that is out of date
 					//
-					policyExists = Files.exists(outFile);
-					if (policyExists) {
-						//
-						// Set the property so the PDP engine doesn't have
-						// to pull it from the URL but rather the FILE.
-						//
-						logger.info("Policy does exist: " + outFile.toAbsolutePath().toString());
-						props.setProperty(policy + StdPolicyFinderFactory.PROP_FILE, outFile.toAbsolutePath().toString());
-						//
-						// Indicate that there were changes made to the properties
-						//
+					if (propLocation != null) {
+						props.remove(policy + StdPolicyFinderFactory.PROP_FILE);
 						changed = true;
-					} else {
-						
-						// File does not exist locally, so we need to get it from the location given in the ".url" property (which MUST exist)
-						
-						//
-						// There better be a URL to retrieve it
-						//
-						propLocation	= props.getProperty(policy + StdPolicyFinderFactory.PROP_URL);
-						if (propLocation != null) {
-							//
-							// Get it
-							//
-							URL url = null;
-							try {
-								//
-								// Create the URL
-								//
-								url						= new URL(propLocation);
-								logger.info("Pulling " + url.toString());
-								//
-								// Open the connection
-								//
-								URLConnection urlConnection	= url.openConnection();
-								urlConnection.setRequestProperty(XACMLRestProperties.PROP_PDP_HTTP_HEADER_ID, XACMLProperties.getProperty(XACMLRestProperties.PROP_PDP_ID));
-								//
-								// Copy it to disk
-								//
-								try (InputStream is = urlConnection.getInputStream(); OutputStream os = new FileOutputStream(outFile.toFile())) {
-									IOUtils.copy(is, os);
-								}
-								//
-								// Now save it in the properties as a .file
-								//
-								logger.info("Pulled policy: " + outFile.toAbsolutePath().toString());
-								props.setProperty(policy + StdPolicyFinderFactory.PROP_FILE, outFile.toAbsolutePath().toString());
-								//
-								// Indicate that there were changes made to the properties
-								//
-								changed = true;
-							} catch (Exception e) {
-								if (e instanceof MalformedURLException) {
-									logger.error("Policy '" + policy + "' had bad URL in new configuration, URL='" + propLocation + "'");
-								} else {
-									logger.error("Error while retrieving policy " + policy + " from URL " + url.toString() + ", e="+e);
-								}
-							}
-						} else {
-							logger.error("Policy " + policy + " does NOT exist and does NOT have a URL");
-						}
 					}
+				} else if (! policyFile.toAbsolutePath().toString().equals(propLocation)) {
+					//
+					// Set the property so the PDP engine doesn't have
+					// to pull it from the URL but rather the FILE.
+					//
+					props.setProperty(policy + StdPolicyFinderFactory.PROP_FILE, policyFile.toAbsolutePath().toString());
+					//
+					// Indicate that there were changes made to the properties
+					//
+					changed = true;
 				}
 			}
 		}
 		return changed;
 	}
+	
+	/**
+	 * Pulls a policy from the URL the PAP gave for it.
+	 * 
+	 * @param policy the policy id
+	 * @param propLocation the value of the policy's ".url" property
+	 * @param outFile where to save the policy
+	 * @param expectedHash the content hash the PAP gave for the policy, or null
+	 * @return the file holding the current policy or null if it could not be pulled
+	 */
+	private static Path pullPolicy(String policy, String propLocation, Path outFile, String expectedHash) {
+		if (propLocation == null) {
+			logger.error("Policy " + policy + " does NOT exist and does NOT have a URL");
+			return null;
+		}
+		URL url = null;
+		Path tempFile = null;
+		try {
+			//
+			// Create the URL
+			//
+			url						= new URL(propLocation);
+			logger.info("Pulling " + url.toString());
+			//
+			// Open the connection
+			//
+			URLConnection urlConnection	= url.openConnection();
+			urlConnection.setRequestProperty(XACMLRestProperties.PROP_PDP_HTTP_HEADER_ID, XACMLProperties.getProperty(XACMLRestProperties.PROP_PDP_ID));
+			//
+			// Copy it to disk, next to where it goes so a bad copy never replaces a good one
+			//
+			tempFile = Files.createTempFile(outFile.toAbsolutePath().getParent(), policy, ".tmp");
+			String hash;
+			try (InputStream is = urlConnection.getInputStream(); OutputStream os = Files.newOutputStream(tempFile)) {
+				HashingInputStream his = new HashingInputStream(Hashing.sha256(), is);
+				IOUtils.copy(his, os);
+				hash = his.hash().toString();
+			}
+			if (expectedHash != null && ! expectedHash.equals(hash)) {
+				logger.error("Policy " + policy + " from URL " + url.toString() + " has hash " + hash + " but expected " + expectedHash);
+				return null;
+			}
+			Files.move(tempFile, outFile, StandardCopyOption.REPLACE_EXISTING);
+			logger.info("Pulled policy: " + outFile.toAbsolutePath().toString());
+			return outFile;
+		} catch (Exception e) {
+			if (e instanceof MalformedURLException) {
+				logger.error("Policy '" + policy + "' had bad URL in new configuration, URL='" + propLocation + "'");
+			} else {
+				logger.error("Error while retrieving policy " + policy + " from URL " + url.toString() + ", e="+e);
+			}
+			return null;
+		} finally {
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
+				} catch (IOException e) {
+					logger.warn("Failed to delete " + tempFile + ": " + e);
+				}
+			}
+		}
+	}
 
 	public static synchronized Path	getPDPPolicyCache() throws PAPException {
 		Path config = getPDPConfig();
@@ -101,6 +101,12 @@ public class XACMLPdpRegisterThread implements Runnable {
 		    			//
 		    			String lists = XACMLProperties.PROP_ROOTPOLICIES + "=" + XACMLProperties.getProperty(XACMLProperties.PROP_ROOTPOLICIES);
 		    			lists = lists + "\n" + XACMLProperties.PROP_REFERENCEDPOLICIES + "=" + XACMLProperties.getProperty(XACMLProperties.PROP_REFERENCEDPOLICIES) + "\n";
+		    			//
+		    			// Along with the manifest of what we have loaded, so the PAP can tell if it changed
+		    			//
+		    			if (XACMLPdpLoader.getLoadedManifest() != null) {
+		    				lists = lists + XACMLProperties.PROP_MANIFEST + "=" + XACMLPdpLoader.getLoadedManifest() + "\n";
+		    			}
 		    			try (InputStream listsInputStream = new ByteArrayInputStream(lists.getBytes());
 		    					InputStream pipInputStream = Files.newInputStream(XACMLPdpLoader.getPIPConfig());
 		    					OutputStream os = connection.getOutputStream()) {
@@ -12,6 +12,8 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -40,7 +42,9 @@ import com.att.research.xacml.std.dom.DOMResponse;
 import com.att.research.xacml.std.json.JSONRequest;
 import com.att.research.xacml.std.json.JSONResponse;
 import com.att.research.xacml.std.pap.StdPDPStatus;
+import com.att.research.xacml.std.pip.finders.PIPEngineMetrics;
 import com.att.research.xacml.util.XACMLProperties;
+import com.att.research.xacmlatt.pdp.util.DecisionMetrics;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
@@ -399,8 +403,18 @@ public class XACMLPdpServlet extends HttpServlet implements Runnable {
 			}
             response.setStatus(HttpServletResponse.SC_OK);
             
+		} else if ("Metrics".equals(type)) {
+			// the decision and PIP engine metrics, whether or not they are being collected
+			response.setContentType("application/json");
+			Map<String, Object> metrics = new LinkedHashMap<String, Object>();
+			metrics.put("decisions", DecisionMetrics.getInstance());
+			metrics.put("pipEngines", PIPEngineMetrics.getInstance());
+			ObjectMapper mapper = new ObjectMapper();
+			mapper.writeValue(response.getOutputStream(), metrics);
+			response.setStatus(HttpServletResponse.SC_OK);
+			
 		} else {
-			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "type not 'config' or 'hb'");
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "type not 'config', 'hb', 'Status' or 'Metrics'");
 		}
 		if (returnHB) {
 			synchronized(pdpStatusLock) {
@@ -469,6 +483,8 @@ public class XACMLPdpServlet extends HttpServlet implements Runnable {
 		//
 		String incomingRequestString = null;
 		Request pdpRequest = null;
+		DecisionMetrics metrics = DecisionMetrics.getInstance();
+		boolean bMetrics = metrics.isEnabled();
 		if (contentType.getMimeType().equalsIgnoreCase(ContentType.APPLICATION_JSON.getMimeType()) ||
 				contentType.getMimeType().equalsIgnoreCase(ContentType.APPLICATION_XML.getMimeType()) ||
 				contentType.getMimeType().equalsIgnoreCase("application/xacml+xml") ) {
@@ -487,12 +503,16 @@ public class XACMLPdpServlet extends HttpServlet implements Runnable {
 			// Parse into a request
 			//
 			try {
+				long lParseStart = (bMetrics ? System.nanoTime() : 0);
 				if (contentType.getMimeType().equalsIgnoreCase(ContentType.APPLICATION_JSON.getMimeType())) {
 					pdpRequest = JSONRequest.load(incomingRequestString);
 				} else if (	contentType.getMimeType().equalsIgnoreCase(ContentType.APPLICATION_XML.getMimeType()) ||
 							contentType.getMimeType().equalsIgnoreCase("application/xacml+xml")) {
 					pdpRequest = DOMRequest.load(incomingRequestString);
 				}
+				if (bMetrics) {
+					metrics.getParseTime().record(System.nanoTime() - lParseStart);
+				}
 			}
 			catch(Exception e) {
 				logger.error("Could not parse request", e);
@@ -584,6 +604,7 @@ synchronized(pdpEngineLock) {
 			// return to our caller as well as dump to our loggers.
 			//
 			String outgoingResponseString = "";
+			long lSerializeStart = (bMetrics ? System.nanoTime() : 0);
 			if (contentType.getMimeType().equalsIgnoreCase(ContentType.APPLICATION_JSON.getMimeType())) {
 				//
 				// Get it as a String. This is not very efficient but we need to log our
@@ -612,6 +633,9 @@ synchronized(pdpEngineLock) {
 					outgoingResponseString = DOMResponse.toString(pdpResponse, false);
 				}
 			}
+			if (bMetrics) {
+				metrics.getSerializationTime().record(System.nanoTime() - lSerializeStart);
+			}
 			//
 			// lTimeStart is used as an ID within the requestLogger to match up
 			// request's with responses.
@@ -636,6 +660,16 @@ synchronized(pdpEngineLock) {
 		try {
 			while (! this.configThreadTerminate) {
 				PutRequest request = XACMLPdpServlet.queue.take();
+				//
+				// Nothing to do if we already have this configuration loaded
+				//
+				if (request.policyProperties != null && request.pipConfigProperties != null) {
+					String manifest = request.policyProperties.getProperty(XACMLProperties.PROP_MANIFEST);
+					if (manifest != null && manifest.equals(XACMLPdpLoader.getLoadedManifest())) {
+						logger.info("Configuration unchanged, manifest " + manifest);
+						continue;
+					}
+				}
 				StdPDPStatus newStatus = new StdPDPStatus();
 
 //TODO - This is related to the problem discussed in the doPost() method about the PDPEngine not being thread-safe.
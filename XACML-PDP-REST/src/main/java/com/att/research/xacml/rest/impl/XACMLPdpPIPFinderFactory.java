@@ -13,11 +13,13 @@ import org.apache.commons.logging.LogFactory;
 import com.att.research.xacml.api.pip.PIPException;
 import com.att.research.xacml.api.pip.PIPFinder;
 import com.att.research.xacml.api.pip.PIPFinderFactory;
+import com.att.research.xacml.std.pip.finders.CachingFinder;
 import com.att.research.xacml.std.pip.finders.ConfigurableEngineFinder;
+import com.att.research.xacml.std.pip.finders.PIPEngineMetrics;
 import com.att.research.xacml.util.XACMLProperties;
 
 public class XACMLPdpPIPFinderFactory extends PIPFinderFactory {
-	private ConfigurableEngineFinder pipFinder;
+	private PIPFinder pipFinder;
 	
 	private static Log logger	= LogFactory.getLog(XACMLPdpPIPFinderFactory.class);
 	
@@ -35,7 +37,6 @@ public class XACMLPdpPIPFinderFactory extends PIPFinderFactory {
 					if (logger.isDebugEnabled()) {
 						logger.debug("Creating default configurable engine finder");
 					}
-					pipFinder					= new ConfigurableEngineFinder();
 					Properties xacmlProperties	= null;
 					try {
 						xacmlProperties	= XACMLProperties.getProperties();
@@ -43,8 +44,17 @@ public class XACMLPdpPIPFinderFactory extends PIPFinderFactory {
 						logger.error("Exception getting XACML properties: " + ex.getMessage(), ex);
 						return null;
 					}
+					if (PIPEngineMetrics.isEnabled(xacmlProperties)) {
+						PIPEngineMetrics.enable();
+					}
+					ConfigurableEngineFinder configurableEngineFinder	= new ConfigurableEngineFinder();
 					if (xacmlProperties != null) {
-						((ConfigurableEngineFinder)pipFinder).configure(xacmlProperties);
+						configurableEngineFinder.configure(xacmlProperties);
+					}
+					if (CachingFinder.isEnabled(xacmlProperties)) {
+						pipFinder	= new CachingFinder(configurableEngineFinder, xacmlProperties);
+					} else {
+						pipFinder	= configurableEngineFinder;
 					}
 				}
 			}
@@ -60,8 +70,16 @@ public class XACMLPdpPIPFinderFactory extends PIPFinderFactory {
 					if (logger.isDebugEnabled()) {
 						logger.debug("Creating configurable engine finder using: " + properties);
 					}
-					pipFinder					= new ConfigurableEngineFinder();
-					((ConfigurableEngineFinder)pipFinder).configure(properties);
+					if (PIPEngineMetrics.isEnabled(properties)) {
+						PIPEngineMetrics.enable();
+					}
+					ConfigurableEngineFinder configurableEngineFinder	= new ConfigurableEngineFinder();
+					configurableEngineFinder.configure(properties);
+					if (CachingFinder.isEnabled(properties)) {
+						pipFinder	= new CachingFinder(configurableEngineFinder, properties);
+					} else {
+						pipFinder	= configurableEngineFinder;
+					}
 				}
 			}
 		}
@@ -35,13 +35,20 @@ import com.att.research.xacml.std.StdMutableResult;
 import com.att.research.xacml.std.StdResult;
 import com.att.research.xacml.std.StdStatus;
 import com.att.research.xacml.std.StdStatusCode;
+import com.att.research.xacml.std.pip.finders.RequestScopedCache;
 import com.att.research.xacml.std.trace.StdTraceEvent;
 import com.att.research.xacml.util.FactoryException;
+import com.att.research.xacml.util.XACMLProperties;
 import com.att.research.xacmlatt.pdp.eval.EvaluationContext;
 import com.att.research.xacmlatt.pdp.eval.EvaluationContextFactory;
 import com.att.research.xacmlatt.pdp.eval.EvaluationException;
 import com.att.research.xacmlatt.pdp.policy.PolicyDef;
 import com.att.research.xacmlatt.pdp.policy.PolicyFinderResult;
+import com.att.research.xacmlatt.pdp.std.StdEvaluationContext;
+import com.att.research.xacmlatt.pdp.util.ATTPDPProperties;
+import com.att.research.xacmlatt.pdp.util.AttributePrefetcher;
+import com.att.research.xacmlatt.pdp.util.DecisionCache;
+import com.att.research.xacmlatt.pdp.util.DecisionMetrics;
 
 /**
  * ATTPDPEngine implements the {@link com.att.research.xacml.api.pdp.PDPEngine} interface using the XACML 3.0 specification.
@@ -71,6 +78,12 @@ public class ATTPDPEngine implements PDPEngine, Traceable {
 	private Decision defaultDecision				= Decision.INDETERMINATE;
 	private ScopeResolver scopeResolver;
 	private TraceEngine traceEngine;
+	private long maxIndividualDecisionRequests;
+	private boolean shareRequestPIPCache			= true;
+	private final DecisionMetrics metrics			= DecisionMetrics.getInstance();
+	private boolean metricsEnabled;
+	private DecisionCache decisionCache;
+	private AttributePrefetcher attributePrefetcher;
 	private Log logger								= LogFactory.getLog(this.getClass());
 	
 	protected TraceEngine getTraceEngine() {
@@ -89,9 +102,29 @@ public class ATTPDPEngine implements PDPEngine, Traceable {
 		return this.traceEngine;
 	}
 	
+	private long getMaxIndividualDecisionRequests(String value) {
+		if (value == null || value.isEmpty()) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException ex) {
+			this.logger.error("Invalid " + ATTPDPProperties.PROP_MAXINDIVIDUALDECISIONREQUESTS + " value \"" + value + "\", no limit will be applied");
+			return 0;
+		}
+	}
+	
 	public ATTPDPEngine(EvaluationContextFactory evaluationContextFactoryIn, ScopeResolver scopeResolverIn) {
 		this.evaluationContextFactory	= evaluationContextFactoryIn;
 		this.scopeResolver				= scopeResolverIn;
+		this.maxIndividualDecisionRequests	= this.getMaxIndividualDecisionRequests(XACMLProperties.getProperty(ATTPDPProperties.PROP_MAXINDIVIDUALDECISIONREQUESTS));
+		this.shareRequestPIPCache			= Boolean.parseBoolean(XACMLProperties.getProperty(ATTPDPProperties.PROP_SHAREREQUESTPIPCACHE, "true"));
+		this.metricsEnabled					= Boolean.parseBoolean(XACMLProperties.getProperty(ATTPDPProperties.PROP_METRICS, "false"));
+		if (this.metricsEnabled) {
+			DecisionMetrics.enable();
+		}
+		this.decisionCache					= DecisionCache.newInstance(null);
+		this.attributePrefetcher			= AttributePrefetcher.newInstance(null);
 	}
 	
 	public ATTPDPEngine(EvaluationContextFactory evaluationContextFactoryIn, Decision defaultDecisionIn, ScopeResolver scopeResolverIn) {
@@ -101,11 +134,62 @@ public class ATTPDPEngine implements PDPEngine, Traceable {
 	
 	public ATTPDPEngine(EvaluationContextFactory evaluationContextFactoryIn, Decision defaultDecisionIn, ScopeResolver scopeResolverIn, Properties properties) {
 		this(evaluationContextFactoryIn, defaultDecisionIn, scopeResolverIn);
+		if (properties != null && properties.getProperty(ATTPDPProperties.PROP_MAXINDIVIDUALDECISIONREQUESTS) != null) {
+			this.maxIndividualDecisionRequests	= this.getMaxIndividualDecisionRequests(properties.getProperty(ATTPDPProperties.PROP_MAXINDIVIDUALDECISIONREQUESTS));
+		}
+		if (properties != null && properties.getProperty(ATTPDPProperties.PROP_SHAREREQUESTPIPCACHE) != null) {
+			this.shareRequestPIPCache	= Boolean.parseBoolean(properties.getProperty(ATTPDPProperties.PROP_SHAREREQUESTPIPCACHE));
+		}
+		if (properties != null && properties.getProperty(ATTPDPProperties.PROP_METRICS) != null) {
+			this.metricsEnabled	= Boolean.parseBoolean(properties.getProperty(ATTPDPProperties.PROP_METRICS));
+			if (this.metricsEnabled) {
+				DecisionMetrics.enable();
+			}
+		}
+		if (properties != null) {
+			this.decisionCache	= DecisionCache.newInstance(properties);
+			this.attributePrefetcher	= AttributePrefetcher.newInstance(properties);
+		}
+	}
+	
+	/**
+	 * Gets the {@link com.att.research.xacmlatt.pdp.util.DecisionCache} for this <code>ATTPDPEngine</code>.
+	 * 
+	 * @return the <code>DecisionCache</code>, or null if decisions are not cached
+	 */
+	public DecisionCache getDecisionCache() {
+		return this.decisionCache;
+	}
+
+	/**
+	 * Gets the {@link com.att.research.xacmlatt.pdp.util.AttributePrefetcher} for this <code>ATTPDPEngine</code>.
+	 *
+	 * @return the <code>AttributePrefetcher</code>, or null if attributes are not prefetched
+	 */
+	public AttributePrefetcher getAttributePrefetcher() {
+		return this.attributePrefetcher;
+	}
+	
+	/**
+	 * Gets whether this <code>ATTPDPEngine</code> records into the shared {@link com.att.research.xacmlatt.pdp.util.DecisionMetrics}.
+	 * Only engines created with {@link ATTPDPProperties#PROP_METRICS} do, and only while it has not been turned off through JMX.
+	 * 
+	 * @return true if decisions are being measured
+	 */
+	public boolean isMetricsEnabled() {
+		return this.metricsEnabled && this.metrics.isEnabled();
 	}
 	
 	protected Result processRequest(EvaluationContext evaluationContext) {
+		boolean bMetrics	= this.isMetricsEnabled();
 		try {
+			long lTimeStart	= (bMetrics ? System.nanoTime() : 0);
 			PolicyFinderResult<PolicyDef> policyFinderResult	= evaluationContext.getRootPolicyDef();
+			if (bMetrics) {
+				long lTimeEnd	= System.nanoTime();
+				this.metrics.getRootPolicySelectionTime().record(lTimeEnd - lTimeStart);
+				lTimeStart		= lTimeEnd;
+			}
 			if (policyFinderResult.getStatus() != null && !policyFinderResult.getStatus().isOk()) {
 				return new StdMutableResult(policyFinderResult.getStatus());
 			}
@@ -123,7 +207,17 @@ public class ATTPDPEngine implements PDPEngine, Traceable {
 					return new StdMutableResult(this.defaultDecision, new StdStatus(StdStatusCode.STATUS_CODE_PROCESSING_ERROR, "No applicable policy"));
 				}
 			}
+			/*
+			 * Look up the attributes the root policy can need in parallel rather than one at a time as evaluation reaches them
+			 */
+			if (this.attributePrefetcher != null && evaluationContext instanceof StdEvaluationContext) {
+				this.attributePrefetcher.prefetch(policyDefRoot, (StdEvaluationContext) evaluationContext);
+			}
 			Result result	= policyDefRoot.evaluate(evaluationContext);
+			if (bMetrics) {
+				this.metrics.getEvaluationTime().record(System.nanoTime() - lTimeStart);
+				this.metrics.recordRootPolicyEvaluation(policyDefRoot.getIdentifier());
+			}
 			if (result.getStatus().isOk()) {
 				Collection<AttributeCategory> listRequestAttributesIncludeInResult	= evaluationContext.getRequest().getRequestAttributesIncludedInResult();
 				if (listRequestAttributesIncludeInResult != null && listRequestAttributesIncludeInResult.size() > 0) {
@@ -140,11 +234,25 @@ public class ATTPDPEngine implements PDPEngine, Traceable {
 	
 	@Override
 	public Response decide(Request pepRequest) throws PDPException {
+		return this.decide(pepRequest, true);
+	}
+	
+	/**
+	 * Makes a decision on the given {@link com.att.research.xacml.api.Request}, optionally bypassing the
+	 * {@link com.att.research.xacmlatt.pdp.util.DecisionCache}.
+	 * 
+	 * @param pepRequest the <code>Request</code> to decide
+	 * @param useDecisionCache if false, every individual decision is evaluated and none are cached
+	 * @return the <code>Response</code>
+	 * @throws PDPException
+	 */
+	public Response decide(Request pepRequest, boolean useDecisionCache) throws PDPException {
 		/*
 		 * Validate the request
 		 */
 		TraceEngine traceEngineThis	= this.getTraceEngine();
-		if (traceEngineThis.isTracing()) {
+		final boolean bTracing		= traceEngineThis.isTracing();
+		if (bTracing) {
 			traceEngineThis.trace(new StdTraceEvent<Request>("Input Request", this, pepRequest));
 		}
 		Status statusRequest	= pepRequest.getStatus();
@@ -152,44 +260,93 @@ public class ATTPDPEngine implements PDPEngine, Traceable {
 			return new StdMutableResponse(statusRequest);
 		}
 		
+		boolean bMetrics	= this.isMetricsEnabled();
+		long lTimeStart		= (bMetrics ? System.nanoTime() : 0);
+		int individualDecisions	= 0;
+		
 		/*
 		 * Split the original request up into individual decision requests
 		 */
-		StdIndividualDecisionRequestGenerator stdIndividualDecisionRequestGenerator	= new StdIndividualDecisionRequestGenerator(this.scopeResolver, pepRequest);
+		StdIndividualDecisionRequestGenerator stdIndividualDecisionRequestGenerator	= new StdIndividualDecisionRequestGenerator(this.scopeResolver, pepRequest, this.maxIndividualDecisionRequests);
 		/*
 		 * Determine if we are combining multiple results into a single result
 		 */
 		boolean bCombineResults	= pepRequest.getCombinedDecision();
 		StdMutableResult stdResultCombined	= null;
 		
+		/*
+		 * PIP results are shared by all of the individual decisions from the same request once we know there is more than one
+		 */
+		RequestScopedCache requestScopedCache	= null;
+		
+		/*
+		 * Cached decisions are only good for the generation of policies and PIP configuration they were made under
+		 */
+		DecisionCache decisionCacheThis	= (useDecisionCache ? this.decisionCache : null);
+		long generation					= (decisionCacheThis == null ? 0 : this.evaluationContextFactory.getGeneration());
+		
 		/*
 		 * Iterate over all of the individual decision requests and process them, combining them into the final response
 		 */
 		StdMutableResponse stdResponse	= new StdMutableResponse();
 		Iterator<Request> iterRequestsIndividualDecision	= stdIndividualDecisionRequestGenerator.getIndividualDecisionRequests();
+		/*
+		 * The individual decision requests are generated as they are asked for, so their time is what is spent in the iterator
+		 */
+		GenerationTimer generationTimer	= null;
+		if (bMetrics && iterRequestsIndividualDecision != null) {
+			generationTimer					= new GenerationTimer(iterRequestsIndividualDecision, System.nanoTime() - lTimeStart);
+			iterRequestsIndividualDecision	= generationTimer;
+		}
 		if (iterRequestsIndividualDecision == null || !iterRequestsIndividualDecision.hasNext()) {
 			return new StdMutableResponse(new StdStatus(StdStatusCode.STATUS_CODE_PROCESSING_ERROR, "No individual decision requests"));
 		}
 		
 		while (iterRequestsIndividualDecision.hasNext()) {
 			Request requestIndividualDecision	= iterRequestsIndividualDecision.next();
-			if (traceEngineThis.isTracing()) {
+			if (requestScopedCache == null && this.shareRequestPIPCache && iterRequestsIndividualDecision.hasNext()) {
+				requestScopedCache	= new RequestScopedCache();
+			}
+			if (bTracing) {
 				traceEngineThis.trace(new StdTraceEvent<Request>("Individual Request", this, requestIndividualDecision));
 			}
 			Result resultIndividualDecision		= null;
 			if (requestIndividualDecision.getStatus() != null && !requestIndividualDecision.getStatus().isOk()) {
 				resultIndividualDecision	= new StdMutableResult(requestIndividualDecision.getStatus());
 			} else {
-				EvaluationContext evaluationContext	= this.evaluationContextFactory.getEvaluationContext(requestIndividualDecision);
-				if (evaluationContext == null) {
-					resultIndividualDecision	= RESULT_ECTX_NULL;
-				} else {
-					resultIndividualDecision	= this.processRequest(evaluationContext);
+				DecisionCache.Key decisionCacheKey	= (decisionCacheThis == null ? null : decisionCacheThis.getKey(requestIndividualDecision));
+				if (decisionCacheKey != null) {
+					resultIndividualDecision	= decisionCacheThis.get(decisionCacheKey, generation);
+					if (bMetrics) {
+						this.metrics.recordDecisionCache(resultIndividualDecision != null);
+					}
+				}
+				if (resultIndividualDecision == null) {
+					EvaluationContext evaluationContext	= (requestScopedCache == null ? this.evaluationContextFactory.getEvaluationContext(requestIndividualDecision) : this.evaluationContextFactory.getEvaluationContext(requestIndividualDecision, requestScopedCache));
+					if (evaluationContext == null) {
+						resultIndividualDecision	= RESULT_ECTX_NULL;
+					} else {
+						resultIndividualDecision	= this.processRequest(evaluationContext);
+						if (bMetrics && evaluationContext instanceof StdEvaluationContext) {
+							this.metrics.getPIPTime().record(((StdEvaluationContext) evaluationContext).getPIPTime());
+						}
+						/*
+						 * Only a StdEvaluationContext can say whether anything beyond the request was used
+						 */
+						if (decisionCacheKey != null) {
+							boolean usedPIPAttributes	= (!(evaluationContext instanceof StdEvaluationContext) || ((StdEvaluationContext) evaluationContext).usedPIPAttributes());
+							decisionCacheThis.put(decisionCacheKey, generation, resultIndividualDecision, usedPIPAttributes);
+						}
+					}
 				}
 			}
+			if (bMetrics) {
+				individualDecisions++;
+				this.metrics.recordDecision(resultIndividualDecision.getDecision());
+			}
 			
 			assert(resultIndividualDecision != null);
-			if (traceEngineThis.isTracing()) {
+			if (bTracing) {
 				traceEngineThis.trace(new StdTraceEvent<Result>("Individual Result", this, resultIndividualDecision));
 			}
 			if (bCombineResults) {
@@ -214,7 +371,7 @@ public class ATTPDPEngine implements PDPEngine, Traceable {
 				stdResultCombined.addPolicyIdentifiers(resultIndividualDecision.getPolicyIdentifiers());
 				stdResultCombined.addPolicySetIdentifiers(resultIndividualDecision.getPolicySetIdentifiers());
 				stdResultCombined.addAttributeCategories(resultIndividualDecision.getAttributes());
-				if (traceEngineThis.isTracing()) {
+				if (bTracing) {
 					traceEngineThis.trace(new StdTraceEvent<Result>("Combined result", this, stdResultCombined));
 				}
 			} else {
@@ -225,8 +382,41 @@ public class ATTPDPEngine implements PDPEngine, Traceable {
 		if (bCombineResults) {
 			stdResponse.add(stdResultCombined);
 		}
+		if (bMetrics) {
+			this.metrics.getRequestGenerationTime().record(generationTimer.nanos);
+			this.metrics.recordRequest(individualDecisions, System.nanoTime() - lTimeStart);
+		}
 		return stdResponse;
 	}
+	
+	/*
+	 * Adds up the time spent generating individual decision requests
+	 */
+	private static final class GenerationTimer implements Iterator<Request> {
+		private final Iterator<Request> iterator;
+		private long nanos;
+		
+		public GenerationTimer(Iterator<Request> iteratorIn, long nanosIn) {
+			this.iterator	= iteratorIn;
+			this.nanos		= nanosIn;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			long lTimeStart	= System.nanoTime();
+			boolean hasNext	= this.iterator.hasNext();
+			this.nanos		+= System.nanoTime() - lTimeStart;
+			return hasNext;
+		}
+		
+		@Override
+		public Request next() {
+			long lTimeStart	= System.nanoTime();
+			Request next	= this.iterator.next();
+			this.nanos		+= System.nanoTime() - lTimeStart;
+			return next;
+		}
+	}
 
 	@Override
 	public Collection<URI> getProfiles() {
@@ -16,6 +16,7 @@ import com.att.research.xacmlatt.pdp.policy.Policy;
 import com.att.research.xacmlatt.pdp.policy.PolicyDef;
 import com.att.research.xacmlatt.pdp.policy.PolicyFinderResult;
 import com.att.research.xacmlatt.pdp.policy.PolicySet;
+import com.att.research.xacmlatt.pdp.policy.TargetIndex;
 
 /**
  * EvaluationContext provides the interface that the PDP uses to evaluate its set of Policies and PolicySets against
@@ -66,4 +67,14 @@ public interface EvaluationContext extends PIPFinder, TraceEngine {
 	 * @throws EvaluationException if there is an error retrieving the <code>Attribute</code>s
 	 */
 	public PIPResponse getAttributes(PIPRequest pipRequest) throws PIPException;
+	
+	/**
+	 * Determines whether combining algorithms should use the {@link com.att.research.xacmlatt.pdp.policy.TargetIndex} to skip
+	 * elements that cannot apply to the <code>Request</code>.
+	 * 
+	 * @return true if the <code>TargetIndex</code> should be used
+	 */
+	public default boolean isTargetIndexEnabled() {
+		return TargetIndex.isEnabled(null);
+	}
 }
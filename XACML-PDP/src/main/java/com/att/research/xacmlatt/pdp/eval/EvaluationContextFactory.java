@@ -6,9 +6,11 @@
 package com.att.research.xacmlatt.pdp.eval;
 
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.att.research.xacml.api.Request;
 import com.att.research.xacml.api.pip.PIPFinder;
+import com.att.research.xacml.std.pip.finders.RequestScopedCache;
 import com.att.research.xacml.util.FactoryException;
 import com.att.research.xacml.util.FactoryFinder;
 import com.att.research.xacmlatt.pdp.policy.PolicyFinder;
@@ -25,6 +27,8 @@ public abstract class EvaluationContextFactory {
 	private static final String	FACTORYID					= ATTPDPProperties.PROP_EVALUATIONCONTEXTFACTORY;
 	private static final String DEFAULT_FACTORY_CLASSNAME	= "com.att.research.xacmlatt.pdp.std.StdEvaluationContextFactory";
 	
+	private final AtomicLong generation	= new AtomicLong();
+	
 	protected EvaluationContextFactory() {
 	}
 	
@@ -54,6 +58,36 @@ public abstract class EvaluationContextFactory {
 	 * @return a new <code>EvaluationContext</code> for the given <code>Request</code>
 	 */
 	public abstract EvaluationContext getEvaluationContext(Request request);
+	
+	/**
+	 * Gets a new {@link com.att.research.xacmlatt.pdp.eval.EvaluationContext} for the given individual decision {@link com.att.research.xacml.api.Request}
+	 * that shares PIP results through the given {@link com.att.research.xacml.std.pip.finders.RequestScopedCache} with the other individual
+	 * decisions from the same original request.  The default implementation ignores the cache.
+	 * 
+	 * @param request the <code>Request</code> for the new <code>EvaluationContext</code>
+	 * @param requestScopedCache the <code>RequestScopedCache</code> for the original request
+	 * @return a new <code>EvaluationContext</code> for the given <code>Request</code>
+	 */
+	public EvaluationContext getEvaluationContext(Request request, RequestScopedCache requestScopedCache) {
+		return this.getEvaluationContext(request);
+	}
+
+	/**
+	 * Gets the generation of the policies and PIP configuration used by this <code>EvaluationContextFactory</code>.  It changes
+	 * whenever either of them is replaced, so anything derived from earlier decisions, such as cached results, can be discarded.
+	 * 
+	 * @return the current generation
+	 */
+	public long getGeneration() {
+		return this.generation.get();
+	}
+	
+	/**
+	 * Starts a new generation.  Implementations call this whenever the <code>PolicyFinder</code> or <code>PIPFinder</code> is replaced.
+	 */
+	protected void nextGeneration() {
+		this.generation.incrementAndGet();
+	}
 
 	/**
 	 * Sets the {@link com.att.research.xacmlatt.pdp.policy.PolicyFinder} for this <code>EvaluationContextFactory</code> to an
@@ -23,6 +23,117 @@ import com.att.research.xacml.std.StdMutableResult;
  * @version $Revision: 1.1 $
  */
 public class EvaluationResult extends StdMutableResult {
+	/**
+	 * ImmutableEvaluationResult is an <code>EvaluationResult</code> that throws <code>UnsupportedOperationException</code> from
+	 * every method that would change it, so that one instance can be returned from every evaluation that produces it.
+	 */
+	private static class ImmutableEvaluationResult extends EvaluationResult {
+		public ImmutableEvaluationResult(Decision decisionIn) {
+			super(decisionIn);
+		}
+
+		private static UnsupportedOperationException unsupported() {
+			return new UnsupportedOperationException("Shared " + EvaluationResult.class.getSimpleName() + " cannot be modified");
+		}
+
+		@Override
+		public void setDecision(Decision decisionIn) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setStatus(Status statusIn) {
+			throw unsupported();
+		}
+
+		@Override
+		public void addObligation(Obligation obligation) {
+			throw unsupported();
+		}
+
+		@Override
+		public void addObligations(Collection<Obligation> obligationsIn) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setObligations(Collection<Obligation> obligationsIn) {
+			throw unsupported();
+		}
+
+		@Override
+		public void addAdvice(Advice advice) {
+			throw unsupported();
+		}
+
+		@Override
+		public void addAdvice(Collection<Advice> adviceIn) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setAdvice(Collection<Advice> adviceIn) {
+			throw unsupported();
+		}
+
+		@Override
+		public void addAttributeCategory(AttributeCategory attribute) {
+			throw unsupported();
+		}
+
+		@Override
+		public void addAttributeCategories(Collection<AttributeCategory> listAttributeCategories) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setAttributeCategories(Collection<AttributeCategory> listAttributeCategories) {
+			throw unsupported();
+		}
+
+		@Override
+		public void addPolicyIdentifier(IdReference policyIdentifier) {
+			throw unsupported();
+		}
+
+		@Override
+		public void addPolicyIdentifiers(Collection<IdReference> policyIdentifierList) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setPolicyIdentifiers(Collection<IdReference> policyIdentifierList) {
+			throw unsupported();
+		}
+
+		@Override
+		public void addPolicySetIdentifier(IdReference policyIdentifier) {
+			throw unsupported();
+		}
+
+		@Override
+		public void addPolicySetIdentifiers(Collection<IdReference> policyIdentifierList) {
+			throw unsupported();
+		}
+
+		@Override
+		public void setPolicySetIdentifiers(Collection<IdReference> policyIdentifierList) {
+			throw unsupported();
+		}
+
+		@Override
+		public void merge(EvaluationResult evaluationResult) {
+			throw unsupported();
+		}
+	}
+
+	/**
+	 * The shared <code>NotApplicable</code> result with an OK status and nothing attached, returned by rules, policies,
+	 * policy sets and combining algorithms instead of a new one each time.  Permit and Deny results are not shared because
+	 * policies add their obligations, advice and identifiers to them.
+	 */
+	public static final EvaluationResult ER_NOTAPPLICABLE	= new ImmutableEvaluationResult(Decision.NOTAPPLICABLE);
+
 	public EvaluationResult() {
 		super();
 	}
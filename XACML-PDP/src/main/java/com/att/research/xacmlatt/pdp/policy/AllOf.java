@@ -27,9 +27,15 @@ import com.att.research.xacmlatt.pdp.eval.Matchable;
  * @version $Revision
  */
 public class AllOf extends PolicyComponent implements Matchable {
+	private static final Match[]	EMPTY_MATCHES	= new Match[0];
+
 	private List<Match>	matches;
+	private volatile Match[]	matchArray;
 	
 	protected List<Match> getMatchList(boolean bNoNulls) {
+		if (bNoNulls) {
+			this.matchArray	= null;
+		}
 		if (this.matches == null && bNoNulls) {
 			this.matches	= new ArrayList<>();
 		}
@@ -37,6 +43,7 @@ public class AllOf extends PolicyComponent implements Matchable {
 	}
 	
 	protected void clearMatchList() {
+		this.matchArray	= null;
 		if (this.matches != null) {
 			this.matches.clear();
 		}
@@ -56,6 +63,21 @@ public class AllOf extends PolicyComponent implements Matchable {
 	public Iterator<Match> getMatches() {
 		return (this.matches == null ? null : this.matches.iterator());
 	}
+
+	/**
+	 * Gets the {@link com.att.research.xacmlatt.pdp.policy.Match}s in this <code>AllOf</code> as an array for indexed access during
+	 * matching.  The array is built on first use after any change and must not be modified.
+	 *
+	 * @return the array of <code>Match</code>s in this <code>AllOf</code>, empty if there are none
+	 */
+	protected Match[] getMatchArray() {
+		Match[] arrayMatches	= this.matchArray;
+		if (arrayMatches == null) {
+			arrayMatches	= (this.matches == null || this.matches.isEmpty() ? EMPTY_MATCHES : this.matches.toArray(new Match[this.matches.size()]));
+			this.matchArray	= arrayMatches;
+		}
+		return arrayMatches;
+	}
 	
 	public void setMatches(Collection<Match> matchesIn) {
 		this.clearMatchList();
@@ -79,12 +101,12 @@ public class AllOf extends PolicyComponent implements Matchable {
 		if (!this.validate()) {
 			return new MatchResult(new StdStatus(this.getStatusCode(), this.getStatusMessage()));
 		}
-		Iterator<Match> iterMatches	= this.getMatches();
-		assert(iterMatches != null && iterMatches.hasNext());
+		Match[] arrayMatches	= this.getMatchArray();
+		assert(arrayMatches.length > 0);
 		
 		MatchResult matchResultFallThrough	= MatchResult.MM_MATCH;
-		while (iterMatches.hasNext()) {
-			MatchResult matchResultMatch	= iterMatches.next().match(evaluationContext);
+		for (Match match : arrayMatches) {
+			MatchResult matchResultMatch	= match.match(evaluationContext);
 			assert(matchResultMatch != null);
 			switch(matchResultMatch.getMatchCode()) {
 			case INDETERMINATE:
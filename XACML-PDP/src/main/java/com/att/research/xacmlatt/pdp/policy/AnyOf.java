@@ -27,9 +27,15 @@ import com.att.research.xacmlatt.pdp.eval.Matchable;
  * @version $Revision
  */
 public class AnyOf extends PolicyComponent implements Matchable {
+	private static final AllOf[]	EMPTY_ALLOFS	= new AllOf[0];
+
 	private List<AllOf>	allOfs;
+	private volatile AllOf[]	allOfArray;
 	
 	protected List<AllOf> getAllOfList(boolean bNoNull) {
+		if (bNoNull) {
+			this.allOfArray	= null;
+		}
 		if (this.allOfs == null && bNoNull) {
 			this.allOfs	= new ArrayList<>();
 		}
@@ -37,6 +43,7 @@ public class AnyOf extends PolicyComponent implements Matchable {
 	}
 	
 	protected void clearAllOfList() {
+		this.allOfArray	= null;
 		if (this.allOfs != null) {
 			this.allOfs.clear();
 		}
@@ -62,6 +69,21 @@ public class AnyOf extends PolicyComponent implements Matchable {
 	public Iterator<AllOf> getAllOfs() {
 		return (this.allOfs == null ? null : this.allOfs.iterator());
 	}
+
+	/**
+	 * Gets the {@link com.att.research.xacmlatt.pdp.policy.AllOf}s in this <code>AnyOf</code> as an array for indexed access during
+	 * matching.  The array is built on first use after any change and must not be modified.
+	 *
+	 * @return the array of <code>AllOf</code>s in this <code>AnyOf</code>, empty if there are none
+	 */
+	protected AllOf[] getAllOfArray() {
+		AllOf[] arrayAllOfs	= this.allOfArray;
+		if (arrayAllOfs == null) {
+			arrayAllOfs	= (this.allOfs == null || this.allOfs.isEmpty() ? EMPTY_ALLOFS : this.allOfs.toArray(new AllOf[this.allOfs.size()]));
+			this.allOfArray	= arrayAllOfs;
+		}
+		return arrayAllOfs;
+	}
 	
 	public void setAllOfs(Collection<AllOf> allOfsIn) {
 		this.clearAllOfList();
@@ -85,8 +107,8 @@ public class AnyOf extends PolicyComponent implements Matchable {
 		if (!this.validate()) {
 			return new MatchResult(new StdStatus(this.getStatusCode(), this.getStatusMessage()));
 		}
-		Iterator<AllOf> iterAllOfs	= this.getAllOfs();
-		if (iterAllOfs == null || !iterAllOfs.hasNext()) {
+		AllOf[] arrayAllOfs	= this.getAllOfArray();
+		if (arrayAllOfs.length == 0) {
 			return MatchResult.MM_NOMATCH;
 		}
 		
@@ -94,8 +116,8 @@ public class AnyOf extends PolicyComponent implements Matchable {
 		 * Assume "No Match" until we find a match or an indeterminate result
 		 */
 		MatchResult matchResultFallThrough	= MatchResult.MM_NOMATCH;
-		while (iterAllOfs.hasNext()) {
-			MatchResult matchResultAllOf	= iterAllOfs.next().match(evaluationContext);
+		for (AllOf allOf : arrayAllOfs) {
+			MatchResult matchResultAllOf	= allOf.match(evaluationContext);
 			assert(matchResultAllOf != null);
 			switch(matchResultAllOf.getMatchCode()) {
 			case INDETERMINATE:
@@ -34,7 +34,7 @@ public interface CombiningAlgorithm<T extends Evaluatable> {
 	 * the particular combining algorithm and combines their <code>EvaluationResult</code>s into a single <code>EvaluationResult</code>.
 	 * 
 	 * @param evaluationContext the <code>EvaluationContext</code> in which to evaluate each of the <code>CombiningElement</code>s
-	 * @param elements the <code>List</code> of <code>CombiningElement</code>s to evaluate
+	 * @param elements the <code>List</code> of <code>CombiningElement</code>s to evaluate, read by index so it should be a <code>RandomAccess</code> list
 	 * @param combinerParameters the <code>List</code> of <code>CombinerParameter</code>s to apply to the combining algorithm
 	 * @return the combined <code>EvaluationResult</code>
 	 * @throws EvaluationException if there is an error in the <code>evaluate</code> method of any of the <code>CombiningElement</code>s
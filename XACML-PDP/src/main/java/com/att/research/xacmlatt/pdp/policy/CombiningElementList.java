@@ -0,0 +1,60 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.policy;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import com.att.research.xacmlatt.pdp.eval.Evaluatable;
+
+/**
+ * CombiningElementList is the fixed, array backed <code>List</code> of {@link com.att.research.xacmlatt.pdp.policy.CombiningElement}s
+ * a {@link com.att.research.xacmlatt.pdp.policy.Policy} or {@link com.att.research.xacmlatt.pdp.policy.PolicySet} passes to its
+ * combining algorithm.  It also holds the {@link com.att.research.xacmlatt.pdp.policy.TargetIndex} over its elements, built the
+ * first time a combining algorithm asks for it.
+ *
+ * @version $Revision$
+ *
+ * @param <T> the type of object being combined
+ */
+public class CombiningElementList<T extends Evaluatable> extends AbstractList<CombiningElement<T>> implements RandomAccess {
+	private final CombiningElement<T>[]	elements;
+	private volatile TargetIndex		targetIndex;
+
+	/**
+	 * Creates a new <code>CombiningElementList</code> over the given array, which must not be changed afterwards.
+	 *
+	 * @param elementsIn the array of <code>CombiningElement</code>s
+	 */
+	public CombiningElementList(CombiningElement<T>[] elementsIn) {
+		this.elements	= elementsIn;
+	}
+
+	@Override
+	public CombiningElement<T> get(int index) {
+		return this.elements[index];
+	}
+
+	@Override
+	public int size() {
+		return this.elements.length;
+	}
+
+	/**
+	 * Gets the {@link com.att.research.xacmlatt.pdp.policy.TargetIndex} over the elements in this <code>CombiningElementList</code>,
+	 * building it if this is the first call.
+	 *
+	 * @return the <code>TargetIndex</code> for this <code>CombiningElementList</code>
+	 */
+	public TargetIndex getTargetIndex() {
+		TargetIndex targetIndexThis	= this.targetIndex;
+		if (targetIndexThis == null) {
+			targetIndexThis		= TargetIndex.newInstance(this);
+			this.targetIndex	= targetIndexThis;
+		}
+		return targetIndexThis;
+	}
+}
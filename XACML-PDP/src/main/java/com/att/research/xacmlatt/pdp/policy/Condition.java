@@ -109,6 +109,18 @@ public class Condition extends PolicyComponent {
 		ExpressionResult expressionResult	= this.getExpression().evaluate(evaluationContext, policyDefaults);
 		assert(expressionResult != null);
 		
+		return this.toExpressionResultBoolean(expressionResult);
+	}
+	
+	/**
+	 * Converts the {@link com.att.research.xacmlatt.pdp.policy.ExpressionResult} of evaluating the <code>Expression</code> in this
+	 * <code>Condition</code> into an {@link com.att.research.xacmlatt.pdp.policy.ExpressionResultBoolean}, checking that it is
+	 * a single boolean value.
+	 * 
+	 * @param expressionResult the <code>ExpressionResult</code> of evaluating the <code>Expression</code>
+	 * @return an <code>ExpressionResultBoolean</code>
+	 */
+	protected ExpressionResultBoolean toExpressionResultBoolean(ExpressionResult expressionResult) {
 		if (!expressionResult.isOk()) {
 			return new ExpressionResultBoolean(expressionResult.getStatus());
 		}
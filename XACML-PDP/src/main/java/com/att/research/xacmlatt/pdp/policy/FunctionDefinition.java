@@ -7,6 +7,7 @@ package com.att.research.xacmlatt.pdp.policy;
 
 import java.util.List;
 
+import com.att.research.xacml.api.AttributeValue;
 import com.att.research.xacml.api.Identifier;
 import com.att.research.xacmlatt.pdp.eval.EvaluationContext;
 
@@ -48,4 +49,27 @@ public interface FunctionDefinition {
 	 * @return an {@link com.att.research.xacmlatt.pdp.policy.ExpressionResult} with the results of the call
 	 */
 	public ExpressionResult evaluate(EvaluationContext evaluationContext, List<FunctionArgument> arguments);
+	
+	/**
+	 * Determines if this <code>FunctionDefinition</code> always returns the same result for the same arguments without
+	 * looking at the {@link com.att.research.xacmlatt.pdp.eval.EvaluationContext}, so that an application of it to constant
+	 * arguments can be evaluated once when the policy is loaded.
+	 * 
+	 * @return true if this <code>FunctionDefinition</code> depends on nothing but its arguments, else false
+	 */
+	public default boolean isDeterministic() {
+		return false;
+	}
+
+	/**
+	 * Gets a {@link com.att.research.xacmlatt.pdp.policy.MatchPredicate} that compares values to the given literal
+	 * <code>AttributeValue</code> the way this <code>FunctionDefinition</code> would when it is used in a
+	 * {@link com.att.research.xacmlatt.pdp.policy.Match}.
+	 *
+	 * @param attributeValue the literal <code>AttributeValue</code> of the <code>Match</code>
+	 * @return the <code>MatchPredicate</code>, or null if this <code>FunctionDefinition</code> is always evaluated
+	 */
+	public default MatchPredicate getMatchPredicate(AttributeValue<?> attributeValue) {
+		return null;
+	}
 }
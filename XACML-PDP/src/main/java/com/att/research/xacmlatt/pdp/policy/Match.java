@@ -5,8 +5,7 @@
  */
 package com.att.research.xacmlatt.pdp.policy;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 
 import com.att.research.xacml.api.AttributeValue;
@@ -37,6 +36,13 @@ public class Match extends PolicyComponent implements Matchable {
 	private AttributeRetrievalBase	attributeRetrievalBase;
 	private PolicyDefaults			policyDefaults;
 	private FunctionDefinition		functionDefinition;
+	private FunctionArgument		functionArgumentAttributeValue;
+	private MatchPredicate			matchPredicate;
+	
+	/*
+	 * Bound in place of a null MatchPredicate so that it is only looked up once
+	 */
+	private static final MatchPredicate	MP_EVALUATE	= attributeValue -> null;
 	
 	protected FunctionDefinition getFunctionDefinition() {
 		Identifier functionDefinitionId	= this.getMatchId();
@@ -74,7 +80,8 @@ public class Match extends PolicyComponent implements Matchable {
 	}
 	
 	public void setMatchId(Identifier matchIdIn) {
-		this.matchId	= matchIdIn;
+		this.matchId		= matchIdIn;
+		this.matchPredicate	= null;
 	}
 	
 	public AttributeValue<?> getAttributeValue() {
@@ -82,7 +89,36 @@ public class Match extends PolicyComponent implements Matchable {
 	}
 	
 	public void setAttributeValue(AttributeValue<?> attributeValueIn) {
-		this.attributeValue	= attributeValueIn;
+		this.attributeValue					= attributeValueIn;
+		this.functionArgumentAttributeValue	= null;
+		this.matchPredicate					= null;
+	}
+	
+	/*
+	 * The literal value is the same for every request, so it is only wrapped as a FunctionArgument once
+	 */
+	private FunctionArgument getFunctionArgumentAttributeValue() {
+		FunctionArgument functionArgument	= this.functionArgumentAttributeValue;
+		if (functionArgument == null) {
+			functionArgument	= new FunctionArgumentAttributeValue(this.getAttributeValue());
+			this.functionArgumentAttributeValue	= functionArgument;
+		}
+		return functionArgument;
+	}
+	
+	/*
+	 * Binds the FunctionDefinition to the literal value once, if it supports comparing values without being evaluated
+	 */
+	private MatchPredicate getMatchPredicate(FunctionDefinition functionDefinitionMatch) {
+		MatchPredicate thisMatchPredicate	= this.matchPredicate;
+		if (thisMatchPredicate == null) {
+			thisMatchPredicate	= functionDefinitionMatch.getMatchPredicate(this.getAttributeValue());
+			if (thisMatchPredicate == null) {
+				thisMatchPredicate	= MP_EVALUATE;
+			}
+			this.matchPredicate	= thisMatchPredicate;
+		}
+		return thisMatchPredicate;
 	}
 	
 	public AttributeRetrievalBase getAttributeRetrievalBase() {
@@ -101,10 +137,13 @@ public class Match extends PolicyComponent implements Matchable {
 		this.policyDefaults	= policyDefaultsIn;
 	}
 
-	private static MatchResult match(EvaluationContext evaluationContext, FunctionDefinition functionDefinition, FunctionArgument arg1, FunctionArgument arg2) throws EvaluationException {
-		List<FunctionArgument> listArguments	= new ArrayList<>(2);
-		listArguments.add(arg1);
-		listArguments.add(arg2);
+	private static MatchResult match(EvaluationContext evaluationContext, FunctionDefinition functionDefinition, MatchPredicate matchPredicate, FunctionArgument arg1, AttributeValue<?> attributeValue2) throws EvaluationException {
+		Boolean matched	= matchPredicate.match(attributeValue2);
+		if (matched != null) {
+			return (matched.booleanValue() ? MatchResult.MM_MATCH : MatchResult.MM_NOMATCH);
+		}
+		
+		List<FunctionArgument> listArguments	= Arrays.asList(arg1, new FunctionArgumentAttributeValue(attributeValue2));
 		
 		ExpressionResult expressionResult	= functionDefinition.evaluate(evaluationContext, listArguments);
 		assert(expressionResult != null);
@@ -137,9 +176,9 @@ public class Match extends PolicyComponent implements Matchable {
 		FunctionDefinition functionDefinitionMatch		= this.getFunctionDefinition();
 		assert(functionDefinitionMatch != null);
 		
-		AttributeValue<?> attributeValue				= this.getAttributeValue();
-		assert(attributeValue != null);
-		FunctionArgument functionArgument1				= new FunctionArgumentAttributeValue(attributeValue);
+		assert(this.getAttributeValue() != null);
+		FunctionArgument functionArgument1				= this.getFunctionArgumentAttributeValue();
+		MatchPredicate matchPredicateMatch				= this.getMatchPredicate(functionDefinitionMatch);
 		
 		AttributeRetrievalBase attributeRetrievalBase	= this.getAttributeRetrievalBase();
 		assert(attributeRetrievalBase != null);
@@ -154,9 +193,10 @@ public class Match extends PolicyComponent implements Matchable {
 			MatchResult matchResult	= MatchResult.MM_NOMATCH;
 			Bag bagAttributeValues	= expressionResult.getBag();
 			if (bagAttributeValues != null) {
-				Iterator<AttributeValue<?>> iterAttributeValues	= bagAttributeValues.getAttributeValues();
-				while (matchResult.getMatchCode() != MatchResult.MatchCode.MATCH && iterAttributeValues.hasNext()) {
-					MatchResult matchResultValue	= match(evaluationContext, functionDefinitionMatch, functionArgument1, new FunctionArgumentAttributeValue(iterAttributeValues.next()));
+				List<AttributeValue<?>> listAttributeValues	= bagAttributeValues.getAttributeValueList();
+				int nAttributeValues	= listAttributeValues.size();
+				for (int i = 0 ; matchResult.getMatchCode() != MatchResult.MatchCode.MATCH && i < nAttributeValues ; i++) {
+					MatchResult matchResultValue	= match(evaluationContext, functionDefinitionMatch, matchPredicateMatch, functionArgument1, listAttributeValues.get(i));
 					switch(matchResultValue.getMatchCode()) {
 					case INDETERMINATE:
 						if (matchResult.getMatchCode() != MatchResult.MatchCode.INDETERMINATE) {
@@ -181,7 +221,7 @@ public class Match extends PolicyComponent implements Matchable {
 				return new MatchResult(new StdStatus(StdStatusCode.STATUS_CODE_PROCESSING_ERROR, "Null AttributeValue"));
 			}
 			
-			return match(evaluationContext, functionDefinitionMatch, functionArgument1, new FunctionArgumentAttributeValue(attributeValueExpressionResult));
+			return match(evaluationContext, functionDefinitionMatch, matchPredicateMatch, functionArgument1, attributeValueExpressionResult);
 		}
 	}
 
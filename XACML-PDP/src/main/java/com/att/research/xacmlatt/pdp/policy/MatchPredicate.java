@@ -0,0 +1,28 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.policy;
+
+import com.att.research.xacml.api.AttributeValue;
+
+/**
+ * MatchPredicate is a {@link com.att.research.xacmlatt.pdp.policy.FunctionDefinition} bound to the literal
+ * <code>AttributeValue</code> of a {@link com.att.research.xacmlatt.pdp.policy.Match}, so that the values retrieved for the
+ * <code>Match</code> can be compared to it directly instead of through
+ * {@link com.att.research.xacmlatt.pdp.policy.FunctionDefinition#evaluate(com.att.research.xacmlatt.pdp.eval.EvaluationContext, java.util.List)}.
+ *
+ * @version $Revision$
+ */
+@FunctionalInterface
+public interface MatchPredicate {
+	/**
+	 * Applies the bound <code>FunctionDefinition</code> to the literal and the given <code>AttributeValue</code>.
+	 *
+	 * @param attributeValue the <code>AttributeValue</code> retrieved for the <code>Match</code>
+	 * @return <code>Boolean.TRUE</code> or <code>Boolean.FALSE</code>, or null if the <code>AttributeValue</code> has to be
+	 * passed to <code>evaluate</code> to get the result or the error
+	 */
+	public Boolean match(AttributeValue<?> attributeValue);
+}
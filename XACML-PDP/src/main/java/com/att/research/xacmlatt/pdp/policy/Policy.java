@@ -57,12 +57,13 @@ public class Policy extends PolicyDef {
 	 */
 	protected List<CombiningElement<Rule>> getCombiningRules() {
 		if (this.combiningRules == null) {
-			this.combiningRules			= new ArrayList<CombiningElement<Rule>>();
-			Iterator<Rule> iterRules	= this.getRules();
-			while (iterRules.hasNext()) {
-				Rule rule	= iterRules.next();
-				this.combiningRules.add(new CombiningElement<Rule>(rule, this.ruleCombinerParameters.getCombinerParameters(rule)));
+			@SuppressWarnings("unchecked")
+			CombiningElement<Rule>[] arrayCombiningRules	= new CombiningElement[this.rules.size()];
+			for (int i = 0 ; i < arrayCombiningRules.length ; i++) {
+				Rule rule	= this.rules.get(i);
+				arrayCombiningRules[i]	= new CombiningElement<Rule>(rule, this.ruleCombinerParameters.getCombinerParameters(rule));
 			}
+			this.combiningRules	= new CombiningElementList<>(arrayCombiningRules);
 		}
 		return this.combiningRules;
 	}
@@ -233,9 +234,13 @@ public class Policy extends PolicyDef {
 
 	@Override
 	public EvaluationResult evaluate(EvaluationContext evaluationContext) throws EvaluationException {
+		final boolean bTracing	= evaluationContext.isTracing();
 		/*
 		 * First check to see if we are valid.  If not, return an error status immediately
 		 */
+		if (bTracing) {
+			evaluationContext.trace(new StdTraceEvent<Object>("Policy", this, null));
+		}
 		if (!this.validate()) {
 			return new EvaluationResult(new StdStatus(this.getStatusCode(), this.getStatusMessage()));
 		}
@@ -245,7 +250,7 @@ public class Policy extends PolicyDef {
 		 */
 		MatchResult thisMatchResult	= this.match(evaluationContext);
 		assert(thisMatchResult != null);
-		if (evaluationContext.isTracing()) {
+		if (bTracing) {
 			evaluationContext.trace(new StdTraceEvent<MatchResult>("Match", this, thisMatchResult));
 		}
 		switch(thisMatchResult.getMatchCode()) {
@@ -254,7 +259,7 @@ public class Policy extends PolicyDef {
 		case MATCH:
 			break;
 		case NOMATCH:
-			return new EvaluationResult(Decision.NOTAPPLICABLE);
+			return EvaluationResult.ER_NOTAPPLICABLE;
 		}
 		
 		/*
@@ -280,7 +285,7 @@ public class Policy extends PolicyDef {
 				evaluationResultCombined.addPolicyIdentifier(this.getIdReference());
 			}
 		}
-		if (evaluationContext.isTracing()) {
+		if (bTracing) {
 			evaluationContext.trace(new StdTraceEvent<Result>("Result", this, evaluationResultCombined));
 		}
 		return evaluationResultCombined;
@@ -49,14 +49,14 @@ public class PolicySet extends PolicyDef {
 	 */
 	protected List<CombiningElement<PolicySetChild>> getCombiningPolicies() {
 		if (this.combiningPolicies == null) {
-			this.combiningPolicies			= new ArrayList<CombiningElement<PolicySetChild>>();
-			Iterator<PolicySetChild> iterPolicies	= this.getChildren();
-			if (iterPolicies != null) {
-				while (iterPolicies.hasNext()) {
-					PolicySetChild policySetChild	= iterPolicies.next();
-					this.combiningPolicies.add(new CombiningElement<PolicySetChild>(policySetChild, this.policyCombinerParameters.getCombinerParameters(policySetChild)));
-				}
+			int nChildren	= (this.children == null ? 0 : this.children.size());
+			@SuppressWarnings("unchecked")
+			CombiningElement<PolicySetChild>[] arrayCombiningPolicies	= new CombiningElement[nChildren];
+			for (int i = 0 ; i < nChildren ; i++) {
+				PolicySetChild policySetChild	= this.children.get(i);
+				arrayCombiningPolicies[i]	= new CombiningElement<PolicySetChild>(policySetChild, this.policyCombinerParameters.getCombinerParameters(policySetChild));
 			}
+			this.combiningPolicies	= new CombiningElementList<>(arrayCombiningPolicies);
 		}
 		return this.combiningPolicies;
 	}
@@ -161,10 +161,11 @@ public class PolicySet extends PolicyDef {
 
 	@Override
 	public EvaluationResult evaluate(EvaluationContext evaluationContext) throws EvaluationException {
+		final boolean bTracing	= evaluationContext.isTracing();
 		/*
 		 * First check to see if we are valid.  If not, return an error status immediately
 		 */
-		if (evaluationContext.isTracing()) {
+		if (bTracing) {
 			evaluationContext.trace(new StdTraceEvent<Object>("PolicySet", this, null));
 		}
 		if (!this.validate()) {
@@ -176,7 +177,7 @@ public class PolicySet extends PolicyDef {
 		 */
 		MatchResult thisMatchResult	= this.match(evaluationContext);
 		assert(thisMatchResult != null);
-		if (evaluationContext.isTracing()) {
+		if (bTracing) {
 			evaluationContext.trace(new StdTraceEvent<MatchResult>("Match", this, thisMatchResult));
 		}
 		switch(thisMatchResult.getMatchCode()) {
@@ -185,7 +186,7 @@ public class PolicySet extends PolicyDef {
 		case MATCH:
 			break;
 		case NOMATCH:
-			return new EvaluationResult(Decision.NOTAPPLICABLE);
+			return EvaluationResult.ER_NOTAPPLICABLE;
 		}
 		
 		/*
@@ -211,7 +212,7 @@ public class PolicySet extends PolicyDef {
 				evaluationResultCombined.addPolicySetIdentifier(this.getIdReference());
 			}
 		}
-		if (evaluationContext.isTracing()) {
+		if (bTracing) {
 			evaluationContext.trace(new StdTraceEvent<Result>("Result", this, evaluationResultCombined));
 		}
 		return evaluationResultCombined;
@@ -160,6 +160,10 @@ public class Rule extends PolicyComponent implements Matchable, Evaluatable, Tra
 
 	@Override
 	public EvaluationResult evaluate(EvaluationContext evaluationContext) throws EvaluationException {
+		final boolean bTracing	= evaluationContext.isTracing();
+		if (bTracing) {
+			evaluationContext.trace(new StdTraceEvent<Object>("Rule", this, null));
+		}
 		if (!this.validate()) {
 			return new EvaluationResult(new StdStatus(this.getStatusCode(), this.getStatusMessage()));
 		}
@@ -168,7 +172,7 @@ public class Rule extends PolicyComponent implements Matchable, Evaluatable, Tra
 		 * See if our target matches
 		 */
 		MatchResult matchResult	= this.match(evaluationContext);
-		if (evaluationContext.isTracing()) {
+		if (bTracing) {
 			evaluationContext.trace(new StdTraceEvent<MatchResult>("Match", this, matchResult));
 		}
 		switch(matchResult.getMatchCode()) {
@@ -177,7 +181,7 @@ public class Rule extends PolicyComponent implements Matchable, Evaluatable, Tra
 		case MATCH:
 			break;
 		case NOMATCH:
-			return new EvaluationResult(Decision.NOTAPPLICABLE);
+			return EvaluationResult.ER_NOTAPPLICABLE;
 		}
 		
 		/*
@@ -188,14 +192,14 @@ public class Rule extends PolicyComponent implements Matchable, Evaluatable, Tra
 			ExpressionResultBoolean expressionResultCondition	= thisCondition.evaluate(evaluationContext, this.getPolicy().getPolicyDefaults());
 			assert(expressionResultCondition != null);
 			
-			if (evaluationContext.isTracing()) {
+			if (bTracing) {
 				evaluationContext.trace(new StdTraceEvent<ExpressionResultBoolean>("Condition", this, expressionResultCondition));
 			}
 			
 			if (!expressionResultCondition.isOk()) {
 				return new EvaluationResult(Decision.INDETERMINATE, expressionResultCondition.getStatus());
 			} else if (!expressionResultCondition.isTrue()) {
-				return new EvaluationResult(Decision.NOTAPPLICABLE);
+				return EvaluationResult.ER_NOTAPPLICABLE;
 			}
 		}
 		
@@ -206,7 +210,7 @@ public class Rule extends PolicyComponent implements Matchable, Evaluatable, Tra
 		List<Advice> listAdvices			= AdviceExpression.evaluate(evaluationContext, this.getPolicy().getPolicyDefaults(), this.getRuleEffect().getDecision(), this.getAdviceExpressionList());
 		
 		EvaluationResult evaluationResult	= new EvaluationResult(this.getRuleEffect().getDecision(), listObligations, listAdvices);
-		if (evaluationContext.isTracing()) {
+		if (bTracing) {
 			evaluationContext.trace(new StdTraceEvent<Result>("Result", this, evaluationResult));
 		}
 		return evaluationResult;
@@ -26,9 +26,15 @@ import com.att.research.xacmlatt.pdp.eval.Matchable;
  * @version $Revision: 1.1 $
  */
 public class Target extends PolicyComponent implements Matchable {
+	private static final AnyOf[]	EMPTY_ANYOFS	= new AnyOf[0];
+
 	private List<AnyOf>	anyOfs;
+	private volatile AnyOf[]	anyOfArray;
 	
 	protected List<AnyOf> getAnyOfList(boolean bNoNull) {
+		if (bNoNull) {
+			this.anyOfArray	= null;
+		}
 		if (this.anyOfs == null && bNoNull) {
 			this.anyOfs	= new ArrayList<>();
 		}
@@ -36,6 +42,7 @@ public class Target extends PolicyComponent implements Matchable {
 	}
 	
 	protected void clearAnyOfList() {
+		this.anyOfArray	= null;
 		if (this.anyOfs != null) {
 			this.anyOfs.clear();
 		}
@@ -72,6 +79,21 @@ public class Target extends PolicyComponent implements Matchable {
 	public Iterator<AnyOf> getAnyOfs() {
 		return (this.anyOfs == null ? null : this.anyOfs.iterator());
 	}
+
+	/**
+	 * Gets the {@link com.att.research.xacmlatt.pdp.policy.AnyOf}s in this <code>Target</code> as an array for indexed access during
+	 * matching.  The array is built on first use after any change and must not be modified.
+	 *
+	 * @return the array of <code>AnyOf</code>s in this <code>Target</code>, empty if there are none
+	 */
+	protected AnyOf[] getAnyOfArray() {
+		AnyOf[] arrayAnyOfs	= this.anyOfArray;
+		if (arrayAnyOfs == null) {
+			arrayAnyOfs	= (this.anyOfs == null || this.anyOfs.isEmpty() ? EMPTY_ANYOFS : this.anyOfs.toArray(new AnyOf[this.anyOfs.size()]));
+			this.anyOfArray	= arrayAnyOfs;
+		}
+		return arrayAnyOfs;
+	}
 	
 	public void setAnyOfs(Collection<AnyOf> anyOfsIn) {
 		this.clearAnyOfList();
@@ -95,13 +117,13 @@ public class Target extends PolicyComponent implements Matchable {
 		if (!this.validate()) {
 			return new MatchResult(new StdStatus(this.getStatusCode(), this.getStatusMessage()));
 		}
-		Iterator<AnyOf> iterAnyOfs	= this.getAnyOfs();
-		if (iterAnyOfs == null || !iterAnyOfs.hasNext()) {
+		AnyOf[] arrayAnyOfs	= this.getAnyOfArray();
+		if (arrayAnyOfs.length == 0) {
 			return MatchResult.MM_MATCH;
 		} else {
 			MatchResult matchResult	= MatchResult.MM_MATCH;
-			while (iterAnyOfs.hasNext()) {
-				matchResult	= iterAnyOfs.next().match(evaluationContext);
+			for (AnyOf anyOf : arrayAnyOfs) {
+				matchResult	= anyOf.match(evaluationContext);
 				if (matchResult.getMatchCode() != MatchResult.MatchCode.MATCH) {
 					return matchResult;
 				}
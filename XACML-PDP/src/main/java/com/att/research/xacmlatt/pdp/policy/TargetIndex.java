@@ -0,0 +1,398 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.policy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.att.research.xacml.api.Attribute;
+import com.att.research.xacml.api.AttributeValue;
+import com.att.research.xacml.api.DataType;
+import com.att.research.xacml.api.DataTypeException;
+import com.att.research.xacml.api.Identifier;
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.api.RequestAttributes;
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.api.pip.PIPRequest;
+import com.att.research.xacml.std.datatypes.DataTypes;
+import com.att.research.xacml.std.pip.StdPIPRequest;
+import com.att.research.xacml.util.XACMLProperties;
+import com.att.research.xacmlatt.pdp.eval.Evaluatable;
+import com.att.research.xacmlatt.pdp.eval.EvaluationContext;
+import com.att.research.xacmlatt.pdp.eval.EvaluationException;
+import com.att.research.xacmlatt.pdp.policy.expressions.AttributeDesignator;
+import com.att.research.xacmlatt.pdp.util.ATTPDPProperties;
+
+/**
+ * TargetIndex maps the values of one attribute to the elements of a {@link com.att.research.xacmlatt.pdp.policy.CombiningElementList}
+ * whose <code>Target</code>s can only match a request that has one of those values, so that combining algorithms can skip
+ * the elements that cannot apply instead of matching each of them in turn.
+ *
+ * An element is indexed when the first <code>AnyOf</code> of its <code>Target</code> is made of <code>AllOf</code>s whose first
+ * <code>Match</code> compares a literal to an <code>AttributeDesignator</code> for the same attribute with string-equal,
+ * integer-equal or anyURI-equal.  If the request has none of the literals, each of those first <code>Match</code>es is
+ * NotMatch, so every <code>AllOf</code>, the <code>AnyOf</code> and the <code>Target</code> are NotMatch without anything
+ * else being evaluated.  Every other element is always a candidate.  The index only looks at values the request itself
+ * has for the attribute, so it never asks a PIP for one.  When the request has no value for the attribute, or it cannot be
+ * retrieved and so could make the <code>Match</code>es Indeterminate, every element is a candidate.
+ *
+ * Candidates are returned in element order, so the results of order dependent combining algorithms do not change.  The
+ * index is used for lists of at least {@link #MIN_ELEMENTS} elements unless {@link ATTPDPProperties#PROP_INDEXTARGETS} is
+ * false in the <code>Properties</code> the {@link com.att.research.xacmlatt.pdp.eval.EvaluationContext} was created with.
+ *
+ * @version $Revision$
+ */
+public class TargetIndex {
+	private static final Log logger	= LogFactory.getLog(TargetIndex.class);
+
+	/**
+	 * The smallest number of elements worth indexing
+	 */
+	public static final int MIN_ELEMENTS	= 8;
+
+	/*
+	 * The TargetIndex for lists that are not indexed
+	 */
+	private static final TargetIndex NONE	= new TargetIndex(null, null, null, null, null, null);
+
+	private static final int[] EMPTY_CANDIDATES	= new int[0];
+
+	private static final Map<Identifier,DataType<?>> MAP_EQUALITY_FUNCTIONS	= new HashMap<>();
+	static {
+		MAP_EQUALITY_FUNCTIONS.put(XACML3.ID_FUNCTION_STRING_EQUAL, DataTypes.DT_STRING);
+		MAP_EQUALITY_FUNCTIONS.put(XACML3.ID_FUNCTION_INTEGER_EQUAL, DataTypes.DT_INTEGER);
+		MAP_EQUALITY_FUNCTIONS.put(XACML3.ID_FUNCTION_ANYURI_EQUAL, DataTypes.DT_ANYURI);
+	}
+
+	/*
+	 * The indexable Match found in an AllOf
+	 */
+	private static class Key {
+		private final PIPRequest	pipRequest;
+		private final DataType<?>	dataType;
+		private final Object		value;
+		private final Match			match;
+
+		private Key(PIPRequest pipRequestIn, DataType<?> dataTypeIn, Object valueIn, Match matchIn) {
+			this.pipRequest	= pipRequestIn;
+			this.dataType	= dataTypeIn;
+			this.value		= valueIn;
+			this.match		= matchIn;
+		}
+	}
+
+	private final PIPRequest			pipRequest;
+	private final AttributeDesignator	attributeDesignator;
+	private final PolicyDefaults		policyDefaults;
+	private final DataType<?>			dataType;
+	private final Map<Object,int[]>		mapValueElements;
+	private final int[]					unindexedElements;
+
+	private TargetIndex(PIPRequest pipRequestIn, AttributeDesignator attributeDesignatorIn, PolicyDefaults policyDefaultsIn, DataType<?> dataTypeIn, Map<Object,int[]> mapValueElementsIn, int[] unindexedElementsIn) {
+		this.pipRequest				= pipRequestIn;
+		this.attributeDesignator	= attributeDesignatorIn;
+		this.policyDefaults			= policyDefaultsIn;
+		this.dataType				= dataTypeIn;
+		this.mapValueElements		= mapValueElementsIn;
+		this.unindexedElements		= unindexedElementsIn;
+	}
+
+	/**
+	 * Determines whether combining algorithms should use the <code>TargetIndex</code> according to the given <code>Properties</code>,
+	 * falling back to the {@link com.att.research.xacml.util.XACMLProperties}.
+	 *
+	 * @param properties the <code>Properties</code> the PDP engine was created with, or null
+	 * @return true unless {@link ATTPDPProperties#PROP_INDEXTARGETS} is false
+	 */
+	public static boolean isEnabled(Properties properties) {
+		String value	= (properties == null ? null : properties.getProperty(ATTPDPProperties.PROP_INDEXTARGETS));
+		if (value == null) {
+			value	= XACMLProperties.getProperty(ATTPDPProperties.PROP_INDEXTARGETS, "true");
+		}
+		return Boolean.parseBoolean(value.trim());
+	}
+
+	/**
+	 * Gets the indexes of the elements of the given <code>List</code> that can apply to the request in the given
+	 * {@link com.att.research.xacmlatt.pdp.eval.EvaluationContext}.
+	 *
+	 * @param elements the <code>List</code> of <code>CombiningElement</code>s passed to a combining algorithm
+	 * @param evaluationContext the <code>EvaluationContext</code> for the request
+	 * @return the ascending indexes of the candidate elements, or null if every element has to be considered
+	 */
+	public static int[] getCandidates(List<? extends CombiningElement<?>> elements, EvaluationContext evaluationContext) {
+		if (elements instanceof CombiningElementList && evaluationContext.isTargetIndexEnabled()) {
+			return ((CombiningElementList<?>)elements).getTargetIndex().getCandidates(evaluationContext);
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Gets the indexes of the elements this <code>TargetIndex</code> was built over that can apply to the request in the
+	 * given {@link com.att.research.xacmlatt.pdp.eval.EvaluationContext}.
+	 *
+	 * @param evaluationContext the <code>EvaluationContext</code> for the request
+	 * @return the ascending indexes of the candidate elements, or null if every element has to be considered
+	 */
+	public int[] getCandidates(EvaluationContext evaluationContext) {
+		if (this.attributeDesignator == null || !this.isInRequest(evaluationContext.getRequest())) {
+			return null;
+		}
+		ExpressionResult expressionResult;
+		try {
+			expressionResult	= this.attributeDesignator.evaluate(evaluationContext, this.policyDefaults);
+		} catch (EvaluationException ex) {
+			return null;
+		}
+		if (expressionResult == null || !expressionResult.isOk() || !expressionResult.isBag() || expressionResult.getBag() == null || expressionResult.getBag().size() == 0) {
+			return null;
+		}
+
+		List<AttributeValue<?>> listAttributeValues	= expressionResult.getBag().getAttributeValueList();
+		int[] candidatesFirst	= null;
+		List<int[]> listCandidates	= null;
+		for (int i = 0 ; i < listAttributeValues.size() ; i++) {
+			Object value;
+			try {
+				value	= this.dataType.convert(listAttributeValues.get(i).getValue());
+			} catch (DataTypeException ex) {
+				return null;
+			}
+			int[] candidatesValue	= (value == null ? null : this.mapValueElements.get(value));
+			if (candidatesValue != null) {
+				if (candidatesFirst == null) {
+					candidatesFirst	= candidatesValue;
+				} else {
+					if (listCandidates == null) {
+						listCandidates	= new ArrayList<>();
+						listCandidates.add(candidatesFirst);
+					}
+					listCandidates.add(candidatesValue);
+				}
+			}
+		}
+		if (candidatesFirst == null) {
+			return this.unindexedElements;
+		} else if (listCandidates == null && this.unindexedElements.length == 0) {
+			return candidatesFirst;
+		}
+		if (listCandidates == null) {
+			listCandidates	= new ArrayList<>();
+			listCandidates.add(candidatesFirst);
+		}
+		listCandidates.add(this.unindexedElements);
+		return union(listCandidates);
+	}
+
+	/*
+	 * Determines whether the request has a value for the indexed attribute, so that retrieving it will not go to a PIP
+	 */
+	private boolean isInRequest(Request request) {
+		if (request == null) {
+			return false;
+		}
+		Iterator<RequestAttributes> iterRequestAttributes	= request.getRequestAttributes(this.pipRequest.getCategory());
+		while (iterRequestAttributes != null && iterRequestAttributes.hasNext()) {
+			Iterator<Attribute> iterAttributes	= iterRequestAttributes.next().getAttributes(this.pipRequest.getAttributeId());
+			while (iterAttributes.hasNext()) {
+				Attribute attribute	= iterAttributes.next();
+				if (this.pipRequest.getIssuer() == null || this.pipRequest.getIssuer().equals(attribute.getIssuer())) {
+					for (AttributeValue<?> attributeValue : attribute.getValues()) {
+						if (this.pipRequest.getDataTypeId().equals(attributeValue.getDataTypeId())) {
+							return true;
+						}
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Merges ascending arrays of element indexes into one ascending array without duplicates
+	 */
+	private static int[] union(List<int[]> listCandidates) {
+		int nCandidates	= 0;
+		for (int[] candidates : listCandidates) {
+			nCandidates	+= candidates.length;
+		}
+		int[] candidatesAll	= new int[nCandidates];
+		int offset	= 0;
+		for (int[] candidates : listCandidates) {
+			System.arraycopy(candidates, 0, candidatesAll, offset, candidates.length);
+			offset	+= candidates.length;
+		}
+		Arrays.sort(candidatesAll);
+		int nUnique	= 0;
+		for (int i = 0 ; i < candidatesAll.length ; i++) {
+			if (nUnique == 0 || candidatesAll[nUnique - 1] != candidatesAll[i]) {
+				candidatesAll[nUnique++]	= candidatesAll[i];
+			}
+		}
+		return (nUnique == candidatesAll.length ? candidatesAll : Arrays.copyOf(candidatesAll, nUnique));
+	}
+
+	/**
+	 * Creates the <code>TargetIndex</code> over the elements of the given {@link com.att.research.xacmlatt.pdp.policy.CombiningElementList}.
+	 *
+	 * @param elements the <code>CombiningElementList</code> to index
+	 * @return the new <code>TargetIndex</code>, which returns no candidates if the list is not worth indexing
+	 */
+	static TargetIndex newInstance(CombiningElementList<?> elements) {
+		if (elements.size() < MIN_ELEMENTS) {
+			return NONE;
+		}
+
+		/*
+		 * Find the keys for each element and the attribute most of them are keyed on
+		 */
+		List<List<Key>> listElementKeys			= new ArrayList<>(elements.size());
+		Map<PIPRequest,Integer> mapAttributeCounts	= new HashMap<>();
+		PIPRequest pipRequestIndex	= null;
+		int countIndex				= 0;
+		for (CombiningElement<?> combiningElement : elements) {
+			List<Key> listKeys	= getKeys(getTarget(combiningElement.getEvaluatable()));
+			listElementKeys.add(listKeys);
+			if (listKeys != null) {
+				PIPRequest pipRequest	= listKeys.get(0).pipRequest;
+				Integer count	= mapAttributeCounts.get(pipRequest);
+				count	= (count == null ? 1 : count + 1);
+				mapAttributeCounts.put(pipRequest, count);
+				if (count > countIndex) {
+					pipRequestIndex	= pipRequest;
+					countIndex		= count;
+				}
+			}
+		}
+		if (pipRequestIndex == null) {
+			return NONE;
+		}
+
+		/*
+		 * Map each literal value of that attribute to the elements that use it, in element order
+		 */
+		Map<Object,List<Integer>> mapValueLists	= new HashMap<>();
+		List<Integer> listUnindexed				= new ArrayList<>();
+		Key keyIndex	= null;
+		for (int i = 0 ; i < listElementKeys.size() ; i++) {
+			List<Key> listKeys	= listElementKeys.get(i);
+			if (listKeys == null || !pipRequestIndex.equals(listKeys.get(0).pipRequest)) {
+				listUnindexed.add(i);
+				continue;
+			}
+			for (Key key : listKeys) {
+				keyIndex	= (keyIndex == null ? key : keyIndex);
+				List<Integer> listElements	= mapValueLists.get(key.value);
+				if (listElements == null) {
+					mapValueLists.put(key.value, (listElements = new ArrayList<>()));
+				}
+				if (listElements.isEmpty() || listElements.get(listElements.size() - 1) != i) {
+					listElements.add(i);
+				}
+			}
+		}
+		Map<Object,int[]> mapValueElements	= new HashMap<>();
+		for (Map.Entry<Object,List<Integer>> entry : mapValueLists.entrySet()) {
+			mapValueElements.put(entry.getKey(), toArray(entry.getValue()));
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Indexed " + countIndex + " of " + elements.size() + " elements on " + pipRequestIndex + " with " + mapValueElements.size() + " values");
+		}
+		return new TargetIndex(pipRequestIndex, (AttributeDesignator)keyIndex.match.getAttributeRetrievalBase(), keyIndex.match.getPolicyDefaults(), keyIndex.dataType, mapValueElements, toArray(listUnindexed));
+	}
+
+	private static int[] toArray(List<Integer> listIntegers) {
+		if (listIntegers.isEmpty()) {
+			return EMPTY_CANDIDATES;
+		}
+		int[] array	= new int[listIntegers.size()];
+		for (int i = 0 ; i < array.length ; i++) {
+			array[i]	= listIntegers.get(i);
+		}
+		return array;
+	}
+
+	/*
+	 * Gets the Target an element is matched on, or null if it has none or does not validate
+	 */
+	private static Target getTarget(Evaluatable evaluatable) {
+		if (evaluatable instanceof Rule) {
+			Rule rule	= (Rule)evaluatable;
+			return (rule.validate() ? rule.getTarget() : null);
+		} else if (evaluatable instanceof PolicyDef) {
+			PolicyDef policyDef	= (PolicyDef)evaluatable;
+			return (policyDef.validate() ? policyDef.getTarget() : null);
+		} else {
+			return null;
+		}
+	}
+
+	/*
+	 * Gets the Keys of the first AnyOf in the given Target, or null if it cannot be indexed
+	 */
+	private static List<Key> getKeys(Target target) {
+		if (target == null || !target.validate()) {
+			return null;
+		}
+		Iterator<AnyOf> iterAnyOfs	= target.getAnyOfs();
+		if (iterAnyOfs == null || !iterAnyOfs.hasNext()) {
+			return null;
+		}
+		AnyOf anyOf	= iterAnyOfs.next();
+		if (!anyOf.validate()) {
+			return null;
+		}
+		List<Key> listKeys	= new ArrayList<>();
+		Iterator<AllOf> iterAllOfs	= anyOf.getAllOfs();
+		while (iterAllOfs.hasNext()) {
+			AllOf allOf	= iterAllOfs.next();
+			if (!allOf.validate()) {
+				return null;
+			}
+			Key key	= getKey(allOf.getMatches().next());
+			if (key == null || (!listKeys.isEmpty() && !listKeys.get(0).pipRequest.equals(key.pipRequest))) {
+				return null;
+			}
+			listKeys.add(key);
+		}
+		return (listKeys.isEmpty() ? null : listKeys);
+	}
+
+	/*
+	 * Gets the Key for a Match of an equality function against an AttributeDesignator, or null if it cannot be indexed
+	 */
+	private static Key getKey(Match match) {
+		if (!match.validate() || !(match.getAttributeRetrievalBase() instanceof AttributeDesignator)) {
+			return null;
+		}
+		DataType<?> dataType	= MAP_EQUALITY_FUNCTIONS.get(match.getFunctionDefinition().getId());
+		AttributeDesignator attributeDesignator	= (AttributeDesignator)match.getAttributeRetrievalBase();
+		AttributeValue<?> attributeValue		= match.getAttributeValue();
+		if (dataType == null || !attributeDesignator.validate() || !dataType.getId().equals(attributeDesignator.getDataTypeId()) || !dataType.getId().equals(attributeValue.getDataTypeId())) {
+			return null;
+		}
+		Object value;
+		try {
+			value	= dataType.convert(attributeValue.getValue());
+		} catch (DataTypeException ex) {
+			return null;
+		}
+		if (value == null) {
+			return null;
+		}
+		return new Key(new StdPIPRequest(attributeDesignator.getCategory(), attributeDesignator.getAttributeId(), attributeDesignator.getDataTypeId(), attributeDesignator.getIssuer()),
+				dataType, value, match);
+	}
+}
@@ -30,7 +30,7 @@ import com.att.research.xacmlatt.pdp.policy.PolicyIssuer;
  */
 public class DOMPolicyIssuer extends PolicyIssuer {
 	private static Logger 			logger							= LoggerFactory.getLogger(DOMPolicyIssuer.class);
-	private static Identifier		identifierCategoryPolicyIssuer 	= new IdentifierImpl("urn:att:names:tc:xacml:3.0:policy-issuer");
+	private static Identifier		identifierCategoryPolicyIssuer 	= IdentifierImpl.intern("urn:att:names:tc:xacml:3.0:policy-issuer");
 	
 	protected DOMPolicyIssuer() {
 		super();
@@ -6,6 +6,7 @@
 package com.att.research.xacmlatt.pdp.policy.expressions;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -37,12 +38,25 @@ public class Apply extends Expression {
 	private String description;
 	private List<Expression> arguments	= new ArrayList<>();
 	
+	/*
+	 * Set by optimize(): the result if every argument is constant, otherwise the arguments that are constant with null for
+	 * the ones that have to be evaluated for each request
+	 */
+	private ExpressionResult expressionResultConstant;
+	private FunctionArgument[] functionArgumentsConstant;
+	
 	protected List<Expression> getArgumentList() {
 		return this.arguments;
 	}
 	
 	protected void clearArgumentList() {
 		this.getArgumentList().clear();
+		this.clearOptimization();
+	}
+	
+	protected void clearOptimization() {
+		this.expressionResultConstant	= null;
+		this.functionArgumentsConstant	= null;
 	}
 	
 	public Apply(StatusCode statusCodeIn, String statusMessageIn) {
@@ -71,6 +85,7 @@ public class Apply extends Expression {
 	public void setFunctionId(Identifier identifier) {
 		this.functionId			= identifier;
 		this.functionDefinition	= null;
+		this.clearOptimization();
 	}
 	
 	/**
@@ -114,10 +129,112 @@ public class Apply extends Expression {
 	
 	public void addArgument(Expression expression) {
 		this.getArgumentList().add(expression);
+		this.clearOptimization();
 	}
 	
 	public void addArguments(Collection<Expression> listExpressions) {
 		this.getArgumentList().addAll(listExpressions);
+		this.clearOptimization();
+	}
+	
+	/**
+	 * Determines if this <code>Apply</code> has been folded into a constant by {@link #optimize(PolicyDefaults)}.
+	 * 
+	 * @return true if this <code>Apply</code> evaluates to a constant
+	 */
+	public boolean isConstant() {
+		return this.expressionResultConstant != null;
+	}
+	
+	/*
+	 * Gets the FunctionDefinition for the function a Function argument names, for checking that it is deterministic
+	 */
+	private static FunctionDefinition getFunctionDefinition(Function function) {
+		try {
+			return FunctionDefinitionFactory.newInstance().getFunctionDefinition(function.getFunctionId());
+		} catch (FactoryException ex) {
+			return null;
+		}
+	}
+	
+	/*
+	 * Gets the constant value of the given argument, optimizing it first if it is an Apply, or null if it has to be evaluated
+	 * for each request
+	 */
+	private static ExpressionResult getConstant(Expression expression, PolicyDefaults policyDefaults) throws EvaluationException {
+		if (expression instanceof Apply) {
+			Apply apply	= (Apply)expression;
+			return (apply.optimize(policyDefaults) ? apply.expressionResultConstant : null);
+		} else if (expression instanceof AttributeValueExpression || expression instanceof Function) {
+			ExpressionResult expressionResult	= expression.evaluate(null, policyDefaults);
+			return (expressionResult != null && expressionResult.isOk() ? expressionResult : null);
+		} else {
+			return null;
+		}
+	}
+	
+	/**
+	 * Optimizes this <code>Apply</code> and the <code>Apply</code>s in its arguments when the policy is loaded.  If every
+	 * argument is constant and the {@link com.att.research.xacmlatt.pdp.policy.FunctionDefinition} is deterministic, the
+	 * function is evaluated now and its result returned for every request.  Otherwise the constant arguments are kept as
+	 * ready made {@link com.att.research.xacmlatt.pdp.policy.FunctionArgument}s so that only the others are evaluated for
+	 * each request.  An application that results in an error is never folded, so the error is still reported when it is
+	 * evaluated.
+	 * <p>
+	 * This is not thread safe and must be done before the policy is used.
+	 * 
+	 * @param policyDefaults the {@link com.att.research.xacmlatt.pdp.policy.PolicyDefaults} this <code>Apply</code> is evaluated with
+	 * @return true if this <code>Apply</code> is now constant
+	 * @throws EvaluationException if a constant argument cannot be evaluated
+	 */
+	public boolean optimize(PolicyDefaults policyDefaults) throws EvaluationException {
+		this.clearOptimization();
+		if (!this.validate()) {
+			return false;
+		}
+		FunctionDefinition thisFunctionDefinition	= this.getFunctionDefinition();
+		if (thisFunctionDefinition == null) {
+			return false;
+		}
+		List<Expression> listExpressionArguments	= this.getArgumentList();
+		FunctionArgument[] functionArguments		= new FunctionArgument[listExpressionArguments.size()];
+		boolean constant							= thisFunctionDefinition.isDeterministic();
+		boolean anyConstant							= false;
+		for (int i = 0 ; i < functionArguments.length ; i++) {
+			Expression expression	= listExpressionArguments.get(i);
+			functionArguments[i]	= getConstant(expression, policyDefaults);
+			if (functionArguments[i] == null) {
+				constant	= false;
+			} else {
+				anyConstant	= true;
+				/*
+				 * A higher order function is only as deterministic as the function it is given
+				 */
+				if (expression instanceof Function) {
+					FunctionDefinition functionDefinitionArgument	= getFunctionDefinition((Function)expression);
+					if (functionDefinitionArgument == null || !functionDefinitionArgument.isDeterministic()) {
+						constant	= false;
+					}
+				}
+			}
+		}
+		
+		if (constant) {
+			ExpressionResult expressionResult	= null;
+			try {
+				expressionResult	= thisFunctionDefinition.evaluate(null, Arrays.asList(functionArguments));
+			} catch (RuntimeException ex) {
+				expressionResult	= null;
+			}
+			if (expressionResult != null && expressionResult.isOk()) {
+				this.expressionResultConstant	= expressionResult;
+				return true;
+			}
+		}
+		if (anyConstant) {
+			this.functionArgumentsConstant	= functionArguments;
+		}
+		return false;
 	}
 
 	@Override
@@ -126,6 +243,11 @@ public class Apply extends Expression {
 			return ExpressionResult.newError(new StdStatus(this.getStatusCode(), this.getStatusMessage()));
 		}
 		
+		ExpressionResult thisExpressionResultConstant	= this.expressionResultConstant;
+		if (thisExpressionResultConstant != null) {
+			return thisExpressionResultConstant;
+		}
+		
 		/*
 		 * Get the FunctionDefinition
 		 */
@@ -135,15 +257,17 @@ public class Apply extends Expression {
 		}
 		
 		/*
-		 * Get all of the arguments and convert them into FunctionArgument objects.
+		 * Get all of the arguments and convert them into FunctionArgument objects, reusing the ones that are constant
 		 */
-		List<FunctionArgument> listFunctionArguments	= new ArrayList<>();
-		Iterator<Expression> iterExpressionArguments	= this.getArguments();
-		if (iterExpressionArguments != null) {
-			while (iterExpressionArguments.hasNext()) {
-				listFunctionArguments.add(new FunctionArgumentExpression(iterExpressionArguments.next(), evaluationContext, policyDefaults));
+		List<Expression> listExpressionArguments		= this.getArgumentList();
+		FunctionArgument[] thisFunctionArgumentsConstant	= this.functionArgumentsConstant;
+		FunctionArgument[] functionArguments			= (thisFunctionArgumentsConstant == null ? new FunctionArgument[listExpressionArguments.size()] : thisFunctionArgumentsConstant.clone());
+		for (int i = 0 ; i < functionArguments.length ; i++) {
+			if (functionArguments[i] == null) {
+				functionArguments[i]	= new FunctionArgumentExpression(listExpressionArguments.get(i), evaluationContext, policyDefaults);
 			}
 		}
+		List<FunctionArgument> listFunctionArguments	= Arrays.asList(functionArguments);
 		
 		/*
 		 * Apply the FunctionDefinition to the arguments
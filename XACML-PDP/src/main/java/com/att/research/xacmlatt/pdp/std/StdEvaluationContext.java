@@ -8,6 +8,7 @@ package com.att.research.xacmlatt.pdp.std;
 
 import java.util.Collection;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +25,7 @@ import com.att.research.xacml.api.trace.TraceEngineFactory;
 import com.att.research.xacml.api.trace.TraceEvent;
 import com.att.research.xacml.std.pip.engines.RequestEngine;
 import com.att.research.xacml.std.pip.finders.RequestFinder;
+import com.att.research.xacml.std.pip.finders.RequestScopedCache;
 import com.att.research.xacml.util.FactoryException;
 import com.att.research.xacmlatt.pdp.eval.EvaluationContext;
 import com.att.research.xacmlatt.pdp.policy.Policy;
@@ -31,6 +33,8 @@ import com.att.research.xacmlatt.pdp.policy.PolicyDef;
 import com.att.research.xacmlatt.pdp.policy.PolicyFinder;
 import com.att.research.xacmlatt.pdp.policy.PolicyFinderResult;
 import com.att.research.xacmlatt.pdp.policy.PolicySet;
+import com.att.research.xacmlatt.pdp.policy.TargetIndex;
+import com.att.research.xacmlatt.pdp.util.DecisionMetrics;
 
 /**
  * StdEvaluationContext implements the {@link com.att.research.xacmlatt.pdp.eval.EvaluationContext} interface using
@@ -45,7 +49,12 @@ public class StdEvaluationContext implements EvaluationContext {
 	private Request request;
 	private RequestFinder requestFinder;
 	private PolicyFinder policyFinder;
-	private TraceEngine traceEngine;
+	private final TraceEngine traceEngine;
+	private final boolean tracing;
+	private final boolean indexTargets;
+	private final boolean timePIP	= DecisionMetrics.getInstance().isEnabled();
+	private int pipDepth;
+	private long pipTime;
 	
 	/**
 	 * Creates a new <code>StdEvaluationContext</code> with the given {@link com.att.research.xacml.api.Request} and
@@ -56,24 +65,34 @@ public class StdEvaluationContext implements EvaluationContext {
 	 * @param pipFinder 
 	 * @param traceEngineIn 
 	 * @param properties 
+	 * @param requestScopedCache the {@link com.att.research.xacml.std.pip.finders.RequestScopedCache} shared with other individual decisions from the same request, or null
 	 */
-	public StdEvaluationContext(Request requestIn, PolicyFinder policyFinderIn, PIPFinder pipFinder, TraceEngine traceEngineIn, Properties properties) {
+	public StdEvaluationContext(Request requestIn, PolicyFinder policyFinderIn, PIPFinder pipFinder, TraceEngine traceEngineIn, Properties properties, RequestScopedCache requestScopedCache) {
 		this.properties		= properties;
 		this.request		= requestIn;
 		this.policyFinder	= policyFinderIn;
-		if (traceEngineIn != null) {
-			this.traceEngine	= traceEngineIn;
-		} else {
+		TraceEngine traceEngineThis	= traceEngineIn;
+		if (traceEngineThis == null) {
 			try {
 				if (this.properties == null) {
-					this.traceEngine	= TraceEngineFactory.newInstance().getTraceEngine();
+					traceEngineThis	= TraceEngineFactory.newInstance().getTraceEngine();
 				} else {
-					this.traceEngine	= TraceEngineFactory.newInstance(this.properties).getTraceEngine(this.properties);
+					traceEngineThis	= TraceEngineFactory.newInstance(this.properties).getTraceEngine(this.properties);
 				}
 			} catch (FactoryException ex) {
 				this.logger.error("FactoryException creating TraceEngine: " + ex.toString(), ex);
 			}
 		}
+		if (traceEngineThis != null) {
+			traceEngineThis	= traceEngineThis.getRequestTraceEngine();
+		}
+		/*
+		 * Whether we are tracing is decided once for the whole evaluation so the checks made for every policy, rule and
+		 * expression are a field read rather than a call into the TraceEngine
+		 */
+		this.traceEngine	= traceEngineThis;
+		this.tracing		= (traceEngineThis != null && traceEngineThis.isTracing());
+		this.indexTargets	= TargetIndex.isEnabled(this.properties);
 		
 		if (pipFinder == null) {
 			this.requestFinder		= new RequestFinder(null, new RequestEngine(requestIn));
@@ -81,11 +100,15 @@ public class StdEvaluationContext implements EvaluationContext {
 			if (pipFinder instanceof RequestFinder) {
 				this.requestFinder	= (RequestFinder)pipFinder;
 			} else {
-				this.requestFinder	= new RequestFinder(pipFinder, new RequestEngine(requestIn));
+				this.requestFinder	= new RequestFinder(pipFinder, new RequestEngine(requestIn), requestScopedCache);
 			}
 		}
 	}
 	
+	public StdEvaluationContext(Request requestIn, PolicyFinder policyFinderIn, PIPFinder pipFinder, TraceEngine traceEngineIn, Properties properties) {
+		this(requestIn, policyFinderIn, pipFinder, traceEngineIn, properties, null);
+	}
+	
 	public StdEvaluationContext(Request requestIn, PolicyFinder policyFinderIn, PIPFinder pipFinder, TraceEngine traceEngineIn) {
 		this(requestIn, policyFinderIn, pipFinder, traceEngineIn, null);
 	}
@@ -94,6 +117,63 @@ public class StdEvaluationContext implements EvaluationContext {
 		this(requestIn, policyFinderIn, pipFinder, null);
 	}
 
+	/*
+	 * Only the outermost attribute lookup is timed, a PIP engine may ask for other attributes while it is working
+	 */
+	private long startPIP() {
+		return (this.pipDepth++ == 0 ? System.nanoTime() : 0);
+	}
+	
+	private void endPIP(long lTimeStart) {
+		if (--this.pipDepth == 0) {
+			this.pipTime	+= System.nanoTime() - lTimeStart;
+		}
+	}
+	
+	/**
+	 * Gets the time spent getting attributes through this <code>StdEvaluationContext</code>.  This is only measured
+	 * while {@link com.att.research.xacmlatt.pdp.util.DecisionMetrics} is enabled.
+	 * 
+	 * @return the time spent getting attributes in nanoseconds
+	 */
+	public long getPIPTime() {
+		return this.pipTime;
+	}
+
+	/**
+	 * Gets whether any attribute used in this <code>StdEvaluationContext</code> came from somewhere other than the request,
+	 * such as a PIP engine or the current date and time supplied by the PDP.
+	 * 
+	 * @return true if attributes from outside the request were used
+	 */
+	public boolean usedPIPAttributes() {
+		return this.requestFinder.usedExternalAttributes();
+	}
+	
+	/**
+	 * Looks up the given attributes in parallel before evaluation starts so that the attribute designators that need them
+	 * are answered from the {@link com.att.research.xacml.std.pip.finders.RequestFinder} cache.
+	 * 
+	 * @param pipRequests the <code>PIPRequest</code>s to look up
+	 * @param executor the <code>Executor</code> to run the lookups on
+	 * @param timeout how long to wait for the lookups in milliseconds
+	 * @return the number of <code>PIPRequest</code>s that were prefetched
+	 * @throws PIPException
+	 * @see com.att.research.xacml.std.pip.finders.RequestFinder#prefetch(Collection, Executor, long)
+	 */
+	public int prefetchAttributes(Collection<PIPRequest> pipRequests, Executor executor, long timeout) throws PIPException {
+		if (this.timePIP) {
+			long lTimeStart	= this.startPIP();
+			try {
+				return this.requestFinder.prefetch(pipRequests, executor, timeout);
+			} finally {
+				this.endPIP(lTimeStart);
+			}
+		} else {
+			return this.requestFinder.prefetch(pipRequests, executor, timeout);
+		}
+	}
+
 	@Override
 	public Request getRequest() {
 		return this.request;
@@ -101,17 +181,41 @@ public class StdEvaluationContext implements EvaluationContext {
 
 	@Override
 	public PIPResponse getAttributes(PIPRequest pipRequest) throws PIPException {
-		return this.requestFinder.getAttributes(pipRequest, null);
+		if (! this.timePIP) {
+			return this.requestFinder.getAttributes(pipRequest, null);
+		}
+		long lTimeStart	= this.startPIP();
+		try {
+			return this.requestFinder.getAttributes(pipRequest, null);
+		} finally {
+			this.endPIP(lTimeStart);
+		}
 	}
 	
 	@Override
 	public PIPResponse getAttributes(PIPRequest pipRequest, PIPEngine exclude) throws PIPException {
-		return this.requestFinder.getAttributes(pipRequest, exclude);
+		if (! this.timePIP) {
+			return this.requestFinder.getAttributes(pipRequest, exclude);
+		}
+		long lTimeStart	= this.startPIP();
+		try {
+			return this.requestFinder.getAttributes(pipRequest, exclude);
+		} finally {
+			this.endPIP(lTimeStart);
+		}
 	}
 	
 	@Override
 	public PIPResponse getAttributes(PIPRequest pipRequest, PIPEngine exclude, PIPFinder pipFinderRoot) throws PIPException {
-		return this.requestFinder.getAttributes(pipRequest, exclude, pipFinderRoot);
+		if (! this.timePIP) {
+			return this.requestFinder.getAttributes(pipRequest, exclude, pipFinderRoot);
+		}
+		long lTimeStart	= this.startPIP();
+		try {
+			return this.requestFinder.getAttributes(pipRequest, exclude, pipFinderRoot);
+		} finally {
+			this.endPIP(lTimeStart);
+		}
 	}
 
 	@Override
@@ -138,21 +242,42 @@ public class StdEvaluationContext implements EvaluationContext {
 
 	@Override
 	public boolean isTracing() {
-		return (this.traceEngine == null ? false : this.traceEngine.isTracing());
+		return this.tracing;
 	}
 
 	@Override
 	public PIPResponse getMatchingAttributes(PIPRequest pipRequest, PIPEngine exclude) throws PIPException {
-		return this.requestFinder.getMatchingAttributes(pipRequest, exclude);
+		if (! this.timePIP) {
+			return this.requestFinder.getMatchingAttributes(pipRequest, exclude);
+		}
+		long lTimeStart	= this.startPIP();
+		try {
+			return this.requestFinder.getMatchingAttributes(pipRequest, exclude);
+		} finally {
+			this.endPIP(lTimeStart);
+		}
 	}
 
 	@Override
 	public PIPResponse getMatchingAttributes(PIPRequest pipRequest, PIPEngine exclude, PIPFinder pipFinderParent) throws PIPException {
-		return this.requestFinder.getMatchingAttributes(pipRequest, exclude, pipFinderParent);
+		if (! this.timePIP) {
+			return this.requestFinder.getMatchingAttributes(pipRequest, exclude, pipFinderParent);
+		}
+		long lTimeStart	= this.startPIP();
+		try {
+			return this.requestFinder.getMatchingAttributes(pipRequest, exclude, pipFinderParent);
+		} finally {
+			this.endPIP(lTimeStart);
+		}
 	}
 
 	@Override
 	public Collection<PIPEngine> getPIPEngines() {
 		return this.requestFinder.getPIPEngines();
 	}
+
+	@Override
+	public boolean isTargetIndexEnabled() {
+		return this.indexTargets;
+	}
 }
@@ -16,6 +16,7 @@ import com.att.research.xacml.api.pip.PIPFinder;
 import com.att.research.xacml.api.pip.PIPFinderFactory;
 import com.att.research.xacml.api.trace.TraceEngine;
 import com.att.research.xacml.api.trace.TraceEngineFactory;
+import com.att.research.xacml.std.pip.finders.RequestScopedCache;
 import com.att.research.xacmlatt.pdp.eval.EvaluationContext;
 import com.att.research.xacmlatt.pdp.eval.EvaluationContextFactory;
 import com.att.research.xacmlatt.pdp.policy.PolicyFinder;
@@ -146,14 +147,21 @@ public class StdEvaluationContextFactory extends EvaluationContextFactory {
 		}
 	}
 
+	@Override
+	public EvaluationContext getEvaluationContext(Request request, RequestScopedCache requestScopedCache) {
+		return new StdEvaluationContext(request, this.getPolicyFinder(), this.getPIPFinder(), this.getTraceEngine(), this.properties, requestScopedCache);
+	}
+
 	@Override
 	public void setPolicyFinder(PolicyFinder policyFinderIn) {
 		this.policyFinder	= policyFinderIn;
+		this.nextGeneration();
 	}
 
 	@Override
 	public void setPIPFinder(PIPFinder pipFinderIn) {
 		this.pipFinder		= pipFinderIn;
+		this.nextGeneration();
 	}
 
 }
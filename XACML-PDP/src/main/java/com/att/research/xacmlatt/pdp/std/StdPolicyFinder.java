@@ -36,6 +36,8 @@ import com.att.research.xacmlatt.pdp.policy.PolicyFinderResult;
 import com.att.research.xacmlatt.pdp.policy.PolicySet;
 import com.att.research.xacmlatt.pdp.policy.PolicySetChild;
 import com.att.research.xacmlatt.pdp.policy.dom.DOMPolicyDef;
+import com.att.research.xacmlatt.pdp.util.PolicyCompiler;
+import com.att.research.xacmlatt.pdp.util.PolicyOptimizer;
 
 /**
  * StdPolicyFinder implements the {@link com.att.research.xacmlatt.pdp.policy.PolicyFinder} interface to look up policies
@@ -56,6 +58,7 @@ public class StdPolicyFinder implements PolicyFinder {
 	private final Logger logger	= LoggerFactory.getLogger(this.getClass());
 	private List<PolicyDef> listRoots					= new ArrayList<>();
 	private Map<Identifier,List<PolicyDef>> mapPolicies	= new HashMap<Identifier,List<PolicyDef>>();
+	private Properties properties;
 	
 	public static class StdPolicyFinderException extends Exception {
 		private static final long serialVersionUID = -8969282995787463288L;
@@ -148,6 +151,12 @@ public class StdPolicyFinder implements PolicyFinder {
 			
 			inputStream	= url.openStream();
 			policyDef	= DOMPolicyDef.load(inputStream);
+			if (policyDef != null && PolicyOptimizer.isEnabled(this.properties)) {
+				PolicyOptimizer.optimize(policyDef);
+			}
+			if (policyDef != null && PolicyCompiler.isEnabled(this.properties)) {
+				PolicyCompiler.compile(policyDef);
+			}
 		} catch (MalformedURLException ex) {
 			this.logger.debug("Unknown protocol for URI {}", uri);
 			return null;
@@ -300,6 +309,7 @@ public class StdPolicyFinder implements PolicyFinder {
 	
 	public StdPolicyFinder(List<PolicyDef> rootPolicies, List<PolicyDef> referencedPolicies, Properties properties) {
 		this(rootPolicies, referencedPolicies);
+		this.properties	= properties;
 	}
 
 	@Override
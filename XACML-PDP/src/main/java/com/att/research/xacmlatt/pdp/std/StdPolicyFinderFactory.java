@@ -38,6 +38,8 @@ import com.att.research.xacmlatt.pdp.policy.PolicySetChild;
 import com.att.research.xacmlatt.pdp.policy.Target;
 import com.att.research.xacmlatt.pdp.policy.dom.DOMPolicyDef;
 import com.att.research.xacmlatt.pdp.util.ATTPDPProperties;
+import com.att.research.xacmlatt.pdp.util.PolicyCompiler;
+import com.att.research.xacmlatt.pdp.util.PolicyOptimizer;
 import com.google.common.base.Splitter;
 
 /**
@@ -52,12 +54,34 @@ import com.google.common.base.Splitter;
 public class StdPolicyFinderFactory extends PolicyFinderFactory {
 	public static final String	PROP_FILE		= ".file";
 	public static final String	PROP_URL		= ".url";
+	public static final String	PROP_COMPILE	= ".compile";
 	
 	private final Logger logger	= LoggerFactory.getLogger(this.getClass());
 	private List<PolicyDef> rootPolicies;
 	private List<PolicyDef> referencedPolicies;
 	private boolean needsInit					= true;
 	
+	/**
+	 * Optimizes a newly loaded <code>PolicyDef</code> and, if a ".compile" property associated with the ID or
+	 * {@link com.att.research.xacmlatt.pdp.util.ATTPDPProperties#PROP_COMPILEPOLICIES} says so, compiles it.
+	 * 
+	 * @param policyId the <code>String</code> identifier for the policy
+	 * @param policyDef the <code>PolicyDef</code> loaded for the identifier
+	 * @param properties the <code>Properties</code> the policy was loaded with
+	 * @return the <code>PolicyDef</code>
+	 */
+	protected PolicyDef preparePolicyDef(String policyId, PolicyDef policyDef, Properties properties) {
+		if (PolicyOptimizer.isEnabled(properties)) {
+			PolicyOptimizer.optimize(policyDef);
+		}
+		String propCompile	= properties.getProperty(policyId + PROP_COMPILE);
+		if (propCompile == null ? PolicyCompiler.isEnabled(properties) : Boolean.parseBoolean(propCompile.trim())) {
+			this.logger.info("Compiling policy {}", policyId);
+			PolicyCompiler.compile(policyDef);
+		}
+		return policyDef;
+	}
+	
 	/**
 	 * Loads the <code>PolicyDef</code> for the given <code>String</code> identifier by looking first
 	 * for a ".file" property associated with the ID and using that to load from a <code>File</code> and
@@ -79,7 +103,7 @@ public class StdPolicyFinderFactory extends PolicyFinderFactory {
 					this.logger.info("Loading policy file {}", fileLocation);
 					PolicyDef policyDef	= DOMPolicyDef.load(fileLocation);
 					if (policyDef != null) {
-						return policyDef;
+						return this.preparePolicyDef(policyId, policyDef, properties);
 					}
 				} catch (DOMStructureException ex) {
 					this.logger.error("Error loading policy file " + fileLocation.getAbsolutePath() + ": " + ex.getMessage(), ex);
@@ -97,7 +121,7 @@ public class StdPolicyFinderFactory extends PolicyFinderFactory {
 				is = urlConnection.getInputStream();
 				PolicyDef policyDef			= DOMPolicyDef.load(is);
 				if (policyDef != null) {
-					return policyDef;
+					return this.preparePolicyDef(policyId, policyDef, properties);
 				}
 			} catch (MalformedURLException ex) {
 				this.logger.error("Invalid URL " + propLocation + ": " + ex.getMessage(), ex);
@@ -161,7 +185,7 @@ public class StdPolicyFinderFactory extends PolicyFinderFactory {
 					//
 					// Find the combining algorithm
 					//
-					CombiningAlgorithm<PolicySetChild> algorithm = CombiningAlgorithmFactory.newInstance().getPolicyCombiningAlgorithm(new IdentifierImpl(combiningAlgorithm));
+					CombiningAlgorithm<PolicySetChild> algorithm = CombiningAlgorithmFactory.newInstance().getPolicyCombiningAlgorithm(IdentifierImpl.intern(combiningAlgorithm));
 					//
 					// Create our root policy
 					//
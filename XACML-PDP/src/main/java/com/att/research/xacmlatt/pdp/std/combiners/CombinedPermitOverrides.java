@@ -5,7 +5,6 @@
  */
 package com.att.research.xacmlatt.pdp.std.combiners;
 
-import java.util.Iterator;
 import java.util.List;
 
 import com.att.research.xacml.api.Decision;
@@ -47,9 +46,9 @@ public class CombinedPermitOverrides<T extends com.att.research.xacmlatt.pdp.eva
 		EvaluationResult firstIndeterminateP	= null;
 		EvaluationResult firstIndeterminateDP	= null;
 		
-		Iterator<CombiningElement<T>> iterElements	= elements.iterator();
-		while (iterElements.hasNext()) {
-			CombiningElement<T> combiningElement		= iterElements.next();
+		int nElements	= elements.size();
+		for (int i = 0 ; i < nElements ; i++) {
+			CombiningElement<T> combiningElement		= elements.get(i);
 			EvaluationResult evaluationResultElement	= combiningElement.evaluate(evaluationContext);
 			
 			assert(evaluationResultElement != null);
@@ -105,7 +104,7 @@ public class CombinedPermitOverrides<T extends com.att.research.xacmlatt.pdp.eva
 		} else if (firstIndeterminateD != null) {
 			return firstIndeterminateD;
 		} else {
-			return new EvaluationResult(Decision.NOTAPPLICABLE);
+			return EvaluationResult.ER_NOTAPPLICABLE;
 		}
 	}
 
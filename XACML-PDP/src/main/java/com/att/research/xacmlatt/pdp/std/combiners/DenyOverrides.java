@@ -5,7 +5,6 @@
  */
 package com.att.research.xacmlatt.pdp.std.combiners;
 
-import java.util.Iterator;
 import java.util.List;
 
 import com.att.research.xacml.api.Decision;
@@ -33,15 +32,15 @@ public class DenyOverrides<T extends com.att.research.xacmlatt.pdp.eval.Evaluata
 	public EvaluationResult combine(EvaluationContext evaluationContext, List<CombiningElement<T>> elements, List<CombinerParameter> combinerParameters) throws EvaluationException {
 		boolean atLeastOnePermit				= false;
 
-		EvaluationResult combinedResult			= new EvaluationResult(Decision.PERMIT);
+		EvaluationResult combinedResult			= null;
 		
 		EvaluationResult firstIndeterminateD	= null;
 		EvaluationResult firstIndeterminateP	= null;
 		EvaluationResult firstIndeterminateDP	= null;
 		
-		Iterator<CombiningElement<T>> iterElements	= elements.iterator();
-		while (iterElements.hasNext()) {
-			CombiningElement<T> combiningElement		= iterElements.next();
+		int nElements	= elements.size();
+		for (int i = 0 ; i < nElements ; i++) {
+			CombiningElement<T> combiningElement		= elements.get(i);
 			EvaluationResult evaluationResultElement	= combiningElement.evaluate(evaluationContext);
 			
 			assert(evaluationResultElement != null);
@@ -74,6 +73,9 @@ public class DenyOverrides<T extends com.att.research.xacmlatt.pdp.eval.Evaluata
 				break;
 			case PERMIT:
 				atLeastOnePermit	= true;
+				if (combinedResult == null) {
+					combinedResult	= new EvaluationResult(Decision.PERMIT);
+				}
 				combinedResult.merge(evaluationResultElement);
 				break;
 			default:
@@ -92,7 +94,7 @@ public class DenyOverrides<T extends com.att.research.xacmlatt.pdp.eval.Evaluata
 		} else if (firstIndeterminateP != null) {
 			return firstIndeterminateP;
 		} else {
-			return new EvaluationResult(Decision.NOTAPPLICABLE);
+			return EvaluationResult.ER_NOTAPPLICABLE;
 		}
 	}
 
@@ -5,7 +5,6 @@
  */
 package com.att.research.xacmlatt.pdp.std.combiners;
 
-import java.util.Iterator;
 import java.util.List;
 
 import com.att.research.xacml.api.Decision;
@@ -33,9 +32,9 @@ public class DenyUnlessPermit<T extends com.att.research.xacmlatt.pdp.eval.Evalu
 	public EvaluationResult combine(EvaluationContext evaluationContext, List<CombiningElement<T>> elements, List<CombinerParameter> combinerParameters) throws EvaluationException {
 		EvaluationResult combinedResult			= new EvaluationResult(Decision.DENY);
 		
-		Iterator<CombiningElement<T>> iterElements	= elements.iterator();
-		while (iterElements.hasNext()) {
-			CombiningElement<T> combiningElement		= iterElements.next();
+		int nElements	= elements.size();
+		for (int i = 0 ; i < nElements ; i++) {
+			CombiningElement<T> combiningElement		= elements.get(i);
 			EvaluationResult evaluationResultElement	= combiningElement.evaluate(evaluationContext);
 			
 			assert(evaluationResultElement != null);
@@ -5,7 +5,6 @@
  */
 package com.att.research.xacmlatt.pdp.std.combiners;
 
-import java.util.Iterator;
 import java.util.List;
 
 import com.att.research.xacml.api.Decision;
@@ -15,6 +14,7 @@ import com.att.research.xacmlatt.pdp.eval.EvaluationException;
 import com.att.research.xacmlatt.pdp.eval.EvaluationResult;
 import com.att.research.xacmlatt.pdp.policy.CombinerParameter;
 import com.att.research.xacmlatt.pdp.policy.CombiningElement;
+import com.att.research.xacmlatt.pdp.policy.TargetIndex;
 
 /**
  * PermitOverrides extends {@link com.att.research.xacmlatt.pdp.std.combiners.CombiningAlgorithmBase} to implement the
@@ -36,9 +36,13 @@ public class FirstApplicable<T extends com.att.research.xacmlatt.pdp.eval.Evalua
 			List<CombiningElement<T>> elements,
 			List<CombinerParameter> combinerParameters)
 			throws EvaluationException {
-		Iterator<CombiningElement<T>> iterElements	= elements.iterator();
-		while (iterElements.hasNext()) {
-			CombiningElement<T> combiningElement		= iterElements.next();
+		/*
+		 * Only the elements the target index leaves as candidates can apply, and they are in their original order
+		 */
+		int[] candidates	= TargetIndex.getCandidates(elements, evaluationContext);
+		int nElements		= (candidates == null ? elements.size() : candidates.length);
+		for (int i = 0 ; i < nElements ; i++) {
+			CombiningElement<T> combiningElement		= elements.get(candidates == null ? i : candidates[i]);
 			EvaluationResult evaluationResultElement	= combiningElement.evaluate(evaluationContext);
 			
 			assert(evaluationResultElement != null);
@@ -47,7 +51,7 @@ public class FirstApplicable<T extends com.att.research.xacmlatt.pdp.eval.Evalua
 			}
 		}
 		
-		return new EvaluationResult(Decision.NOTAPPLICABLE);
+		return EvaluationResult.ER_NOTAPPLICABLE;
 	}
 
 }
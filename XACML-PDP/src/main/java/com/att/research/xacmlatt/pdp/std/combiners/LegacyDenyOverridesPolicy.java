@@ -5,7 +5,6 @@
  */
 package com.att.research.xacmlatt.pdp.std.combiners;
 
-import java.util.Iterator;
 import java.util.List;
 
 import com.att.research.xacml.api.Decision;
@@ -36,9 +35,9 @@ public class LegacyDenyOverridesPolicy extends CombiningAlgorithmBase<PolicySetC
 
 		EvaluationResult combinedResult			= new EvaluationResult(Decision.PERMIT);
 		
-		Iterator<CombiningElement<PolicySetChild>> iterElements	= elements.iterator();
-		while (iterElements.hasNext()) {
-			CombiningElement<PolicySetChild> combiningElement		= iterElements.next();
+		int nElements	= elements.size();
+		for (int i = 0 ; i < nElements ; i++) {
+			CombiningElement<PolicySetChild> combiningElement		= elements.get(i);
 			EvaluationResult evaluationResultElement	= combiningElement.evaluate(evaluationContext);
 			
 			assert(evaluationResultElement != null);
@@ -64,7 +63,7 @@ public class LegacyDenyOverridesPolicy extends CombiningAlgorithmBase<PolicySetC
 		if (atLeastOnePermit) {
 			return combinedResult;
 		} else {
-			return new EvaluationResult(Decision.NOTAPPLICABLE);
+			return EvaluationResult.ER_NOTAPPLICABLE;
 		}
 	}
 
@@ -5,7 +5,6 @@
  */
 package com.att.research.xacmlatt.pdp.std.combiners;
 
-import java.util.Iterator;
 import java.util.List;
 
 import com.att.research.xacml.api.Decision;
@@ -38,9 +37,9 @@ public class LegacyDenyOverridesRule extends CombiningAlgorithmBase<Rule> {
 		EvaluationResult combinedResult					= new EvaluationResult(Decision.PERMIT);
 		EvaluationResult evaluationResultIndeterminate	= null;
 		
-		Iterator<CombiningElement<Rule>> iterElements	= elements.iterator();
-		while (iterElements.hasNext()) {
-			CombiningElement<Rule> combiningElement		= iterElements.next();
+		int nElements	= elements.size();
+		for (int i = 0 ; i < nElements ; i++) {
+			CombiningElement<Rule> combiningElement		= elements.get(i);
 			EvaluationResult evaluationResultElement	= combiningElement.evaluate(evaluationContext);
 			
 			assert(evaluationResultElement != null);
@@ -77,7 +76,7 @@ public class LegacyDenyOverridesRule extends CombiningAlgorithmBase<Rule> {
 		} else if (evaluationResultIndeterminate != null) {
 			return evaluationResultIndeterminate;
 		} else {
-			return new EvaluationResult(Decision.NOTAPPLICABLE);
+			return EvaluationResult.ER_NOTAPPLICABLE;
 		}
 	}
 
@@ -5,7 +5,6 @@
  */
 package com.att.research.xacmlatt.pdp.std.combiners;
 
-import java.util.Iterator;
 import java.util.List;
 
 import com.att.research.xacml.api.Decision;
@@ -37,9 +36,9 @@ public class LegacyPermitOverridesPolicy extends CombiningAlgorithmBase<PolicySe
 		EvaluationResult evaluationResultCombined		= new EvaluationResult(Decision.DENY);
 		EvaluationResult evaluationResultIndeterminate	= null;
 		
-		Iterator<CombiningElement<PolicySetChild>> iterElements	= elements.iterator();
-		while (iterElements.hasNext()) {
-			CombiningElement<PolicySetChild> combiningElement	= iterElements.next();
+		int nElements	= elements.size();
+		for (int i = 0 ; i < nElements ; i++) {
+			CombiningElement<PolicySetChild> combiningElement	= elements.get(i);
 			EvaluationResult evaluationResultElement			= combiningElement.evaluate(evaluationContext);
 			
 			assert(evaluationResultElement != null);
@@ -73,7 +72,7 @@ public class LegacyPermitOverridesPolicy extends CombiningAlgorithmBase<PolicySe
 		} else if (evaluationResultIndeterminate != null) {
 			return evaluationResultIndeterminate;
 		} else {
-			return new EvaluationResult(Decision.NOTAPPLICABLE);
+			return EvaluationResult.ER_NOTAPPLICABLE;
 		}
 	}
 
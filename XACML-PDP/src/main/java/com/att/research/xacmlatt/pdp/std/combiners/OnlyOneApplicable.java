@@ -5,7 +5,6 @@
  */
 package com.att.research.xacmlatt.pdp.std.combiners;
 
-import java.util.Iterator;
 import java.util.List;
 
 import com.att.research.xacml.api.Decision;
@@ -19,6 +18,7 @@ import com.att.research.xacmlatt.pdp.eval.MatchResult;
 import com.att.research.xacmlatt.pdp.policy.CombinerParameter;
 import com.att.research.xacmlatt.pdp.policy.CombiningElement;
 import com.att.research.xacmlatt.pdp.policy.PolicySetChild;
+import com.att.research.xacmlatt.pdp.policy.TargetIndex;
 
 /**
  * OnlyOneApplicable extends {@link com.att.research.xacmlatt.pdp.std.combiners.CombiningAlgorithmBase} to implement the
@@ -39,10 +39,14 @@ public class OnlyOneApplicable extends CombiningAlgorithmBase<PolicySetChild> {
 			List<CombiningElement<PolicySetChild>> elements,
 			List<CombinerParameter> combinerParameters)
 			throws EvaluationException {
-		Iterator<CombiningElement<PolicySetChild>> iterElements	= elements.iterator();
+		/*
+		 * Only the elements the target index leaves as candidates can apply, and they are in their original order
+		 */
+		int[] candidates	= TargetIndex.getCandidates(elements, evaluationContext);
+		int nElements		= (candidates == null ? elements.size() : candidates.length);
 		PolicySetChild policySetChildApplicable					= null;
-		while (iterElements.hasNext()) {
-			CombiningElement<PolicySetChild> combiningElement		= iterElements.next();
+		for (int i = 0 ; i < nElements ; i++) {
+			CombiningElement<PolicySetChild> combiningElement		= elements.get(candidates == null ? i : candidates[i]);
 			MatchResult matchResultElement				= combiningElement.getEvaluatable().match(evaluationContext);
 			
 			switch(matchResultElement.getMatchCode()) {
@@ -65,7 +69,7 @@ public class OnlyOneApplicable extends CombiningAlgorithmBase<PolicySetChild> {
 		if (policySetChildApplicable != null) {
 			return policySetChildApplicable.evaluate(evaluationContext);
 		} else {
-			return new EvaluationResult(Decision.NOTAPPLICABLE);
+			return EvaluationResult.ER_NOTAPPLICABLE;
 		}		
 	}
 
@@ -5,7 +5,6 @@
  */
 package com.att.research.xacmlatt.pdp.std.combiners;
 
-import java.util.Iterator;
 import java.util.List;
 
 import com.att.research.xacml.api.Decision;
@@ -38,21 +37,24 @@ public class PermitOverrides<T extends com.att.research.xacmlatt.pdp.eval.Evalua
 			throws EvaluationException {
 		boolean atLeastOneDeny					= false;
 
-		EvaluationResult combinedResult			= new EvaluationResult(Decision.DENY);
+		EvaluationResult combinedResult			= null;
 		
 		EvaluationResult firstIndeterminateD	= null;
 		EvaluationResult firstIndeterminateP	= null;
 		EvaluationResult firstIndeterminateDP	= null;
 		
-		Iterator<CombiningElement<T>> iterElements	= elements.iterator();
-		while (iterElements.hasNext()) {
-			CombiningElement<T> combiningElement		= iterElements.next();
+		int nElements	= elements.size();
+		for (int i = 0 ; i < nElements ; i++) {
+			CombiningElement<T> combiningElement		= elements.get(i);
 			EvaluationResult evaluationResultElement	= combiningElement.evaluate(evaluationContext);
 			
 			assert(evaluationResultElement != null);
 			switch(evaluationResultElement.getDecision()) {
 			case DENY:
 				atLeastOneDeny	= true;
+				if (combinedResult == null) {
+					combinedResult	= new EvaluationResult(Decision.DENY);
+				}
 				combinedResult.merge(evaluationResultElement);
 				break;
 			case INDETERMINATE:
@@ -97,7 +99,7 @@ public class PermitOverrides<T extends com.att.research.xacmlatt.pdp.eval.Evalua
 		} else if (firstIndeterminateD != null) {
 			return firstIndeterminateD;
 		} else {
-			return new EvaluationResult(Decision.NOTAPPLICABLE);
+			return EvaluationResult.ER_NOTAPPLICABLE;
 		}
 	}
 
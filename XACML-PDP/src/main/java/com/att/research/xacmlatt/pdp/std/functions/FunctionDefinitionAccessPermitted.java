@@ -63,6 +63,14 @@ public class FunctionDefinitionAccessPermitted extends FunctionDefinitionBase<Bo
 		super(idIn, DataTypes.DT_BOOLEAN, DataTypes.DT_ANYURI, false);
 	}
 
+	/**
+	 * Access permitted makes a new decision from the request being evaluated.
+	 */
+	@Override
+	public boolean isDeterministic() {
+		return false;
+	}
+
 	@Override
 	public ExpressionResult evaluate(EvaluationContext evaluationContext, List<FunctionArgument> arguments) {
 		if (arguments == null ||  arguments.size() != 2) {
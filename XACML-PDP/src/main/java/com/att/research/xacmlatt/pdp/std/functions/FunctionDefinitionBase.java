@@ -154,4 +154,12 @@ public abstract class FunctionDefinitionBase<O,I> implements FunctionDefinition
 		return returnsBag;
 	}
 	
+	/**
+	 * The standard functions depend only on their arguments unless they override this.
+	 */
+	@Override
+	public boolean isDeterministic() {
+		return true;
+	}
+	
 }
@@ -8,7 +8,9 @@ package com.att.research.xacmlatt.pdp.std.functions;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.att.research.xacml.api.AttributeValue;
 import com.att.research.xacml.api.DataType;
+import com.att.research.xacml.api.DataTypeException;
 import com.att.research.xacml.api.Identifier;
 import com.att.research.xacml.api.Status;
 import com.att.research.xacml.std.StdStatusCode;
@@ -16,6 +18,7 @@ import com.att.research.xacml.std.datatypes.DataTypes;
 import com.att.research.xacmlatt.pdp.eval.EvaluationContext;
 import com.att.research.xacmlatt.pdp.policy.ExpressionResult;
 import com.att.research.xacmlatt.pdp.policy.FunctionArgument;
+import com.att.research.xacmlatt.pdp.policy.MatchPredicate;
 
 /**
  * FunctionDefinitionEquality extends {@link com.att.research.xacmlatt.pdp.std.functions.FunctionDefinitionHomogeneousSimple} to
@@ -80,4 +83,40 @@ public class FunctionDefinitionEquality<I> extends FunctionDefinitionHomogeneous
 		}
 	}
 
+	/**
+	 * Converts the literal once and compares each value of this function's data type to it with <code>isEqual</code>.  Values
+	 * of any other data type, or that do not convert, are left to <code>evaluate</code> so they get the same error.
+	 */
+	@Override
+	public MatchPredicate getMatchPredicate(AttributeValue<?> attributeValue) {
+		final DataType<I> dataTypeArgs	= this.getDataTypeArgs();
+		if (attributeValue == null || attributeValue.getValue() == null || !dataTypeArgs.getId().equals(attributeValue.getDataTypeId())) {
+			return null;
+		}
+		final I literal;
+		try {
+			literal	= dataTypeArgs.convert(attributeValue.getValue());
+		} catch (DataTypeException ex) {
+			return null;
+		}
+		if (literal == null) {
+			return null;
+		}
+		return attributeValueMatch -> {
+			if (attributeValueMatch == null || attributeValueMatch.getValue() == null || !dataTypeArgs.getId().equals(attributeValueMatch.getDataTypeId())) {
+				return null;
+			}
+			I value;
+			try {
+				value	= dataTypeArgs.convert(attributeValueMatch.getValue());
+			} catch (DataTypeException ex) {
+				return null;
+			}
+			if (value == null) {
+				return null;
+			}
+			return (this.isEqual(literal, value) ? Boolean.TRUE : Boolean.FALSE);
+		};
+	}
+
 }
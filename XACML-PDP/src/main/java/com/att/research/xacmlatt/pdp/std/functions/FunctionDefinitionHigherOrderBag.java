@@ -122,7 +122,7 @@ public class FunctionDefinitionHigherOrderBag<O,I> extends FunctionDefinitionBas
 			return ExpressionResult.newError(new StdStatus(StdStatusCode.STATUS_CODE_PROCESSING_ERROR, this.getShortFunctionId() + 
 					" First argument expected URI, got " + functionIdArgument.getValue().getDataTypeId() ) );
 		}
-		Identifier functionId = new IdentifierImpl((URI) functionIdArgument.getValue().getValue());
+		Identifier functionId = IdentifierImpl.intern((URI) functionIdArgument.getValue().getValue());
 		
 		// look up the actual function definition based on that ID
 		StdFunctionDefinitionFactory fdf = new StdFunctionDefinitionFactory();
@@ -86,6 +86,14 @@ public class FunctionDefinitionXPath<O> extends FunctionDefinitionHomogeneousSim
 
 	}
 
+	/**
+	 * XPath expressions are evaluated against the <code>Content</code> of the request.
+	 */
+	@Override
+	public boolean isDeterministic() {
+		return false;
+	}
+
 	@Override
 	public ExpressionResult evaluate(EvaluationContext evaluationContext, List<FunctionArgument> arguments) {
 
@@ -0,0 +1,206 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.att.research.xacml.api.Response;
+import com.att.research.xacml.util.Histogram;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * LoadGenerator sends requests from a fixed corpus to a PDP from a number of worker threads for a fixed time, reporting the
+ * throughput, errors and latency percentiles of every interval and of the whole run.
+ *
+ * With a target rate it is open loop: request <code>n</code> is due at <code>n / rate</code> seconds from the start whether or
+ * not earlier requests have finished, and its latency is measured from when it was due rather than from when a worker got to
+ * it.  A PDP that falls behind therefore shows up in the percentiles instead of quietly lowering the rate (coordinated
+ * omission).  Without a rate every worker sends its next request as soon as it has the last response.
+ *
+ * @version $Revision$
+ */
+public class LoadGenerator {
+	private static final Logger logger	= LoggerFactory.getLogger(LoadGenerator.class);
+
+	/**
+	 * Caller sends one request of the corpus to the PDP.
+	 */
+	@FunctionalInterface
+	public interface Caller {
+		/**
+		 * Sends the given request of the corpus to the PDP.
+		 *
+		 * @param index the index of the request in the corpus
+		 * @return the <code>Response</code>, or null if there was none
+		 * @throws Exception if the call failed
+		 */
+		public Response call(int index) throws Exception;
+	}
+
+	/**
+	 * Stats holds the counts and latencies of one interval or of the whole run.
+	 */
+	public static class Stats {
+		private final Histogram latency	= new Histogram();
+		private final LongAdder errors	= new LongAdder();
+		private final long startNanos	= System.nanoTime();
+		private volatile long endNanos;
+
+		public Histogram getLatency() {
+			return this.latency;
+		}
+
+		public long getRequests() {
+			return this.latency.getCount();
+		}
+
+		public long getErrors() {
+			return this.errors.sum();
+		}
+
+		/**
+		 * Gets the number of requests completed per second between the start of this <code>Stats</code> and the time it was ended,
+		 * or now if it has not been.
+		 *
+		 * @return the throughput in requests per second
+		 */
+		public double getThroughput() {
+			long nanos	= (this.endNanos == 0 ? System.nanoTime() : this.endNanos) - this.startNanos;
+			return (nanos <= 0 ? 0.0 : this.getRequests() * 1e9 / nanos);
+		}
+
+		private Stats end() {
+			this.endNanos	= System.nanoTime();
+			return this;
+		}
+
+		private static String millis(long nanos) {
+			return String.format("%.3fms", nanos / 1e6);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("requests=%d throughput=%.1f/s errors=%d p50=%s p99=%s p999=%s max=%s",
+					this.getRequests(), this.getThroughput(), this.getErrors(),
+					millis(this.latency.getMedian()), millis(this.latency.getPercentile99()), millis(this.latency.getPercentile999()), millis(this.latency.getMax()));
+		}
+	}
+
+	private final int threads;
+	private final double rate;
+	private final long durationNanos;
+	private final long intervalNanos;
+
+	private final AtomicReference<Stats> statsInterval	= new AtomicReference<Stats>();
+	private Stats statsTotal;
+
+	/**
+	 * Creates a new <code>LoadGenerator</code>.
+	 *
+	 * @param threadsIn the number of worker threads
+	 * @param rateIn the target number of requests per second, or 0 to send as fast as the workers can
+	 * @param durationSeconds how long to run for
+	 * @param intervalSeconds how often to report
+	 */
+	public LoadGenerator(int threadsIn, double rateIn, long durationSeconds, long intervalSeconds) {
+		this.threads		= Math.max(1, threadsIn);
+		this.rate			= Math.max(0.0, rateIn);
+		this.durationNanos	= TimeUnit.SECONDS.toNanos(Math.max(1, durationSeconds));
+		this.intervalNanos	= TimeUnit.SECONDS.toNanos(Math.max(1, intervalSeconds));
+	}
+
+	/**
+	 * Sends requests from a corpus of the given size, cycling through it, until the duration is up.
+	 *
+	 * @param corpusSize the number of requests in the corpus
+	 * @param caller the <code>Caller</code> that sends a request from the corpus
+	 * @return the <code>Stats</code> for the whole run
+	 * @throws InterruptedException if interrupted while waiting for the workers
+	 */
+	public Stats run(int corpusSize, Caller caller) throws InterruptedException {
+		if (corpusSize <= 0) {
+			throw new IllegalArgumentException("There are no requests to send");
+		}
+		this.statsTotal	= new Stats();
+		this.statsInterval.set(new Stats());
+
+		final long periodNanos	= (this.rate > 0 ? (long)(1e9 / this.rate) : 0);
+		final long startNanos	= System.nanoTime();
+		final long endNanos		= startNanos + this.durationNanos;
+		final AtomicLong sequence	= new AtomicLong();
+
+		logger.info("Load: {} threads, {} for {}s", this.threads, (this.rate > 0 ? this.rate + " requests/s" : "closed loop"), TimeUnit.NANOSECONDS.toSeconds(this.durationNanos));
+		ScheduledExecutorService reporter	= Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("xacml-load-report").build());
+		reporter.scheduleAtFixedRate(this::report, this.intervalNanos, this.intervalNanos, TimeUnit.NANOSECONDS);
+		ExecutorService workers	= Executors.newFixedThreadPool(this.threads, new ThreadFactoryBuilder().setDaemon(true).setNameFormat("xacml-load-%d").build());
+		for (int t = 0 ; t < this.threads ; t++) {
+			workers.execute(() -> {
+				while (true) {
+					long n			= sequence.getAndIncrement();
+					long dueNanos	= (periodNanos > 0 ? startNanos + n * periodNanos : System.nanoTime());
+					if (dueNanos >= endNanos) {
+						break;
+					}
+					long waitNanos;
+					while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+						LockSupport.parkNanos(waitNanos);
+					}
+					this.send(caller, (int)(n % corpusSize), dueNanos);
+				}
+			});
+		}
+		workers.shutdown();
+		//
+		// Requests in flight when the time is up are allowed to finish
+		//
+		while (!workers.awaitTermination(this.intervalNanos, TimeUnit.NANOSECONDS)) {
+			logger.info("Waiting for requests in flight");
+		}
+		reporter.shutdownNow();
+		this.report();
+		this.statsTotal.end();
+		logger.info("Total: {}", this.statsTotal);
+		return this.statsTotal;
+	}
+
+	private void send(Caller caller, int index, long dueNanos) {
+		boolean error	= false;
+		try {
+			if (caller.call(index) == null) {
+				error	= true;
+			}
+		} catch (Exception e) {
+			logger.debug("Request {} failed: {}", index, e.toString());
+			error	= true;
+		}
+		long latency	= System.nanoTime() - dueNanos;
+		//
+		// A request finishing as the interval is swapped may land in the one just reported, which only skews that interval
+		//
+		Stats stats	= this.statsInterval.get();
+		stats.latency.record(latency);
+		this.statsTotal.latency.record(latency);
+		if (error) {
+			stats.errors.increment();
+			this.statsTotal.errors.increment();
+		}
+	}
+
+	private void report() {
+		Stats stats	= this.statsInterval.getAndSet(new Stats()).end();
+		logger.info("Interval: {}", stats);
+	}
+}
@@ -13,7 +13,10 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -32,7 +35,14 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -160,6 +170,10 @@ public class TestBase extends SimpleFileVisitor<Path> {
 	public static final String OPTION_TESTOUTPUT = "output";
 	public static final String OPTION_LOOP = "loop";
 	public static final String OPTION_TESTNUMBERS = "testNumbers";
+	public static final String OPTION_THREADS = "threads";
+	public static final String OPTION_RATE = "rate";
+	public static final String OPTION_DURATION = "duration";
+	public static final String OPTION_INTERVAL = "interval";
 
 	public static final String DEFAULT_RESTURL = "https://localhost:8443/pdp/";
 	
@@ -172,6 +186,10 @@ public class TestBase extends SimpleFileVisitor<Path> {
 		options.addOption(new Option(OPTION_TESTOUTPUT, true, "Specify a different location for dumping responses."));
 		options.addOption(new Option(OPTION_LOOP, true, "Number of times to loop through the tests. Default is 1. A value of -1 runs indefinitely."));
 		options.addOption(new Option(OPTION_TESTNUMBERS, true, "Comma-separated list of numbers found in the names of the test files to be run.  Numbers must exactly match the file name, e.g. '02'.  Used to limit testing to specific set of tests."));
+		options.addOption(new Option(OPTION_THREADS, true, "Load mode: number of concurrent workers sending the requests, including generated ones, over and over instead of checking them once."));
+		options.addOption(new Option(OPTION_RATE, true, "Load mode: target number of requests per second. Latency is measured from when each request was due. Default is as fast as the workers can go."));
+		options.addOption(new Option(OPTION_DURATION, true, "Load mode: number of seconds to run for. Default is 60."));
+		options.addOption(new Option(OPTION_INTERVAL, true, "Load mode: number of seconds between reports of throughput, errors and latency percentiles. Default is 10."));
 	}
 	
 	protected String directory = null;
@@ -179,6 +197,10 @@ public class TestBase extends SimpleFileVisitor<Path> {
 	protected boolean isREST;
 	protected URL restURL = null;
 	protected int loop = 1;
+	protected int threads = 0;
+	protected double rate = 0;
+	protected long duration = 60;
+	protected long interval = 10;
 	protected PDPEngine engine = null;
 	protected List<Generator> generators = new ArrayList<Generator>();
 	protected static DataTypeFactory dataTypeFactory		= null;
@@ -277,6 +299,18 @@ public class TestBase extends SimpleFileVisitor<Path> {
 				testNumbersArray[i] = "." + testNumbersArray[i] + ".";
 			}
 		}
+		if (cl.hasOption(OPTION_THREADS)) {
+			this.threads = Integer.parseInt(cl.getOptionValue(OPTION_THREADS));
+		}
+		if (cl.hasOption(OPTION_RATE)) {
+			this.rate = Double.parseDouble(cl.getOptionValue(OPTION_RATE));
+		}
+		if (cl.hasOption(OPTION_DURATION)) {
+			this.duration = Long.parseLong(cl.getOptionValue(OPTION_DURATION));
+		}
+		if (cl.hasOption(OPTION_INTERVAL)) {
+			this.interval = Long.parseLong(cl.getOptionValue(OPTION_INTERVAL));
+		}
 	}
 	
 	/**
@@ -385,14 +419,14 @@ public class TestBase extends SimpleFileVisitor<Path> {
 			// Create an attribute value. It is simply a placeholder for the field within
 			// the CSV that contains the actual attribute value. It mainly holds the data type
 			//
-			Identifier datatype = new IdentifierImpl(XACMLProperties.getProperty(attributePrefix + ".datatype"));
+			Identifier datatype = IdentifierImpl.intern(XACMLProperties.getProperty(attributePrefix + ".datatype"));
 			Integer field = Integer.parseInt(XACMLProperties.getProperty(attributePrefix + ".field"));
 			StdAttributeValue<?> value = new StdAttributeValue<>(datatype, field);
 			//
 			// Get the rest of the attribute properties
 			//
-			Identifier category = new IdentifierImpl(XACMLProperties.getProperty(attributePrefix + ".category"));
-			Identifier id = new IdentifierImpl(XACMLProperties.getProperty(attributePrefix + ".id"));
+			Identifier category = IdentifierImpl.intern(XACMLProperties.getProperty(attributePrefix + ".category"));
+			Identifier id = IdentifierImpl.intern(XACMLProperties.getProperty(attributePrefix + ".id"));
 			String issuer = XACMLProperties.getProperty(attributePrefix + ".issuer");
 			boolean include = Boolean.parseBoolean(XACMLProperties.getProperty(attributePrefix + ".include", "false"));
 			//
@@ -416,6 +450,13 @@ public class TestBase extends SimpleFileVisitor<Path> {
 		//
 		this.configure();
 		//
+		// Are we generating load instead?
+		//
+		if (this.threads > 0) {
+			this.runLoad();
+			return;
+		}
+		//
 		// Loop and run
 		//
 		int runs = 1;
@@ -450,35 +491,17 @@ public class TestBase extends SimpleFileVisitor<Path> {
 			//
 			// if user has limited which files to use, check that here
 			//
-			if (testNumbersArray != null) {
-				String fileNameString = file.getFileName().toString();
-				boolean found = false;
-				for (String numberString : testNumbersArray) {
-					if (fileNameString.contains(numberString)) {
-						found = true;
-						break;
-					}
-				}
-				if (found == false) {
-					//
-					// this test is not in the list to be run, so skip it
-					//
-					return super.visitFile(file, attrs);
-				}
-			}
-			try {
+			if (this.isSelected(file) == false) {
 				//
-				// Pull what this request is supposed to be
+				// this test is not in the list to be run, so skip it
 				//
-				String group = null;
-				int count = matcher.groupCount();
-				if (count >= 1) {
-					group = matcher.group(count-1);
-				}
+				return super.visitFile(file, attrs);
+			}
+			try {
 				//
 				// Send it
 				//
-				this.sendRequest(file, group);
+				this.sendRequest(file, this.getGroup(matcher));
 			} catch (Exception e) {
 				logger.error("{}", e);
 				e.printStackTrace();
@@ -487,6 +510,116 @@ public class TestBase extends SimpleFileVisitor<Path> {
 		return super.visitFile(file, attrs);
 	}
 	
+	/**
+	 * Checks the name of a request file against the test numbers the user limited the run to, if any.
+	 * 
+	 * @param file - Request file
+	 * @return true if the request should be sent
+	 */
+	protected boolean isSelected(Path file) {
+		if (testNumbersArray == null) {
+			return true;
+		}
+		String fileNameString = file.getFileName().toString();
+		for (String numberString : testNumbersArray) {
+			if (fileNameString.contains(numberString)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Pulls what the request is supposed to be out of its file name.
+	 * 
+	 * @param matcher - Matcher of the request file name against the pattern
+	 * @return the group, e.g. Permit or Generate
+	 */
+	protected String getGroup(Matcher matcher) {
+		int count = matcher.groupCount();
+		if (count >= 1) {
+			return matcher.group(count-1);
+		}
+		return null;
+	}
+	
+	/**
+	 * Runs in load mode. Every request in the requests directory, with all of the requests generated from the
+	 * "Generate" ones, is loaded up front, then the {@link LoadGenerator} sends them to the PDP over and over
+	 * until the duration is up.
+	 * 
+	 * @throws IOException
+	 */
+	protected void runLoad() throws IOException {
+		final List<Request> corpus = this.loadCorpus();
+		logger.info("Loaded " + corpus.size() + " requests");
+		LoadGenerator loadGenerator = new LoadGenerator(this.threads, this.rate, this.duration, this.interval);
+		try {
+			if (this.isREST) {
+				//
+				// Serialize once, and keep a connection per worker open
+				//
+				final List<byte[]> bodies = new ArrayList<>(corpus.size());
+				for (Request request : corpus) {
+					try {
+						bodies.add(JSONRequest.toString(request, false).getBytes(StandardCharsets.UTF_8));
+					} catch (Exception e) {
+						throw new IOException("Failed to convert request: " + e.getMessage(), e);
+					}
+				}
+				final URI uri;
+				try {
+					uri = this.restURL.toURI();
+				} catch (URISyntaxException e) {
+					throw new IOException("Invalid URL " + this.restURL, e);
+				}
+				PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+				connectionManager.setMaxTotal(this.threads);
+				connectionManager.setDefaultMaxPerRoute(this.threads);
+				try (CloseableHttpClient client = HttpClients.custom().setConnectionManager(connectionManager).build()) {
+					loadGenerator.run(bodies.size(), index -> this.callRESTfulPDP(client, uri, bodies.get(index)));
+				}
+			} else {
+				loadGenerator.run(corpus.size(), index -> this.engine.decide(corpus.get(index)));
+			}
+		} catch (InterruptedException e) {
+			logger.warn("Load interrupted");
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Reads every request in the requests directory, and every request generated from the "Generate" ones.
+	 * 
+	 * @return List of the requests
+	 * @throws IOException
+	 */
+	protected List<Request> loadCorpus() throws IOException {
+		final List<Request> corpus = new ArrayList<>();
+		Files.walkFileTree(Paths.get(this.directory.toString(), "requests"), new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Matcher matcher = pattern.matcher(file.getFileName().toString());
+				if (matcher.matches() && isSelected(file)) {
+					String group = getGroup(matcher);
+					try {
+						Request request;
+						while ((request = generateRequest(file, group)) != null) {
+							corpus.add(request);
+							if (group.equals("Generate") == false) {
+								break;
+							}
+						}
+					} catch (Exception e) {
+						logger.error("Failed to load " + file + ": " + e, e);
+					}
+				}
+				return super.visitFile(file, attrs);
+			}
+		});
+		return corpus;
+	}
+	
 	/**
 	 * When a request file is encountered, this method is called send the request to the PDP engine. It will also dump
 	 * the response object. If the group equals "Generate", then it will loop and send the request with generated attributes
@@ -815,6 +948,39 @@ public class TestBase extends SimpleFileVisitor<Path> {
 		return response;
 	}
 	
+	/**
+	 * This makes an HTTP POST call to a running PDP RESTful servlet using a pooled client, so the connection
+	 * is reused by the next request.
+	 * 
+	 * @param client - the client to use
+	 * @param uri - URI of the PDP
+	 * @param body - the JSON request
+	 * @return Response or null if the PDP did not return one
+	 * @throws Exception
+	 */
+	protected Response callRESTfulPDP(CloseableHttpClient client, URI uri, byte[] body) throws Exception {
+		HttpPost post = new HttpPost(uri);
+		post.setEntity(new ByteArrayEntity(body, ContentType.APPLICATION_JSON));
+		HttpResponse httpResponse = client.execute(post);
+		try {
+			if (httpResponse.getStatusLine().getStatusCode() != 200 || httpResponse.getEntity() == null) {
+				logger.error(httpResponse.getStatusLine().toString());
+				return null;
+			}
+			ContentType contentType = ContentType.getOrDefault(httpResponse.getEntity());
+			if (contentType.getMimeType().equalsIgnoreCase(ContentType.APPLICATION_JSON.getMimeType())) {
+				return JSONResponse.load(httpResponse.getEntity().getContent());
+			} else if (contentType.getMimeType().equalsIgnoreCase(ContentType.APPLICATION_XML.getMimeType()) ||
+					contentType.getMimeType().equalsIgnoreCase("application/xacml+xml") ) {
+				return DOMResponse.load(httpResponse.getEntity().getContent());
+			}
+			logger.error("unknown content-type: " + contentType);
+			return null;
+		} finally {
+			EntityUtils.consumeQuietly(httpResponse.getEntity());
+		}
+	}
+	
 	/**
 	 * This processes a response. Saves the response out to disk. If there is a corresponding response file for the request located
 	 * in the "responses" sub-directory, then this method will compare that response file with what the engine returned to see if it
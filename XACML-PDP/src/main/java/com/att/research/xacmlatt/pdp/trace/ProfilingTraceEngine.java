@@ -0,0 +1,439 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.trace;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.att.research.xacml.api.trace.TraceEngine;
+import com.att.research.xacml.api.trace.TraceEvent;
+import com.att.research.xacml.api.trace.Traceable;
+import com.att.research.xacml.util.XACMLProperties;
+import com.att.research.xacmlatt.pdp.eval.MatchResult;
+import com.att.research.xacmlatt.pdp.policy.ExpressionResultBoolean;
+import com.att.research.xacmlatt.pdp.policy.Policy;
+import com.att.research.xacmlatt.pdp.policy.PolicySet;
+import com.att.research.xacmlatt.pdp.policy.Rule;
+
+/**
+ * ProfilingTraceEngine implements the {@link com.att.research.xacml.api.trace.TraceEngine} interface as a sampling profiler of
+ * policy evaluation.  One in every <code>sampleRate</code> requests is traced, and for those the number of times each
+ * {@link com.att.research.xacmlatt.pdp.policy.PolicySet}, {@link com.att.research.xacmlatt.pdp.policy.Policy} and
+ * {@link com.att.research.xacmlatt.pdp.policy.Rule} is evaluated, how often its target matches and the time spent in it are
+ * added to lock-free counters.  Requests that are not sampled only pay for the sampling decision.
+ *
+ * The results are available as {@link ElementProfile}s, as a report of the rules that took the most time, and as stacks in
+ * the collapsed format read by flame graph tools.
+ *
+ * The following properties configure the profiler:
+ * <ul>
+ * <li><code>xacml.att.profiler.sampleRate</code> - trace one in this many requests, the default is 100</li>
+ * <li><code>xacml.att.profiler.topN</code> - the number of rules in the hot rule report, the default is 20</li>
+ * </ul>
+ *
+ * @version $Revision$
+ */
+public class ProfilingTraceEngine implements TraceEngine {
+	public static final String PROP_SAMPLE_RATE	= "xacml.att.profiler.sampleRate";
+	public static final String PROP_TOP_N		= "xacml.att.profiler.topN";
+
+	public static final int DEFAULT_SAMPLE_RATE	= 100;
+	public static final int DEFAULT_TOP_N		= 20;
+
+	private static final Logger logger	= LoggerFactory.getLogger(ProfilingTraceEngine.class);
+
+	private static ProfilingTraceEngine profilingTraceEngine;
+
+	private final int sampleRate;
+	private final int topN;
+	private final LongAdder requests			= new LongAdder();
+	private final LongAdder sampledRequests		= new LongAdder();
+	private final ConcurrentMap<String, ElementProfile> mapProfiles	= new ConcurrentHashMap<String, ElementProfile>();
+	private final ConcurrentMap<String, LongAdder> mapStacks		= new ConcurrentHashMap<String, LongAdder>();
+
+	/**
+	 * ElementProfile holds the counters for a single <code>PolicySet</code>, <code>Policy</code> or <code>Rule</code>.
+	 */
+	public static final class ElementProfile {
+		private final String type;
+		private final String name;
+		private final LongAdder evaluations		= new LongAdder();
+		private final LongAdder matches			= new LongAdder();
+		private final LongAdder noMatches		= new LongAdder();
+		private final LongAdder indeterminates	= new LongAdder();
+		private final LongAdder totalNanos		= new LongAdder();
+		private final LongAdder selfNanos		= new LongAdder();
+
+		private ElementProfile(String typeIn, String nameIn) {
+			this.type	= typeIn;
+			this.name	= nameIn;
+		}
+
+		public String getType() {
+			return this.type;
+		}
+
+		/**
+		 * Gets the name of the element, its identifier or, for a <code>Rule</code>, the identifier of its <code>Policy</code> and its
+		 * rule id separated by a '/'.
+		 *
+		 * @return the name of the element
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		public long getEvaluations() {
+			return this.evaluations.sum();
+		}
+
+		public long getMatches() {
+			return this.matches.sum();
+		}
+
+		public long getNoMatches() {
+			return this.noMatches.sum();
+		}
+
+		public long getIndeterminates() {
+			return this.indeterminates.sum();
+		}
+
+		/**
+		 * Gets the fraction of the evaluations of this element whose target matched.
+		 *
+		 * @return the match rate between 0 and 1
+		 */
+		public double getMatchRate() {
+			long evaluationCount	= this.evaluations.sum();
+			return (evaluationCount == 0 ? 0.0 : (double) this.matches.sum() / evaluationCount);
+		}
+
+		/**
+		 * Gets the time spent evaluating this element, including its children.
+		 *
+		 * @return the total time in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return this.totalNanos.sum();
+		}
+
+		/**
+		 * Gets the time spent evaluating this element, not including its children.
+		 *
+		 * @return the self time in nanoseconds
+		 */
+		public long getSelfNanos() {
+			return this.selfNanos.sum();
+		}
+
+		@Override
+		public String toString() {
+			return "{type=" + this.type +
+					",name=" + this.name +
+					",evaluations=" + this.getEvaluations() +
+					",matchRate=" + this.getMatchRate() +
+					",indeterminates=" + this.getIndeterminates() +
+					",totalNanos=" + this.getTotalNanos() +
+					",selfNanos=" + this.getSelfNanos() + "}";
+		}
+	}
+
+	/*
+	 * An element that is being evaluated in a sampled request
+	 */
+	private static final class Frame {
+		private final Traceable element;
+		private final ElementProfile profile;
+		private final String stack;
+		private final long startNanos;
+		private long childNanos;
+
+		public Frame(Traceable elementIn, ElementProfile profileIn, String stackIn, long startNanosIn) {
+			this.element	= elementIn;
+			this.profile	= profileIn;
+			this.stack		= stackIn;
+			this.startNanos	= startNanosIn;
+		}
+	}
+
+	/*
+	 * The TraceEngine for a single sampled request.  Each request is evaluated on one thread, so the stack needs no locking.
+	 */
+	private final class Recorder implements TraceEngine {
+		private final List<Frame> frames	= new ArrayList<Frame>();
+
+		@Override
+		public boolean isTracing() {
+			return true;
+		}
+
+		@Override
+		public void trace(TraceEvent<?> traceEvent) {
+			Traceable cause	= traceEvent.getCause();
+			if (!(cause instanceof PolicySet || cause instanceof Policy || cause instanceof Rule)) {
+				return;
+			}
+			String message	= traceEvent.getMessage();
+			Object value	= traceEvent.getValue();
+			long nanos		= traceEvent.getNanoTime();
+			if ("Match".equals(message) && value instanceof MatchResult) {
+				Frame frame	= this.find(cause);
+				if (frame != null) {
+					switch(((MatchResult) value).getMatchCode()) {
+					case MATCH:
+						frame.profile.matches.increment();
+						break;
+					case NOMATCH:
+						frame.profile.noMatches.increment();
+						this.pop(cause, nanos);
+						break;
+					case INDETERMINATE:
+						frame.profile.indeterminates.increment();
+						this.pop(cause, nanos);
+						break;
+					}
+				}
+			} else if ("Condition".equals(message) && value instanceof ExpressionResultBoolean) {
+				ExpressionResultBoolean expressionResultBoolean	= (ExpressionResultBoolean) value;
+				if (!expressionResultBoolean.isOk() || !expressionResultBoolean.isTrue()) {
+					this.pop(cause, nanos);
+				}
+			} else if ("Result".equals(message)) {
+				this.pop(cause, nanos);
+			} else if (value == null) {
+				this.push(cause, nanos);
+			}
+		}
+
+		private void push(Traceable element, long nanos) {
+			//
+			// Rules have no children, so a rule still on the stack ended without an event (it was not valid)
+			//
+			while (!this.frames.isEmpty() && this.frames.get(this.frames.size() - 1).element instanceof Rule) {
+				this.pop(this.frames.get(this.frames.size() - 1).element, nanos);
+			}
+			Frame parent			= (this.frames.isEmpty() ? null : this.frames.get(this.frames.size() - 1));
+			ElementProfile profile	= getProfile(element);
+			profile.evaluations.increment();
+			String frameName		= profile.getType() + ":" + element.getTraceId();
+			this.frames.add(new Frame(element, profile, (parent == null ? frameName : parent.stack + ";" + frameName), nanos));
+		}
+
+		private Frame find(Traceable element) {
+			for (int i = this.frames.size() - 1 ; i >= 0 ; i--) {
+				if (this.frames.get(i).element == element) {
+					return this.frames.get(i);
+				}
+			}
+			return null;
+		}
+
+		/*
+		 * Ends the given element, and anything above it on the stack that ended without an event
+		 */
+		private void pop(Traceable element, long nowNanos) {
+			if (this.find(element) == null) {
+				return;
+			}
+			Frame frame;
+			do {
+				frame			= this.frames.remove(this.frames.size() - 1);
+				long nanos		= nowNanos - frame.startNanos;
+				long selfNanos	= Math.max(0, nanos - frame.childNanos);
+				frame.profile.totalNanos.add(nanos);
+				frame.profile.selfNanos.add(selfNanos);
+				getStackCounter(frame.stack).add(selfNanos);
+				if (!this.frames.isEmpty()) {
+					this.frames.get(this.frames.size() - 1).childNanos	+= nanos;
+				}
+			} while (frame.element != element);
+		}
+	}
+
+	protected ProfilingTraceEngine(Properties properties) {
+		this.sampleRate	= Math.max(1, getInt(properties, PROP_SAMPLE_RATE, DEFAULT_SAMPLE_RATE));
+		this.topN		= Math.max(1, getInt(properties, PROP_TOP_N, DEFAULT_TOP_N));
+	}
+
+	private static int getInt(Properties properties, String propertyName, int defaultValue) {
+		String value	= null;
+		try {
+			value	= (properties == null ? XACMLProperties.getProperty(propertyName) : properties.getProperty(propertyName));
+		} catch (Exception ex) {
+			logger.error("Exception getting {}: {}", propertyName, ex.getMessage());
+		}
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException ex) {
+			logger.error("Invalid value \"{}\" for {}, using {}", value, propertyName, defaultValue);
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Gets the single instance of the <code>ProfilingTraceEngine</code>, configured from the XACML properties.
+	 *
+	 * @return the single instance of the <code>ProfilingTraceEngine</code>
+	 */
+	public static ProfilingTraceEngine newInstance() {
+		return newInstance(null);
+	}
+
+	/**
+	 * Gets the single instance of the <code>ProfilingTraceEngine</code>.  The given <code>Properties</code> are only used by the
+	 * first call that creates it.
+	 *
+	 * @param properties the <code>Properties</code> to configure the <code>ProfilingTraceEngine</code> with
+	 * @return the single instance of the <code>ProfilingTraceEngine</code>
+	 */
+	public static synchronized ProfilingTraceEngine newInstance(Properties properties) {
+		if (profilingTraceEngine == null) {
+			profilingTraceEngine	= new ProfilingTraceEngine(properties);
+		}
+		return profilingTraceEngine;
+	}
+
+	private ElementProfile getProfile(Traceable element) {
+		String type;
+		String name;
+		if (element instanceof Rule) {
+			Traceable policy	= element.getCause();
+			type	= "Rule";
+			name	= (policy == null ? "" : policy.getTraceId()) + "/" + element.getTraceId();
+		} else {
+			type	= (element instanceof PolicySet ? "PolicySet" : "Policy");
+			name	= element.getTraceId();
+		}
+		String key				= type + ":" + name;
+		ElementProfile profile	= this.mapProfiles.get(key);
+		if (profile == null) {
+			profile	= this.mapProfiles.computeIfAbsent(key, k -> new ElementProfile(type, name));
+		}
+		return profile;
+	}
+
+	private LongAdder getStackCounter(String stack) {
+		LongAdder counter	= this.mapStacks.get(stack);
+		if (counter == null) {
+			counter	= this.mapStacks.computeIfAbsent(stack, k -> new LongAdder());
+		}
+		return counter;
+	}
+
+	/**
+	 * The <code>ProfilingTraceEngine</code> itself does not trace, only the <code>TraceEngine</code>s it hands out to sampled requests do.
+	 */
+	@Override
+	public void trace(TraceEvent<?> traceEvent) {
+	}
+
+	@Override
+	public boolean isTracing() {
+		return false;
+	}
+
+	@Override
+	public TraceEngine getRequestTraceEngine() {
+		this.requests.increment();
+		if (this.sampleRate > 1 && ThreadLocalRandom.current().nextInt(this.sampleRate) != 0) {
+			return this;
+		}
+		this.sampledRequests.increment();
+		return new Recorder();
+	}
+
+	public long getRequests() {
+		return this.requests.sum();
+	}
+
+	public long getSampledRequests() {
+		return this.sampledRequests.sum();
+	}
+
+	/**
+	 * Gets the profile of every element that has been evaluated in a sampled request.
+	 *
+	 * @return a <code>Collection</code> of <code>ElementProfile</code>s
+	 */
+	public Collection<ElementProfile> getProfiles() {
+		return Collections.unmodifiableCollection(new ArrayList<ElementProfile>(this.mapProfiles.values()));
+	}
+
+	/**
+	 * Gets the rules that have taken the most time in sampled requests, up to <code>xacml.att.profiler.topN</code> of them.
+	 *
+	 * @return a <code>List</code> of <code>ElementProfile</code>s for rules, with the most time first
+	 */
+	public List<ElementProfile> getHotRules() {
+		List<ElementProfile> rules	= new ArrayList<ElementProfile>();
+		for (ElementProfile profile : this.mapProfiles.values()) {
+			if ("Rule".equals(profile.getType())) {
+				rules.add(profile);
+			}
+		}
+		rules.sort((profile1, profile2) -> Long.compare(profile2.getTotalNanos(), profile1.getTotalNanos()));
+		return (rules.size() > this.topN ? new ArrayList<ElementProfile>(rules.subList(0, this.topN)) : rules);
+	}
+
+	/**
+	 * Gets a readable report of the hot rules.
+	 *
+	 * @return the report as a <code>String</code>
+	 */
+	public String getReport() {
+		StringBuilder report	= new StringBuilder();
+		report.append("Sampled ").append(this.getSampledRequests()).append(" of ").append(this.getRequests()).append(" requests\n");
+		for (ElementProfile profile : this.getHotRules()) {
+			report.append(String.format("%12d us %10d evaluations %6.1f%% match  %s%n",
+					profile.getTotalNanos() / 1000, profile.getEvaluations(), profile.getMatchRate() * 100.0, profile.getName()));
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Writes the self time of each stack of evaluated elements in the collapsed stack format used by flame graph tools, one
+	 * <code>frame;frame;frame nanoseconds</code> line per stack.
+	 *
+	 * @param writer the <code>Writer</code> to write the stacks to
+	 * @throws IOException if the stacks cannot be written
+	 */
+	public void writeStacks(Writer writer) throws IOException {
+		for (Map.Entry<String, LongAdder> entry : this.mapStacks.entrySet()) {
+			writer.write(entry.getKey().replace(' ', '_'));
+			writer.write(' ');
+			writer.write(Long.toString(entry.getValue().sum()));
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Discards everything that has been recorded.
+	 */
+	public void reset() {
+		this.requests.reset();
+		this.sampledRequests.reset();
+		this.mapProfiles.clear();
+		this.mapStacks.clear();
+	}
+}
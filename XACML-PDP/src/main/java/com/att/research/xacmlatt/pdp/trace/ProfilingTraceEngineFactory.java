@@ -0,0 +1,43 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.trace;
+
+import java.util.Properties;
+
+import com.att.research.xacml.api.trace.TraceEngine;
+import com.att.research.xacml.api.trace.TraceEngineFactory;
+
+/**
+ * Extends the {@link com.att.research.xacml.api.trace.TraceEngineFactory} class to implement the <code>getTraceEngine</code> method to return
+ * an instance of the {@link com.att.research.xacmlatt.pdp.trace.ProfilingTraceEngine} class.
+ * 
+ * @version $Revision$
+ */
+public class ProfilingTraceEngineFactory extends TraceEngineFactory {
+	/**
+	 * Creates a new <code>ProfilingTraceEngineFactory</code>
+	 */
+	public ProfilingTraceEngineFactory() {
+	}
+
+	/**
+	 * Creates a new <code>ProfilingTraceEngineFactory</code>
+	 * @param properties 
+	 */
+	public ProfilingTraceEngineFactory(Properties properties) {
+	}
+
+	@Override
+	public TraceEngine getTraceEngine() {
+		return ProfilingTraceEngine.newInstance();
+	}
+
+	@Override
+	public TraceEngine getTraceEngine(Properties properties) {
+		return ProfilingTraceEngine.newInstance(properties);
+	}
+
+}
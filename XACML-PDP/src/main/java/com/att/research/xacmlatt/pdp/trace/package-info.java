@@ -0,0 +1,12 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+
+/**
+ * Provides {@link com.att.research.xacml.api.trace.TraceEngine} implementations that understand the policy elements of the AT&amp;T PDP.
+ * 
+ * @version $Revision$
+ */
+package com.att.research.xacmlatt.pdp.trace;
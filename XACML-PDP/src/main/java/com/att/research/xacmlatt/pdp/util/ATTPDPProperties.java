@@ -15,9 +15,24 @@ public class ATTPDPProperties extends XACMLProperties {
 	public static final String PROP_FUNCTIONDEFINITIONFACTORY	= "xacml.att.functionDefinitionFactory";
 	public static final String PROP_POLICYFINDERFACTORY			= "xacml.att.policyFinderFactory";
 	public static final String PROP_POLICYFINDERFACTORY_COMBINEROOTPOLICIES = "xacml.att.policyFinderFactory.combineRootPolicies";
+	public static final String PROP_MAXINDIVIDUALDECISIONREQUESTS	= "xacml.att.maxIndividualDecisionRequests";
+	public static final String PROP_SHAREREQUESTPIPCACHE		= "xacml.att.shareRequestPIPCache";
+	public static final String PROP_METRICS						= "xacml.att.metrics";
+	public static final String PROP_DECISIONCACHE				= "xacml.att.decisionCache";
+	public static final String PROP_DECISIONCACHE_MAXSIZE		= "xacml.att.decisionCache.maxSize";
+	public static final String PROP_DECISIONCACHE_TTL			= "xacml.att.decisionCache.ttl";
+	public static final String PROP_DECISIONCACHE_PIPATTRIBUTES	= "xacml.att.decisionCache.pipAttributes";
+	public static final String PROP_DECISIONCACHE_VOLATILEATTRIBUTES	= "xacml.att.decisionCache.volatileAttributes";
+	public static final String PROP_DECISIONCACHE_VOLATILEBUCKET	= "xacml.att.decisionCache.volatileBucket";
+	public static final String PROP_PREFETCH					= "xacml.att.prefetch";
+	public static final String PROP_PREFETCH_THREADS			= "xacml.att.prefetch.threads";
+	public static final String PROP_PREFETCH_TIMEOUT			= "xacml.att.prefetch.timeout";
+	public static final String PROP_OPTIMIZEPOLICIES			= "xacml.att.optimizePolicies";
+	public static final String PROP_COMPILEPOLICIES				= "xacml.att.compilePolicies";
+	public static final String PROP_INDEXTARGETS				= "xacml.att.indexTargets";
 	
-	public static final Identifier ID_POLICY_COMBINEDPERMITOVERRIDES = new IdentifierImpl("urn:com:att:xacml:3.0:policy-combining-algorithm:combined-permit-overrides");
-	public static final Identifier ID_POLICY_COMBINEDDENYOVERRIDES = new IdentifierImpl("urn:com:att:xacml:3.0:policy-combining-algorithm:combined-deny-overrides");
+	public static final Identifier ID_POLICY_COMBINEDPERMITOVERRIDES = IdentifierImpl.intern("urn:com:att:xacml:3.0:policy-combining-algorithm:combined-permit-overrides");
+	public static final Identifier ID_POLICY_COMBINEDDENYOVERRIDES = IdentifierImpl.intern("urn:com:att:xacml:3.0:policy-combining-algorithm:combined-deny-overrides");
 	
 	protected ATTPDPProperties() {
 	}
@@ -0,0 +1,335 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.util;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.att.research.xacml.api.pip.PIPException;
+import com.att.research.xacml.api.pip.PIPRequest;
+import com.att.research.xacml.std.pip.StdPIPRequest;
+import com.att.research.xacml.util.XACMLProperties;
+import com.att.research.xacmlatt.pdp.policy.AdviceExpression;
+import com.att.research.xacmlatt.pdp.policy.AllOf;
+import com.att.research.xacmlatt.pdp.policy.AnyOf;
+import com.att.research.xacmlatt.pdp.policy.AttributeAssignmentExpression;
+import com.att.research.xacmlatt.pdp.policy.Expression;
+import com.att.research.xacmlatt.pdp.policy.Match;
+import com.att.research.xacmlatt.pdp.policy.ObligationExpression;
+import com.att.research.xacmlatt.pdp.policy.Policy;
+import com.att.research.xacmlatt.pdp.policy.PolicyDef;
+import com.att.research.xacmlatt.pdp.policy.PolicyIdReferenceBase;
+import com.att.research.xacmlatt.pdp.policy.PolicySet;
+import com.att.research.xacmlatt.pdp.policy.PolicySetChild;
+import com.att.research.xacmlatt.pdp.policy.Rule;
+import com.att.research.xacmlatt.pdp.policy.Target;
+import com.att.research.xacmlatt.pdp.policy.VariableDefinition;
+import com.att.research.xacmlatt.pdp.policy.expressions.Apply;
+import com.att.research.xacmlatt.pdp.policy.expressions.AttributeDesignator;
+import com.att.research.xacmlatt.pdp.std.StdEvaluationContext;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * AttributePrefetcher looks up the attributes a root {@link com.att.research.xacmlatt.pdp.policy.PolicyDef} can need in
+ * parallel before it is evaluated, so that PIP latency is paid once for the whole decision rather than once for each
+ * attribute designator as evaluation reaches it.
+ *
+ * The attributes are found by walking the policy tree for its <code>AttributeDesignator</code>s.  In
+ * {@link Mode#TARGETS} mode only the targets of policy sets, policies and rules are walked, which are the attributes nearly
+ * every decision needs.  In {@link Mode#EAGER} mode conditions, variable definitions, obligations and advice are walked too,
+ * which may look up attributes the decision never uses.  Policy references are followed once they have been resolved; the
+ * attributes of a policy with unresolved references are worked out again on the next decision rather than remembered.
+ *
+ * The lookups run on one pool of threads shared by every <code>AttributePrefetcher</code> in the JVM, so the PDP engines
+ * that replace each other as policies are pushed do not each leave a pool behind.  The pool grows to the largest number of
+ * threads any of them asked for, and its threads exit after a minute without work.
+ *
+ * @version $Revision$
+ */
+public class AttributePrefetcher {
+	private static final Log logger	= LogFactory.getLog(AttributePrefetcher.class);
+
+	public static final int DEFAULT_THREADS		= 8;
+	public static final long DEFAULT_TIMEOUT	= 1000;
+
+	private static final long KEEP_ALIVE_SECONDS	= 60;
+
+	private static ThreadPoolExecutor sharedExecutor;
+
+	/**
+	 * Mode selects which attribute designators in a policy are prefetched.
+	 */
+	public enum Mode {
+		NONE,
+		TARGETS,
+		EAGER;
+	}
+
+	/*
+	 * Collects the PIPRequests for the designators in one policy tree
+	 */
+	private static class Scanner {
+		private final Mode mode;
+		private final Set<PIPRequest> pipRequests		= new LinkedHashSet<PIPRequest>();
+		private final Set<PolicyDef> policyDefsScanned	= Collections.newSetFromMap(new IdentityHashMap<PolicyDef,Boolean>());
+		private boolean complete						= true;
+
+		private Scanner(Mode modeIn) {
+			this.mode	= modeIn;
+		}
+
+		private void scan(PolicyDef policyDef) {
+			if (policyDef == null || !this.policyDefsScanned.add(policyDef)) {
+				return;
+			}
+			this.scan(policyDef.getTarget());
+			if (this.mode == Mode.EAGER) {
+				this.scanObligations(policyDef.getObligationExpressions());
+				this.scanAdvice(policyDef.getAdviceExpressions());
+			}
+			if (policyDef instanceof PolicySet) {
+				Iterator<PolicySetChild> iterChildren	= ((PolicySet)policyDef).getChildren();
+				while (iterChildren != null && iterChildren.hasNext()) {
+					PolicySetChild child	= iterChildren.next();
+					if (child instanceof PolicyDef) {
+						this.scan((PolicyDef)child);
+					} else if (child instanceof PolicyIdReferenceBase) {
+						PolicyDef policyDefReferencee	= ((PolicyIdReferenceBase<?>)child).getReferencee();
+						if (policyDefReferencee == null) {
+							this.complete	= false;
+						} else {
+							this.scan(policyDefReferencee);
+						}
+					}
+				}
+			} else if (policyDef instanceof Policy) {
+				Policy policy	= (Policy)policyDef;
+				if (this.mode == Mode.EAGER) {
+					Iterator<VariableDefinition> iterVariableDefinitions	= policy.getVariableDefinitions();
+					while (iterVariableDefinitions != null && iterVariableDefinitions.hasNext()) {
+						this.scan(iterVariableDefinitions.next().getExpression());
+					}
+				}
+				Iterator<Rule> iterRules	= policy.getRules();
+				while (iterRules != null && iterRules.hasNext()) {
+					Rule rule	= iterRules.next();
+					this.scan(rule.getTarget());
+					if (this.mode == Mode.EAGER) {
+						if (rule.getCondition() != null) {
+							this.scan(rule.getCondition().getExpression());
+						}
+						this.scanObligations(rule.getObligationExpressions());
+						this.scanAdvice(rule.getAdviceExpressions());
+					}
+				}
+			}
+		}
+
+		private void scan(Target target) {
+			if (target == null) {
+				return;
+			}
+			Iterator<AnyOf> iterAnyOfs	= target.getAnyOfs();
+			while (iterAnyOfs != null && iterAnyOfs.hasNext()) {
+				Iterator<AllOf> iterAllOfs	= iterAnyOfs.next().getAllOfs();
+				while (iterAllOfs != null && iterAllOfs.hasNext()) {
+					Iterator<Match> iterMatches	= iterAllOfs.next().getMatches();
+					while (iterMatches != null && iterMatches.hasNext()) {
+						this.scan(iterMatches.next().getAttributeRetrievalBase());
+					}
+				}
+			}
+		}
+
+		private void scan(Expression expression) {
+			if (expression instanceof AttributeDesignator) {
+				AttributeDesignator attributeDesignator	= (AttributeDesignator)expression;
+				if (attributeDesignator.getCategory() != null && attributeDesignator.getAttributeId() != null) {
+					this.pipRequests.add(new StdPIPRequest(attributeDesignator.getCategory(), attributeDesignator.getAttributeId(), attributeDesignator.getDataTypeId(), attributeDesignator.getIssuer()));
+				}
+			} else if (expression instanceof Apply) {
+				Iterator<Expression> iterArguments	= ((Apply)expression).getArguments();
+				while (iterArguments != null && iterArguments.hasNext()) {
+					this.scan(iterArguments.next());
+				}
+			}
+		}
+
+		private void scan(Iterator<AttributeAssignmentExpression> iterAttributeAssignmentExpressions) {
+			while (iterAttributeAssignmentExpressions != null && iterAttributeAssignmentExpressions.hasNext()) {
+				this.scan(iterAttributeAssignmentExpressions.next().getExpression());
+			}
+		}
+
+		private void scanObligations(Iterator<ObligationExpression> iterObligationExpressions) {
+			while (iterObligationExpressions != null && iterObligationExpressions.hasNext()) {
+				this.scan(iterObligationExpressions.next().getAttributeAssignmentExpressions());
+			}
+		}
+
+		private void scanAdvice(Iterator<AdviceExpression> iterAdviceExpressions) {
+			while (iterAdviceExpressions != null && iterAdviceExpressions.hasNext()) {
+				this.scan(iterAdviceExpressions.next().getAttributeAssignmentExpressions());
+			}
+		}
+	}
+
+	private final Mode mode;
+	private final ThreadPoolExecutor executor;
+	private final long timeout;
+	private final Cache<PolicyDef,Set<PIPRequest>> cachePIPRequests	= CacheBuilder.newBuilder().weakKeys().build();
+
+	/**
+	 * Creates a new <code>AttributePrefetcher</code>.
+	 *
+	 * @param modeIn which attribute designators to prefetch
+	 * @param threads the number of threads to look up attributes on
+	 * @param timeoutIn how long to wait for the lookups of one decision in milliseconds
+	 */
+	public AttributePrefetcher(Mode modeIn, int threads, long timeoutIn) {
+		this.mode		= modeIn;
+		this.executor	= getSharedExecutor(Math.max(1, threads));
+		this.timeout	= timeoutIn;
+	}
+
+	/*
+	 * Gets the pool shared by all prefetchers, making sure it has at least the given number of threads
+	 */
+	private static synchronized ThreadPoolExecutor getSharedExecutor(int threads) {
+		if (sharedExecutor == null) {
+			sharedExecutor	= new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+													 new LinkedBlockingQueue<Runnable>(),
+													 new ThreadFactoryBuilder().setDaemon(true).setNameFormat("xacml-prefetch-%d").build());
+			sharedExecutor.allowCoreThreadTimeOut(true);
+		} else if (sharedExecutor.getMaximumPoolSize() < threads) {
+			sharedExecutor.setMaximumPoolSize(threads);
+			sharedExecutor.setCorePoolSize(threads);
+		}
+		return sharedExecutor;
+	}
+
+	private static String getProperty(Properties properties, String propertyName, String defaultValue) {
+		if (properties != null && properties.getProperty(propertyName) != null) {
+			return properties.getProperty(propertyName);
+		}
+		return XACMLProperties.getProperty(propertyName, defaultValue);
+	}
+
+	private static long getLongProperty(Properties properties, String propertyName, long defaultValue) {
+		String value	= getProperty(properties, propertyName, null);
+		if (value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException ex) {
+			logger.error("Invalid " + propertyName + " value \"" + value + "\", using " + defaultValue);
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Creates a new <code>AttributePrefetcher</code> configured from the given <code>Properties</code>, falling back to the
+	 * {@link com.att.research.xacml.util.XACMLProperties}.
+	 *
+	 * @param properties the <code>Properties</code> to configure from, or null
+	 * @return a new <code>AttributePrefetcher</code>, or null if {@link ATTPDPProperties#PROP_PREFETCH} is not "targets" or "eager"
+	 */
+	public static AttributePrefetcher newInstance(Properties properties) {
+		String stringMode	= getProperty(properties, ATTPDPProperties.PROP_PREFETCH, Mode.NONE.name());
+		Mode mode;
+		try {
+			mode	= Mode.valueOf(stringMode.trim().toUpperCase());
+		} catch (IllegalArgumentException ex) {
+			logger.error("Invalid " + ATTPDPProperties.PROP_PREFETCH + " value \"" + stringMode + "\", attributes will not be prefetched");
+			return null;
+		}
+		if (mode == Mode.NONE) {
+			return null;
+		}
+		return new AttributePrefetcher(mode,
+				(int)getLongProperty(properties, ATTPDPProperties.PROP_PREFETCH_THREADS, DEFAULT_THREADS),
+				getLongProperty(properties, ATTPDPProperties.PROP_PREFETCH_TIMEOUT, DEFAULT_TIMEOUT));
+	}
+
+	public Mode getMode() {
+		return this.mode;
+	}
+
+	/**
+	 * Gets the {@link com.att.research.xacml.api.pip.PIPRequest}s for the attribute designators in the given
+	 * <code>PolicyDef</code> and everything beneath it.
+	 *
+	 * @param policyDef the <code>PolicyDef</code> to scan
+	 * @param mode which attribute designators to include
+	 * @return the <code>Set</code> of <code>PIPRequest</code>s
+	 */
+	public static Set<PIPRequest> getPIPRequests(PolicyDef policyDef, Mode mode) {
+		Scanner scanner	= new Scanner(mode);
+		if (mode != Mode.NONE) {
+			scanner.scan(policyDef);
+		}
+		return Collections.unmodifiableSet(scanner.pipRequests);
+	}
+
+	/**
+	 * Gets the {@link com.att.research.xacml.api.pip.PIPRequest}s to prefetch for the given root <code>PolicyDef</code>,
+	 * scanning it the first time it is seen.
+	 *
+	 * @param policyDef the root <code>PolicyDef</code>
+	 * @return the <code>Set</code> of <code>PIPRequest</code>s
+	 */
+	public Set<PIPRequest> getPIPRequests(PolicyDef policyDef) {
+		Set<PIPRequest> pipRequests	= this.cachePIPRequests.getIfPresent(policyDef);
+		if (pipRequests == null) {
+			Scanner scanner	= new Scanner(this.mode);
+			scanner.scan(policyDef);
+			pipRequests	= Collections.unmodifiableSet(scanner.pipRequests);
+			if (scanner.complete) {
+				this.cachePIPRequests.put(policyDef, pipRequests);
+			}
+		}
+		return pipRequests;
+	}
+
+	/**
+	 * Prefetches the attributes the given root <code>PolicyDef</code> can need into the given
+	 * {@link com.att.research.xacmlatt.pdp.std.StdEvaluationContext}.  A failure is logged and otherwise ignored, since
+	 * evaluation looks up anything that was not prefetched itself.
+	 *
+	 * @param policyDef the root <code>PolicyDef</code> about to be evaluated
+	 * @param evaluationContext the <code>StdEvaluationContext</code> it will be evaluated in
+	 * @return the number of attributes that were prefetched
+	 */
+	public int prefetch(PolicyDef policyDef, StdEvaluationContext evaluationContext) {
+		Set<PIPRequest> pipRequests	= this.getPIPRequests(policyDef);
+		if (pipRequests.isEmpty()) {
+			return 0;
+		}
+		try {
+			int prefetched	= evaluationContext.prefetchAttributes(pipRequests, this.executor, this.timeout);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Prefetched " + prefetched + " of " + pipRequests.size() + " attributes for " + policyDef.getIdentifier());
+			}
+			return prefetched;
+		} catch (PIPException ex) {
+			logger.warn("PIPException prefetching attributes for " + policyDef.getIdentifier() + ": " + ex.getMessage());
+			return 0;
+		}
+	}
+}
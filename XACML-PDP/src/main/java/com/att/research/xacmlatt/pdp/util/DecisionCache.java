@@ -0,0 +1,303 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.att.research.xacml.api.Attribute;
+import com.att.research.xacml.api.AttributeValue;
+import com.att.research.xacml.api.Identifier;
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.api.RequestAttributes;
+import com.att.research.xacml.api.RequestDefaults;
+import com.att.research.xacml.api.Result;
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.std.IdentifierImpl;
+import com.att.research.xacml.std.StdMutableResult;
+import com.att.research.xacml.std.StdResult;
+import com.att.research.xacml.std.datatypes.ISO8601DateTime;
+import com.att.research.xacml.std.datatypes.ISO8601Time;
+import com.att.research.xacml.util.XACMLProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableMultiset;
+
+/**
+ * DecisionCache holds the {@link com.att.research.xacml.api.Result}s of recent individual decisions made by a
+ * {@link com.att.research.xacmlatt.pdp.ATTPDPEngine} so that an identical individual decision request can be answered without
+ * evaluating the policies again.
+ *
+ * The key of an individual decision request is made from all of its attributes, independent of their order, along with the
+ * <code>ReturnPolicyIdList</code> flag and XPath version.  The values of the volatile environment attributes (by default the
+ * current date, time and dateTime) are put into buckets of {@link ATTPDPProperties#PROP_DECISIONCACHE_VOLATILEBUCKET} milliseconds,
+ * or left out of the key altogether if the bucket is 0.  Requests with <code>Content</code> are never cached, and neither are
+ * requests that ask for a volatile attribute to be included in the result, since a cached <code>Result</code> would echo the value
+ * from the request it was decided for.
+ *
+ * Each entry records the generation of the {@link com.att.research.xacmlatt.pdp.eval.EvaluationContextFactory} it was
+ * decided under, and an entry from an earlier generation is never returned.  Only decisions with an OK status are cached, and
+ * unless {@link ATTPDPProperties#PROP_DECISIONCACHE_PIPATTRIBUTES} is true, only those that used nothing but the attributes in
+ * the request.
+ *
+ * @version $Revision$
+ */
+public class DecisionCache {
+	private static final Log logger	= LogFactory.getLog(DecisionCache.class);
+
+	public static final long DEFAULT_MAXSIZE			= 10000;
+	public static final long DEFAULT_TTL				= 60000;
+	public static final long DEFAULT_VOLATILEBUCKET		= 1000;
+
+	/**
+	 * Key is the canonical form of the attributes of an individual decision request.
+	 */
+	public static final class Key {
+		private final ImmutableMultiset<List<Object>> attributes;
+		private final boolean returnPolicyIdList;
+		private final Object xpathVersion;
+		private final int hashCode;
+
+		private Key(ImmutableMultiset<List<Object>> attributesIn, boolean returnPolicyIdListIn, Object xpathVersionIn) {
+			this.attributes			= attributesIn;
+			this.returnPolicyIdList	= returnPolicyIdListIn;
+			this.xpathVersion		= xpathVersionIn;
+			this.hashCode			= Arrays.hashCode(new Object[] { attributesIn, returnPolicyIdListIn, xpathVersionIn });
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			} else if (!(obj instanceof Key)) {
+				return false;
+			} else {
+				Key key	= (Key)obj;
+				return this.hashCode == key.hashCode && this.returnPolicyIdList == key.returnPolicyIdList &&
+						(this.xpathVersion == null ? key.xpathVersion == null : this.xpathVersion.equals(key.xpathVersion)) &&
+						this.attributes.equals(key.attributes);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "{attributes=" + this.attributes + ",returnPolicyIdList=" + this.returnPolicyIdList + ",xpathVersion=" + this.xpathVersion + "}";
+		}
+	}
+
+	/*
+	 * A cached Result and the generation it was decided under
+	 */
+	private static final class Entry {
+		private final long generation;
+		private final Result result;
+
+		private Entry(long generationIn, Result resultIn) {
+			this.generation	= generationIn;
+			this.result		= resultIn;
+		}
+	}
+
+	private final Cache<Key,Entry> cache;
+	private final boolean cachePIPAttributes;
+	private final Set<Identifier> volatileAttributes;
+	private final long volatileBucket;
+	private volatile long generation;
+
+	/**
+	 * Creates a new <code>DecisionCache</code>.
+	 *
+	 * @param maxSize the maximum number of decisions to hold
+	 * @param ttl how long to hold a decision in milliseconds
+	 * @param cachePIPAttributesIn if true, decisions that used attributes from outside the request are also cached
+	 * @param volatileAttributesIn the ids of the environment attributes whose values are bucketed
+	 * @param volatileBucketIn the size of the buckets for volatile attribute values in milliseconds, or 0 to leave them out of the key
+	 */
+	public DecisionCache(long maxSize, long ttl, boolean cachePIPAttributesIn, Set<Identifier> volatileAttributesIn, long volatileBucketIn) {
+		this.cache				= CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl, TimeUnit.MILLISECONDS).recordStats().build();
+		this.cachePIPAttributes	= cachePIPAttributesIn;
+		this.volatileAttributes	= Collections.unmodifiableSet(new HashSet<Identifier>(volatileAttributesIn));
+		this.volatileBucket		= volatileBucketIn;
+	}
+
+	private static String getProperty(Properties properties, String propertyName, String defaultValue) {
+		if (properties != null && properties.getProperty(propertyName) != null) {
+			return properties.getProperty(propertyName);
+		}
+		return XACMLProperties.getProperty(propertyName, defaultValue);
+	}
+
+	private static long getLongProperty(Properties properties, String propertyName, long defaultValue) {
+		String value	= getProperty(properties, propertyName, null);
+		if (value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException ex) {
+			logger.error("Invalid " + propertyName + " value \"" + value + "\", using " + defaultValue);
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Creates a new <code>DecisionCache</code> configured from the given <code>Properties</code>, falling back to the
+	 * {@link com.att.research.xacml.util.XACMLProperties}.
+	 *
+	 * @param properties the <code>Properties</code> to configure from, or null
+	 * @return a new <code>DecisionCache</code>, or null if {@link ATTPDPProperties#PROP_DECISIONCACHE} is not true
+	 */
+	public static DecisionCache newInstance(Properties properties) {
+		if (!Boolean.parseBoolean(getProperty(properties, ATTPDPProperties.PROP_DECISIONCACHE, "false"))) {
+			return null;
+		}
+		Set<Identifier> volatileAttributes	= new HashSet<Identifier>();
+		String stringVolatileAttributes		= getProperty(properties, ATTPDPProperties.PROP_DECISIONCACHE_VOLATILEATTRIBUTES, null);
+		if (stringVolatileAttributes == null) {
+			volatileAttributes.add(XACML3.ID_ENVIRONMENT_CURRENT_DATE);
+			volatileAttributes.add(XACML3.ID_ENVIRONMENT_CURRENT_TIME);
+			volatileAttributes.add(XACML3.ID_ENVIRONMENT_CURRENT_DATETIME);
+		} else {
+			for (String attributeId : stringVolatileAttributes.split("[,\\s]+")) {
+				if (!attributeId.isEmpty()) {
+					volatileAttributes.add(IdentifierImpl.intern(attributeId));
+				}
+			}
+		}
+		return new DecisionCache(
+				getLongProperty(properties, ATTPDPProperties.PROP_DECISIONCACHE_MAXSIZE, DEFAULT_MAXSIZE),
+				getLongProperty(properties, ATTPDPProperties.PROP_DECISIONCACHE_TTL, DEFAULT_TTL),
+				Boolean.parseBoolean(getProperty(properties, ATTPDPProperties.PROP_DECISIONCACHE_PIPATTRIBUTES, "false")),
+				volatileAttributes,
+				getLongProperty(properties, ATTPDPProperties.PROP_DECISIONCACHE_VOLATILEBUCKET, DEFAULT_VOLATILEBUCKET));
+	}
+
+	public boolean isCachingPIPAttributes() {
+		return this.cachePIPAttributes;
+	}
+
+	/*
+	 * Gets the bucket for the value of a volatile attribute, or the value itself if it is not a time
+	 */
+	private Object getBucket(Object value) {
+		if (value instanceof ISO8601DateTime) {
+			return ((ISO8601DateTime)value).getCalendar().getTimeInMillis() / this.volatileBucket;
+		} else if (value instanceof ISO8601Time) {
+			ISO8601Time time	= (ISO8601Time)value;
+			long millis			= ((time.getHour() * 60L + time.getMinute()) * 60L + time.getSecond()) * 1000L + time.getMillisecond();
+			return Arrays.asList(time.getTimeZone(), millis / this.volatileBucket);
+		} else {
+			return value;
+		}
+	}
+
+	/**
+	 * Gets the {@link Key} for the given individual decision {@link com.att.research.xacml.api.Request}.
+	 *
+	 * @param request the individual decision <code>Request</code>
+	 * @return the <code>Key</code> for the <code>Request</code>, or null if it cannot be cached
+	 */
+	public Key getKey(Request request) {
+		ImmutableMultiset.Builder<List<Object>> builder	= ImmutableMultiset.builder();
+		for (RequestAttributes requestAttributes : request.getRequestAttributes()) {
+			if (requestAttributes.getContentRoot() != null) {
+				return null;
+			}
+			Identifier category	= requestAttributes.getCategory();
+			for (Attribute attribute : requestAttributes.getAttributes()) {
+				boolean bVolatile	= XACML3.ID_ATTRIBUTE_CATEGORY_ENVIRONMENT.equals(category) && this.volatileAttributes.contains(attribute.getAttributeId());
+				if (bVolatile && attribute.getIncludeInResults()) {
+					return null;
+				} else if (bVolatile && this.volatileBucket <= 0) {
+					continue;
+				}
+				for (AttributeValue<?> attributeValue : attribute.getValues()) {
+					Object value	= (bVolatile ? this.getBucket(attributeValue.getValue()) : attributeValue.getValue());
+					builder.add(Arrays.asList(category, attribute.getAttributeId(), attribute.getIssuer(), attribute.getIncludeInResults(), attributeValue.getDataTypeId(), value));
+				}
+			}
+		}
+		RequestDefaults requestDefaults	= request.getRequestDefaults();
+		return new Key(builder.build(), request.getReturnPolicyIdList(), (requestDefaults == null ? null : requestDefaults.getXPathVersion()));
+	}
+
+	private void checkGeneration(long generationIn) {
+		if (generationIn != this.generation) {
+			synchronized(this) {
+				if (generationIn > this.generation) {
+					this.generation	= generationIn;
+					this.cache.invalidateAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the cached {@link com.att.research.xacml.api.Result} for the given {@link Key}.
+	 *
+	 * @param key the <code>Key</code> of the individual decision request
+	 * @param generationIn the current generation of the policies and PIP configuration
+	 * @return the cached <code>Result</code>, or null if there is none for this generation
+	 */
+	public Result get(Key key, long generationIn) {
+		this.checkGeneration(generationIn);
+		Entry entry	= this.cache.getIfPresent(key);
+		return (entry == null || entry.generation != generationIn ? null : entry.result);
+	}
+
+	/**
+	 * Caches the {@link com.att.research.xacml.api.Result} of an individual decision if it can be cached.
+	 *
+	 * @param key the <code>Key</code> of the individual decision request
+	 * @param generationIn the generation of the policies and PIP configuration the decision was made under
+	 * @param result the <code>Result</code> of the decision
+	 * @param usedPIPAttributes true if the decision used attributes from outside the request
+	 * @return true if the <code>Result</code> was cached
+	 */
+	public boolean put(Key key, long generationIn, Result result, boolean usedPIPAttributes) {
+		if (result == null || result.getStatus() == null || !result.getStatus().isOk() || (usedPIPAttributes && !this.cachePIPAttributes)) {
+			return false;
+		}
+		this.checkGeneration(generationIn);
+		if (generationIn != this.generation) {
+			return false;
+		}
+		/*
+		 * Keep a copy so the caller is free to change the Result it was given
+		 */
+		this.cache.put(key, new Entry(generationIn, new StdResult(new StdMutableResult(result))));
+		return true;
+	}
+
+	/**
+	 * Removes all of the cached decisions.
+	 */
+	public void invalidate() {
+		this.cache.invalidateAll();
+	}
+
+	public long size() {
+		return this.cache.size();
+	}
+
+	public CacheStats getStats() {
+		return this.cache.stats();
+	}
+}
@@ -0,0 +1,264 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.ObjectName;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.att.research.xacml.api.Decision;
+import com.att.research.xacml.api.Identifier;
+import com.att.research.xacml.util.Histogram;
+
+/**
+ * DecisionMetrics collects the latency of each phase of a decision and counts of the decisions made by the
+ * {@link com.att.research.xacmlatt.pdp.ATTPDPEngine}s in the JVM that were created with {@link ATTPDPProperties#PROP_METRICS}
+ * set to true, other engines only check a flag.  The first such engine turns it on and registers it with the platform MBean
+ * server as {@link #OBJECT_NAME}, turning it off through JMX stops all of them recording until it is turned on again.
+ *
+ * The parse and serialization times are recorded by whatever turns the request and response to and from their
+ * wire format, such as the PDP servlet.  The PIP time is the time spent getting attributes for an individual decision,
+ * including the attributes in the request itself.  The request generation time is the time spent splitting a request into
+ * its individual decisions, which happens as each one is evaluated.
+ *
+ * @version $Revision$
+ */
+public class DecisionMetrics implements DecisionMetricsMXBean {
+	private static final Log logger	= LogFactory.getLog(DecisionMetrics.class);
+
+	public static final String	OBJECT_NAME	= "com.att.research.xacml:type=DecisionMetrics";
+
+	private static final Decision[]			DECISIONS	= Decision.values();
+	private static final DecisionMetrics	INSTANCE	= new DecisionMetrics();
+
+	private volatile boolean enabled;
+	private volatile boolean registered;
+
+	private final LongAdder			requests						= new LongAdder();
+	private final AtomicLongArray	decisions						= new AtomicLongArray(DECISIONS.length);
+	private final ConcurrentMap<String, LongAdder>	rootPolicyEvaluations	= new ConcurrentHashMap<String, LongAdder>();
+	private final LongAdder			decisionCacheHits				= new LongAdder();
+	private final LongAdder			decisionCacheMisses				= new LongAdder();
+	private final Histogram			individualDecisionsPerRequest	= new Histogram();
+	private final Histogram			parseTime						= new Histogram();
+	private final Histogram			requestGenerationTime			= new Histogram();
+	private final Histogram			rootPolicySelectionTime			= new Histogram();
+	private final Histogram			evaluationTime					= new Histogram();
+	private final Histogram			pipTime							= new Histogram();
+	private final Histogram			decideTime						= new Histogram();
+	private final Histogram			serializationTime				= new Histogram();
+
+	protected DecisionMetrics() {
+	}
+
+	public static DecisionMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Turns on the shared <code>DecisionMetrics</code> and makes sure it is registered with the platform MBean server.
+	 */
+	public static void enable() {
+		INSTANCE.setEnabled(true);
+	}
+
+	private synchronized void register() {
+		if (this.registered) {
+			return;
+		}
+		this.registered	= true;
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+		} catch (InstanceAlreadyExistsException e) {
+			logger.warn(OBJECT_NAME + " is already registered");
+		} catch (Exception e) {
+			logger.error("Failed to register " + OBJECT_NAME + ": " + e, e);
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabledIn) {
+		if (enabledIn) {
+			this.register();
+		}
+		this.enabled	= enabledIn;
+	}
+
+	/**
+	 * Records one request and the individual decisions it was split into.
+	 *
+	 * @param individualDecisions the number of individual decisions
+	 * @param decideNanos the time the whole request took
+	 */
+	public void recordRequest(int individualDecisions, long decideNanos) {
+		this.requests.increment();
+		this.individualDecisionsPerRequest.record(individualDecisions);
+		this.decideTime.record(decideNanos);
+	}
+
+	public void recordDecision(Decision decision) {
+		if (decision != null) {
+			this.decisions.incrementAndGet(decision.ordinal());
+		}
+	}
+
+	/**
+	 * Records a lookup of an individual decision in the {@link DecisionCache}.
+	 *
+	 * @param hit true if the decision was found in the cache
+	 */
+	public void recordDecisionCache(boolean hit) {
+		if (hit) {
+			this.decisionCacheHits.increment();
+		} else {
+			this.decisionCacheMisses.increment();
+		}
+	}
+
+	public void recordRootPolicyEvaluation(Identifier identifier) {
+		if (identifier == null) {
+			return;
+		}
+		String key			= identifier.stringValue();
+		LongAdder counter	= this.rootPolicyEvaluations.get(key);
+		if (counter == null) {
+			counter	= this.rootPolicyEvaluations.computeIfAbsent(key, k -> new LongAdder());
+		}
+		counter.increment();
+	}
+
+	@Override
+	public long getRequests() {
+		return this.requests.sum();
+	}
+
+	@Override
+	public Map<String, Long> getDecisions() {
+		Map<String, Long> result	= new TreeMap<String, Long>();
+		for (Decision decision : DECISIONS) {
+			result.put(decision.toString(), this.decisions.get(decision.ordinal()));
+		}
+		return result;
+	}
+
+	@Override
+	public Map<String, Long> getRootPolicyEvaluations() {
+		Map<String, Long> result	= new TreeMap<String, Long>();
+		for (Map.Entry<String, LongAdder> entry : this.rootPolicyEvaluations.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().sum());
+		}
+		return result;
+	}
+
+	@Override
+	public long getDecisionCacheHits() {
+		return this.decisionCacheHits.sum();
+	}
+
+	@Override
+	public long getDecisionCacheMisses() {
+		return this.decisionCacheMisses.sum();
+	}
+
+	@Override
+	public double getDecisionCacheHitRate() {
+		long hits	= this.getDecisionCacheHits();
+		long total	= hits + this.getDecisionCacheMisses();
+		return (total == 0 ? 0.0 : (double)hits / total);
+	}
+
+	@Override
+	public Histogram getIndividualDecisionsPerRequest() {
+		return this.individualDecisionsPerRequest;
+	}
+
+	@Override
+	public Histogram getParseTime() {
+		return this.parseTime;
+	}
+
+	@Override
+	public Histogram getRequestGenerationTime() {
+		return this.requestGenerationTime;
+	}
+
+	@Override
+	public Histogram getRootPolicySelectionTime() {
+		return this.rootPolicySelectionTime;
+	}
+
+	@Override
+	public Histogram getEvaluationTime() {
+		return this.evaluationTime;
+	}
+
+	@Override
+	public Histogram getPIPTime() {
+		return this.pipTime;
+	}
+
+	@Override
+	public Histogram getDecideTime() {
+		return this.decideTime;
+	}
+
+	@Override
+	public Histogram getSerializationTime() {
+		return this.serializationTime;
+	}
+
+	@Override
+	public void reset() {
+		this.requests.reset();
+		for (int i = 0 ; i < DECISIONS.length ; i++) {
+			this.decisions.set(i, 0);
+		}
+		this.rootPolicyEvaluations.clear();
+		this.decisionCacheHits.reset();
+		this.decisionCacheMisses.reset();
+		this.individualDecisionsPerRequest.reset();
+		this.parseTime.reset();
+		this.requestGenerationTime.reset();
+		this.rootPolicySelectionTime.reset();
+		this.evaluationTime.reset();
+		this.pipTime.reset();
+		this.decideTime.reset();
+		this.serializationTime.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "{enabled=" + this.isEnabled() +
+				",requests=" + this.getRequests() +
+				",decisions=" + this.getDecisions() +
+				",rootPolicyEvaluations=" + this.getRootPolicyEvaluations() +
+				",decisionCacheHits=" + this.getDecisionCacheHits() +
+				",decisionCacheMisses=" + this.getDecisionCacheMisses() +
+				",individualDecisionsPerRequest=" + this.individualDecisionsPerRequest +
+				",parseTime=" + this.parseTime +
+				",requestGenerationTime=" + this.requestGenerationTime +
+				",rootPolicySelectionTime=" + this.rootPolicySelectionTime +
+				",evaluationTime=" + this.evaluationTime +
+				",pipTime=" + this.pipTime +
+				",decideTime=" + this.decideTime +
+				",serializationTime=" + this.serializationTime + "}";
+	}
+}
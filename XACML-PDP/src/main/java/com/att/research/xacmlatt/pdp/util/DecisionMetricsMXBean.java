@@ -0,0 +1,51 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.util;
+
+import java.util.Map;
+
+import com.att.research.xacml.util.Histogram;
+
+/**
+ * DecisionMetricsMXBean is the JMX view of {@link DecisionMetrics}.  All of the times are in nanoseconds.
+ *
+ * @version $Revision$
+ */
+public interface DecisionMetricsMXBean {
+	public boolean isEnabled();
+
+	public void setEnabled(boolean enabled);
+
+	public long getRequests();
+
+	public Map<String, Long> getDecisions();
+
+	public Map<String, Long> getRootPolicyEvaluations();
+
+	public long getDecisionCacheHits();
+
+	public long getDecisionCacheMisses();
+
+	public double getDecisionCacheHitRate();
+
+	public Histogram getIndividualDecisionsPerRequest();
+
+	public Histogram getParseTime();
+
+	public Histogram getRequestGenerationTime();
+
+	public Histogram getRootPolicySelectionTime();
+
+	public Histogram getEvaluationTime();
+
+	public Histogram getPIPTime();
+
+	public Histogram getDecideTime();
+
+	public Histogram getSerializationTime();
+
+	public void reset();
+}
@@ -0,0 +1,386 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.att.research.xacml.std.StdStatusCode;
+import com.att.research.xacml.util.XACMLProperties;
+import com.att.research.xacmlatt.pdp.eval.EvaluationContext;
+import com.att.research.xacmlatt.pdp.eval.EvaluationException;
+import com.att.research.xacmlatt.pdp.eval.MatchResult;
+import com.att.research.xacmlatt.pdp.eval.Matchable;
+import com.att.research.xacmlatt.pdp.policy.AllOf;
+import com.att.research.xacmlatt.pdp.policy.AnyOf;
+import com.att.research.xacmlatt.pdp.policy.Condition;
+import com.att.research.xacmlatt.pdp.policy.Expression;
+import com.att.research.xacmlatt.pdp.policy.ExpressionResult;
+import com.att.research.xacmlatt.pdp.policy.ExpressionResultBoolean;
+import com.att.research.xacmlatt.pdp.policy.FunctionArgument;
+import com.att.research.xacmlatt.pdp.policy.FunctionArgumentExpression;
+import com.att.research.xacmlatt.pdp.policy.FunctionDefinition;
+import com.att.research.xacmlatt.pdp.policy.Match;
+import com.att.research.xacmlatt.pdp.policy.Policy;
+import com.att.research.xacmlatt.pdp.policy.PolicyDef;
+import com.att.research.xacmlatt.pdp.policy.PolicyDefaults;
+import com.att.research.xacmlatt.pdp.policy.PolicySet;
+import com.att.research.xacmlatt.pdp.policy.PolicySetChild;
+import com.att.research.xacmlatt.pdp.policy.Rule;
+import com.att.research.xacmlatt.pdp.policy.Target;
+import com.att.research.xacmlatt.pdp.policy.expressions.Apply;
+import com.att.research.xacmlatt.pdp.policy.expressions.AttributeValueExpression;
+import com.att.research.xacmlatt.pdp.policy.expressions.Function;
+
+/**
+ * PolicyCompiler replaces the {@link com.att.research.xacmlatt.pdp.policy.Target}s of a newly loaded
+ * {@link com.att.research.xacmlatt.pdp.policy.PolicyDef}, and of the policies, policy sets and rules it contains, with
+ * <code>Target</code>s that match through a tree of {@link com.att.research.xacmlatt.pdp.eval.Matchable}s built once from
+ * their <code>AnyOf</code>, <code>AllOf</code> and <code>Match</code> elements.  The tree works on arrays instead of
+ * iterators, is validated once when it is built instead of on every match, and collapses single element
+ * <code>AnyOf</code>s and <code>AllOf</code>s into direct calls to the element they contain.
+ *
+ * The {@link com.att.research.xacmlatt.pdp.policy.Condition}s of rules are compiled the same way: each
+ * {@link com.att.research.xacmlatt.pdp.policy.expressions.Apply} is replaced by one that has its <code>FunctionDefinition</code>
+ * looked up and its constant arguments evaluated once, and that is validated once when it is built.
+ *
+ * Anything that does not validate is left to the interpreter, so it reports the same errors.  Compiled targets still return
+ * their <code>AnyOf</code>s and compiled conditions their original <code>Expression</code>, so code that inspects the policy
+ * sees no difference.  Compilation is off unless
+ * {@link ATTPDPProperties#PROP_COMPILEPOLICIES} is true, and has to be done before the <code>PolicyDef</code> is shared.
+ *
+ * @version $Revision$
+ */
+public class PolicyCompiler {
+	private static final Log logger	= LogFactory.getLog(PolicyCompiler.class);
+
+	private static final Matchable	MATCHABLE_MATCH		= evaluationContext -> MatchResult.MM_MATCH;
+	private static final Matchable	MATCHABLE_NOMATCH	= evaluationContext -> MatchResult.MM_NOMATCH;
+
+	/**
+	 * CompiledTarget extends {@link com.att.research.xacmlatt.pdp.policy.Target} to match through the compiled
+	 * {@link com.att.research.xacmlatt.pdp.eval.Matchable} instead of its <code>AnyOf</code>s.
+	 */
+	public static class CompiledTarget extends Target {
+		private final Matchable	matchable;
+
+		private CompiledTarget(List<AnyOf> listAnyOfs, Matchable matchableIn) {
+			super(listAnyOfs);
+			this.matchable	= matchableIn;
+		}
+
+		@Override
+		public MatchResult match(EvaluationContext evaluationContext) throws EvaluationException {
+			return this.matchable.match(evaluationContext);
+		}
+	}
+
+	/**
+	 * CompiledCondition extends {@link com.att.research.xacmlatt.pdp.policy.Condition} to evaluate the compiled
+	 * <code>Expression</code> instead of the one it returns from <code>getExpression</code>.
+	 */
+	public static class CompiledCondition extends Condition {
+		private final Expression	expressionCompiled;
+
+		private CompiledCondition(Expression expressionIn, Expression expressionCompiledIn) {
+			super(expressionIn);
+			this.expressionCompiled	= expressionCompiledIn;
+		}
+
+		@Override
+		public ExpressionResultBoolean evaluate(EvaluationContext evaluationContext, PolicyDefaults policyDefaults) throws EvaluationException {
+			ExpressionResult expressionResult	= this.expressionCompiled.evaluate(evaluationContext, policyDefaults);
+			assert(expressionResult != null);
+			return this.toExpressionResultBoolean(expressionResult);
+		}
+	}
+
+	/*
+	 * An Apply that has already been validated, with its FunctionDefinition and constant arguments resolved and its other
+	 * arguments compiled
+	 */
+	private static class CompiledApply extends Expression {
+		private final FunctionDefinition	functionDefinition;
+		private final Expression[]			arguments;
+		private final FunctionArgument[]	functionArgumentsConstant;
+
+		private CompiledApply(FunctionDefinition functionDefinitionIn, Expression[] argumentsIn, FunctionArgument[] functionArgumentsConstantIn) {
+			super(StdStatusCode.STATUS_CODE_OK);
+			this.functionDefinition			= functionDefinitionIn;
+			this.arguments					= argumentsIn;
+			this.functionArgumentsConstant	= functionArgumentsConstantIn;
+		}
+
+		@Override
+		public ExpressionResult evaluate(EvaluationContext evaluationContext, PolicyDefaults policyDefaults) throws EvaluationException {
+			FunctionArgument[] functionArguments	= this.functionArgumentsConstant.clone();
+			for (int i = 0 ; i < functionArguments.length ; i++) {
+				if (functionArguments[i] == null) {
+					functionArguments[i]	= new FunctionArgumentExpression(this.arguments[i], evaluationContext, policyDefaults);
+				}
+			}
+			return this.functionDefinition.evaluate(evaluationContext, Arrays.asList(functionArguments));
+		}
+
+		@Override
+		protected boolean validateComponent() {
+			this.setStatus(StdStatusCode.STATUS_CODE_OK, null);
+			return true;
+		}
+	}
+
+	private int targets;
+	private int conditions;
+
+	private PolicyCompiler() {
+	}
+
+	/**
+	 * Determines whether policies should be compiled when they are loaded from the given <code>Properties</code>, falling
+	 * back to the {@link com.att.research.xacml.util.XACMLProperties}.
+	 *
+	 * @param properties the <code>Properties</code> policies are being loaded with, or null
+	 * @return true if {@link ATTPDPProperties#PROP_COMPILEPOLICIES} is true
+	 */
+	public static boolean isEnabled(Properties properties) {
+		String value	= (properties == null ? null : properties.getProperty(ATTPDPProperties.PROP_COMPILEPOLICIES));
+		if (value == null) {
+			value	= XACMLProperties.getProperty(ATTPDPProperties.PROP_COMPILEPOLICIES, "false");
+		}
+		return Boolean.parseBoolean(value.trim());
+	}
+
+	/**
+	 * Compiles the <code>Target</code>s and rule <code>Condition</code>s of the given <code>PolicyDef</code> and everything it
+	 * contains.
+	 *
+	 * @param policyDef the <code>PolicyDef</code> to compile
+	 * @return the number of <code>Target</code>s and <code>Condition</code>s that were compiled
+	 */
+	public static int compile(PolicyDef policyDef) {
+		PolicyCompiler policyCompiler	= new PolicyCompiler();
+		policyCompiler.compilePolicyDef(policyDef);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Compiled " + policyCompiler.targets + " targets and " + policyCompiler.conditions + " conditions in " + (policyDef == null ? null : policyDef.getIdentifier()));
+		}
+		return policyCompiler.targets + policyCompiler.conditions;
+	}
+
+	private void compilePolicyDef(PolicyDef policyDef) {
+		if (policyDef == null) {
+			return;
+		}
+		Target target	= this.compile(policyDef.getTarget());
+		if (target != null) {
+			policyDef.setTarget(target);
+		}
+		if (policyDef instanceof PolicySet) {
+			Iterator<PolicySetChild> iterChildren	= ((PolicySet)policyDef).getChildren();
+			while (iterChildren != null && iterChildren.hasNext()) {
+				PolicySetChild child	= iterChildren.next();
+				if (child instanceof PolicyDef) {
+					this.compilePolicyDef((PolicyDef)child);
+				}
+			}
+		} else if (policyDef instanceof Policy) {
+			Iterator<Rule> iterRules	= ((Policy)policyDef).getRules();
+			while (iterRules != null && iterRules.hasNext()) {
+				Rule rule	= iterRules.next();
+				if ((target = this.compile(rule.getTarget())) != null) {
+					rule.setTarget(target);
+				}
+				Condition condition	= this.compile(rule.getCondition());
+				if (condition != null) {
+					rule.setCondition(condition);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Gets the CompiledTarget for the given Target, or null if it is missing, already compiled, or does not validate
+	 */
+	private Target compile(Target target) {
+		if (target == null || target instanceof CompiledTarget || !target.validate()) {
+			return null;
+		}
+		List<AnyOf> listAnyOfs	= new ArrayList<>();
+		Iterator<AnyOf> iterAnyOfs	= target.getAnyOfs();
+		while (iterAnyOfs != null && iterAnyOfs.hasNext()) {
+			listAnyOfs.add(iterAnyOfs.next());
+		}
+
+		final Matchable[] matchables	= new Matchable[listAnyOfs.size()];
+		for (int i = 0 ; i < matchables.length ; i++) {
+			matchables[i]	= compile(listAnyOfs.get(i));
+		}
+
+		Matchable matchable;
+		if (matchables.length == 0) {
+			matchable	= MATCHABLE_MATCH;
+		} else if (matchables.length == 1) {
+			matchable	= matchables[0];
+		} else {
+			/*
+			 * Every AnyOf has to match, the first one that does not decides the result
+			 */
+			matchable	= evaluationContext -> {
+				MatchResult matchResult	= MatchResult.MM_MATCH;
+				for (Matchable matchableAnyOf : matchables) {
+					matchResult	= matchableAnyOf.match(evaluationContext);
+					if (matchResult.getMatchCode() != MatchResult.MatchCode.MATCH) {
+						return matchResult;
+					}
+				}
+				return matchResult;
+			};
+		}
+		this.targets++;
+		return new CompiledTarget(listAnyOfs, matchable);
+	}
+
+	/*
+	 * Gets the CompiledCondition for the given Condition, or null if it is missing, already compiled, does not validate, or
+	 * its Expression cannot be compiled
+	 */
+	private Condition compile(Condition condition) {
+		if (condition == null || condition instanceof CompiledCondition || !condition.validate()) {
+			return null;
+		}
+		Expression expressionCompiled	= compile(condition.getExpression());
+		if (expressionCompiled == condition.getExpression()) {
+			return null;
+		}
+		this.conditions++;
+		return new CompiledCondition(condition.getExpression(), expressionCompiled);
+	}
+
+	/*
+	 * Gets the CompiledApply for the given Expression if it is an Apply that validates and is not constant, otherwise the
+	 * Expression itself
+	 */
+	private static Expression compile(Expression expression) {
+		if (!(expression instanceof Apply)) {
+			return expression;
+		}
+		Apply apply	= (Apply)expression;
+		FunctionDefinition functionDefinition;
+		if (apply.isConstant() || !apply.validate() || (functionDefinition = apply.getFunctionDefinition()) == null) {
+			return apply;
+		}
+		List<Expression> listArguments	= new ArrayList<>();
+		Iterator<Expression> iterArguments	= apply.getArguments();
+		while (iterArguments != null && iterArguments.hasNext()) {
+			listArguments.add(iterArguments.next());
+		}
+		Expression[] arguments							= new Expression[listArguments.size()];
+		FunctionArgument[] functionArgumentsConstant	= new FunctionArgument[arguments.length];
+		for (int i = 0 ; i < arguments.length ; i++) {
+			arguments[i]					= compile(listArguments.get(i));
+			functionArgumentsConstant[i]	= getConstant(arguments[i]);
+		}
+		return new CompiledApply(functionDefinition, arguments, functionArgumentsConstant);
+	}
+
+	/*
+	 * Gets the result of the given argument Expression if it is the same on every evaluation, otherwise null
+	 */
+	private static ExpressionResult getConstant(Expression expression) {
+		if (!(expression instanceof AttributeValueExpression || expression instanceof Function || (expression instanceof Apply && ((Apply)expression).isConstant()))) {
+			return null;
+		}
+		try {
+			ExpressionResult expressionResult	= expression.evaluate(null, null);
+			return (expressionResult != null && expressionResult.isOk() ? expressionResult : null);
+		} catch (EvaluationException ex) {
+			return null;
+		}
+	}
+
+	private static Matchable compile(AnyOf anyOf) {
+		if (!anyOf.validate()) {
+			return anyOf;
+		}
+		List<Matchable> listMatchables	= new ArrayList<>();
+		Iterator<AllOf> iterAllOfs	= anyOf.getAllOfs();
+		while (iterAllOfs != null && iterAllOfs.hasNext()) {
+			listMatchables.add(compile(iterAllOfs.next()));
+		}
+		final Matchable[] matchables	= listMatchables.toArray(new Matchable[listMatchables.size()]);
+		if (matchables.length == 0) {
+			return MATCHABLE_NOMATCH;
+		} else if (matchables.length == 1) {
+			return matchables[0];
+		}
+
+		/*
+		 * The first AllOf that matches decides the result, otherwise the first indeterminate one
+		 */
+		return evaluationContext -> {
+			MatchResult matchResultFallThrough	= MatchResult.MM_NOMATCH;
+			for (Matchable matchableAllOf : matchables) {
+				MatchResult matchResultAllOf	= matchableAllOf.match(evaluationContext);
+				switch(matchResultAllOf.getMatchCode()) {
+				case INDETERMINATE:
+					if (matchResultFallThrough.getMatchCode() != MatchResult.MatchCode.INDETERMINATE) {
+						matchResultFallThrough	= matchResultAllOf;
+					}
+					break;
+				case MATCH:
+					return matchResultAllOf;
+				case NOMATCH:
+					break;
+				}
+			}
+			return matchResultFallThrough;
+		};
+	}
+
+	private static Matchable compile(AllOf allOf) {
+		if (!allOf.validate()) {
+			return allOf;
+		}
+		List<Match> listMatches	= new ArrayList<>();
+		Iterator<Match> iterMatches	= allOf.getMatches();
+		while (iterMatches != null && iterMatches.hasNext()) {
+			listMatches.add(iterMatches.next());
+		}
+		final Match[] matches	= listMatches.toArray(new Match[listMatches.size()]);
+		if (matches.length == 0) {
+			return allOf;
+		} else if (matches.length == 1) {
+			return matches[0];
+		}
+
+		/*
+		 * The first Match that does not match decides the result, otherwise the first indeterminate one
+		 */
+		return evaluationContext -> {
+			MatchResult matchResultFallThrough	= MatchResult.MM_MATCH;
+			for (Match match : matches) {
+				MatchResult matchResultMatch	= match.match(evaluationContext);
+				switch(matchResultMatch.getMatchCode()) {
+				case INDETERMINATE:
+					if (matchResultFallThrough.getMatchCode() != MatchResult.MatchCode.INDETERMINATE) {
+						matchResultFallThrough	= matchResultMatch;
+					}
+					break;
+				case MATCH:
+					break;
+				case NOMATCH:
+					return matchResultMatch;
+				}
+			}
+			return matchResultFallThrough;
+		};
+	}
+}
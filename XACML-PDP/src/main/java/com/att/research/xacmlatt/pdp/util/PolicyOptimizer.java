@@ -0,0 +1,160 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.util;
+
+import java.util.Iterator;
+import java.util.Properties;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.att.research.xacml.util.XACMLProperties;
+import com.att.research.xacmlatt.pdp.eval.EvaluationException;
+import com.att.research.xacmlatt.pdp.policy.AdviceExpression;
+import com.att.research.xacmlatt.pdp.policy.AttributeAssignmentExpression;
+import com.att.research.xacmlatt.pdp.policy.Expression;
+import com.att.research.xacmlatt.pdp.policy.ObligationExpression;
+import com.att.research.xacmlatt.pdp.policy.Policy;
+import com.att.research.xacmlatt.pdp.policy.PolicyDef;
+import com.att.research.xacmlatt.pdp.policy.PolicyDefaults;
+import com.att.research.xacmlatt.pdp.policy.PolicySet;
+import com.att.research.xacmlatt.pdp.policy.PolicySetChild;
+import com.att.research.xacmlatt.pdp.policy.Rule;
+import com.att.research.xacmlatt.pdp.policy.VariableDefinition;
+import com.att.research.xacmlatt.pdp.policy.expressions.Apply;
+
+/**
+ * PolicyOptimizer prepares a newly loaded {@link com.att.research.xacmlatt.pdp.policy.PolicyDef} for evaluation by calling
+ * {@link com.att.research.xacmlatt.pdp.policy.expressions.Apply#optimize(PolicyDefaults)} on every <code>Apply</code> in its
+ * conditions, variable definitions, obligations and advice, and those of the policies and policy sets it contains.  Applications
+ * of deterministic functions to constants are folded into their results, and the constant arguments of the rest are built
+ * once instead of for every request.
+ *
+ * Policies referenced by id are optimized when they are loaded themselves.  The optimization is on unless
+ * {@link ATTPDPProperties#PROP_OPTIMIZEPOLICIES} is false, and has to be done before the <code>PolicyDef</code> is shared.
+ *
+ * @version $Revision$
+ */
+public class PolicyOptimizer {
+	private static final Log logger	= LogFactory.getLog(PolicyOptimizer.class);
+
+	private int constants;
+
+	private PolicyOptimizer() {
+	}
+
+	/**
+	 * Determines whether policies should be optimized when they are loaded from the given <code>Properties</code>, falling
+	 * back to the {@link com.att.research.xacml.util.XACMLProperties}.
+	 *
+	 * @param properties the <code>Properties</code> policies are being loaded with, or null
+	 * @return true unless {@link ATTPDPProperties#PROP_OPTIMIZEPOLICIES} is false
+	 */
+	public static boolean isEnabled(Properties properties) {
+		String value	= (properties == null ? null : properties.getProperty(ATTPDPProperties.PROP_OPTIMIZEPOLICIES));
+		if (value == null) {
+			value	= XACMLProperties.getProperty(ATTPDPProperties.PROP_OPTIMIZEPOLICIES, "true");
+		}
+		return Boolean.parseBoolean(value.trim());
+	}
+
+	/**
+	 * Optimizes the given <code>PolicyDef</code> and everything it contains.
+	 *
+	 * @param policyDef the <code>PolicyDef</code> to optimize
+	 * @return the number of <code>Apply</code> expressions that were folded into constants
+	 */
+	public static int optimize(PolicyDef policyDef) {
+		PolicyOptimizer policyOptimizer	= new PolicyOptimizer();
+		policyOptimizer.optimizePolicyDef(policyDef);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Folded " + policyOptimizer.constants + " constant expressions in " + (policyDef == null ? null : policyDef.getIdentifier()));
+		}
+		return policyOptimizer.constants;
+	}
+
+	private void optimizePolicyDef(PolicyDef policyDef) {
+		if (policyDef == null) {
+			return;
+		}
+		PolicyDefaults policyDefaults	= policyDef.getPolicyDefaults();
+		this.optimizeObligations(policyDef.getObligationExpressions(), policyDefaults);
+		this.optimizeAdvice(policyDef.getAdviceExpressions(), policyDefaults);
+		if (policyDef instanceof PolicySet) {
+			Iterator<PolicySetChild> iterChildren	= ((PolicySet)policyDef).getChildren();
+			while (iterChildren != null && iterChildren.hasNext()) {
+				PolicySetChild child	= iterChildren.next();
+				if (child instanceof PolicyDef) {
+					this.optimizePolicyDef((PolicyDef)child);
+				}
+			}
+		} else if (policyDef instanceof Policy) {
+			Policy policy	= (Policy)policyDef;
+			Iterator<VariableDefinition> iterVariableDefinitions	= policy.getVariableDefinitions();
+			while (iterVariableDefinitions != null && iterVariableDefinitions.hasNext()) {
+				this.optimize(iterVariableDefinitions.next().getExpression(), policyDefaults);
+			}
+			Iterator<Rule> iterRules	= policy.getRules();
+			while (iterRules != null && iterRules.hasNext()) {
+				Rule rule	= iterRules.next();
+				if (rule.getCondition() != null) {
+					this.optimize(rule.getCondition().getExpression(), policyDefaults);
+				}
+				this.optimizeObligations(rule.getObligationExpressions(), policyDefaults);
+				this.optimizeAdvice(rule.getAdviceExpressions(), policyDefaults);
+			}
+		}
+	}
+
+	private void optimize(Expression expression, PolicyDefaults policyDefaults) {
+		if (!(expression instanceof Apply)) {
+			return;
+		}
+		try {
+			((Apply)expression).optimize(policyDefaults);
+		} catch (EvaluationException ex) {
+			logger.warn("EvaluationException optimizing " + expression + ": " + ex.getMessage());
+		}
+		this.constants	+= countConstants(expression);
+	}
+
+	/*
+	 * Counts the constant Applys in the given expression that are not inside another constant Apply
+	 */
+	private static int countConstants(Expression expression) {
+		if (!(expression instanceof Apply)) {
+			return 0;
+		}
+		Apply apply	= (Apply)expression;
+		if (apply.isConstant()) {
+			return 1;
+		}
+		int count	= 0;
+		Iterator<Expression> iterArguments	= apply.getArguments();
+		while (iterArguments.hasNext()) {
+			count	+= countConstants(iterArguments.next());
+		}
+		return count;
+	}
+
+	private void optimize(Iterator<AttributeAssignmentExpression> iterAttributeAssignmentExpressions, PolicyDefaults policyDefaults) {
+		while (iterAttributeAssignmentExpressions != null && iterAttributeAssignmentExpressions.hasNext()) {
+			this.optimize(iterAttributeAssignmentExpressions.next().getExpression(), policyDefaults);
+		}
+	}
+
+	private void optimizeObligations(Iterator<ObligationExpression> iterObligationExpressions, PolicyDefaults policyDefaults) {
+		while (iterObligationExpressions != null && iterObligationExpressions.hasNext()) {
+			this.optimize(iterObligationExpressions.next().getAttributeAssignmentExpressions(), policyDefaults);
+		}
+	}
+
+	private void optimizeAdvice(Iterator<AdviceExpression> iterAdviceExpressions, PolicyDefaults policyDefaults) {
+		while (iterAdviceExpressions != null && iterAdviceExpressions.hasNext()) {
+			this.optimize(iterAdviceExpressions.next().getAttributeAssignmentExpressions(), policyDefaults);
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.eval;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.att.research.xacml.api.Decision;
+import com.att.research.xacml.std.IdentifierImpl;
+import com.att.research.xacml.std.StdIdReference;
+import com.att.research.xacml.std.StdStatus;
+
+public class EvaluationResultTest {
+
+  @Test
+  public void testNotApplicable() {
+    EvaluationResult evaluationResult = EvaluationResult.ER_NOTAPPLICABLE;
+    assertEquals(Decision.NOTAPPLICABLE, evaluationResult.getDecision());
+    assertTrue(evaluationResult.getStatus().isOk());
+    assertTrue(evaluationResult.getObligations().isEmpty());
+    assertTrue(evaluationResult.getPolicyIdentifiers().isEmpty());
+    assertEquals(new EvaluationResult(Decision.NOTAPPLICABLE), evaluationResult);
+    try {
+      evaluationResult.addPolicyIdentifier(new StdIdReference(IdentifierImpl.intern("urn:test:policy")));
+      fail("Shared NotApplicable result was modified");
+    } catch (UnsupportedOperationException ex) {
+      // Expected
+    }
+    try {
+      evaluationResult.merge(new EvaluationResult(Decision.PERMIT));
+      fail("Shared NotApplicable result was modified");
+    } catch (UnsupportedOperationException ex) {
+      // Expected
+    }
+    assertTrue(evaluationResult.getPolicyIdentifiers().isEmpty());
+  }
+
+  @Test
+  public void testMerge() {
+    EvaluationResult evaluationResultPermit = new EvaluationResult(Decision.PERMIT);
+    evaluationResultPermit.merge(EvaluationResult.ER_NOTAPPLICABLE);
+    assertTrue(evaluationResultPermit.getPolicyIdentifiers().isEmpty());
+
+    EvaluationResult evaluationResultPolicy = new EvaluationResult(Decision.PERMIT, StdStatus.STATUS_OK);
+    evaluationResultPolicy.addPolicyIdentifier(new StdIdReference(IdentifierImpl.intern("urn:test:policy")));
+    evaluationResultPermit.merge(evaluationResultPolicy);
+    assertEquals(1, evaluationResultPermit.getPolicyIdentifiers().size());
+    evaluationResultPermit.merge(evaluationResultPolicy);
+    assertEquals(2, evaluationResultPermit.getPolicyIdentifiers().size());
+    assertEquals(1, evaluationResultPolicy.getPolicyIdentifiers().size());
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.policy;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.att.research.xacml.api.AttributeValue;
+import com.att.research.xacml.api.Identifier;
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.std.IdentifierImpl;
+import com.att.research.xacml.std.datatypes.DataTypes;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacmlatt.pdp.eval.EvaluationContext;
+import com.att.research.xacmlatt.pdp.eval.MatchResult;
+import com.att.research.xacmlatt.pdp.policy.expressions.AttributeDesignator;
+import com.att.research.xacmlatt.pdp.std.StdEvaluationContext;
+import com.att.research.xacmlatt.pdp.std.StdFunctions;
+
+public class MatchTest {
+  private static final Identifier ATTRIBUTE_STRING = IdentifierImpl.intern("urn:test:string");
+  private static final Identifier ATTRIBUTE_INTEGER = IdentifierImpl.intern("urn:test:integer");
+  private static final Identifier ATTRIBUTE_URI = IdentifierImpl.intern("urn:test:uri");
+
+  private static final String REQUEST = "{\"Request\":{\"Resource\":{\"Attribute\":["
+      + "{\"AttributeId\":\"urn:test:string\",\"Value\":[\"write\",\"Read\",\"delete\"]},"
+      + "{\"AttributeId\":\"urn:test:integer\",\"DataType\":\"integer\",\"Value\":[6,7]},"
+      + "{\"AttributeId\":\"urn:test:uri\",\"DataType\":\"anyURI\",\"Value\":\"http://example.com/a\"}]}}}";
+
+  private static Match newMatch(Identifier matchId, AttributeValue<?> attributeValue, Identifier attributeId, Identifier dataTypeId) {
+    AttributeDesignator attributeDesignator = new AttributeDesignator();
+    attributeDesignator.setCategory(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE);
+    attributeDesignator.setAttributeId(attributeId);
+    attributeDesignator.setDataTypeId(dataTypeId);
+    attributeDesignator.setMustBePresent(false);
+    return new Match(matchId, attributeValue, attributeDesignator, null);
+  }
+
+  private static EvaluationContext newEvaluationContext() throws Exception {
+    return new StdEvaluationContext(JSONRequest.load(REQUEST), null, null);
+  }
+
+  @Test
+  public void testFastPath() throws Exception {
+    EvaluationContext evaluationContext = newEvaluationContext();
+    assertEquals(MatchResult.MatchCode.NOMATCH, newMatch(XACML3.ID_FUNCTION_STRING_EQUAL, DataTypes.DT_STRING.createAttributeValue("read"),
+        ATTRIBUTE_STRING, XACML3.ID_DATATYPE_STRING).match(evaluationContext).getMatchCode());
+    assertEquals(MatchResult.MatchCode.MATCH, newMatch(XACML3.ID_FUNCTION_STRING_EQUAL, DataTypes.DT_STRING.createAttributeValue("Read"),
+        ATTRIBUTE_STRING, XACML3.ID_DATATYPE_STRING).match(evaluationContext).getMatchCode());
+    assertEquals(MatchResult.MatchCode.MATCH, newMatch(XACML3.ID_FUNCTION_STRING_EQUAL_IGNORE_CASE, DataTypes.DT_STRING.createAttributeValue("READ"),
+        ATTRIBUTE_STRING, XACML3.ID_DATATYPE_STRING).match(evaluationContext).getMatchCode());
+    assertEquals(MatchResult.MatchCode.MATCH, newMatch(XACML3.ID_FUNCTION_INTEGER_EQUAL, DataTypes.DT_INTEGER.createAttributeValue(7),
+        ATTRIBUTE_INTEGER, XACML3.ID_DATATYPE_INTEGER).match(evaluationContext).getMatchCode());
+    assertEquals(MatchResult.MatchCode.NOMATCH, newMatch(XACML3.ID_FUNCTION_INTEGER_EQUAL, DataTypes.DT_INTEGER.createAttributeValue(5),
+        ATTRIBUTE_INTEGER, XACML3.ID_DATATYPE_INTEGER).match(evaluationContext).getMatchCode());
+    assertEquals(MatchResult.MatchCode.MATCH, newMatch(XACML3.ID_FUNCTION_ANYURI_EQUAL, DataTypes.DT_ANYURI.createAttributeValue("http://example.com/a"),
+        ATTRIBUTE_URI, XACML3.ID_DATATYPE_ANYURI).match(evaluationContext).getMatchCode());
+  }
+
+  @Test
+  public void testIndeterminate() throws Exception {
+    EvaluationContext evaluationContext = newEvaluationContext();
+    //
+    // Values of the wrong data type are still passed to the function, which reports the error
+    //
+    MatchResult matchResult = newMatch(XACML3.ID_FUNCTION_STRING_EQUAL, DataTypes.DT_STRING.createAttributeValue("6"),
+        ATTRIBUTE_INTEGER, XACML3.ID_DATATYPE_INTEGER).match(evaluationContext);
+    assertEquals(MatchResult.MatchCode.INDETERMINATE, matchResult.getMatchCode());
+    assertTrue(matchResult.getStatus().getStatusMessage(), matchResult.getStatus().getStatusMessage().contains("Expected data type"));
+
+    matchResult = newMatch(XACML3.ID_FUNCTION_STRING_EQUAL, DataTypes.DT_INTEGER.createAttributeValue(6),
+        ATTRIBUTE_STRING, XACML3.ID_DATATYPE_STRING).match(evaluationContext);
+    assertEquals(MatchResult.MatchCode.INDETERMINATE, matchResult.getMatchCode());
+    //
+    // Functions without a MatchPredicate are evaluated as before
+    //
+    assertNull(StdFunctions.FD_STRING_REGEXP_MATCH.getMatchPredicate(DataTypes.DT_STRING.createAttributeValue("R.*")));
+    assertEquals(MatchResult.MatchCode.MATCH, newMatch(XACML3.ID_FUNCTION_STRING_REGEXP_MATCH, DataTypes.DT_STRING.createAttributeValue("R.*"),
+        ATTRIBUTE_STRING, XACML3.ID_DATATYPE_STRING).match(evaluationContext).getMatchCode());
+  }
+}
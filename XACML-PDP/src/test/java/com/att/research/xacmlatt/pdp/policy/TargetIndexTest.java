@@ -0,0 +1,170 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.policy;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.att.research.xacml.api.Decision;
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.api.pip.PIPFinder;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacmlatt.pdp.eval.EvaluationContext;
+import com.att.research.xacmlatt.pdp.policy.dom.DOMPolicyDef;
+import com.att.research.xacmlatt.pdp.std.StdEvaluationContext;
+import com.att.research.xacmlatt.pdp.util.ATTPDPProperties;
+
+public class TargetIndexTest {
+
+  private static final String FIRST_APPLICABLE = "urn:oasis:names:tc:xacml:1.0:policy-combining-algorithm:first-applicable";
+
+  private static final String ONLY_ONE_APPLICABLE = "urn:oasis:names:tc:xacml:1.0:policy-combining-algorithm:only-one-applicable";
+
+  private static final int POLICIES = 10;
+
+  /*
+   * One policy per resource, permitting even and denying odd resources, then a second policy for resource 3 that permits it
+   * and a policy on the action that the index cannot use.
+   */
+  private static String getPolicySet(String combiningAlgorithm) {
+    StringBuilder stringBuilder = new StringBuilder("<PolicySet xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" PolicySetId=\"urn:test:policyset\""
+        + " Version=\"1.0\" PolicyCombiningAlgId=\"" + combiningAlgorithm + "\"><Target/>");
+    for (int i = 0; i < POLICIES; i++) {
+      stringBuilder.append(getPolicy(i, "urn:oasis:names:tc:xacml:3.0:attribute-category:resource", "urn:oasis:names:tc:xacml:1.0:resource:resource-id",
+          "resource-" + i, (i % 2 == 0 ? "Permit" : "Deny")));
+    }
+    stringBuilder.append(getPolicy(POLICIES, "urn:oasis:names:tc:xacml:3.0:attribute-category:resource", "urn:oasis:names:tc:xacml:1.0:resource:resource-id",
+        "resource-3", "Permit"));
+    stringBuilder.append(getPolicy(POLICIES + 1, "urn:oasis:names:tc:xacml:3.0:attribute-category:action", "urn:oasis:names:tc:xacml:1.0:action:action-id",
+        "audit", "Permit"));
+    return stringBuilder.append("</PolicySet>").toString();
+  }
+
+  private static String getPolicy(int i, String category, String attributeId, String value, String effect) {
+    return "<Policy PolicyId=\"urn:test:policy:" + i + "\" Version=\"1.0\""
+        + " RuleCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:rule-combining-algorithm:deny-overrides\"><Target><AnyOf><AllOf>"
+        + "<Match MatchId=\"urn:oasis:names:tc:xacml:1.0:function:string-equal\">"
+        + "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">" + value + "</AttributeValue>"
+        + "<AttributeDesignator Category=\"" + category + "\" AttributeId=\"" + attributeId + "\""
+        + " DataType=\"http://www.w3.org/2001/XMLSchema#string\" MustBePresent=\"false\"/></Match>"
+        + "</AllOf></AnyOf></Target><Rule RuleId=\"urn:test:rule:" + i + "\" Effect=\"" + effect + "\"/></Policy>";
+  }
+
+  private static Request getRequest(String action, String... resources) throws Exception {
+    StringBuilder stringBuilder = new StringBuilder("{\"Request\":{\"Action\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:action:action-id\","
+        + "\"Value\":\"" + action + "\"}]}");
+    if (resources.length > 0) {
+      stringBuilder.append(",\"Resource\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:resource:resource-id\",\"Value\":[");
+      for (int i = 0; i < resources.length; i++) {
+        stringBuilder.append(i == 0 ? "\"" : ",\"").append(resources[i]).append("\"");
+      }
+      stringBuilder.append("]}]}");
+    }
+    return JSONRequest.load(stringBuilder.append("}}").toString());
+  }
+
+  private static Request[] getRequests() throws Exception {
+    Request[] requests = new Request[2 * POLICIES + 5];
+    for (int i = 0; i < POLICIES; i++) {
+      requests[2 * i] = getRequest("read", "resource-" + i);
+      requests[2 * i + 1] = getRequest("audit", "resource-" + i);
+    }
+    requests[2 * POLICIES] = getRequest("read", "resource-1", "resource-2");
+    requests[2 * POLICIES + 1] = getRequest("read", "resource-1", "resource-99");
+    requests[2 * POLICIES + 2] = getRequest("read", "resource-99");
+    requests[2 * POLICIES + 3] = getRequest("read");
+    requests[2 * POLICIES + 4] = getRequest("audit");
+    return requests;
+  }
+
+  private static PolicySet load(String policySetXml) throws Exception {
+    return (PolicySet) DOMPolicyDef.load(new ByteArrayInputStream(policySetXml.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static EvaluationContext context(Request request) {
+    return new StdEvaluationContext(request, null, null);
+  }
+
+  private static EvaluationContext contextLinear(Request request) {
+    Properties properties = new Properties();
+    properties.setProperty(ATTPDPProperties.PROP_INDEXTARGETS, "false");
+    return new StdEvaluationContext(request, null, null, null, properties);
+  }
+
+  private static Decision decide(PolicySet policySet, Request request) throws Exception {
+    return policySet.evaluate(context(request)).getDecision();
+  }
+
+  private static void assertSameDecisions(String combiningAlgorithm) throws Exception {
+    PolicySet policySet = load(getPolicySet(combiningAlgorithm));
+    Request[] requests = getRequests();
+    for (int i = 0; i < requests.length; i++) {
+      assertEquals("request " + i, policySet.evaluate(contextLinear(requests[i])).getDecision(), decide(policySet, requests[i]));
+    }
+  }
+
+  @Test
+  public void testCandidates() throws Exception {
+    PolicySet policySet = load(getPolicySet(FIRST_APPLICABLE));
+    CombiningElementList<PolicySetChild> combiningPolicies = (CombiningElementList<PolicySetChild>) policySet.getCombiningPolicies();
+    //
+    // The matching policies in their original order, followed by the policy the index cannot use
+    //
+    assertArrayEquals(new int[] {3, POLICIES, POLICIES + 1}, combiningPolicies.getTargetIndex().getCandidates(context(getRequest("read", "resource-3"))));
+    assertArrayEquals(new int[] {1, 2, POLICIES + 1}, combiningPolicies.getTargetIndex().getCandidates(context(getRequest("read", "resource-2", "resource-1"))));
+    assertArrayEquals(new int[] {POLICIES + 1}, combiningPolicies.getTargetIndex().getCandidates(context(getRequest("read", "resource-99"))));
+    //
+    // Without a value for the indexed attribute every policy is evaluated
+    //
+    assertNull(combiningPolicies.getTargetIndex().getCandidates(context(getRequest("read"))));
+    //
+    // Nor is it used when the engine's properties turn it off
+    //
+    assertNull(TargetIndex.getCandidates(combiningPolicies, contextLinear(getRequest("read", "resource-3"))));
+  }
+
+  @Test
+  public void testAttributeNotInRequest() throws Exception {
+    PolicySet policySet = load(getPolicySet(FIRST_APPLICABLE));
+    CombiningElementList<PolicySetChild> combiningPolicies = (CombiningElementList<PolicySetChild>) policySet.getCombiningPolicies();
+    //
+    // The index does not ask the PIPs for an attribute the request does not have
+    //
+    PIPFinder pipFinder = mock(PIPFinder.class);
+    assertNull(combiningPolicies.getTargetIndex().getCandidates(new StdEvaluationContext(getRequest("read"), null, pipFinder)));
+    verifyZeroInteractions(pipFinder);
+  }
+
+  @Test
+  public void testFirstApplicable() throws Exception {
+    assertSameDecisions(FIRST_APPLICABLE);
+    PolicySet policySet = load(getPolicySet(FIRST_APPLICABLE));
+    //
+    // The earliest matching policy decides, whatever order the values are in
+    //
+    assertEquals(Decision.DENY, decide(policySet, getRequest("read", "resource-3")));
+    assertEquals(Decision.DENY, decide(policySet, getRequest("read", "resource-2", "resource-1")));
+    assertEquals(Decision.PERMIT, decide(policySet, getRequest("audit", "resource-99")));
+    assertEquals(Decision.NOTAPPLICABLE, decide(policySet, getRequest("read", "resource-99")));
+  }
+
+  @Test
+  public void testOnlyOneApplicable() throws Exception {
+    assertSameDecisions(ONLY_ONE_APPLICABLE);
+    PolicySet policySet = load(getPolicySet(ONLY_ONE_APPLICABLE));
+    assertEquals(Decision.INDETERMINATE, decide(policySet, getRequest("read", "resource-3")));
+    assertEquals(Decision.INDETERMINATE, decide(policySet, getRequest("read", "resource-1", "resource-2")));
+    assertEquals(Decision.INDETERMINATE, decide(policySet, getRequest("audit", "resource-4")));
+    assertEquals(Decision.DENY, decide(policySet, getRequest("read", "resource-5")));
+    assertEquals(Decision.NOTAPPLICABLE, decide(policySet, getRequest("read", "resource-99")));
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.policy;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.std.datatypes.DataTypes;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacmlatt.pdp.eval.EvaluationContext;
+import com.att.research.xacmlatt.pdp.eval.MatchResult;
+import com.att.research.xacmlatt.pdp.policy.expressions.AttributeDesignator;
+import com.att.research.xacmlatt.pdp.std.StdEvaluationContext;
+
+public class TargetTest {
+
+  private static final String REQUEST = "{\"Request\":{\"Resource\":{\"Attribute\":["
+      + "{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:resource:resource-id\",\"Value\":[\"file\",\"printer\"]}]}}}";
+
+  private static Match newMatch(String value) throws Exception {
+    AttributeDesignator attributeDesignator = new AttributeDesignator();
+    attributeDesignator.setCategory(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE);
+    attributeDesignator.setAttributeId(XACML3.ID_RESOURCE_RESOURCE_ID);
+    attributeDesignator.setDataTypeId(XACML3.ID_DATATYPE_STRING);
+    attributeDesignator.setMustBePresent(false);
+    return new Match(XACML3.ID_FUNCTION_STRING_EQUAL, DataTypes.DT_STRING.createAttributeValue(value), attributeDesignator, null);
+  }
+
+  private static MatchResult.MatchCode match(Target target, EvaluationContext evaluationContext) throws Exception {
+    return target.match(evaluationContext).getMatchCode();
+  }
+
+  @Test
+  public void testChangesAfterMatch() throws Exception {
+    EvaluationContext evaluationContext = new StdEvaluationContext(JSONRequest.load(REQUEST), null, null);
+    AllOf allOf = new AllOf();
+    allOf.addMatch(newMatch("file"));
+    AnyOf anyOf = new AnyOf(Arrays.asList(allOf));
+    Target target = new Target(anyOf);
+    assertEquals(MatchResult.MatchCode.MATCH, match(target, evaluationContext));
+    //
+    // Each level has to see elements added after it was first matched
+    //
+    allOf.addMatch(newMatch("fax"));
+    assertEquals(MatchResult.MatchCode.NOMATCH, match(target, evaluationContext));
+
+    AllOf allOfPrinter = new AllOf();
+    allOfPrinter.addMatch(newMatch("printer"));
+    anyOf.addAllOf(allOfPrinter);
+    assertEquals(MatchResult.MatchCode.MATCH, match(target, evaluationContext));
+
+    AllOf allOfFax = new AllOf();
+    allOfFax.addMatch(newMatch("fax"));
+    target.addAnyOf(new AnyOf(Arrays.asList(allOfFax)));
+    assertEquals(MatchResult.MatchCode.NOMATCH, match(target, evaluationContext));
+
+    target.setAnyOfs(null);
+    assertEquals(MatchResult.MatchCode.MATCH, match(target, evaluationContext));
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.std;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.att.research.xacml.api.trace.TraceEngine;
+import com.att.research.xacml.api.trace.TraceEvent;
+import com.att.research.xacml.std.StdMutableRequest;
+import com.att.research.xacml.std.trace.NullTraceEngine;
+
+public class StdEvaluationContextTest {
+
+  private static class CountingTraceEngine implements TraceEngine {
+    private final AtomicInteger checks = new AtomicInteger();
+    private final AtomicInteger events = new AtomicInteger();
+
+    @Override
+    public void trace(TraceEvent<?> traceEvent) {
+      this.events.incrementAndGet();
+    }
+
+    @Override
+    public boolean isTracing() {
+      //
+      // Only the first answer should ever be seen
+      //
+      return this.checks.incrementAndGet() == 1;
+    }
+  }
+
+  @Test
+  public void testTracingDecidedOnce() {
+    CountingTraceEngine traceEngine = new CountingTraceEngine();
+    StdEvaluationContext evaluationContext = new StdEvaluationContext(new StdMutableRequest(), null, null, traceEngine);
+    for (int i = 0; i < 10; i++) {
+      assertTrue(evaluationContext.isTracing());
+    }
+    assertEquals(1, traceEngine.checks.get());
+    evaluationContext.trace(null);
+    assertEquals(1, traceEngine.events.get());
+  }
+
+  @Test
+  public void testNotTracing() {
+    StdEvaluationContext evaluationContext = new StdEvaluationContext(new StdMutableRequest(), null, null, NullTraceEngine.newInstance());
+    assertFalse(evaluationContext.isTracing());
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.test;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.att.research.xacml.api.Decision;
+import com.att.research.xacml.api.Response;
+import com.att.research.xacml.std.StdMutableResponse;
+import com.att.research.xacml.std.StdMutableResult;
+
+public class LoadGeneratorTest {
+  private static final Response PERMIT = new StdMutableResponse(new StdMutableResult(Decision.PERMIT));
+
+  @Test
+  public void testOpenLoopCountsErrors() throws Exception {
+    LoadGenerator loadGenerator = new LoadGenerator(4, 200, 1, 1);
+    LoadGenerator.Stats stats = loadGenerator.run(10, index -> {
+      if (index == 0) {
+        throw new IllegalStateException("failed");
+      }
+      return (index == 1 ? null : PERMIT);
+    });
+    //
+    // 200 requests are due in the second, and request n is corpus entry n % 10
+    //
+    assertEquals(200, stats.getRequests());
+    assertEquals(40, stats.getErrors());
+    assertTrue(stats.getThroughput() > 100);
+  }
+
+  @Test
+  public void testLatencyIncludesTimeBehind() throws Exception {
+    //
+    // One worker taking 50ms a request cannot keep up with 40 requests a second, so later requests wait their turn
+    //
+    LoadGenerator loadGenerator = new LoadGenerator(1, 40, 1, 1);
+    LoadGenerator.Stats stats = loadGenerator.run(1, index -> {
+      Thread.sleep(50);
+      return PERMIT;
+    });
+    assertEquals(40, stats.getRequests());
+    assertEquals(0, stats.getErrors());
+    assertTrue(stats.getLatency().getMedian() > TimeUnit.MILLISECONDS.toNanos(200));
+    assertTrue(stats.getLatency().getMax() > TimeUnit.MILLISECONDS.toNanos(800));
+  }
+}
@@ -44,6 +44,19 @@ public class ConformanceRepository {
 		XACMLProperties.setProperty(propertyName, stringBuilderIdList.toString());
 	}
 	
+	private void setProperty(Properties properties, String propertyName, List<File> listFiles) {
+		StringBuilder stringBuilderIdList	= new StringBuilder();
+		for (File file : listFiles) {
+			if (stringBuilderIdList.length() > 0) {
+				stringBuilderIdList.append(',');
+			}
+			stringBuilderIdList.append(file.getName());
+			
+			properties.setProperty(file.getName() + StdPolicyFinderFactory.PROP_FILE, file.getAbsolutePath());
+		}
+		properties.setProperty(propertyName, stringBuilderIdList.toString());
+	}
+	
 	public ConformanceRepository() {
 	}
 	
@@ -56,6 +69,21 @@ public class ConformanceRepository {
 		}
 	}
 	
+	/**
+	 * Sets the root and referenced policy properties of this repository in the given <code>Properties</code> instead of the
+	 * global {@link com.att.research.xacml.util.XACMLProperties}.
+	 * 
+	 * @param properties the <code>Properties</code> to set the policy properties in
+	 */
+	public void setProperties(Properties properties) {
+		if (this.rootPolicies.size() > 0) {
+			this.setProperty(properties, XACMLProperties.PROP_ROOTPOLICIES, this.rootPolicies);
+		}
+		if (this.referencedPolicies.size() > 0) {
+			this.setProperty(properties, XACMLProperties.PROP_REFERENCEDPOLICIES, this.referencedPolicies);
+		}
+	}
+	
 	private void loadProperty(File fileDir, Properties properties, String propertyName, List<File> listFiles) {
 		String fileNameList	= properties.getProperty(propertyName);
 		if (fileNameList != null) {
@@ -0,0 +1,138 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.trace;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.att.research.xacml.api.Decision;
+import com.att.research.xacml.api.pdp.PDPEngine;
+import com.att.research.xacml.api.trace.TraceEngine;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacml.util.XACMLProperties;
+import com.att.research.xacmlatt.pdp.ATTPDPEngineFactory;
+import com.att.research.xacmlatt.pdp.util.ATTPDPProperties;
+
+public class ProfilingTraceEngineTest {
+  private static final String MATCH_ACTION = "<Target><AnyOf><AllOf><Match MatchId=\"urn:oasis:names:tc:xacml:1.0:function:string-equal\">"
+      + "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">%s</AttributeValue>"
+      + "<AttributeDesignator Category=\"urn:oasis:names:tc:xacml:3.0:attribute-category:action\" AttributeId=\"urn:oasis:names:tc:xacml:1.0:action:action-id\""
+      + " DataType=\"http://www.w3.org/2001/XMLSchema#string\" MustBePresent=\"false\"/></Match></AllOf></AnyOf></Target>";
+
+  private static final String POLICY_SET = "<PolicySet xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" PolicySetId=\"urn:test:policyset\" Version=\"1.0\""
+      + " PolicyCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:policy-combining-algorithm:deny-overrides\"><Target/>"
+      + "<Policy PolicyId=\"urn:test:read\" Version=\"1.0\" RuleCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:rule-combining-algorithm:deny-overrides\">"
+      + String.format(MATCH_ACTION, "read") + "<Rule RuleId=\"permit\" Effect=\"Permit\"/></Policy>"
+      + "<Policy PolicyId=\"urn:test:write\" Version=\"1.0\" RuleCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:rule-combining-algorithm:deny-overrides\"><Target/>"
+      + "<Rule RuleId=\"deny-write\" Effect=\"Deny\">" + String.format(MATCH_ACTION, "write") + "</Rule>"
+      + "<Rule RuleId=\"deny-delete\" Effect=\"Deny\">" + String.format(MATCH_ACTION, "delete") + "</Rule></Policy>"
+      + "</PolicySet>";
+
+  private static final String REQUEST = "{\"Request\":{\"AccessSubject\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:subject:subject-id\",\"Value\":\"alice\"}]},"
+      + "\"Action\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:action:action-id\",\"Value\":\"%s\"}]}}}";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private PDPEngine engine;
+
+  private ProfilingTraceEngine profiler;
+
+  @Before
+  public void setUp() throws Exception {
+    Path policy = folder.newFile("policy.xml").toPath();
+    Files.write(policy, POLICY_SET.getBytes(StandardCharsets.UTF_8));
+    Properties properties = new Properties();
+    properties.setProperty(XACMLProperties.PROP_ROOTPOLICIES, "root");
+    properties.setProperty("root.file", policy.toString());
+    properties.setProperty(ATTPDPProperties.PROP_EVALUATIONCONTEXTFACTORY, "com.att.research.xacmlatt.pdp.std.StdEvaluationContextFactory");
+    properties.setProperty(ATTPDPProperties.PROP_COMBININGALGORITHMFACTORY, "com.att.research.xacmlatt.pdp.std.StdCombiningAlgorithmFactory");
+    properties.setProperty(ATTPDPProperties.PROP_FUNCTIONDEFINITIONFACTORY, "com.att.research.xacmlatt.pdp.std.StdFunctionDefinitionFactory");
+    properties.setProperty(ATTPDPProperties.PROP_POLICYFINDERFACTORY, "com.att.research.xacmlatt.pdp.std.StdPolicyFinderFactory");
+    properties.setProperty(XACMLProperties.PROP_TRACEENGINEFACTORY, ProfilingTraceEngineFactory.class.getName());
+    properties.setProperty(ProfilingTraceEngine.PROP_SAMPLE_RATE, "1");
+    this.engine = new ATTPDPEngineFactory().newEngine(properties);
+    this.profiler = ProfilingTraceEngine.newInstance(properties);
+    this.profiler.reset();
+  }
+
+  private Map<String, ProfilingTraceEngine.ElementProfile> getProfiles() {
+    Map<String, ProfilingTraceEngine.ElementProfile> profiles = new HashMap<String, ProfilingTraceEngine.ElementProfile>();
+    for (ProfilingTraceEngine.ElementProfile profile : this.profiler.getProfiles()) {
+      profiles.put(profile.getType() + ":" + profile.getName(), profile);
+    }
+    return profiles;
+  }
+
+  @Test
+  public void testProfilesElements() throws Exception {
+    assertEquals(Decision.PERMIT, this.engine.decide(JSONRequest.load(String.format(REQUEST, "read"))).getResults().iterator().next().getDecision());
+    assertEquals(Decision.DENY, this.engine.decide(JSONRequest.load(String.format(REQUEST, "write"))).getResults().iterator().next().getDecision());
+    assertEquals(Decision.NOTAPPLICABLE, this.engine.decide(JSONRequest.load(String.format(REQUEST, "list"))).getResults().iterator().next().getDecision());
+    assertEquals(3, this.profiler.getSampledRequests());
+
+    Map<String, ProfilingTraceEngine.ElementProfile> profiles = this.getProfiles();
+    ProfilingTraceEngine.ElementProfile policySet = profiles.get("PolicySet:urn:test:policyset");
+    assertEquals(3, policySet.getEvaluations());
+    assertEquals(1.0, policySet.getMatchRate(), 0.0);
+    assertTrue(policySet.getTotalNanos() >= policySet.getSelfNanos());
+
+    ProfilingTraceEngine.ElementProfile read = profiles.get("Policy:urn:test:read");
+    assertEquals(3, read.getEvaluations());
+    assertEquals(1, read.getMatches());
+    assertEquals(2, read.getNoMatches());
+
+    ProfilingTraceEngine.ElementProfile denyWrite = profiles.get("Rule:urn:test:write/deny-write");
+    assertEquals(3, denyWrite.getEvaluations());
+    assertEquals(1, denyWrite.getMatches());
+    assertEquals(1, profiles.get("Rule:urn:test:read/permit").getEvaluations());
+
+    List<ProfilingTraceEngine.ElementProfile> hotRules = this.profiler.getHotRules();
+    assertEquals(3, hotRules.size());
+    assertTrue(hotRules.get(0).getTotalNanos() >= hotRules.get(2).getTotalNanos());
+    assertTrue(this.profiler.getReport().contains("urn:test:write/deny-delete"));
+
+    StringWriter writer = new StringWriter();
+    this.profiler.writeStacks(writer);
+    assertTrue(writer.toString().contains("PolicySet:urn:test:policyset;Policy:urn:test:write;Rule:deny-write "));
+  }
+
+  @Test
+  public void testSampling() throws Exception {
+    ProfilingTraceEngine sampling = new ProfilingTraceEngine(new Properties() {
+      private static final long serialVersionUID = 1L;
+      {
+        setProperty(ProfilingTraceEngine.PROP_SAMPLE_RATE, "1000000");
+      }
+    });
+    int traced = 0;
+    for (int i = 0; i < 100; i++) {
+      TraceEngine requestTraceEngine = sampling.getRequestTraceEngine();
+      if (requestTraceEngine.isTracing()) {
+        traced++;
+      } else {
+        assertSame(sampling, requestTraceEngine);
+      }
+    }
+    assertEquals(100, sampling.getRequests());
+    assertEquals(traced, sampling.getSampledRequests());
+    assertTrue(traced < 5);
+    assertFalse(sampling.isTracing());
+  }
+}
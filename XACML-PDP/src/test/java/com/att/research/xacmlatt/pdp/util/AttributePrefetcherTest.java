@@ -0,0 +1,186 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.att.research.xacml.api.Identifier;
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.api.pip.PIPException;
+import com.att.research.xacml.api.pip.PIPFinder;
+import com.att.research.xacml.api.pip.PIPRequest;
+import com.att.research.xacml.api.pip.PIPResponse;
+import com.att.research.xacml.std.IdentifierImpl;
+import com.att.research.xacml.std.StdMutableAttribute;
+import com.att.research.xacml.std.datatypes.DataTypes;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacml.std.pip.StdPIPRequest;
+import com.att.research.xacml.std.pip.StdPIPResponse;
+import com.att.research.xacml.std.pip.engines.StdConfigurableEngine;
+import com.att.research.xacml.std.pip.finders.EngineFinder;
+import com.att.research.xacmlatt.pdp.policy.PolicyDef;
+import com.att.research.xacmlatt.pdp.policy.dom.DOMPolicyDef;
+import com.att.research.xacmlatt.pdp.std.StdEvaluationContext;
+
+public class AttributePrefetcherTest {
+  private static final Identifier RESOURCE_OWNER = IdentifierImpl.intern("urn:test:resource:owner");
+  private static final Identifier SUBJECT_ROLE = IdentifierImpl.intern("urn:test:subject:role");
+
+  private static final String POLICY = "<Policy xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" PolicyId=\"urn:test:policy\" Version=\"1.0\""
+      + " RuleCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:rule-combining-algorithm:deny-overrides\"><Target><AnyOf><AllOf>"
+      + "<Match MatchId=\"urn:oasis:names:tc:xacml:1.0:function:string-equal\">"
+      + "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">read</AttributeValue>"
+      + "<AttributeDesignator Category=\"urn:oasis:names:tc:xacml:3.0:attribute-category:action\" AttributeId=\"urn:oasis:names:tc:xacml:1.0:action:action-id\""
+      + " DataType=\"http://www.w3.org/2001/XMLSchema#string\" MustBePresent=\"false\"/>"
+      + "</Match></AllOf></AnyOf></Target>"
+      + "<Rule RuleId=\"urn:test:rule\" Effect=\"Permit\"><Condition>"
+      + "<Apply FunctionId=\"urn:oasis:names:tc:xacml:1.0:function:string-is-in\">"
+      + "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">alice</AttributeValue>"
+      + "<AttributeDesignator Category=\"urn:oasis:names:tc:xacml:3.0:attribute-category:resource\" AttributeId=\"urn:test:resource:owner\""
+      + " DataType=\"http://www.w3.org/2001/XMLSchema#string\" MustBePresent=\"false\"/>"
+      + "</Apply></Condition>"
+      + "<ObligationExpressions><ObligationExpression ObligationId=\"urn:test:obligation\" FulfillOn=\"Permit\">"
+      + "<AttributeAssignmentExpression AttributeId=\"urn:test:role\">"
+      + "<AttributeDesignator Category=\"urn:oasis:names:tc:xacml:1.0:subject-category:access-subject\" AttributeId=\"urn:test:subject:role\""
+      + " DataType=\"http://www.w3.org/2001/XMLSchema#string\" MustBePresent=\"false\"/>"
+      + "</AttributeAssignmentExpression></ObligationExpression></ObligationExpressions></Rule></Policy>";
+
+  private static final String REQUEST = "{\"Request\":{\"AccessSubject\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:subject:subject-id\",\"Value\":\"alice\"}]},"
+      + "\"Action\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:action:action-id\",\"Value\":\"read\"}]}}}";
+
+  private static final PIPRequest PIP_REQUEST_ACTION = new StdPIPRequest(XACML3.ID_ATTRIBUTE_CATEGORY_ACTION, XACML3.ID_ACTION_ACTION_ID, XACML3.ID_DATATYPE_STRING);
+  private static final PIPRequest PIP_REQUEST_OWNER = new StdPIPRequest(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, RESOURCE_OWNER, XACML3.ID_DATATYPE_STRING);
+  private static final PIPRequest PIP_REQUEST_ROLE = new StdPIPRequest(XACML3.ID_SUBJECT_CATEGORY_ACCESS_SUBJECT, SUBJECT_ROLE, XACML3.ID_DATATYPE_STRING);
+  private static final PIPRequest PIP_REQUEST_NOW = new StdPIPRequest(XACML3.ID_ATTRIBUTE_CATEGORY_ENVIRONMENT, XACML3.ID_ENVIRONMENT_CURRENT_DATETIME, XACML3.ID_DATATYPE_DATETIME);
+
+  /*
+   * Answers every attribute it provides with "alice" after a delay, recording the threads it was called on and the current
+   * time it was given
+   */
+  private static class SlowPIPEngine extends StdConfigurableEngine {
+    private final List<PIPRequest> attributesProvided;
+    private final List<String> threads = new CopyOnWriteArrayList<String>();
+    private final List<Object> currentDateTimes = new CopyOnWriteArrayList<Object>();
+    private volatile long delayMillis;
+
+    SlowPIPEngine(long delayMillisIn, PIPRequest... attributesProvidedIn) {
+      this.attributesProvided = Arrays.asList(attributesProvidedIn);
+      this.delayMillis = delayMillisIn;
+      this.setName("slow");
+    }
+
+    @Override
+    public Collection<PIPRequest> attributesRequired() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Collection<PIPRequest> attributesProvided() {
+      return this.attributesProvided;
+    }
+
+    @Override
+    public PIPResponse getAttributes(PIPRequest pipRequest, PIPFinder pipFinder) throws PIPException {
+      this.threads.add(Thread.currentThread().getName());
+      this.currentDateTimes.add(pipFinder.getAttributes(PIP_REQUEST_NOW, this).getAttributes().iterator().next().getValues().iterator().next().getValue());
+      try {
+        Thread.sleep(this.delayMillis);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      try {
+        return new StdPIPResponse(new StdMutableAttribute(pipRequest.getCategory(), pipRequest.getAttributeId(),
+            DataTypes.DT_STRING.createAttributeValue("alice"), pipRequest.getIssuer(), false));
+      } catch (Exception ex) {
+        throw new PIPException(ex);
+      }
+    }
+  }
+
+  private PolicyDef policyDef;
+  private SlowPIPEngine pipEngine;
+  private StdEvaluationContext evaluationContext;
+
+  @Before
+  public void setUp() throws Exception {
+    this.policyDef = DOMPolicyDef.load(new ByteArrayInputStream(POLICY.getBytes(StandardCharsets.UTF_8)));
+    this.pipEngine = new SlowPIPEngine(100, PIP_REQUEST_OWNER, PIP_REQUEST_ROLE);
+    EngineFinder engineFinder = new EngineFinder();
+    engineFinder.register(this.pipEngine);
+    this.evaluationContext = new StdEvaluationContext(JSONRequest.load(REQUEST), null, engineFinder);
+  }
+
+  @Test
+  public void testModes() {
+    assertEquals(Collections.singleton(PIP_REQUEST_ACTION), AttributePrefetcher.getPIPRequests(this.policyDef, AttributePrefetcher.Mode.TARGETS));
+    Set<PIPRequest> pipRequests = AttributePrefetcher.getPIPRequests(this.policyDef, AttributePrefetcher.Mode.EAGER);
+    assertEquals(3, pipRequests.size());
+    assertTrue(pipRequests.containsAll(Arrays.asList(PIP_REQUEST_ACTION, PIP_REQUEST_OWNER, PIP_REQUEST_ROLE)));
+    assertTrue(AttributePrefetcher.getPIPRequests(this.policyDef, AttributePrefetcher.Mode.NONE).isEmpty());
+  }
+
+  @Test
+  public void testPrefetchSeedsRequestFinder() throws Exception {
+    AttributePrefetcher attributePrefetcher = new AttributePrefetcher(AttributePrefetcher.Mode.EAGER, 4, 5000);
+    //
+    // The action is in the request, so only the two PIP attributes are looked up, at the same time
+    //
+    assertEquals(2, attributePrefetcher.prefetch(this.policyDef, this.evaluationContext));
+    assertEquals(2, this.pipEngine.threads.size());
+    assertEquals(2, new HashSet<String>(this.pipEngine.threads).size());
+    for (String thread : this.pipEngine.threads) {
+      assertTrue(thread, thread.startsWith("xacml-prefetch-"));
+    }
+    assertFalse(this.evaluationContext.usedPIPAttributes());
+
+    PIPResponse pipResponse = this.evaluationContext.getAttributes(PIP_REQUEST_OWNER);
+    assertEquals(1, pipResponse.getAttributes().size());
+    assertEquals(2, this.pipEngine.threads.size());
+    assertTrue(this.evaluationContext.usedPIPAttributes());
+  }
+
+  @Test
+  public void testPrefetchSeesRequestTime() throws Exception {
+    Object currentDateTime = this.evaluationContext.getAttributes(PIP_REQUEST_NOW).getAttributes().iterator().next().getValues().iterator().next().getValue();
+    Thread.sleep(10);
+    AttributePrefetcher attributePrefetcher = new AttributePrefetcher(AttributePrefetcher.Mode.EAGER, 4, 5000);
+    assertEquals(2, attributePrefetcher.prefetch(this.policyDef, this.evaluationContext));
+    assertEquals(Arrays.asList(currentDateTime, currentDateTime), this.pipEngine.currentDateTimes);
+  }
+
+  @Test
+  public void testTargetsOnly() throws Exception {
+    AttributePrefetcher attributePrefetcher = new AttributePrefetcher(AttributePrefetcher.Mode.TARGETS, 4, 5000);
+    assertEquals(0, attributePrefetcher.prefetch(this.policyDef, this.evaluationContext));
+    assertTrue(this.pipEngine.threads.isEmpty());
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    this.pipEngine.delayMillis = 500;
+    AttributePrefetcher attributePrefetcher = new AttributePrefetcher(AttributePrefetcher.Mode.EAGER, 4, 50);
+    assertEquals(0, attributePrefetcher.prefetch(this.policyDef, this.evaluationContext));
+    //
+    // Evaluation looks up whatever was not prefetched in time itself
+    //
+    this.pipEngine.delayMillis = 0;
+    assertEquals(1, this.evaluationContext.getAttributes(PIP_REQUEST_OWNER).getAttributes().size());
+    assertEquals(3, this.pipEngine.threads.size());
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.util;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.att.research.xacml.api.Attribute;
+import com.att.research.xacml.api.AttributeCategory;
+import com.att.research.xacml.api.Decision;
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.api.Response;
+import com.att.research.xacml.api.Result;
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.std.StdMutableResult;
+import com.att.research.xacml.std.StdStatus;
+import com.att.research.xacml.std.StdStatusCode;
+import com.att.research.xacml.std.datatypes.DataTypes;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacml.util.XACMLProperties;
+import com.att.research.xacmlatt.pdp.ATTPDPEngine;
+import com.att.research.xacmlatt.pdp.ATTPDPEngineFactory;
+
+public class DecisionCacheTest {
+  private static final String POLICY = "<Policy xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" PolicyId=\"urn:test:policy\" Version=\"1.0\""
+      + " RuleCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:rule-combining-algorithm:deny-overrides\"><Target/>"
+      + "<Rule RuleId=\"urn:test:rule\" Effect=\"Permit\"><Target><AnyOf><AllOf>"
+      + "<Match MatchId=\"urn:oasis:names:tc:xacml:1.0:function:string-equal\">"
+      + "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">read</AttributeValue>"
+      + "<AttributeDesignator Category=\"urn:oasis:names:tc:xacml:3.0:attribute-category:action\" AttributeId=\"urn:oasis:names:tc:xacml:1.0:action:action-id\""
+      + " DataType=\"http://www.w3.org/2001/XMLSchema#string\" MustBePresent=\"false\"/>"
+      + "</Match></AllOf></AnyOf></Target></Rule></Policy>";
+
+  private static final String POLICY_CURRENT_DATE = "<Policy xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" PolicyId=\"urn:test:policy\" Version=\"1.0\""
+      + " RuleCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:rule-combining-algorithm:deny-overrides\"><Target/>"
+      + "<Rule RuleId=\"urn:test:rule\" Effect=\"Permit\"><Target><AnyOf><AllOf>"
+      + "<Match MatchId=\"urn:oasis:names:tc:xacml:1.0:function:date-less-than-or-equal\">"
+      + "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#date\">2000-01-01</AttributeValue>"
+      + "<AttributeDesignator Category=\"urn:oasis:names:tc:xacml:3.0:attribute-category:environment\" AttributeId=\"urn:oasis:names:tc:xacml:1.0:environment:current-date\""
+      + " DataType=\"http://www.w3.org/2001/XMLSchema#date\" MustBePresent=\"false\"/>"
+      + "</Match></AllOf></AnyOf></Target></Rule></Policy>";
+
+  private static final String REQUEST = "{\"Request\":{\"AccessSubject\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:subject:subject-id\",\"Value\":\"alice\"}]},"
+      + "\"Action\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:action:action-id\",\"Value\":\"read\"}]}}}";
+
+  private static final String REQUEST_REORDERED = "{\"Request\":{\"Action\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:action:action-id\",\"Value\":\"read\"}]},"
+      + "\"AccessSubject\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:subject:subject-id\",\"Value\":\"alice\"}]}}}";
+
+  private static final String REQUEST_BOB = "{\"Request\":{\"AccessSubject\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:subject:subject-id\",\"Value\":\"bob\"}]},"
+      + "\"Action\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:action:action-id\",\"Value\":\"read\"}]}}}";
+
+  private static final String REQUEST_NO_ACTION = "{\"Request\":{\"AccessSubject\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:subject:subject-id\",\"Value\":\"alice\"}]}}}";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final DecisionMetrics metrics = DecisionMetrics.getInstance();
+
+  private ATTPDPEngine newEngine(String policyXml) throws Exception {
+    Path policy = folder.newFile().toPath();
+    Files.write(policy, policyXml.getBytes(StandardCharsets.UTF_8));
+    Properties properties = new Properties();
+    properties.setProperty(XACMLProperties.PROP_ROOTPOLICIES, "root");
+    properties.setProperty("root.file", policy.toString());
+    properties.setProperty(ATTPDPProperties.PROP_EVALUATIONCONTEXTFACTORY, "com.att.research.xacmlatt.pdp.std.StdEvaluationContextFactory");
+    properties.setProperty(ATTPDPProperties.PROP_COMBININGALGORITHMFACTORY, "com.att.research.xacmlatt.pdp.std.StdCombiningAlgorithmFactory");
+    properties.setProperty(ATTPDPProperties.PROP_FUNCTIONDEFINITIONFACTORY, "com.att.research.xacmlatt.pdp.std.StdFunctionDefinitionFactory");
+    properties.setProperty(ATTPDPProperties.PROP_POLICYFINDERFACTORY, "com.att.research.xacmlatt.pdp.std.StdPolicyFinderFactory");
+    properties.setProperty(ATTPDPProperties.PROP_METRICS, "true");
+    properties.setProperty(ATTPDPProperties.PROP_DECISIONCACHE, "true");
+    return (ATTPDPEngine) new ATTPDPEngineFactory().newEngine(properties);
+  }
+
+  private static Decision decide(ATTPDPEngine engine, String request, boolean useDecisionCache) throws Exception {
+    Response response = engine.decide(JSONRequest.load(request), useDecisionCache);
+    assertEquals(1, response.getResults().size());
+    return response.getResults().iterator().next().getDecision();
+  }
+
+  private static DecisionCache newCache(long volatileBucket) {
+    return new DecisionCache(100, 60000, false, Collections.singleton(XACML3.ID_ENVIRONMENT_CURRENT_DATETIME), volatileBucket);
+  }
+
+  private static Request dateTimeRequest(String dateTime) throws Exception {
+    return dateTimeRequest(dateTime, false);
+  }
+
+  private static Request dateTimeRequest(String dateTime, boolean includeInResult) throws Exception {
+    return JSONRequest.load("{\"Request\":{\"Action\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:action:action-id\",\"Value\":\"read\"}]},"
+        + "\"Environment\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:environment:current-dateTime\","
+        + "\"DataType\":\"dateTime\",\"IncludeInResult\":" + includeInResult + ",\"Value\":\"" + dateTime + "\"}]}}}");
+  }
+
+  private static Object getIncludedDateTime(Result result) {
+    for (AttributeCategory attributeCategory : result.getAttributes()) {
+      for (Attribute attribute : attributeCategory.getAttributes()) {
+        if (XACML3.ID_ENVIRONMENT_CURRENT_DATETIME.equals(attribute.getAttributeId())) {
+          return attribute.getValues().iterator().next().getValue();
+        }
+      }
+    }
+    return null;
+  }
+
+  @Before
+  public void setUp() {
+    this.metrics.setEnabled(false);
+    this.metrics.reset();
+  }
+
+  @After
+  public void tearDown() {
+    this.metrics.setEnabled(false);
+    this.metrics.reset();
+  }
+
+  @Test
+  public void testRepeatedDecisionsAreCached() throws Exception {
+    ATTPDPEngine engine = this.newEngine(POLICY);
+    assertNotNull(engine.getDecisionCache());
+    assertEquals(Decision.PERMIT, decide(engine, REQUEST, true));
+    assertEquals(Decision.PERMIT, decide(engine, REQUEST, true));
+    assertEquals(Decision.PERMIT, decide(engine, REQUEST_REORDERED, true));
+    assertEquals(Decision.PERMIT, decide(engine, REQUEST_BOB, true));
+    assertEquals(2, this.metrics.getDecisionCacheHits());
+    assertEquals(2, this.metrics.getDecisionCacheMisses());
+    assertEquals(0.5, this.metrics.getDecisionCacheHitRate(), 0.0);
+    assertEquals(2, engine.getDecisionCache().size());
+    assertEquals(Long.valueOf(2), this.metrics.getRootPolicyEvaluations().get("urn:test:policy"));
+    //
+    // Bypassing the cache evaluates the policy
+    //
+    assertEquals(Decision.PERMIT, decide(engine, REQUEST, false));
+    assertEquals(2, this.metrics.getDecisionCacheHits());
+    assertEquals(Long.valueOf(3), this.metrics.getRootPolicyEvaluations().get("urn:test:policy"));
+
+    engine.getDecisionCache().invalidate();
+    assertEquals(0, engine.getDecisionCache().size());
+  }
+
+  @Test
+  public void testEnvironmentAttributesAreNotCached() throws Exception {
+    ATTPDPEngine engine = this.newEngine(POLICY_CURRENT_DATE);
+    //
+    // The current date comes from the PDP rather than the request
+    //
+    assertEquals(Decision.PERMIT, decide(engine, REQUEST, true));
+    assertEquals(Decision.PERMIT, decide(engine, REQUEST, true));
+    assertEquals(0, this.metrics.getDecisionCacheHits());
+    assertEquals(2, this.metrics.getDecisionCacheMisses());
+    assertEquals(0, engine.getDecisionCache().size());
+  }
+
+  @Test
+  public void testEmptyPIPLookupsAreNotCached() throws Exception {
+    ATTPDPEngine engine = this.newEngine(POLICY);
+    //
+    // The action is not in the request, so the decision depends on the PIPs finding nothing
+    //
+    assertEquals(Decision.NOTAPPLICABLE, decide(engine, REQUEST_NO_ACTION, true));
+    assertEquals(Decision.NOTAPPLICABLE, decide(engine, REQUEST_NO_ACTION, true));
+    assertEquals(0, this.metrics.getDecisionCacheHits());
+    assertEquals(0, engine.getDecisionCache().size());
+  }
+
+  @Test
+  public void testIncludedVolatileAttributesAreNotCached() throws Exception {
+    ATTPDPEngine engine = this.newEngine(POLICY);
+    assertNull(engine.getDecisionCache().getKey(dateTimeRequest("2019-01-01T12:00:00Z", true)));
+    //
+    // Each result echoes the dateTime of its own request
+    //
+    Result result = engine.decide(dateTimeRequest("2019-01-01T12:00:00.100Z", true), true).getResults().iterator().next();
+    assertEquals(Decision.PERMIT, result.getDecision());
+    assertEquals(DataTypes.DT_DATETIME.convert("2019-01-01T12:00:00.100Z"), getIncludedDateTime(result));
+    result = engine.decide(dateTimeRequest("2019-01-01T12:00:00.200Z", true), true).getResults().iterator().next();
+    assertEquals(DataTypes.DT_DATETIME.convert("2019-01-01T12:00:00.200Z"), getIncludedDateTime(result));
+    assertEquals(0, engine.getDecisionCache().size());
+  }
+
+  @Test
+  public void testVolatileAttributesAreBucketed() throws Exception {
+    DecisionCache decisionCache = newCache(60000);
+    assertEquals(decisionCache.getKey(dateTimeRequest("2019-01-01T12:00:01Z")), decisionCache.getKey(dateTimeRequest("2019-01-01T12:00:59Z")));
+    assertNotEquals(decisionCache.getKey(dateTimeRequest("2019-01-01T12:00:59Z")), decisionCache.getKey(dateTimeRequest("2019-01-01T12:01:00Z")));
+
+    decisionCache = newCache(0);
+    assertEquals(decisionCache.getKey(dateTimeRequest("2019-01-01T12:00:00Z")), decisionCache.getKey(dateTimeRequest("2020-06-01T00:00:00Z")));
+  }
+
+  @Test
+  public void testGenerationsAndStatus() throws Exception {
+    DecisionCache decisionCache = newCache(0);
+    DecisionCache.Key key = decisionCache.getKey(JSONRequest.load(REQUEST));
+    Result result = new StdMutableResult(Decision.PERMIT, StdStatus.STATUS_OK);
+
+    assertFalse(decisionCache.put(key, 0, new StdMutableResult(new StdStatus(StdStatusCode.STATUS_CODE_PROCESSING_ERROR)), false));
+    assertFalse(decisionCache.put(key, 0, result, true));
+    assertTrue(decisionCache.put(key, 0, result, false));
+    assertEquals(Decision.PERMIT, decisionCache.get(key, 0).getDecision());
+    //
+    // A new generation discards everything decided under the old one
+    //
+    assertNull(decisionCache.get(key, 1));
+    assertFalse(decisionCache.put(key, 0, result, false));
+    assertNull(decisionCache.get(key, 1));
+    assertTrue(decisionCache.put(key, 1, result, false));
+    assertNotNull(decisionCache.get(key, 1));
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.util;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.att.research.xacml.api.Decision;
+import com.att.research.xacml.api.Response;
+import com.att.research.xacml.api.pdp.PDPEngine;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacml.util.XACMLProperties;
+import com.att.research.xacmlatt.pdp.ATTPDPEngineFactory;
+
+public class DecisionMetricsTest {
+  private static final String POLICY = "<Policy xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" PolicyId=\"urn:test:policy\" Version=\"1.0\""
+      + " RuleCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:rule-combining-algorithm:deny-overrides\"><Target/>"
+      + "<Rule RuleId=\"urn:test:rule\" Effect=\"Permit\"><Target><AnyOf><AllOf>"
+      + "<Match MatchId=\"urn:oasis:names:tc:xacml:1.0:function:string-equal\">"
+      + "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">read</AttributeValue>"
+      + "<AttributeDesignator Category=\"urn:oasis:names:tc:xacml:3.0:attribute-category:action\" AttributeId=\"urn:oasis:names:tc:xacml:1.0:action:action-id\""
+      + " DataType=\"http://www.w3.org/2001/XMLSchema#string\" MustBePresent=\"false\"/>"
+      + "</Match></AllOf></AnyOf></Target></Rule></Policy>";
+
+  private static final String REQUEST = "{\"Request\":{\"AccessSubject\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:subject:subject-id\",\"Value\":\"alice\"}]},"
+      + "\"Action\":[{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:action:action-id\",\"Value\":\"read\"}]},"
+      + "{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:action:action-id\",\"Value\":\"write\"}]}]}}";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final DecisionMetrics metrics = DecisionMetrics.getInstance();
+
+  private PDPEngine newEngine(boolean enableMetrics) throws Exception {
+    Path policy = folder.newFile().toPath();
+    Files.write(policy, POLICY.getBytes(StandardCharsets.UTF_8));
+    Properties properties = new Properties();
+    properties.setProperty(XACMLProperties.PROP_ROOTPOLICIES, "root");
+    properties.setProperty("root.file", policy.toString());
+    properties.setProperty(ATTPDPProperties.PROP_EVALUATIONCONTEXTFACTORY, "com.att.research.xacmlatt.pdp.std.StdEvaluationContextFactory");
+    properties.setProperty(ATTPDPProperties.PROP_COMBININGALGORITHMFACTORY, "com.att.research.xacmlatt.pdp.std.StdCombiningAlgorithmFactory");
+    properties.setProperty(ATTPDPProperties.PROP_FUNCTIONDEFINITIONFACTORY, "com.att.research.xacmlatt.pdp.std.StdFunctionDefinitionFactory");
+    properties.setProperty(ATTPDPProperties.PROP_POLICYFINDERFACTORY, "com.att.research.xacmlatt.pdp.std.StdPolicyFinderFactory");
+    properties.setProperty(ATTPDPProperties.PROP_METRICS, Boolean.toString(enableMetrics));
+    return new ATTPDPEngineFactory().newEngine(properties);
+  }
+
+  @Before
+  public void setUp() {
+    this.metrics.setEnabled(false);
+    this.metrics.reset();
+  }
+
+  @After
+  public void tearDown() {
+    this.metrics.setEnabled(false);
+    this.metrics.reset();
+  }
+
+  @Test
+  public void testDisabledRecordsNothing() throws Exception {
+    PDPEngine engine = this.newEngine(false);
+    Response response = engine.decide(JSONRequest.load(REQUEST));
+    assertEquals(2, response.getResults().size());
+    assertFalse(this.metrics.isEnabled());
+    assertEquals(0, this.metrics.getRequests());
+    assertEquals(0, this.metrics.getDecideTime().getCount());
+  }
+
+  @Test
+  public void testMetricsArePerEngine() throws Exception {
+    PDPEngine engine = this.newEngine(true);
+    PDPEngine engineWithout = this.newEngine(false);
+    assertTrue(this.metrics.isEnabled());
+    engineWithout.decide(JSONRequest.load(REQUEST));
+    assertEquals(0, this.metrics.getRequests());
+    engine.decide(JSONRequest.load(REQUEST));
+    assertEquals(1, this.metrics.getRequests());
+    //
+    // Turning the metrics off stops every engine recording
+    //
+    this.metrics.setEnabled(false);
+    engine.decide(JSONRequest.load(REQUEST));
+    assertEquals(1, this.metrics.getRequests());
+  }
+
+  @Test
+  public void testEngineRecordsDecisions() throws Exception {
+    PDPEngine engine = this.newEngine(true);
+    assertTrue(this.metrics.isEnabled());
+    assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(DecisionMetrics.OBJECT_NAME)));
+
+    for (int i = 0 ; i < 3 ; i++) {
+      Response response = engine.decide(JSONRequest.load(REQUEST));
+      assertEquals(2, response.getResults().size());
+    }
+    assertEquals(3, this.metrics.getRequests());
+    assertEquals(Long.valueOf(3), this.metrics.getDecisions().get(Decision.PERMIT.toString()));
+    assertEquals(Long.valueOf(3), this.metrics.getDecisions().get(Decision.NOTAPPLICABLE.toString()));
+    assertEquals(Long.valueOf(0), this.metrics.getDecisions().get(Decision.DENY.toString()));
+    assertEquals(Long.valueOf(6), this.metrics.getRootPolicyEvaluations().get("urn:test:policy"));
+    assertEquals(2, this.metrics.getIndividualDecisionsPerRequest().getMax());
+    assertEquals(3, this.metrics.getDecideTime().getCount());
+    assertEquals(3, this.metrics.getRequestGenerationTime().getCount());
+    assertEquals(6, this.metrics.getRootPolicySelectionTime().getCount());
+    assertEquals(6, this.metrics.getEvaluationTime().getCount());
+    assertEquals(6, this.metrics.getPIPTime().getCount());
+    assertTrue(this.metrics.getPIPTime().getTotal() > 0);
+    //
+    // The attributes can be read through JMX
+    //
+    Object requests = ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName(DecisionMetrics.OBJECT_NAME), "Requests");
+    assertEquals(Long.valueOf(3), requests);
+    assertNotNull(ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName(DecisionMetrics.OBJECT_NAME), "DecideTime"));
+
+    this.metrics.reset();
+    assertEquals(0, this.metrics.getRequests());
+    assertTrue(this.metrics.getRootPolicyEvaluations().isEmpty());
+  }
+}
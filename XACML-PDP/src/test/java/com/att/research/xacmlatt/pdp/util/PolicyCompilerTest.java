@@ -0,0 +1,232 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Properties;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.att.research.xacml.api.Decision;
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.api.Response;
+import com.att.research.xacml.api.pdp.PDPEngine;
+import com.att.research.xacml.std.IdentifierImpl;
+import com.att.research.xacml.std.StdIdReferenceMatch;
+import com.att.research.xacml.std.dom.DOMProperties;
+import com.att.research.xacml.std.dom.DOMRequest;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacml.util.XACMLProperties;
+import com.att.research.xacmlatt.pdp.ATTPDPEngineFactory;
+import com.att.research.xacmlatt.pdp.policy.Policy;
+import com.att.research.xacmlatt.pdp.policy.PolicyDef;
+import com.att.research.xacmlatt.pdp.policy.PolicyFinderResult;
+import com.att.research.xacmlatt.pdp.policy.PolicySet;
+import com.att.research.xacmlatt.pdp.policy.dom.DOMPolicyDef;
+import com.att.research.xacmlatt.pdp.policy.expressions.Apply;
+import com.att.research.xacmlatt.pdp.std.StdPolicyFinder;
+import com.att.research.xacmlatt.pdp.std.StdPolicyFinderFactory;
+import com.att.research.xacmlatt.pdp.test.conformance.ConformancePIPEngine;
+import com.att.research.xacmlatt.pdp.test.conformance.ConformanceTest;
+import com.att.research.xacmlatt.pdp.test.conformance.ConformanceTestSet;
+import com.att.research.xacmlatt.pdp.test.conformance.ResponseMatchResult;
+
+public class PolicyCompilerTest {
+
+  private static final String CONFORMANCE = "src/test/resources/testsets/conformance";
+
+  private static final int POLICIES = 50;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /*
+   * A policy set with one policy per resource, each targeting reads or writes of its resource by alice or bob, with a condition
+   * that only lets bob write
+   */
+  private static String getPolicySet() {
+    StringBuilder stringBuilder = new StringBuilder("<PolicySet xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" PolicySetId=\"urn:test:policyset\""
+        + " Version=\"1.0\" PolicyCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:policy-combining-algorithm:deny-overrides\"><Target/>");
+    for (int i = 0; i < POLICIES; i++) {
+      stringBuilder.append("<Policy PolicyId=\"urn:test:policy:").append(i).append("\" Version=\"1.0\"")
+          .append(" RuleCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:rule-combining-algorithm:deny-overrides\"><Target><AnyOf><AllOf>")
+          .append(match("urn:oasis:names:tc:xacml:1.0:function:string-equal", "resource-" + i, "urn:oasis:names:tc:xacml:3.0:attribute-category:resource",
+              "urn:oasis:names:tc:xacml:1.0:resource:resource-id"))
+          .append("</AllOf></AnyOf><AnyOf><AllOf>")
+          .append(match("urn:oasis:names:tc:xacml:1.0:function:string-equal", "read", "urn:oasis:names:tc:xacml:3.0:attribute-category:action",
+              "urn:oasis:names:tc:xacml:1.0:action:action-id"))
+          .append("</AllOf><AllOf>")
+          .append(match("urn:oasis:names:tc:xacml:1.0:function:string-equal", "write", "urn:oasis:names:tc:xacml:3.0:attribute-category:action",
+              "urn:oasis:names:tc:xacml:1.0:action:action-id"))
+          .append("</AllOf></AnyOf></Target>")
+          .append("<Rule RuleId=\"urn:test:rule:").append(i).append("\" Effect=\"Permit\"><Target><AnyOf><AllOf>")
+          .append(match("urn:oasis:names:tc:xacml:3.0:function:string-equal-ignore-case", "alice", "urn:oasis:names:tc:xacml:1.0:subject-category:access-subject",
+              "urn:oasis:names:tc:xacml:1.0:subject:subject-id"))
+          .append("</AllOf><AllOf>")
+          .append(match("urn:oasis:names:tc:xacml:3.0:function:string-equal-ignore-case", "bob", "urn:oasis:names:tc:xacml:1.0:subject-category:access-subject",
+              "urn:oasis:names:tc:xacml:1.0:subject:subject-id"))
+          .append("</AllOf></AnyOf></Target><Condition><Apply FunctionId=\"urn:oasis:names:tc:xacml:1.0:function:or\">")
+          .append("<Apply FunctionId=\"urn:oasis:names:tc:xacml:1.0:function:string-is-in\">")
+          .append("<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">read</AttributeValue>")
+          .append(designator("urn:oasis:names:tc:xacml:3.0:attribute-category:action", "urn:oasis:names:tc:xacml:1.0:action:action-id"))
+          .append("</Apply><Apply FunctionId=\"urn:oasis:names:tc:xacml:3.0:function:string-equal-ignore-case\">")
+          .append("<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">bob</AttributeValue>")
+          .append("<Apply FunctionId=\"urn:oasis:names:tc:xacml:1.0:function:string-one-and-only\">")
+          .append(designator("urn:oasis:names:tc:xacml:1.0:subject-category:access-subject", "urn:oasis:names:tc:xacml:1.0:subject:subject-id"))
+          .append("</Apply></Apply></Apply></Condition></Rule></Policy>");
+    }
+    return stringBuilder.append("</PolicySet>").toString();
+  }
+
+  private static String match(String matchId, String value, String category, String attributeId) {
+    return "<Match MatchId=\"" + matchId + "\"><AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">" + value + "</AttributeValue>"
+        + designator(category, attributeId) + "</Match>";
+  }
+
+  private static String designator(String category, String attributeId) {
+    return "<AttributeDesignator Category=\"" + category + "\" AttributeId=\"" + attributeId + "\""
+        + " DataType=\"http://www.w3.org/2001/XMLSchema#string\" MustBePresent=\"false\"/>";
+  }
+
+  private static String getRequest(String subject, String action, int resource) {
+    return "{\"Request\":{\"AccessSubject\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:subject:subject-id\",\"Value\":\"" + subject + "\"}]},"
+        + "\"Action\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:action:action-id\",\"Value\":\"" + action + "\"}]},"
+        + "\"Resource\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:resource:resource-id\",\"Value\":\"resource-" + resource + "\"}]}}}";
+  }
+
+  private PDPEngine newEngine(String policyXml, boolean compile) throws Exception {
+    Path policy = folder.newFile().toPath();
+    Files.write(policy, policyXml.getBytes(StandardCharsets.UTF_8));
+    Properties properties = new Properties();
+    properties.setProperty(XACMLProperties.PROP_ROOTPOLICIES, "root");
+    properties.setProperty("root" + StdPolicyFinderFactory.PROP_FILE, policy.toString());
+    properties.setProperty("root" + StdPolicyFinderFactory.PROP_COMPILE, Boolean.toString(compile));
+    properties.setProperty(ATTPDPProperties.PROP_EVALUATIONCONTEXTFACTORY, "com.att.research.xacmlatt.pdp.std.StdEvaluationContextFactory");
+    properties.setProperty(ATTPDPProperties.PROP_COMBININGALGORITHMFACTORY, "com.att.research.xacmlatt.pdp.std.StdCombiningAlgorithmFactory");
+    properties.setProperty(ATTPDPProperties.PROP_FUNCTIONDEFINITIONFACTORY, "com.att.research.xacmlatt.pdp.std.StdFunctionDefinitionFactory");
+    properties.setProperty(ATTPDPProperties.PROP_POLICYFINDERFACTORY, "com.att.research.xacmlatt.pdp.std.StdPolicyFinderFactory");
+    return new ATTPDPEngineFactory().newEngine(properties);
+  }
+
+  @Test
+  public void testCompile() throws Exception {
+    PolicyDef policyDef = DOMPolicyDef.load(new ByteArrayInputStream(getPolicySet().getBytes(StandardCharsets.UTF_8)));
+    //
+    // The policy set, every policy, and the target and condition of every rule
+    //
+    assertEquals(1 + 3 * POLICIES, PolicyCompiler.compile(policyDef));
+    assertTrue(policyDef.getTarget() instanceof PolicyCompiler.CompiledTarget);
+    Policy policy = (Policy) ((PolicySet) policyDef).getChildren().next();
+    assertTrue(policy.getTarget() instanceof PolicyCompiler.CompiledTarget);
+    assertTrue(policy.getTarget().getAnyOfs().hasNext());
+    assertTrue(policy.getRules().next().getTarget() instanceof PolicyCompiler.CompiledTarget);
+    assertTrue(policy.getRules().next().getCondition() instanceof PolicyCompiler.CompiledCondition);
+    assertTrue(policy.getRules().next().getCondition().getExpression() instanceof Apply);
+    //
+    // Compiling again changes nothing
+    //
+    assertEquals(0, PolicyCompiler.compile(policyDef));
+  }
+
+  @Test
+  public void testReferenceLoadedFromURI() throws Exception {
+    Path referenced = folder.newFile().toPath();
+    String policyXml = getPolicySet().replace("urn:test:policyset", referenced.toUri().toString());
+    Files.write(referenced, policyXml.getBytes(StandardCharsets.UTF_8));
+    //
+    // The finder's own properties decide, not the XACMLProperties
+    //
+    Properties properties = new Properties();
+    properties.setProperty(ATTPDPProperties.PROP_COMPILEPOLICIES, "true");
+    StdPolicyFinder policyFinder = new StdPolicyFinder(Collections.<PolicyDef>emptyList(), Collections.<PolicyDef>emptyList(), properties);
+    PolicyFinderResult<PolicySet> policyFinderResult = policyFinder.getPolicySet(new StdIdReferenceMatch(new IdentifierImpl(referenced.toUri()), null, null, null));
+    assertNotNull(policyFinderResult.getPolicyDef());
+    assertTrue(policyFinderResult.getPolicyDef().getTarget() instanceof PolicyCompiler.CompiledTarget);
+  }
+
+  @Test
+  public void testDecisions() throws Exception {
+    String policySet = getPolicySet();
+    PDPEngine pdpEngine = this.newEngine(policySet, false);
+    PDPEngine pdpEngineCompiled = this.newEngine(policySet, true);
+    Request[] requests = new Request[5 * POLICIES];
+    for (int i = 0; i < POLICIES; i++) {
+      requests[5 * i] = JSONRequest.load(getRequest("alice", "read", i));
+      requests[5 * i + 1] = JSONRequest.load(getRequest("Bob", "write", i));
+      requests[5 * i + 2] = JSONRequest.load(getRequest("carol", "read", i));
+      requests[5 * i + 3] = JSONRequest.load(getRequest("alice", "delete", i));
+      requests[5 * i + 4] = JSONRequest.load(getRequest("alice", "write", i));
+    }
+    for (Request request : requests) {
+      Decision decision = pdpEngine.decide(request).getResults().iterator().next().getDecision();
+      assertEquals(decision, pdpEngineCompiled.decide(request).getResults().iterator().next().getDecision());
+    }
+    assertEquals(Decision.PERMIT, pdpEngineCompiled.decide(requests[1]).getResults().iterator().next().getDecision());
+    assertEquals(Decision.NOTAPPLICABLE, pdpEngineCompiled.decide(requests[2]).getResults().iterator().next().getDecision());
+    assertEquals(Decision.NOTAPPLICABLE, pdpEngineCompiled.decide(requests[4]).getResults().iterator().next().getDecision());
+  }
+
+  private static Properties getProperties(ConformanceTest conformanceTest, boolean compile) throws Exception {
+    Properties properties = new Properties();
+    try (InputStream is = new FileInputStream(new File(CONFORMANCE, "xacml.properties"))) {
+      properties.load(is);
+    }
+    properties.setProperty("ConformancePIPEngine" + ConformancePIPEngine.PROP_FILE, new File(CONFORMANCE, "xacml3.0-ct-v.0.4/PIP.txt").getAbsolutePath());
+    properties.setProperty(ATTPDPProperties.PROP_COMPILEPOLICIES, Boolean.toString(compile));
+    conformanceTest.getRepository().setProperties(properties);
+    return properties;
+  }
+
+  @Test
+  public void testConformanceEquivalence() throws Exception {
+    ConformanceTestSet conformanceTestSet = ConformanceTestSet.loadDirectory(new File(CONFORMANCE, "xacml3.0-ct-v.0.4"));
+    ATTPDPEngineFactory pdpEngineFactory = new ATTPDPEngineFactory();
+    boolean isLenient = DOMProperties.isLenient();
+    int tests = 0;
+    try {
+      Iterator<ConformanceTest> iterConformanceTests = conformanceTestSet.getConformanceTests();
+      while (iterConformanceTests.hasNext()) {
+        ConformanceTest conformanceTest = iterConformanceTests.next();
+        DOMProperties.setLenient(false);
+        Request request;
+        try {
+          request = DOMRequest.load(conformanceTest.getRequest());
+        } catch (Exception ex) {
+          continue;
+        }
+        Response response = pdpEngineFactory.newEngine(getProperties(conformanceTest, false)).decide(request);
+        Response responseCompiled = pdpEngineFactory.newEngine(getProperties(conformanceTest, true)).decide(request);
+
+        ResponseMatchResult responseMatchResult = ResponseMatchResult.newInstance(response, responseCompiled);
+        String testName = conformanceTest.getTestName();
+        assertTrue(testName, responseMatchResult.numResultsMatch());
+        assertTrue(testName, responseMatchResult.decisionsMatch());
+        assertTrue(testName, responseMatchResult.statusCodesMatch());
+        assertTrue(testName, responseMatchResult.attributesMatch());
+        assertTrue(testName, responseMatchResult.obligationsMatch());
+        assertTrue(testName, responseMatchResult.associatedAdviceMatches());
+        assertTrue(testName, responseMatchResult.policyIdentifiersMatch());
+        assertTrue(testName, responseMatchResult.policySetIdentifiersMatch());
+        tests++;
+      }
+    } finally {
+      DOMProperties.setLenient(isLenient);
+    }
+    assertTrue(tests > 0);
+  }
+}
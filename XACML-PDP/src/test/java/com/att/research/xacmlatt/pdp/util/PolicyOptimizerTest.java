@@ -0,0 +1,153 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacmlatt.pdp.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.att.research.xacml.api.Decision;
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.api.Response;
+import com.att.research.xacml.api.pdp.PDPEngine;
+import com.att.research.xacml.std.dom.DOMProperties;
+import com.att.research.xacml.std.dom.DOMRequest;
+import com.att.research.xacml.std.json.JSONRequest;
+import com.att.research.xacmlatt.pdp.ATTPDPEngineFactory;
+import com.att.research.xacmlatt.pdp.policy.Expression;
+import com.att.research.xacmlatt.pdp.policy.Policy;
+import com.att.research.xacmlatt.pdp.policy.PolicyDef;
+import com.att.research.xacmlatt.pdp.policy.Rule;
+import com.att.research.xacmlatt.pdp.policy.dom.DOMPolicyDef;
+import com.att.research.xacmlatt.pdp.policy.expressions.Apply;
+import com.att.research.xacmlatt.pdp.std.StdEvaluationContext;
+import com.att.research.xacmlatt.pdp.test.conformance.ConformancePIPEngine;
+import com.att.research.xacmlatt.pdp.test.conformance.ConformanceTest;
+import com.att.research.xacmlatt.pdp.test.conformance.ConformanceTestSet;
+import com.att.research.xacmlatt.pdp.test.conformance.ResponseMatchResult;
+
+public class PolicyOptimizerTest {
+  private static final String CONFORMANCE = "src/test/resources/testsets/conformance";
+
+  private static final String POLICY = "<Policy xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" PolicyId=\"urn:test:policy\" Version=\"1.0\""
+      + " RuleCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:rule-combining-algorithm:deny-overrides\"><Target/>"
+      + "<Rule RuleId=\"urn:test:rule\" Effect=\"Permit\"><Condition>"
+      + "<Apply FunctionId=\"urn:oasis:names:tc:xacml:1.0:function:and\">"
+      + "<Apply FunctionId=\"urn:oasis:names:tc:xacml:1.0:function:integer-greater-than\">"
+      + "<Apply FunctionId=\"urn:oasis:names:tc:xacml:1.0:function:integer-add\">"
+      + "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#integer\">2</AttributeValue>"
+      + "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#integer\">3</AttributeValue>"
+      + "</Apply>"
+      + "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#integer\">4</AttributeValue>"
+      + "</Apply>"
+      + "<Apply FunctionId=\"urn:oasis:names:tc:xacml:1.0:function:string-is-in\">"
+      + "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">alice</AttributeValue>"
+      + "<AttributeDesignator Category=\"urn:oasis:names:tc:xacml:1.0:subject-category:access-subject\" AttributeId=\"urn:oasis:names:tc:xacml:1.0:subject:subject-id\""
+      + " DataType=\"http://www.w3.org/2001/XMLSchema#string\" MustBePresent=\"false\"/>"
+      + "</Apply></Apply></Condition></Rule></Policy>";
+
+  private static final String REQUEST_ALICE = "{\"Request\":{\"AccessSubject\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:subject:subject-id\",\"Value\":\"alice\"}]}}}";
+  private static final String REQUEST_BOB = "{\"Request\":{\"AccessSubject\":{\"Attribute\":[{\"AttributeId\":\"urn:oasis:names:tc:xacml:1.0:subject:subject-id\",\"Value\":\"bob\"}]}}}";
+
+  private static Apply getCondition(PolicyDef policyDef) {
+    Rule rule = ((Policy) policyDef).getRules().next();
+    return (Apply) rule.getCondition().getExpression();
+  }
+
+  private static Boolean evaluate(Apply apply, String request) throws Exception {
+    StdEvaluationContext evaluationContext = new StdEvaluationContext(JSONRequest.load(request), null, null);
+    return (Boolean) apply.evaluate(evaluationContext, null).getValue().getValue();
+  }
+
+  @Test
+  public void testFolding() throws Exception {
+    PolicyDef policyDef = DOMPolicyDef.load(new ByteArrayInputStream(POLICY.getBytes(StandardCharsets.UTF_8)));
+    Apply and = getCondition(policyDef);
+    assertEquals(Boolean.TRUE, evaluate(and, REQUEST_ALICE));
+
+    assertEquals(1, PolicyOptimizer.optimize(policyDef));
+    //
+    // The arithmetic is folded, the designator keeps the enclosing functions from being folded
+    //
+    assertFalse(and.isConstant());
+    Iterator<Expression> iterArguments = and.getArguments();
+    Apply greaterThan = (Apply) iterArguments.next();
+    Apply isIn = (Apply) iterArguments.next();
+    assertTrue(greaterThan.isConstant());
+    assertTrue(((Apply) greaterThan.getArguments().next()).isConstant());
+    assertFalse(isIn.isConstant());
+
+    assertEquals(Boolean.TRUE, evaluate(and, REQUEST_ALICE));
+    assertEquals(Boolean.FALSE, evaluate(and, REQUEST_BOB));
+    //
+    // Changing an Apply discards its optimization
+    //
+    greaterThan.setFunctionId(greaterThan.getFunctionId());
+    assertFalse(greaterThan.isConstant());
+    assertEquals(Boolean.TRUE, evaluate(and, REQUEST_ALICE));
+  }
+
+  private static Properties getProperties(ConformanceTest conformanceTest, boolean optimize) throws Exception {
+    Properties properties = new Properties();
+    try (InputStream is = new FileInputStream(new File(CONFORMANCE, "xacml.properties"))) {
+      properties.load(is);
+    }
+    properties.setProperty("ConformancePIPEngine" + ConformancePIPEngine.PROP_FILE, new File(CONFORMANCE, "xacml3.0-ct-v.0.4/PIP.txt").getAbsolutePath());
+    properties.setProperty(ATTPDPProperties.PROP_OPTIMIZEPOLICIES, Boolean.toString(optimize));
+    conformanceTest.getRepository().setProperties(properties);
+    return properties;
+  }
+
+  @Test
+  public void testConformanceEquivalence() throws Exception {
+    ConformanceTestSet conformanceTestSet = ConformanceTestSet.loadDirectory(new File(CONFORMANCE, "xacml3.0-ct-v.0.4"));
+    ATTPDPEngineFactory pdpEngineFactory = new ATTPDPEngineFactory();
+    boolean isLenient = DOMProperties.isLenient();
+    int tests = 0;
+    try {
+      Iterator<ConformanceTest> iterConformanceTests = conformanceTestSet.getConformanceTests();
+      while (iterConformanceTests.hasNext()) {
+        ConformanceTest conformanceTest = iterConformanceTests.next();
+        DOMProperties.setLenient(false);
+        Request request;
+        try {
+          request = DOMRequest.load(conformanceTest.getRequest());
+        } catch (Exception ex) {
+          continue;
+        }
+        PDPEngine pdpEngine = pdpEngineFactory.newEngine(getProperties(conformanceTest, false));
+        PDPEngine pdpEngineOptimized = pdpEngineFactory.newEngine(getProperties(conformanceTest, true));
+        Response response = pdpEngine.decide(request);
+        Response responseOptimized = pdpEngineOptimized.decide(request);
+
+        ResponseMatchResult responseMatchResult = ResponseMatchResult.newInstance(response, responseOptimized);
+        String testName = conformanceTest.getTestName();
+        assertTrue(testName, responseMatchResult.numResultsMatch());
+        assertTrue(testName, responseMatchResult.decisionsMatch());
+        assertTrue(testName, responseMatchResult.statusCodesMatch());
+        assertTrue(testName, responseMatchResult.attributesMatch());
+        assertTrue(testName, responseMatchResult.obligationsMatch());
+        assertTrue(testName, responseMatchResult.associatedAdviceMatches());
+        assertTrue(testName, responseMatchResult.policyIdentifiersMatch());
+        assertTrue(testName, responseMatchResult.policySetIdentifiersMatch());
+        if (response.getResults().iterator().next().getDecision() != Decision.INDETERMINATE) {
+          tests++;
+        }
+      }
+    } finally {
+      DOMProperties.setLenient(isLenient);
+    }
+    assertTrue(tests > 0);
+  }
+}
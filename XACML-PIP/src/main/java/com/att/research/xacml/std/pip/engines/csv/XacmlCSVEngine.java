@@ -84,9 +84,9 @@ public class XacmlCSVEngine implements ConfigurableEngine {
 	
 	protected void store(String[] fields) throws FactoryException {
 		DataTypeFactory thisDataTypeFactory	= this.getDataTypeFactory();
-		Identifier identifierCategory		= new IdentifierImpl(fields[0]);
-		Identifier identifierAttribute		= new IdentifierImpl(fields[1]);
-		Identifier identifierDataType		= new IdentifierImpl(fields[2]);
+		Identifier identifierCategory		= IdentifierImpl.intern(fields[0]);
+		Identifier identifierAttribute		= IdentifierImpl.intern(fields[1]);
+		Identifier identifierDataType		= IdentifierImpl.intern(fields[2]);
 		String issuer						= (fields.length == 5 ? fields[3] : null);
 		String value						= fields[fields.length - 1];
 		
@@ -213,7 +213,7 @@ public class ConfigurableJDBCResolver implements JDBCResolver {
 		stringProp			= idPrefix + PROP_ISSUER;
 		String issuer		= properties.getProperty(stringProp);
 		
-		return new StdPIPRequest(new IdentifierImpl(categoryId), new IdentifierImpl(attributeId), new IdentifierImpl(dataTypeId), issuer);
+		return new StdPIPRequest(IdentifierImpl.intern(categoryId), IdentifierImpl.intern(attributeId), IdentifierImpl.intern(dataTypeId), issuer);
 	}
 */
 
@@ -75,6 +75,29 @@ public class XACMLRestProperties extends XACMLProperties {
 	 * Timeout value used by the PAP servlet when trying to check the heartbeat of a PDP node.
 	 */
 	public static final String	PROP_PAP_HEARTBEAT_TIMEOUT = "xacml.rest.pap.heartbeat.timeout";
+	/**
+	 * The maximum number of heartbeat requests the PAP servlet has outstanding at once.
+	 */
+	public static final String	PROP_PAP_HEARTBEAT_MAXINFLIGHT = "xacml.rest.pap.heartbeat.maxInFlight";
+	/**
+	 * The longest the PAP servlet waits between heartbeats to a PDP node that keeps failing. Failing
+	 * nodes are retried with an exponentially increasing interval up to this value.
+	 */
+	public static final String	PROP_PAP_HEARTBEAT_MAXBACKOFF = "xacml.rest.pap.heartbeat.maxBackoff";
+	/**
+	 * The number of threads the PAP servlet uses to send configuration updates to the PDP nodes and
+	 * change notifications to the Admin Consoles.
+	 */
+	public static final String	PROP_PAP_NOTIFICATION_THREADS = "xacml.rest.pap.notification.threads";
+	/**
+	 * The number of times the PAP servlet retries a PDP update or Admin Console notification that fails.
+	 */
+	public static final String	PROP_PAP_NOTIFICATION_RETRIES = "xacml.rest.pap.notification.retries";
+	/**
+	 * The time in milliseconds the PAP servlet waits before the first retry of a failed PDP update or
+	 * Admin Console notification. The wait doubles for each further retry.
+	 */
+	public static final String	PROP_PAP_NOTIFICATION_BACKOFF = "xacml.rest.pap.notification.backoff";
 	/*
 	 * Local path to  where the GIT repository exists.
 	 * 
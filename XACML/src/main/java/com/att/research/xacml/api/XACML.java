@@ -52,7 +52,7 @@ public class XACML {
 	/*
 	 * Full Identifiers from the URN components
 	 */
-	public static final Identifier ID_XACML				= new IdentifierImpl(URN_XACML);
+	public static final Identifier ID_XACML				= IdentifierImpl.intern(URN_XACML);
 	
 	/*
 	 * Data Type strings
@@ -76,19 +76,19 @@ public class XACML {
 	/*
 	 * Data Type identifiers
 	 */
-	public static final Identifier	ID_DATATYPE_STRING					= new IdentifierImpl(DATATYPE_STRING);
-	public static final Identifier	ID_DATATYPE_BOOLEAN					= new IdentifierImpl(DATATYPE_BOOLEAN);
-	public static final Identifier	ID_DATATYPE_INTEGER					= new IdentifierImpl(DATATYPE_INTEGER);
-	public static final Identifier	ID_DATATYPE_DOUBLE					= new IdentifierImpl(DATATYPE_DOUBLE);
-	public static final Identifier	ID_DATATYPE_TIME					= new IdentifierImpl(DATATYPE_TIME);
-	public static final Identifier	ID_DATATYPE_DATE					= new IdentifierImpl(DATATYPE_DATE);
-	public static final Identifier	ID_DATATYPE_DATETIME				= new IdentifierImpl(DATATYPE_DATETIME);
-	public static final Identifier	ID_DATATYPE_DAYTIMEDURATION			= new IdentifierImpl(DATATYPE_DAYTIMEDURATION);
-	public static final Identifier	ID_DATATYPE_YEARMONTHDURATION		= new IdentifierImpl(DATATYPE_YEARMONTHDURATION);
-	public static final Identifier	ID_DATATYPE_ANYURI					= new IdentifierImpl(DATATYPE_ANYURI);
-	public static final Identifier	ID_DATATYPE_HEXBINARY				= new IdentifierImpl(DATATYPE_HEXBINARY);
-	public static final Identifier	ID_DATATYPE_BASE64BINARY			= new IdentifierImpl(DATATYPE_BASE64BINARY);
+	public static final Identifier	ID_DATATYPE_STRING					= IdentifierImpl.intern(DATATYPE_STRING);
+	public static final Identifier	ID_DATATYPE_BOOLEAN					= IdentifierImpl.intern(DATATYPE_BOOLEAN);
+	public static final Identifier	ID_DATATYPE_INTEGER					= IdentifierImpl.intern(DATATYPE_INTEGER);
+	public static final Identifier	ID_DATATYPE_DOUBLE					= IdentifierImpl.intern(DATATYPE_DOUBLE);
+	public static final Identifier	ID_DATATYPE_TIME					= IdentifierImpl.intern(DATATYPE_TIME);
+	public static final Identifier	ID_DATATYPE_DATE					= IdentifierImpl.intern(DATATYPE_DATE);
+	public static final Identifier	ID_DATATYPE_DATETIME				= IdentifierImpl.intern(DATATYPE_DATETIME);
+	public static final Identifier	ID_DATATYPE_DAYTIMEDURATION			= IdentifierImpl.intern(DATATYPE_DAYTIMEDURATION);
+	public static final Identifier	ID_DATATYPE_YEARMONTHDURATION		= IdentifierImpl.intern(DATATYPE_YEARMONTHDURATION);
+	public static final Identifier	ID_DATATYPE_ANYURI					= IdentifierImpl.intern(DATATYPE_ANYURI);
+	public static final Identifier	ID_DATATYPE_HEXBINARY				= IdentifierImpl.intern(DATATYPE_HEXBINARY);
+	public static final Identifier	ID_DATATYPE_BASE64BINARY			= IdentifierImpl.intern(DATATYPE_BASE64BINARY);
 	
-	public static final Identifier	ID_DATATYPE_WD_DAYTIMEDURATION		= new IdentifierImpl(DATATYPE_WD_DAYTIMEDURATION);
-	public static final Identifier	ID_DATATYPE_WD_YEARMONTHDURATION	= new IdentifierImpl(DATATYPE_WD_YEARMONTHDURATION);
+	public static final Identifier	ID_DATATYPE_WD_DAYTIMEDURATION		= IdentifierImpl.intern(DATATYPE_WD_DAYTIMEDURATION);
+	public static final Identifier	ID_DATATYPE_WD_YEARMONTHDURATION	= IdentifierImpl.intern(DATATYPE_WD_YEARMONTHDURATION);
 }
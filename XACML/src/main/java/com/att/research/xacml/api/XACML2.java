@@ -33,19 +33,19 @@ public class XACML2 {
 	/*
 	 * 10.2.2 Identifier Prefixes
 	 */
-	public static final Identifier ID_XACML						= new IdentifierImpl(XACML.ID_XACML, VERSION_2_0);
-	public static final Identifier ID_CONFORMANCE_TEST			= new IdentifierImpl(ID_XACML, XACML.CONFORMANCE_TEST);
-	public static final Identifier ID_CONTEXT					= new IdentifierImpl(ID_XACML, XACML.CONTEXT);
-	public static final Identifier ID_EXAMPLE					= new IdentifierImpl(ID_XACML, XACML.EXAMPLE);
+	public static final Identifier ID_XACML						= IdentifierImpl.intern(XACML.ID_XACML, VERSION_2_0);
+	public static final Identifier ID_CONFORMANCE_TEST			= IdentifierImpl.intern(ID_XACML, XACML.CONFORMANCE_TEST);
+	public static final Identifier ID_CONTEXT					= IdentifierImpl.intern(ID_XACML, XACML.CONTEXT);
+	public static final Identifier ID_EXAMPLE					= IdentifierImpl.intern(ID_XACML, XACML.EXAMPLE);
 	public static final Identifier ID_FUNCTION10				= XACML1.ID_FUNCTION;
-	public static final Identifier ID_FUNCTION					= new IdentifierImpl(ID_XACML, XACML.FUNCTION);
-	public static final Identifier ID_POLICY					= new IdentifierImpl(ID_XACML, XACML.POLICY);
-	public static final Identifier ID_SUBJECT					= new IdentifierImpl(ID_XACML, XACML.SUBJECT);
-	public static final Identifier ID_SUBJECT_CATEGORY			= new IdentifierImpl(ID_XACML, XACML.SUBJECT_CATEGORY);
-	public static final Identifier ID_RESOURCE					= new IdentifierImpl(ID_XACML, XACML.RESOURCE);
-	public static final Identifier ID_ACTION					= new IdentifierImpl(ID_XACML, XACML.ACTION);
-	public static final Identifier ID_ACTIONS					= new IdentifierImpl(ID_XACML, XACML.ACTIONS);;
-	public static final Identifier ID_ENVIRONMENT				= new IdentifierImpl(ID_XACML, XACML.ENVIRONMENT);
+	public static final Identifier ID_FUNCTION					= IdentifierImpl.intern(ID_XACML, XACML.FUNCTION);
+	public static final Identifier ID_POLICY					= IdentifierImpl.intern(ID_XACML, XACML.POLICY);
+	public static final Identifier ID_SUBJECT					= IdentifierImpl.intern(ID_XACML, XACML.SUBJECT);
+	public static final Identifier ID_SUBJECT_CATEGORY			= IdentifierImpl.intern(ID_XACML, XACML.SUBJECT_CATEGORY);
+	public static final Identifier ID_RESOURCE					= IdentifierImpl.intern(ID_XACML, XACML.RESOURCE);
+	public static final Identifier ID_ACTION					= IdentifierImpl.intern(ID_XACML, XACML.ACTION);
+	public static final Identifier ID_ACTIONS					= IdentifierImpl.intern(ID_XACML, XACML.ACTIONS);;
+	public static final Identifier ID_ENVIRONMENT				= IdentifierImpl.intern(ID_XACML, XACML.ENVIRONMENT);
 	public static final Identifier ID_STATUS					= XACML1.ID_STATUS;
 	
 	/*
@@ -99,8 +99,8 @@ public class XACML2 {
     public static final Identifier ID_SUBJECT_CATEGORY_REQUESTING_MACHINE   = XACML1.ID_SUBJECT_CATEGORY_REQUESTING_MACHINE;
     public static final Identifier ID_RESOURCE_RESOURCE_LOCATION    		= XACML1.ID_RESOURCE_RESOURCE_LOCATION;
     public static final Identifier ID_RESOURCE_RESOURCE_ID  				= XACML1.ID_RESOURCE_RESOURCE_ID;
-    public static final Identifier ID_RESOURCE_TARGET_NAMESPACE				= new IdentifierImpl(ID_RESOURCE, "target-namespace");
-    public static final Identifier ID_RESOURCE_SCOPE        				= new IdentifierImpl(ID_RESOURCE, "scope");
+    public static final Identifier ID_RESOURCE_TARGET_NAMESPACE				= IdentifierImpl.intern(ID_RESOURCE, "target-namespace");
+    public static final Identifier ID_RESOURCE_SCOPE        				= IdentifierImpl.intern(ID_RESOURCE, "scope");
     public static final Identifier ID_RESOURCE_SIMPLE_FILE_NAME     		= XACML1.ID_RESOURCE_SIMPLE_FILE_NAME;
     public static final Identifier ID_ACTION_ACTION_ID      				= XACML1.ID_ACTION_ACTION_ID;
     public static final Identifier ID_ACTION_IMPLIED_ACTION 				= XACML1.ID_ACTION_IMPLIED_ACTION;
@@ -123,9 +123,9 @@ public class XACML2 {
 	public static final Identifier ID_DATATYPE_RFC822NAME			= XACML1.ID_DATATYPE_RFC822NAME;
 	public static final Identifier ID_DATATYPE_X500NAME				= XACML1.ID_DATATYPE_X500NAME;
 	
-	public static final Identifier ID_DATATYPE						= new IdentifierImpl(ID_XACML, XACML.DATA_TYPE);
-	public static final Identifier ID_DATATYPE_IPADDRESS			= new IdentifierImpl(ID_DATATYPE, "ipAddress");
-	public static final Identifier ID_DATATYPE_DNSNAME				= new IdentifierImpl(ID_DATATYPE, "dnsName");
+	public static final Identifier ID_DATATYPE						= IdentifierImpl.intern(ID_XACML, XACML.DATA_TYPE);
+	public static final Identifier ID_DATATYPE_IPADDRESS			= IdentifierImpl.intern(ID_DATATYPE, "ipAddress");
+	public static final Identifier ID_DATATYPE_DNSNAME				= IdentifierImpl.intern(ID_DATATYPE, "dnsName");
 	
 	/*
 	 * Section 10.2.8 Functions
@@ -189,7 +189,7 @@ public class XACML2 {
 	public static final Identifier ID_FUNCTION_TIME_GREATER_THAN_OR_EQUAL   		= XACML1.ID_FUNCTION_TIME_GREATER_THAN_OR_EQUAL;
 	public static final Identifier ID_FUNCTION_TIME_LESS_THAN       				= XACML1.ID_FUNCTION_TIME_LESS_THAN;
 	public static final Identifier ID_FUNCTION_TIME_LESS_THAN_OR_EQUAL      		= XACML1.ID_FUNCTION_TIME_LESS_THAN_OR_EQUAL;
-	public static final Identifier ID_FUNCTION_TIME_IN_RANGE						= new IdentifierImpl(ID_FUNCTION, "time-in-range");
+	public static final Identifier ID_FUNCTION_TIME_IN_RANGE						= IdentifierImpl.intern(ID_FUNCTION, "time-in-range");
 	public static final Identifier ID_FUNCTION_DATETIME_GREATER_THAN        		= XACML1.ID_FUNCTION_DATETIME_GREATER_THAN;
 	public static final Identifier ID_FUNCTION_DATETIME_GREATER_THAN_OR_EQUAL       = XACML1.ID_FUNCTION_DATETIME_GREATER_THAN_OR_EQUAL;
 	public static final Identifier ID_FUNCTION_DATETIME_LESS_THAN   				= XACML1.ID_FUNCTION_DATETIME_LESS_THAN;
@@ -254,16 +254,16 @@ public class XACML2 {
 	public static final Identifier ID_FUNCTION_RFC822NAME_BAG_SIZE  				= XACML1.ID_FUNCTION_RFC822NAME_BAG_SIZE;
 	public static final Identifier ID_FUNCTION_RFC822NAME_IS_IN     				= XACML1.ID_FUNCTION_RFC822NAME_IS_IN;
 	public static final Identifier ID_FUNCTION_RFC822NAME_BAG       				= XACML1.ID_FUNCTION_RFC822NAME_BAG;
-	public static final Identifier ID_FUNCTION_IPADDRESS_ONE_AND_ONLY      			= new IdentifierImpl(ID_FUNCTION, "ipAddress-one-and-only");
-	public static final Identifier ID_FUNCTION_IPADDRESS_BAG_SIZE  					= new IdentifierImpl(ID_FUNCTION, "ipAddress-bag-size");
-	public static final Identifier ID_FUNCTION_IPADDRESS_IS_IN     					= new IdentifierImpl(ID_FUNCTION, "ipAddress-is-in");
-	public static final Identifier ID_FUNCTION_IPADDRESS_BAG       					= new IdentifierImpl(ID_FUNCTION, "ipAddress-bag");
-	public static final Identifier ID_FUNCTION_DNSNAME_ONE_AND_ONLY      			= new IdentifierImpl(ID_FUNCTION, "dnsName-one-and-only");
-	public static final Identifier ID_FUNCTION_DNSNAME_BAG_SIZE  					= new IdentifierImpl(ID_FUNCTION, "dnsName-bag-size");
-	public static final Identifier ID_FUNCTION_DNSNAME_IS_IN     					= new IdentifierImpl(ID_FUNCTION, "dnsName-is-in");
-	public static final Identifier ID_FUNCTION_DNSNAME_BAG       					= new IdentifierImpl(ID_FUNCTION, "dnsName-bag");
-	public static final Identifier ID_FUNCTION_STRING_CONCATENATE					= new IdentifierImpl(ID_FUNCTION, "string-concatenate");
-	public static final Identifier ID_FUNCTION_STRING_URI_CONCATENATE				= new IdentifierImpl(ID_FUNCTION, "string-uri-concatenate");
+	public static final Identifier ID_FUNCTION_IPADDRESS_ONE_AND_ONLY      			= IdentifierImpl.intern(ID_FUNCTION, "ipAddress-one-and-only");
+	public static final Identifier ID_FUNCTION_IPADDRESS_BAG_SIZE  					= IdentifierImpl.intern(ID_FUNCTION, "ipAddress-bag-size");
+	public static final Identifier ID_FUNCTION_IPADDRESS_IS_IN     					= IdentifierImpl.intern(ID_FUNCTION, "ipAddress-is-in");
+	public static final Identifier ID_FUNCTION_IPADDRESS_BAG       					= IdentifierImpl.intern(ID_FUNCTION, "ipAddress-bag");
+	public static final Identifier ID_FUNCTION_DNSNAME_ONE_AND_ONLY      			= IdentifierImpl.intern(ID_FUNCTION, "dnsName-one-and-only");
+	public static final Identifier ID_FUNCTION_DNSNAME_BAG_SIZE  					= IdentifierImpl.intern(ID_FUNCTION, "dnsName-bag-size");
+	public static final Identifier ID_FUNCTION_DNSNAME_IS_IN     					= IdentifierImpl.intern(ID_FUNCTION, "dnsName-is-in");
+	public static final Identifier ID_FUNCTION_DNSNAME_BAG       					= IdentifierImpl.intern(ID_FUNCTION, "dnsName-bag");
+	public static final Identifier ID_FUNCTION_STRING_CONCATENATE					= IdentifierImpl.intern(ID_FUNCTION, "string-concatenate");
+	public static final Identifier ID_FUNCTION_STRING_URI_CONCATENATE				= IdentifierImpl.intern(ID_FUNCTION, "string-uri-concatenate");
 	public static final Identifier ID_FUNCTION_ANY_OF       						= XACML1.ID_FUNCTION_ANY_OF;
 	public static final Identifier ID_FUNCTION_ALL_OF       						= XACML1.ID_FUNCTION_ALL_OF;
 	public static final Identifier ID_FUNCTION_ANY_OF_ANY   						= XACML1.ID_FUNCTION_ANY_OF_ANY;
@@ -274,11 +274,11 @@ public class XACML2 {
 	public static final Identifier ID_FUNCTION_X500NAME_MATCH        				= XACML1.ID_FUNCTION_X500NAME_MATCH;
 	public static final Identifier ID_FUNCTION_RFC822NAME_MATCH      				= XACML1.ID_FUNCTION_RFC822NAME_MATCH;
 	public static final Identifier ID_FUNCTION_STRING_REGEXP_MATCH   						= XACML1.ID_FUNCTION_STRING_REGEXP_MATCH;
-	public static final Identifier ID_FUNCTION_ANYURI_REGEXP_MATCH							= new IdentifierImpl(ID_FUNCTION, "anyURI-regexp-match");
-	public static final Identifier ID_FUNCTION_IPADDRESS_REGEXP_MATCH						= new IdentifierImpl(ID_FUNCTION, "ipAddress-regexp-match");
-	public static final Identifier ID_FUNCTION_DNSNAME_REGEXP_MATCH							= new IdentifierImpl(ID_FUNCTION, "dnsName-regexp-match");
-	public static final Identifier ID_FUNCTION_RFC822NAME_REGEXP_MATCH						= new IdentifierImpl(ID_FUNCTION, "rfc822Name-regexp-match");
-	public static final Identifier ID_FUNCTION_X500NAME_REGEXP_MATCH							= new IdentifierImpl(ID_FUNCTION, "x500Name-regexp-match");
+	public static final Identifier ID_FUNCTION_ANYURI_REGEXP_MATCH							= IdentifierImpl.intern(ID_FUNCTION, "anyURI-regexp-match");
+	public static final Identifier ID_FUNCTION_IPADDRESS_REGEXP_MATCH						= IdentifierImpl.intern(ID_FUNCTION, "ipAddress-regexp-match");
+	public static final Identifier ID_FUNCTION_DNSNAME_REGEXP_MATCH							= IdentifierImpl.intern(ID_FUNCTION, "dnsName-regexp-match");
+	public static final Identifier ID_FUNCTION_RFC822NAME_REGEXP_MATCH						= IdentifierImpl.intern(ID_FUNCTION, "rfc822Name-regexp-match");
+	public static final Identifier ID_FUNCTION_X500NAME_REGEXP_MATCH							= IdentifierImpl.intern(ID_FUNCTION, "x500Name-regexp-match");
 // the following xpath-node functions are optional in 3.0 and are NOT included in this implementation.  See the Implementation Notes.
 //	public static final Identifier ID_FUNCTION_XPATH_NODE_COUNT      						= XACML1.ID_FUNCTION_XPATH_NODE_COUNT;
 //	public static final Identifier ID_FUNCTION_XPATH_NODE_EQUAL      						= XACML1.ID_FUNCTION_XPATH_NODE_EQUAL;
@@ -353,54 +353,54 @@ public class XACML2 {
 	public static final Identifier ID_FUNCTION_RFC822NAME_UNION      						= XACML1.ID_FUNCTION_RFC822NAME_UNION;
 	public static final Identifier ID_FUNCTION_RFC822NAME_SUBSET     						= XACML1.ID_FUNCTION_RFC822NAME_SUBSET;
 	public static final Identifier ID_FUNCTION_RFC822NAME_SET_EQUALS 						= XACML1.ID_FUNCTION_RFC822NAME_SET_EQUALS;
-	public static final Identifier ID_FUNCTION_IPADDRESS_INTERSECTION       				= new IdentifierImpl(ID_FUNCTION, "ipAddress-intersection");
-	public static final Identifier ID_FUNCTION_IPADDRESS_AT_LEAST_ONE_MEMBER_OF     		= new IdentifierImpl(ID_FUNCTION, "ipAddress-at-least-one-member-of");
-	public static final Identifier ID_FUNCTION_IPADDRESS_UNION      						= new IdentifierImpl(ID_FUNCTION, "ipAddress-union");
-	public static final Identifier ID_FUNCTION_IPADDRESS_SUBSET     						= new IdentifierImpl(ID_FUNCTION, "ipAddress-subset");
-	public static final Identifier ID_FUNCTION_IPADDRESS_SET_EQUALS 						= new IdentifierImpl(ID_FUNCTION, "ipAddress-set-equals");
-	public static final Identifier ID_FUNCTION_DNSNAME_INTERSECTION       					= new IdentifierImpl(ID_FUNCTION, "dnsName-intersection");
-	public static final Identifier ID_FUNCTION_DNSNAME_AT_LEAST_ONE_MEMBER_OF     			= new IdentifierImpl(ID_FUNCTION, "dnsName-at-least-one-member-of");
-	public static final Identifier ID_FUNCTION_DNSNAME_UNION      							= new IdentifierImpl(ID_FUNCTION, "dnsName-union");
-	public static final Identifier ID_FUNCTION_DNSNAME_SUBSET     							= new IdentifierImpl(ID_FUNCTION, "dnsName-subset");
-	public static final Identifier ID_FUNCTION_DNSNAME_SET_EQUALS 							= new IdentifierImpl(ID_FUNCTION, "dnsName-set-equals");
+	public static final Identifier ID_FUNCTION_IPADDRESS_INTERSECTION       				= IdentifierImpl.intern(ID_FUNCTION, "ipAddress-intersection");
+	public static final Identifier ID_FUNCTION_IPADDRESS_AT_LEAST_ONE_MEMBER_OF     		= IdentifierImpl.intern(ID_FUNCTION, "ipAddress-at-least-one-member-of");
+	public static final Identifier ID_FUNCTION_IPADDRESS_UNION      						= IdentifierImpl.intern(ID_FUNCTION, "ipAddress-union");
+	public static final Identifier ID_FUNCTION_IPADDRESS_SUBSET     						= IdentifierImpl.intern(ID_FUNCTION, "ipAddress-subset");
+	public static final Identifier ID_FUNCTION_IPADDRESS_SET_EQUALS 						= IdentifierImpl.intern(ID_FUNCTION, "ipAddress-set-equals");
+	public static final Identifier ID_FUNCTION_DNSNAME_INTERSECTION       					= IdentifierImpl.intern(ID_FUNCTION, "dnsName-intersection");
+	public static final Identifier ID_FUNCTION_DNSNAME_AT_LEAST_ONE_MEMBER_OF     			= IdentifierImpl.intern(ID_FUNCTION, "dnsName-at-least-one-member-of");
+	public static final Identifier ID_FUNCTION_DNSNAME_UNION      							= IdentifierImpl.intern(ID_FUNCTION, "dnsName-union");
+	public static final Identifier ID_FUNCTION_DNSNAME_SUBSET     							= IdentifierImpl.intern(ID_FUNCTION, "dnsName-subset");
+	public static final Identifier ID_FUNCTION_DNSNAME_SET_EQUALS 							= IdentifierImpl.intern(ID_FUNCTION, "dnsName-set-equals");
 
 	// deprecated in 3.0
-	public static final Identifier ID_FUNCTION_URI_STRING_CONCATENATE						= new IdentifierImpl(ID_FUNCTION, "uri-string-concatenate");
+	public static final Identifier ID_FUNCTION_URI_STRING_CONCATENATE						= IdentifierImpl.intern(ID_FUNCTION, "uri-string-concatenate");
 
 	/*
 	 * Profiles
 	 */
-	public static final Identifier ID_PROFILES	= new IdentifierImpl(ID_XACML, XACML.PROFILES);
-	public static final Identifier ID_PROFILE	= new IdentifierImpl(ID_XACML, XACML.PROFILE);
+	public static final Identifier ID_PROFILES	= IdentifierImpl.intern(ID_XACML, XACML.PROFILES);
+	public static final Identifier ID_PROFILE	= IdentifierImpl.intern(ID_XACML, XACML.PROFILE);
 	
 	/*
 	 * Core and hierarchical role based access control (RBAC) profile of XACML v2.0
 	 */
-	public static final Identifier ID_PROFILES_RBAC_CORE_HIERARCHICAL				= new IdentifierImpl(ID_PROFILES, "rbac:core-hierarchical");
-	public static final Identifier ID_SUBJECT_ROLE									= new IdentifierImpl(ID_SUBJECT, "role");
-    public static final Identifier ID_SUBJECT_CATEGORY_ROLE_ENABLEMENT_AUTHORITY	= new IdentifierImpl(ID_SUBJECT_CATEGORY, "role-enablement-authority");
-    public static final Identifier ID_ACTIONS_HASPRIVILEGESFROLE					= new IdentifierImpl(ID_ACTIONS, "hasPrivilegesOfRole");
-    public static final Identifier ID_ACTIONS_ENABLEROLE							= new IdentifierImpl(ID_ACTIONS, "enableRole");
+	public static final Identifier ID_PROFILES_RBAC_CORE_HIERARCHICAL				= IdentifierImpl.intern(ID_PROFILES, "rbac:core-hierarchical");
+	public static final Identifier ID_SUBJECT_ROLE									= IdentifierImpl.intern(ID_SUBJECT, "role");
+    public static final Identifier ID_SUBJECT_CATEGORY_ROLE_ENABLEMENT_AUTHORITY	= IdentifierImpl.intern(ID_SUBJECT_CATEGORY, "role-enablement-authority");
+    public static final Identifier ID_ACTIONS_HASPRIVILEGESFROLE					= IdentifierImpl.intern(ID_ACTIONS, "hasPrivilegesOfRole");
+    public static final Identifier ID_ACTIONS_ENABLEROLE							= IdentifierImpl.intern(ID_ACTIONS, "enableRole");
 
 	/*
 	 * Hierarchical resource profile of XACML v2.0
 	 */
-	public static final Identifier ID_PROFILE_HIERARCHICAL												= new IdentifierImpl(ID_PROFILE, "hierarchical");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_ID									= new IdentifierImpl(ID_PROFILE_HIERARCHICAL, "xml-node-id");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_ID								= new IdentifierImpl(ID_PROFILE_HIERARCHICAL, "non-xml-node-id");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_REQ									= new IdentifierImpl(ID_PROFILE_HIERARCHICAL, "xml-node-req");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_REQ_RESOURCE_PARENT					= new IdentifierImpl(ID_PROFILE_HIERARCHICAL_XML_NODE_REQ, "resource-parent");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_REQ_RESOURCE_ANCESTOR				= new IdentifierImpl(ID_PROFILE_HIERARCHICAL_XML_NODE_REQ, "resource-ancestor");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_REQ_RESOURCE_ANCESTOR_OR_SELF		= new IdentifierImpl(ID_PROFILE_HIERARCHICAL_XML_NODE_REQ, "resource-ancestor-or-self");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ								= new IdentifierImpl(ID_PROFILE_HIERARCHICAL, "non-xml-node-req");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ_RESOURCE_PARENT				= new IdentifierImpl(ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ, "resource-parent");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ_RESOURCE_ANCESTOR			= new IdentifierImpl(ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ, "resource-ancestor");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ_RESOURCE_ANCESTOR_OR_SELF	= new IdentifierImpl(ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ, "resource-ancestor-or-self");
+	public static final Identifier ID_PROFILE_HIERARCHICAL												= IdentifierImpl.intern(ID_PROFILE, "hierarchical");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_ID									= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL, "xml-node-id");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_ID								= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL, "non-xml-node-id");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_REQ									= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL, "xml-node-req");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_REQ_RESOURCE_PARENT					= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL_XML_NODE_REQ, "resource-parent");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_REQ_RESOURCE_ANCESTOR				= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL_XML_NODE_REQ, "resource-ancestor");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_REQ_RESOURCE_ANCESTOR_OR_SELF		= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL_XML_NODE_REQ, "resource-ancestor-or-self");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ								= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL, "non-xml-node-req");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ_RESOURCE_PARENT				= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ, "resource-parent");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ_RESOURCE_ANCESTOR			= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ, "resource-ancestor");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ_RESOURCE_ANCESTOR_OR_SELF	= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ, "resource-ancestor-or-self");
 
-	public static final Identifier ID_RESOURCE_DOCUMENT_ID					= new IdentifierImpl(ID_RESOURCE, "document-id");
-	public static final Identifier ID_RESOURCE_RESOURCE_PARENT				= new IdentifierImpl(ID_RESOURCE, "resource-parent");
-	public static final Identifier ID_RESOURCE_RESOURCE_ANCESTOR			= new IdentifierImpl(ID_RESOURCE, "resource-ancestor");
-	public static final Identifier ID_RESOURCE_RESOURCE_ANCESTOR_OR_SELF	= new IdentifierImpl(ID_RESOURCE, "resource-ancestor-or-self");
+	public static final Identifier ID_RESOURCE_DOCUMENT_ID					= IdentifierImpl.intern(ID_RESOURCE, "document-id");
+	public static final Identifier ID_RESOURCE_RESOURCE_PARENT				= IdentifierImpl.intern(ID_RESOURCE, "resource-parent");
+	public static final Identifier ID_RESOURCE_RESOURCE_ANCESTOR			= IdentifierImpl.intern(ID_RESOURCE, "resource-ancestor");
+	public static final Identifier ID_RESOURCE_RESOURCE_ANCESTOR_OR_SELF	= IdentifierImpl.intern(ID_RESOURCE, "resource-ancestor-or-self");
 	
 	/*
 	 * Privacy ppolicy profile of XACML v2.0
@@ -413,23 +413,23 @@ public class XACML2 {
 	/*
 	 * SAML 2.0 Profile of XACML, Version 2.0
 	 */
-	public static final Identifier ID_PROFILE_SAML2_0_V2									= new IdentifierImpl(ID_PROFILE, "saml2.0:v2");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_POLICIES							= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "policies");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_ADVICESAML							= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "adviceSAML");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZTOKEN							= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "authzToken");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_ATTRS_ALL							= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "attrs:all");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_SOAP								= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "SOAP");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_SOAP_AUTHZQUERY					= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_SOAP, "authzQuery");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_SOAP_ATTRASSERTION					= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_SOAP, "attrAssertion");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISION						= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "authzDecision");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISION_NOPOLICIES			= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_AUTHZDECISION, "noPolicies");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISION_WITHPOLICIES			= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_AUTHZDECISION, "withPolicies");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST				= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "authzDecisionWSTrust");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST_WITHPOLICIES	= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST, "withPolicies");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST_NOPOLICIES	= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST, "noPolicies");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_SCHEMA								= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "schema");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_SCHEMA_ASSERTION					= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_SCHEMA, "assertion");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_SCHEMA_PROTOCOL					= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_SCHEMA, "protocol");
+	public static final Identifier ID_PROFILE_SAML2_0_V2									= IdentifierImpl.intern(ID_PROFILE, "saml2.0:v2");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_POLICIES							= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "policies");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_ADVICESAML							= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "adviceSAML");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZTOKEN							= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "authzToken");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_ATTRS_ALL							= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "attrs:all");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_SOAP								= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "SOAP");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_SOAP_AUTHZQUERY					= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_SOAP, "authzQuery");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_SOAP_ATTRASSERTION					= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_SOAP, "attrAssertion");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISION						= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "authzDecision");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISION_NOPOLICIES			= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_AUTHZDECISION, "noPolicies");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISION_WITHPOLICIES			= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_AUTHZDECISION, "withPolicies");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST				= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "authzDecisionWSTrust");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST_WITHPOLICIES	= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST, "withPolicies");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST_NOPOLICIES	= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST, "noPolicies");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_SCHEMA								= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "schema");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_SCHEMA_ASSERTION					= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_SCHEMA, "assertion");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_SCHEMA_PROTOCOL					= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_SCHEMA, "protocol");
 	
 	/*
 	 * XML Digital Signature profile of XACML v2.0
@@ -444,7 +444,7 @@ public class XACML2 {
     /*
      * XACML v3.0 Privacy Policy Profile Version 1.0
      */
-	public static final Identifier ID_RESOURCE_PURPOSE	= new IdentifierImpl(ID_RESOURCE, "purpose");
-	public static final Identifier ID_ACTION_PURPOSE	= new IdentifierImpl(ID_ACTION, "purpose");
+	public static final Identifier ID_RESOURCE_PURPOSE	= IdentifierImpl.intern(ID_RESOURCE, "purpose");
+	public static final Identifier ID_ACTION_PURPOSE	= IdentifierImpl.intern(ID_ACTION, "purpose");
 	
 }
@@ -127,45 +127,45 @@ public class XACML3 {
 	 * 10.2.2 Identifier Prefixes
 	 */
 	public static final String VERSION							= "3.0";
-	public static final Identifier ID_XACML						= new IdentifierImpl(XACML.ID_XACML, VERSION);
+	public static final Identifier ID_XACML						= IdentifierImpl.intern(XACML.ID_XACML, VERSION);
 	public static final Identifier ID_CONFORMANCE_TEST			= XACML2.ID_CONFORMANCE_TEST;
 	public static final Identifier ID_CONTEXT					= XACML2.ID_CONTEXT;
 	public static final Identifier ID_EXAMPLE					= XACML2.ID_EXAMPLE;
 	public static final Identifier ID_FUNCTION10				= XACML1.ID_FUNCTION;
 	public static final Identifier ID_FUNCTION20				= XACML2.ID_FUNCTION;
-	public static final Identifier ID_FUNCTION					= new IdentifierImpl(ID_XACML, XACML.FUNCTION);
+	public static final Identifier ID_FUNCTION					= IdentifierImpl.intern(ID_XACML, XACML.FUNCTION);
 	public static final Identifier ID_POLICY					= XACML2.ID_POLICY;
 	public static final Identifier ID_SUBJECT					= XACML1.ID_SUBJECT;
 	public static final Identifier ID_RESOURCE					= XACML1.ID_RESOURCE;
 	public static final Identifier ID_ACTION					= XACML1.ID_ACTION;
 	public static final Identifier ID_ENVIRONMENT				= XACML1.ID_ENVIRONMENT;
 	public static final Identifier ID_STATUS					= XACML1.ID_STATUS;
-	public static final Identifier ID_ATTRIBUTE_CATEGORY		= new IdentifierImpl(ID_XACML, "attribute-category");
+	public static final Identifier ID_ATTRIBUTE_CATEGORY		= IdentifierImpl.intern(ID_XACML, "attribute-category");
 	
 	/*
 	 * 10.2.3 Algorithms
 	 */
-	public static final Identifier ID_RULE_COMBINING_ALGORITHM			= new IdentifierImpl(ID_XACML,"rule-combining-algorithm");
-	public static final Identifier ID_POLICY_COMBINING_ALGORITHM		= new IdentifierImpl(ID_XACML, "policy-combining-algorithm");
+	public static final Identifier ID_RULE_COMBINING_ALGORITHM			= IdentifierImpl.intern(ID_XACML,"rule-combining-algorithm");
+	public static final Identifier ID_POLICY_COMBINING_ALGORITHM		= IdentifierImpl.intern(ID_XACML, "policy-combining-algorithm");
 	
-	public static final Identifier ID_RULE_DENY_OVERRIDES				= new IdentifierImpl(ID_RULE_COMBINING_ALGORITHM, XACML1.DENY_OVERRIDES);
-	public static final Identifier ID_POLICY_DENY_OVERRIDES				= new IdentifierImpl(ID_POLICY_COMBINING_ALGORITHM, XACML1.DENY_OVERRIDES);
-	public static final Identifier ID_RULE_PERMIT_OVERRIDES				= new IdentifierImpl(ID_RULE_COMBINING_ALGORITHM, XACML1.PERMIT_OVERRIDES);
-	public static final Identifier ID_POLICY_PERMIT_OVERRIDES			= new IdentifierImpl(ID_POLICY_COMBINING_ALGORITHM, XACML1.PERMIT_OVERRIDES);
+	public static final Identifier ID_RULE_DENY_OVERRIDES				= IdentifierImpl.intern(ID_RULE_COMBINING_ALGORITHM, XACML1.DENY_OVERRIDES);
+	public static final Identifier ID_POLICY_DENY_OVERRIDES				= IdentifierImpl.intern(ID_POLICY_COMBINING_ALGORITHM, XACML1.DENY_OVERRIDES);
+	public static final Identifier ID_RULE_PERMIT_OVERRIDES				= IdentifierImpl.intern(ID_RULE_COMBINING_ALGORITHM, XACML1.PERMIT_OVERRIDES);
+	public static final Identifier ID_POLICY_PERMIT_OVERRIDES			= IdentifierImpl.intern(ID_POLICY_COMBINING_ALGORITHM, XACML1.PERMIT_OVERRIDES);
 	public static final Identifier ID_RULE_FIRST_APPLICABLE				= XACML1.ID_RULE_FIRST_APPLICABLE;
 	public static final Identifier ID_POLICY_FIRST_APPLICABLE			= XACML1.ID_POLICY_FIRST_APPLICABLE;
 	public static final Identifier ID_RULE_ONLY_ONE_APPLICABLE			= XACML1.ID_RULE_ONLY_ONE_APPLICABLE;
 	public static final Identifier ID_POLICY_ONLY_ONE_APPLICABLE		= XACML1.ID_POLICY_ONLY_ONE_APPLICABLE;
-	public static final Identifier ID_RULE_ORDERED_DENY_OVERRIDES		= new IdentifierImpl(ID_RULE_COMBINING_ALGORITHM, XACML1.ORDERED_DENY_OVERRIDES);
-	public static final Identifier ID_POLICY_ORDERED_DENY_OVERRIDES		= new IdentifierImpl(ID_POLICY_COMBINING_ALGORITHM, XACML1.ORDERED_DENY_OVERRIDES);
-	public static final Identifier ID_RULE_ORDERED_PERMIT_OVERRIDES		= new IdentifierImpl(ID_RULE_COMBINING_ALGORITHM, XACML1.ORDERED_PERMIT_OVERRIDES);
-	public static final Identifier ID_POLICY_ORDERED_PERMIT_OVERRIDES	= new IdentifierImpl(ID_POLICY_COMBINING_ALGORITHM, XACML1.ORDERED_PERMIT_OVERRIDES);
+	public static final Identifier ID_RULE_ORDERED_DENY_OVERRIDES		= IdentifierImpl.intern(ID_RULE_COMBINING_ALGORITHM, XACML1.ORDERED_DENY_OVERRIDES);
+	public static final Identifier ID_POLICY_ORDERED_DENY_OVERRIDES		= IdentifierImpl.intern(ID_POLICY_COMBINING_ALGORITHM, XACML1.ORDERED_DENY_OVERRIDES);
+	public static final Identifier ID_RULE_ORDERED_PERMIT_OVERRIDES		= IdentifierImpl.intern(ID_RULE_COMBINING_ALGORITHM, XACML1.ORDERED_PERMIT_OVERRIDES);
+	public static final Identifier ID_POLICY_ORDERED_PERMIT_OVERRIDES	= IdentifierImpl.intern(ID_POLICY_COMBINING_ALGORITHM, XACML1.ORDERED_PERMIT_OVERRIDES);
 	public static final String DENY_UNLESS_PERMIT						= "deny-unless-permit";
-	public static final Identifier ID_RULE_DENY_UNLESS_PERMIT			= new IdentifierImpl(ID_RULE_COMBINING_ALGORITHM, DENY_UNLESS_PERMIT);
-	public static final Identifier ID_POLICY_DENY_UNLESS_PERMIT			= new IdentifierImpl(ID_POLICY_COMBINING_ALGORITHM, DENY_UNLESS_PERMIT);
+	public static final Identifier ID_RULE_DENY_UNLESS_PERMIT			= IdentifierImpl.intern(ID_RULE_COMBINING_ALGORITHM, DENY_UNLESS_PERMIT);
+	public static final Identifier ID_POLICY_DENY_UNLESS_PERMIT			= IdentifierImpl.intern(ID_POLICY_COMBINING_ALGORITHM, DENY_UNLESS_PERMIT);
 	public static final String PERMIT_UNLESS_DENY						= "permit-unless-deny";
-	public static final Identifier ID_RULE_PERMIT_UNLESS_DENY			= new IdentifierImpl(ID_RULE_COMBINING_ALGORITHM, PERMIT_UNLESS_DENY);
-	public static final Identifier ID_POLICY_PERMIT_UNLESS_DENY			= new IdentifierImpl(ID_POLICY_COMBINING_ALGORITHM, PERMIT_UNLESS_DENY);
+	public static final Identifier ID_RULE_PERMIT_UNLESS_DENY			= IdentifierImpl.intern(ID_RULE_COMBINING_ALGORITHM, PERMIT_UNLESS_DENY);
+	public static final Identifier ID_POLICY_PERMIT_UNLESS_DENY			= IdentifierImpl.intern(ID_POLICY_COMBINING_ALGORITHM, PERMIT_UNLESS_DENY);
 	
 	public static final Identifier ID_RULE_LEGACY_DENY_OVERRIDES				= XACML1.ID_RULE_DENY_OVERRIDES;
 	public static final Identifier ID_POLICY_LEGACY_DENY_OVERRIDES				= XACML1.ID_POLICY_DENY_OVERRIDES;
@@ -217,9 +217,9 @@ public class XACML3 {
 	/*
 	 * There does not seem to be a place in the spec where the standard categories are defined, so I will put them here for now
 	 */
-	public static final Identifier ID_ATTRIBUTE_CATEGORY_RESOURCE		= new IdentifierImpl(ID_ATTRIBUTE_CATEGORY, XACML.RESOURCE);
-	public static final Identifier ID_ATTRIBUTE_CATEGORY_ACTION			= new IdentifierImpl(ID_ATTRIBUTE_CATEGORY, XACML.ACTION);
-	public static final Identifier ID_ATTRIBUTE_CATEGORY_ENVIRONMENT	= new IdentifierImpl(ID_ATTRIBUTE_CATEGORY, XACML.ENVIRONMENT);
+	public static final Identifier ID_ATTRIBUTE_CATEGORY_RESOURCE		= IdentifierImpl.intern(ID_ATTRIBUTE_CATEGORY, XACML.RESOURCE);
+	public static final Identifier ID_ATTRIBUTE_CATEGORY_ACTION			= IdentifierImpl.intern(ID_ATTRIBUTE_CATEGORY, XACML.ACTION);
+	public static final Identifier ID_ATTRIBUTE_CATEGORY_ENVIRONMENT	= IdentifierImpl.intern(ID_ATTRIBUTE_CATEGORY, XACML.ENVIRONMENT);
 
 
 	/*
@@ -242,8 +242,8 @@ public class XACML3 {
 	public static final Identifier ID_DATATYPE_IPADDRESS			= XACML2.ID_DATATYPE_IPADDRESS;
 	public static final Identifier ID_DATATYPE_DNSNAME				= XACML2.ID_DATATYPE_DNSNAME;
 	
-	public static final Identifier ID_DATATYPE						= new IdentifierImpl(ID_XACML, XACML.DATA_TYPE);
-	public static final Identifier ID_DATATYPE_XPATHEXPRESSION		= new IdentifierImpl(ID_DATATYPE, "xpathExpression");
+	public static final Identifier ID_DATATYPE						= IdentifierImpl.intern(ID_XACML, XACML.DATA_TYPE);
+	public static final Identifier ID_DATATYPE_XPATHEXPRESSION		= IdentifierImpl.intern(ID_DATATYPE, "xpathExpression");
 	
 	/*
 	 * Section 10.2.8 Functions
@@ -256,9 +256,9 @@ public class XACML3 {
 	public static final Identifier ID_FUNCTION_DATE_EQUAL   						= XACML1.ID_FUNCTION_DATE_EQUAL;
 	public static final Identifier ID_FUNCTION_TIME_EQUAL   						= XACML1.ID_FUNCTION_TIME_EQUAL;
 	public static final Identifier ID_FUNCTION_DATETIME_EQUAL       				= XACML1.ID_FUNCTION_DATETIME_EQUAL;
-	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_EQUAL        		= new IdentifierImpl(ID_FUNCTION, "dayTimeDuration-equal");
-	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_EQUAL      		= new IdentifierImpl(ID_FUNCTION, "yearMonthDuration-equal");
-	public static final Identifier ID_FUNCTION_STRING_EQUAL_IGNORE_CASE				= new IdentifierImpl(ID_FUNCTION, "string-equal-ignore-case");
+	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_EQUAL        		= IdentifierImpl.intern(ID_FUNCTION, "dayTimeDuration-equal");
+	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_EQUAL      		= IdentifierImpl.intern(ID_FUNCTION, "yearMonthDuration-equal");
+	public static final Identifier ID_FUNCTION_STRING_EQUAL_IGNORE_CASE				= IdentifierImpl.intern(ID_FUNCTION, "string-equal-ignore-case");
 	public static final Identifier ID_FUNCTION_ANYURI_EQUAL 						= XACML1.ID_FUNCTION_ANYURI_EQUAL;
 	public static final Identifier ID_FUNCTION_X500NAME_EQUAL       				= XACML1.ID_FUNCTION_X500NAME_EQUAL;
 	public static final Identifier ID_FUNCTION_RFC822NAME_EQUAL     				= XACML1.ID_FUNCTION_RFC822NAME_EQUAL;
@@ -294,12 +294,12 @@ public class XACML3 {
 	public static final Identifier ID_FUNCTION_DOUBLE_GREATER_THAN_OR_EQUAL 		= XACML1.ID_FUNCTION_DOUBLE_GREATER_THAN_OR_EQUAL;
 	public static final Identifier ID_FUNCTION_DOUBLE_LESS_THAN     				= XACML1.ID_FUNCTION_DOUBLE_LESS_THAN;
 	public static final Identifier ID_FUNCTION_DOUBLE_LESS_THAN_OR_EQUAL    		= XACML1.ID_FUNCTION_DOUBLE_LESS_THAN_OR_EQUAL;
-	public static final Identifier ID_FUNCTION_DATETIME_ADD_DAYTIMEDURATION 		= new IdentifierImpl(ID_FUNCTION, "dateTime-add-dayTimeDuration");
-	public static final Identifier ID_FUNCTION_DATETIME_ADD_YEARMONTHDURATION       = new IdentifierImpl(ID_FUNCTION, "dateTime-add-yearMonthDuration");
-	public static final Identifier ID_FUNCTION_DATETIME_SUBTRACT_DAYTIMEDURATION    = new IdentifierImpl(ID_FUNCTION, "dateTime-subtract-dayTimeDuration");
-	public static final Identifier ID_FUNCTION_DATETIME_SUBTRACT_YEARMONTHDURATION  = new IdentifierImpl(ID_FUNCTION, "dateTime-subtract-yearMonthDuration");
-	public static final Identifier ID_FUNCTION_DATE_ADD_YEARMONTHDURATION   		= new IdentifierImpl(ID_FUNCTION, "date-add-yearMonthDuration");
-	public static final Identifier ID_FUNCTION_DATE_SUBTRACT_YEARMONTHDURATION      = new IdentifierImpl(ID_FUNCTION, "date-subtract-yearMonthDuration");
+	public static final Identifier ID_FUNCTION_DATETIME_ADD_DAYTIMEDURATION 		= IdentifierImpl.intern(ID_FUNCTION, "dateTime-add-dayTimeDuration");
+	public static final Identifier ID_FUNCTION_DATETIME_ADD_YEARMONTHDURATION       = IdentifierImpl.intern(ID_FUNCTION, "dateTime-add-yearMonthDuration");
+	public static final Identifier ID_FUNCTION_DATETIME_SUBTRACT_DAYTIMEDURATION    = IdentifierImpl.intern(ID_FUNCTION, "dateTime-subtract-dayTimeDuration");
+	public static final Identifier ID_FUNCTION_DATETIME_SUBTRACT_YEARMONTHDURATION  = IdentifierImpl.intern(ID_FUNCTION, "dateTime-subtract-yearMonthDuration");
+	public static final Identifier ID_FUNCTION_DATE_ADD_YEARMONTHDURATION   		= IdentifierImpl.intern(ID_FUNCTION, "date-add-yearMonthDuration");
+	public static final Identifier ID_FUNCTION_DATE_SUBTRACT_YEARMONTHDURATION      = IdentifierImpl.intern(ID_FUNCTION, "date-subtract-yearMonthDuration");
 	public static final Identifier ID_FUNCTION_STRING_GREATER_THAN  				= XACML1.ID_FUNCTION_STRING_GREATER_THAN;
 	public static final Identifier ID_FUNCTION_STRING_GREATER_THAN_OR_EQUAL 		= XACML1.ID_FUNCTION_STRING_GREATER_THAN_OR_EQUAL;
 	public static final Identifier ID_FUNCTION_STRING_LESS_THAN     				= XACML1.ID_FUNCTION_STRING_LESS_THAN;
@@ -357,14 +357,14 @@ public class XACML3 {
 	public static final Identifier ID_FUNCTION_BASE64BINARY_BAG_SIZE        		= XACML1.ID_FUNCTION_BASE64BINARY_BAG_SIZE;
 	public static final Identifier ID_FUNCTION_BASE64BINARY_IS_IN   				= XACML1.ID_FUNCTION_BASE64BINARY_IS_IN;
 	public static final Identifier ID_FUNCTION_BASE64BINARY_BAG     				= XACML1.ID_FUNCTION_BASE64BINARY_BAG;
-	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_ONE_AND_ONLY 		= new IdentifierImpl(ID_FUNCTION, "dayTimeDuration-one-and-only");
-	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_BAG_SIZE     		= new IdentifierImpl(ID_FUNCTION, "dayTimeDuration-bag-size");
-	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_IS_IN        		= new IdentifierImpl(ID_FUNCTION, "dayTimeDuration-is-in");
-	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_BAG  				= new IdentifierImpl(ID_FUNCTION, "dayTimeDuration-bag");
-	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_ONE_AND_ONLY       = new IdentifierImpl(ID_FUNCTION, "yearMonthDuration-one-and-only");
-	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_BAG_SIZE   		= new IdentifierImpl(ID_FUNCTION, "yearMonthDuration-bag-size");
-	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_IS_IN      		= new IdentifierImpl(ID_FUNCTION, "yearMonthDuration-is-in");
-	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_BAG        		= new IdentifierImpl(ID_FUNCTION, "yearMonthDuration-bag");
+	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_ONE_AND_ONLY 		= IdentifierImpl.intern(ID_FUNCTION, "dayTimeDuration-one-and-only");
+	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_BAG_SIZE     		= IdentifierImpl.intern(ID_FUNCTION, "dayTimeDuration-bag-size");
+	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_IS_IN        		= IdentifierImpl.intern(ID_FUNCTION, "dayTimeDuration-is-in");
+	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_BAG  				= IdentifierImpl.intern(ID_FUNCTION, "dayTimeDuration-bag");
+	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_ONE_AND_ONLY       = IdentifierImpl.intern(ID_FUNCTION, "yearMonthDuration-one-and-only");
+	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_BAG_SIZE   		= IdentifierImpl.intern(ID_FUNCTION, "yearMonthDuration-bag-size");
+	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_IS_IN      		= IdentifierImpl.intern(ID_FUNCTION, "yearMonthDuration-is-in");
+	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_BAG        		= IdentifierImpl.intern(ID_FUNCTION, "yearMonthDuration-bag");
 	public static final Identifier ID_FUNCTION_X500NAME_ONE_AND_ONLY        		= XACML1.ID_FUNCTION_X500NAME_ONE_AND_ONLY;
 	public static final Identifier ID_FUNCTION_X500NAME_BAG_SIZE    				= XACML1.ID_FUNCTION_X500NAME_BAG_SIZE;
 	public static final Identifier ID_FUNCTION_X500NAME_IS_IN       				= XACML1.ID_FUNCTION_X500NAME_IS_IN;
@@ -382,47 +382,47 @@ public class XACML3 {
 	public static final Identifier ID_FUNCTION_DNSNAME_IS_IN     					= XACML2.ID_FUNCTION_DNSNAME_IS_IN;
 	public static final Identifier ID_FUNCTION_DNSNAME_BAG       					= XACML2.ID_FUNCTION_DNSNAME_BAG;
 	public static final Identifier ID_FUNCTION_STRING_CONCATENATE					= XACML2.ID_FUNCTION_STRING_CONCATENATE;
-	public static final Identifier ID_FUNCTION_BOOLEAN_FROM_STRING					= new IdentifierImpl(ID_FUNCTION, "boolean-from-string");
-	public static final Identifier ID_FUNCTION_STRING_FROM_BOOLEAN					= new IdentifierImpl(ID_FUNCTION, "string-from-boolean");
-	public static final Identifier ID_FUNCTION_INTEGER_FROM_STRING					= new IdentifierImpl(ID_FUNCTION, "integer-from-string");
-	public static final Identifier ID_FUNCTION_STRING_FROM_INTEGER					= new IdentifierImpl(ID_FUNCTION, "string-from-integer");
-	public static final Identifier ID_FUNCTION_DOUBLE_FROM_STRING					= new IdentifierImpl(ID_FUNCTION, "double-from-string");
-	public static final Identifier ID_FUNCTION_STRING_FROM_DOUBLE					= new IdentifierImpl(ID_FUNCTION, "string-from-double");
-	public static final Identifier ID_FUNCTION_TIME_FROM_STRING						= new IdentifierImpl(ID_FUNCTION, "time-from-string");
-	public static final Identifier ID_FUNCTION_STRING_FROM_TIME						= new IdentifierImpl(ID_FUNCTION, "string-from-time");
-	public static final Identifier ID_FUNCTION_DATE_FROM_STRING						= new IdentifierImpl(ID_FUNCTION, "date-from-string");
-	public static final Identifier ID_FUNCTION_STRING_FROM_DATE						= new IdentifierImpl(ID_FUNCTION, "string-from-date");
-	public static final Identifier ID_FUNCTION_DATETIME_FROM_STRING					= new IdentifierImpl(ID_FUNCTION, "dateTime-from-string");
-	public static final Identifier ID_FUNCTION_STRING_FROM_DATETIME					= new IdentifierImpl(ID_FUNCTION, "string-from-dateTime");
-	public static final Identifier ID_FUNCTION_ANYURI_FROM_STRING					= new IdentifierImpl(ID_FUNCTION, "anyURI-from-string");
-	public static final Identifier ID_FUNCTION_STRING_FROM_ANYURI					= new IdentifierImpl(ID_FUNCTION, "string-from-anyURI");
-	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_FROM_STRING			= new IdentifierImpl(ID_FUNCTION, "dayTimeDuration-from-string");
-	public static final Identifier ID_FUNCTION_STRING_FROM_DAYTIMEDURATION			= new IdentifierImpl(ID_FUNCTION, "string-from-dayTimeDuration");
-	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_FROM_STRING		= new IdentifierImpl(ID_FUNCTION, "yearMonthDuration-from-string");
-	public static final Identifier ID_FUNCTION_STRING_FROM_YEARMONTHDURATION		= new IdentifierImpl(ID_FUNCTION, "string-from-yearMonthDuration");
-	public static final Identifier ID_FUNCTION_X500NAME_FROM_STRING					= new IdentifierImpl(ID_FUNCTION, "x500Name-from-string");
-	public static final Identifier ID_FUNCTION_STRING_FROM_X500NAME					= new IdentifierImpl(ID_FUNCTION, "string-from-x500Name");
-	public static final Identifier ID_FUNCTION_RFC822NAME_FROM_STRING				= new IdentifierImpl(ID_FUNCTION, "rfc822Name-from-string");
-	public static final Identifier ID_FUNCTION_STRING_FROM_RFC822NAME				= new IdentifierImpl(ID_FUNCTION, "string-from-rfc822Name");
-	public static final Identifier ID_FUNCTION_IPADDRESS_FROM_STRING				= new IdentifierImpl(ID_FUNCTION, "ipAddress-from-string");
-	public static final Identifier ID_FUNCTION_STRING_FROM_IPADDRESS				= new IdentifierImpl(ID_FUNCTION, "string-from-ipAddress");
-	public static final Identifier ID_FUNCTION_DNSNAME_FROM_STRING					= new IdentifierImpl(ID_FUNCTION, "dnsName-from-string");
-	public static final Identifier ID_FUNCTION_STRING_FROM_DNSNAME					= new IdentifierImpl(ID_FUNCTION, "string-from-dnsName");
-	public static final Identifier ID_FUNCTION_STRING_STARTS_WITH					= new IdentifierImpl(ID_FUNCTION, "string-starts-with");
-	public static final Identifier ID_FUNCTION_ANYURI_STARTS_WITH					= new IdentifierImpl(ID_FUNCTION, "anyURI-starts-with");
-	public static final Identifier ID_FUNCTION_STRING_ENDS_WITH						= new IdentifierImpl(ID_FUNCTION, "string-ends-with");
-	public static final Identifier ID_FUNCTION_ANYURI_ENDS_WITH						= new IdentifierImpl(ID_FUNCTION, "anyURI-ends-with");
-	public static final Identifier ID_FUNCTION_STRING_CONTAINS						= new IdentifierImpl(ID_FUNCTION, "string-contains");
-	public static final Identifier ID_FUNCTION_ANYURI_CONTAINS						= new IdentifierImpl(ID_FUNCTION, "anyURI-contains");
-	public static final Identifier ID_FUNCTION_STRING_SUBSTRING						= new IdentifierImpl(ID_FUNCTION, "string-substring");
-	public static final Identifier ID_FUNCTION_ANYURI_SUBSTRING						= new IdentifierImpl(ID_FUNCTION, "anyURI-substring");
-	public static final Identifier ID_FUNCTION_ANY_OF       						= new IdentifierImpl(ID_FUNCTION, "any-of");
-	public static final Identifier ID_FUNCTION_ALL_OF       						= new IdentifierImpl(ID_FUNCTION, "all-of");
-	public static final Identifier ID_FUNCTION_ANY_OF_ANY   						= new IdentifierImpl(ID_FUNCTION, "any-of-any");
+	public static final Identifier ID_FUNCTION_BOOLEAN_FROM_STRING					= IdentifierImpl.intern(ID_FUNCTION, "boolean-from-string");
+	public static final Identifier ID_FUNCTION_STRING_FROM_BOOLEAN					= IdentifierImpl.intern(ID_FUNCTION, "string-from-boolean");
+	public static final Identifier ID_FUNCTION_INTEGER_FROM_STRING					= IdentifierImpl.intern(ID_FUNCTION, "integer-from-string");
+	public static final Identifier ID_FUNCTION_STRING_FROM_INTEGER					= IdentifierImpl.intern(ID_FUNCTION, "string-from-integer");
+	public static final Identifier ID_FUNCTION_DOUBLE_FROM_STRING					= IdentifierImpl.intern(ID_FUNCTION, "double-from-string");
+	public static final Identifier ID_FUNCTION_STRING_FROM_DOUBLE					= IdentifierImpl.intern(ID_FUNCTION, "string-from-double");
+	public static final Identifier ID_FUNCTION_TIME_FROM_STRING						= IdentifierImpl.intern(ID_FUNCTION, "time-from-string");
+	public static final Identifier ID_FUNCTION_STRING_FROM_TIME						= IdentifierImpl.intern(ID_FUNCTION, "string-from-time");
+	public static final Identifier ID_FUNCTION_DATE_FROM_STRING						= IdentifierImpl.intern(ID_FUNCTION, "date-from-string");
+	public static final Identifier ID_FUNCTION_STRING_FROM_DATE						= IdentifierImpl.intern(ID_FUNCTION, "string-from-date");
+	public static final Identifier ID_FUNCTION_DATETIME_FROM_STRING					= IdentifierImpl.intern(ID_FUNCTION, "dateTime-from-string");
+	public static final Identifier ID_FUNCTION_STRING_FROM_DATETIME					= IdentifierImpl.intern(ID_FUNCTION, "string-from-dateTime");
+	public static final Identifier ID_FUNCTION_ANYURI_FROM_STRING					= IdentifierImpl.intern(ID_FUNCTION, "anyURI-from-string");
+	public static final Identifier ID_FUNCTION_STRING_FROM_ANYURI					= IdentifierImpl.intern(ID_FUNCTION, "string-from-anyURI");
+	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_FROM_STRING			= IdentifierImpl.intern(ID_FUNCTION, "dayTimeDuration-from-string");
+	public static final Identifier ID_FUNCTION_STRING_FROM_DAYTIMEDURATION			= IdentifierImpl.intern(ID_FUNCTION, "string-from-dayTimeDuration");
+	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_FROM_STRING		= IdentifierImpl.intern(ID_FUNCTION, "yearMonthDuration-from-string");
+	public static final Identifier ID_FUNCTION_STRING_FROM_YEARMONTHDURATION		= IdentifierImpl.intern(ID_FUNCTION, "string-from-yearMonthDuration");
+	public static final Identifier ID_FUNCTION_X500NAME_FROM_STRING					= IdentifierImpl.intern(ID_FUNCTION, "x500Name-from-string");
+	public static final Identifier ID_FUNCTION_STRING_FROM_X500NAME					= IdentifierImpl.intern(ID_FUNCTION, "string-from-x500Name");
+	public static final Identifier ID_FUNCTION_RFC822NAME_FROM_STRING				= IdentifierImpl.intern(ID_FUNCTION, "rfc822Name-from-string");
+	public static final Identifier ID_FUNCTION_STRING_FROM_RFC822NAME				= IdentifierImpl.intern(ID_FUNCTION, "string-from-rfc822Name");
+	public static final Identifier ID_FUNCTION_IPADDRESS_FROM_STRING				= IdentifierImpl.intern(ID_FUNCTION, "ipAddress-from-string");
+	public static final Identifier ID_FUNCTION_STRING_FROM_IPADDRESS				= IdentifierImpl.intern(ID_FUNCTION, "string-from-ipAddress");
+	public static final Identifier ID_FUNCTION_DNSNAME_FROM_STRING					= IdentifierImpl.intern(ID_FUNCTION, "dnsName-from-string");
+	public static final Identifier ID_FUNCTION_STRING_FROM_DNSNAME					= IdentifierImpl.intern(ID_FUNCTION, "string-from-dnsName");
+	public static final Identifier ID_FUNCTION_STRING_STARTS_WITH					= IdentifierImpl.intern(ID_FUNCTION, "string-starts-with");
+	public static final Identifier ID_FUNCTION_ANYURI_STARTS_WITH					= IdentifierImpl.intern(ID_FUNCTION, "anyURI-starts-with");
+	public static final Identifier ID_FUNCTION_STRING_ENDS_WITH						= IdentifierImpl.intern(ID_FUNCTION, "string-ends-with");
+	public static final Identifier ID_FUNCTION_ANYURI_ENDS_WITH						= IdentifierImpl.intern(ID_FUNCTION, "anyURI-ends-with");
+	public static final Identifier ID_FUNCTION_STRING_CONTAINS						= IdentifierImpl.intern(ID_FUNCTION, "string-contains");
+	public static final Identifier ID_FUNCTION_ANYURI_CONTAINS						= IdentifierImpl.intern(ID_FUNCTION, "anyURI-contains");
+	public static final Identifier ID_FUNCTION_STRING_SUBSTRING						= IdentifierImpl.intern(ID_FUNCTION, "string-substring");
+	public static final Identifier ID_FUNCTION_ANYURI_SUBSTRING						= IdentifierImpl.intern(ID_FUNCTION, "anyURI-substring");
+	public static final Identifier ID_FUNCTION_ANY_OF       						= IdentifierImpl.intern(ID_FUNCTION, "any-of");
+	public static final Identifier ID_FUNCTION_ALL_OF       						= IdentifierImpl.intern(ID_FUNCTION, "all-of");
+	public static final Identifier ID_FUNCTION_ANY_OF_ANY   						= IdentifierImpl.intern(ID_FUNCTION, "any-of-any");
 	public static final Identifier ID_FUNCTION_ALL_OF_ANY   						= XACML1.ID_FUNCTION_ALL_OF_ANY;
 	public static final Identifier ID_FUNCTION_ANY_OF_ALL   						= XACML1.ID_FUNCTION_ANY_OF_ALL;
 	public static final Identifier ID_FUNCTION_ALL_OF_ALL   						= XACML1.ID_FUNCTION_ALL_OF_ALL;
-	public static final Identifier ID_FUNCTION_MAP  								= new IdentifierImpl(ID_FUNCTION, "map");
+	public static final Identifier ID_FUNCTION_MAP  								= IdentifierImpl.intern(ID_FUNCTION, "map");
 	public static final Identifier ID_FUNCTION_X500NAME_MATCH        				= XACML1.ID_FUNCTION_X500NAME_MATCH;
 	public static final Identifier ID_FUNCTION_RFC822NAME_MATCH      				= XACML1.ID_FUNCTION_RFC822NAME_MATCH;
 	public static final Identifier ID_FUNCTION_STRING_REGEXP_MATCH   				= XACML1.ID_FUNCTION_STRING_REGEXP_MATCH;
@@ -431,9 +431,9 @@ public class XACML3 {
 	public static final Identifier ID_FUNCTION_DNSNAME_REGEXP_MATCH					= XACML2.ID_FUNCTION_DNSNAME_REGEXP_MATCH;
 	public static final Identifier ID_FUNCTION_RFC822NAME_REGEXP_MATCH				= XACML2.ID_FUNCTION_RFC822NAME_REGEXP_MATCH;
 	public static final Identifier ID_FUNCTION_X500NAME_REGEXP_MATCH				= XACML2.ID_FUNCTION_X500NAME_REGEXP_MATCH;
-	public static final Identifier ID_FUNCTION_XPATH_NODE_COUNT      				= new IdentifierImpl(ID_FUNCTION, "xpath-node-count");
-	public static final Identifier ID_FUNCTION_XPATH_NODE_EQUAL      				= new IdentifierImpl(ID_FUNCTION, "xpath-node-equal");
-	public static final Identifier ID_FUNCTION_XPATH_NODE_MATCH      				= new IdentifierImpl(ID_FUNCTION, "xpath-node-match");
+	public static final Identifier ID_FUNCTION_XPATH_NODE_COUNT      				= IdentifierImpl.intern(ID_FUNCTION, "xpath-node-count");
+	public static final Identifier ID_FUNCTION_XPATH_NODE_EQUAL      				= IdentifierImpl.intern(ID_FUNCTION, "xpath-node-equal");
+	public static final Identifier ID_FUNCTION_XPATH_NODE_MATCH      				= IdentifierImpl.intern(ID_FUNCTION, "xpath-node-match");
 	public static final Identifier ID_FUNCTION_STRING_INTERSECTION   				= XACML1.ID_FUNCTION_STRING_INTERSECTION;
 	public static final Identifier ID_FUNCTION_STRING_AT_LEAST_ONE_MEMBER_OF 		= XACML1.ID_FUNCTION_STRING_AT_LEAST_ONE_MEMBER_OF;
 	public static final Identifier ID_FUNCTION_STRING_UNION  						= XACML1.ID_FUNCTION_STRING_UNION;
@@ -484,16 +484,16 @@ public class XACML3 {
 	public static final Identifier ID_FUNCTION_BASE64BINARY_UNION    				= XACML1.ID_FUNCTION_BASE64BINARY_UNION;
 	public static final Identifier ID_FUNCTION_BASE64BINARY_SUBSET   				= XACML1.ID_FUNCTION_BASE64BINARY_SUBSET;
 	public static final Identifier ID_FUNCTION_BASE64BINARY_SET_EQUALS       		= XACML1.ID_FUNCTION_BASE64BINARY_SET_EQUALS;
-	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_INTERSECTION  			= new IdentifierImpl(ID_FUNCTION, "dayTimeDuration-intersection");
-	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_AT_LEAST_ONE_MEMBER_OF	= new IdentifierImpl(ID_FUNCTION, "dayTimeDuration-at-least-one-member-of");
-	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_UNION 					= new IdentifierImpl(ID_FUNCTION, "dayTimeDuration-union");
-	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_SUBSET        			= new IdentifierImpl(ID_FUNCTION, "dayTimeDuration-subset");
-	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_SET_EQUALS    			= new IdentifierImpl(ID_FUNCTION, "dayTimeDuration-set-equals");
-	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_INTERSECTION        	= new IdentifierImpl(ID_FUNCTION, "yearMonthDuration-intersection");
-	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_AT_LEAST_ONE_MEMBER_OF = new IdentifierImpl(ID_FUNCTION, "yearMonthDuration-at-least-one-member-of");
-	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_UNION       			= new IdentifierImpl(ID_FUNCTION, "yearMonthDuration-union");
-	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_SUBSET      			= new IdentifierImpl(ID_FUNCTION, "yearMonthDuration-subset");
-	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_SET_EQUALS  			= new IdentifierImpl(ID_FUNCTION, "yearMonthDuration-set-equals");
+	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_INTERSECTION  			= IdentifierImpl.intern(ID_FUNCTION, "dayTimeDuration-intersection");
+	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_AT_LEAST_ONE_MEMBER_OF	= IdentifierImpl.intern(ID_FUNCTION, "dayTimeDuration-at-least-one-member-of");
+	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_UNION 					= IdentifierImpl.intern(ID_FUNCTION, "dayTimeDuration-union");
+	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_SUBSET        			= IdentifierImpl.intern(ID_FUNCTION, "dayTimeDuration-subset");
+	public static final Identifier ID_FUNCTION_DAYTIMEDURATION_SET_EQUALS    			= IdentifierImpl.intern(ID_FUNCTION, "dayTimeDuration-set-equals");
+	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_INTERSECTION        	= IdentifierImpl.intern(ID_FUNCTION, "yearMonthDuration-intersection");
+	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_AT_LEAST_ONE_MEMBER_OF = IdentifierImpl.intern(ID_FUNCTION, "yearMonthDuration-at-least-one-member-of");
+	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_UNION       			= IdentifierImpl.intern(ID_FUNCTION, "yearMonthDuration-union");
+	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_SUBSET      			= IdentifierImpl.intern(ID_FUNCTION, "yearMonthDuration-subset");
+	public static final Identifier ID_FUNCTION_YEARMONTHDURATION_SET_EQUALS  			= IdentifierImpl.intern(ID_FUNCTION, "yearMonthDuration-set-equals");
 	public static final Identifier ID_FUNCTION_X500NAME_INTERSECTION 					= XACML1.ID_FUNCTION_X500NAME_INTERSECTION;
 	public static final Identifier ID_FUNCTION_X500NAME_AT_LEAST_ONE_MEMBER_OF       	= XACML1.ID_FUNCTION_X500NAME_AT_LEAST_ONE_MEMBER_OF;
 	public static final Identifier ID_FUNCTION_X500NAME_UNION        					= XACML1.ID_FUNCTION_X500NAME_UNION;
@@ -514,62 +514,62 @@ public class XACML3 {
 	public static final Identifier ID_FUNCTION_DNSNAME_UNION      						= XACML2.ID_FUNCTION_DNSNAME_UNION;
 	public static final Identifier ID_FUNCTION_DNSNAME_SUBSET     						= XACML2.ID_FUNCTION_DNSNAME_SUBSET;
 	public static final Identifier ID_FUNCTION_DNSNAME_SET_EQUALS 						= XACML2.ID_FUNCTION_DNSNAME_SET_EQUALS;
-	public static final Identifier ID_FUNCTION_ACCESS_PERMITTED							 = new IdentifierImpl(ID_FUNCTION, "access-permitted");
+	public static final Identifier ID_FUNCTION_ACCESS_PERMITTED							 = IdentifierImpl.intern(ID_FUNCTION, "access-permitted");
 	
 	
 	/*
 	 * Profiles
 	 */
-	public static final Identifier ID_PROFILE							= new IdentifierImpl(ID_XACML, XACML.PROFILE);
-	public static final Identifier ID_PROFILES							= new IdentifierImpl(ID_XACML, XACML.PROFILES);
+	public static final Identifier ID_PROFILE							= IdentifierImpl.intern(ID_XACML, XACML.PROFILE);
+	public static final Identifier ID_PROFILES							= IdentifierImpl.intern(ID_XACML, XACML.PROFILES);
 	
 	/*
 	 * XACML v3.0 Administration and Delegation Profile Version 1.0 
 	 */
-	public static final Identifier ID_PROFILE_ADMINISTRATION_REDUCTION		= new IdentifierImpl(ID_PROFILE, "administration:reduction");
-	public static final Identifier ID_DELEGATION							= new IdentifierImpl(ID_XACML, "delegation");
-	public static final Identifier ID_DELEGATION_DECISION					= new IdentifierImpl(ID_DELEGATION, "decision");
-	public static final Identifier ID_ATTRIBUTE_CATEGORY_DELEGATE			= new IdentifierImpl(ID_ATTRIBUTE_CATEGORY, "delegate");
-	public static final Identifier ID_ATTRIBUTE_CATEGORY_DELEGATION_INFO	= new IdentifierImpl(ID_ATTRIBUTE_CATEGORY, "delegation-info");
-	public static final Identifier ID_ATTRIBUTE_CATEGORY_DELEGATED			= new IdentifierImpl(ID_ATTRIBUTE_CATEGORY, "delegated");
+	public static final Identifier ID_PROFILE_ADMINISTRATION_REDUCTION		= IdentifierImpl.intern(ID_PROFILE, "administration:reduction");
+	public static final Identifier ID_DELEGATION							= IdentifierImpl.intern(ID_XACML, "delegation");
+	public static final Identifier ID_DELEGATION_DECISION					= IdentifierImpl.intern(ID_DELEGATION, "decision");
+	public static final Identifier ID_ATTRIBUTE_CATEGORY_DELEGATE			= IdentifierImpl.intern(ID_ATTRIBUTE_CATEGORY, "delegate");
+	public static final Identifier ID_ATTRIBUTE_CATEGORY_DELEGATION_INFO	= IdentifierImpl.intern(ID_ATTRIBUTE_CATEGORY, "delegation-info");
+	public static final Identifier ID_ATTRIBUTE_CATEGORY_DELEGATED			= IdentifierImpl.intern(ID_ATTRIBUTE_CATEGORY, "delegated");
 	
 	/*
 	 * SAML 2.0 Profile of XACML, Version 2.0
 	 */
-	public static final Identifier ID_PROFILE_SAML2_0_V2									= new IdentifierImpl(ID_PROFILE, "saml2.0:v2");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_POLICIES							= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "policies");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_ADVICESAML							= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "adviceSAML");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZTOKEN							= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "authzToken");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_ATTRS_ALL							= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "attrs:all");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_SOAP								= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "SOAP");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_SOAP_AUTHZQUERY					= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_SOAP, "authzQuery");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_SOAP_ATTRASSERTION					= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_SOAP, "attrAssertion");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISION						= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "authzDecision");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISION_NOPOLICIES			= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_AUTHZDECISION, "noPolicies");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISION_WITHPOLICIES			= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_AUTHZDECISION, "withPolicies");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST				= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "authzDecisionWSTrust");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST_WITHPOLICIES	= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST, "withPolicies");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST_NOPOLICIES	= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST, "noPolicies");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_SCHEMA								= new IdentifierImpl(ID_PROFILE_SAML2_0_V2, "schema");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_SCHEMA_ASSERTION					= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_SCHEMA, "assertion");
-	public static final Identifier ID_PROFILE_SAML2_0_V2_SCHEMA_PROTOCOL					= new IdentifierImpl(ID_PROFILE_SAML2_0_V2_SCHEMA, "protocol");
+	public static final Identifier ID_PROFILE_SAML2_0_V2									= IdentifierImpl.intern(ID_PROFILE, "saml2.0:v2");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_POLICIES							= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "policies");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_ADVICESAML							= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "adviceSAML");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZTOKEN							= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "authzToken");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_ATTRS_ALL							= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "attrs:all");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_SOAP								= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "SOAP");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_SOAP_AUTHZQUERY					= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_SOAP, "authzQuery");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_SOAP_ATTRASSERTION					= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_SOAP, "attrAssertion");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISION						= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "authzDecision");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISION_NOPOLICIES			= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_AUTHZDECISION, "noPolicies");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISION_WITHPOLICIES			= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_AUTHZDECISION, "withPolicies");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST				= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "authzDecisionWSTrust");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST_WITHPOLICIES	= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST, "withPolicies");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST_NOPOLICIES	= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_AUTHZDECISIONWSTRUST, "noPolicies");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_SCHEMA								= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2, "schema");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_SCHEMA_ASSERTION					= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_SCHEMA, "assertion");
+	public static final Identifier ID_PROFILE_SAML2_0_V2_SCHEMA_PROTOCOL					= IdentifierImpl.intern(ID_PROFILE_SAML2_0_V2_SCHEMA, "protocol");
 
 	/*
 	 * XACML v3.0 Hierarchical Resource Profile Version 1.0
 	 */
-	public static final Identifier ID_PROFILE_HIERARCHICAL							= new IdentifierImpl(ID_PROFILE, "hierarchical");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_ATTRIBUTE_NODE_ID		= new IdentifierImpl(ID_PROFILE_HIERARCHICAL, "attribute-node-id");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_ID				= new IdentifierImpl(ID_PROFILE_HIERARCHICAL, "xml-node-id");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_URI_NODE_ID				= new IdentifierImpl(ID_PROFILE_HIERARCHICAL, "URI-node-id");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_URI_REFERENCE_NODE_ID	= new IdentifierImpl(ID_PROFILE_HIERARCHICAL, "URI-reference-node-id");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_ID			= new IdentifierImpl(ID_PROFILE_HIERARCHICAL, "non-xml-node-id");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_REQ				= new IdentifierImpl(ID_PROFILE_HIERARCHICAL, "xml-node-req");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ			= new IdentifierImpl(ID_PROFILE_HIERARCHICAL, "non-xml-node-req");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ_RESOURCE_PARENT				= new IdentifierImpl(ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ, "resource-parent");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ_RESOURCE_ANCESTOR			= new IdentifierImpl(ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ, "resource-ancestor");
-	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ_RESOURCE_ANCESTOR_OR_SELF	= new IdentifierImpl(ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ, "resource-ancestor-or-self");
+	public static final Identifier ID_PROFILE_HIERARCHICAL							= IdentifierImpl.intern(ID_PROFILE, "hierarchical");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_ATTRIBUTE_NODE_ID		= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL, "attribute-node-id");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_ID				= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL, "xml-node-id");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_URI_NODE_ID				= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL, "URI-node-id");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_URI_REFERENCE_NODE_ID	= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL, "URI-reference-node-id");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_ID			= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL, "non-xml-node-id");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_XML_NODE_REQ				= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL, "xml-node-req");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ			= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL, "non-xml-node-req");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ_RESOURCE_PARENT				= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ, "resource-parent");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ_RESOURCE_ANCESTOR			= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ, "resource-ancestor");
+	public static final Identifier ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ_RESOURCE_ANCESTOR_OR_SELF	= IdentifierImpl.intern(ID_PROFILE_HIERARCHICAL_NON_XML_NODE_REQ, "resource-ancestor-or-self");
 	
-	public static final Identifier ID_CONTENT_SELECTOR						= new IdentifierImpl(ID_XACML, "content-selector");
+	public static final Identifier ID_CONTENT_SELECTOR						= IdentifierImpl.intern(ID_XACML, "content-selector");
 	public static final Identifier ID_RESOURCE_DOCUMENT_ID					= XACML2.ID_RESOURCE_DOCUMENT_ID;
 	public static final Identifier ID_RESOURCE_RESOURCE_PARENT				= XACML2.ID_RESOURCE_RESOURCE_PARENT;
 	public static final Identifier ID_RESOURCE_RESOURCE_ANCESTOR			= XACML2.ID_RESOURCE_RESOURCE_ANCESTOR;
@@ -578,20 +578,20 @@ public class XACML3 {
 	/*
 	 * XACML v3.0 Multiple Decision Profile Version 1.0
 	 */
-	public static final Identifier ID_PROFILE_MULTIPLE									= new IdentifierImpl(ID_PROFILE, "multiple");
-	public static final Identifier ID_PROFILE_MULTIPLE_SCOPE							= new IdentifierImpl(ID_PROFILE_MULTIPLE, "scope");
-	public static final Identifier ID_PROFILE_MULTIPLE_XPATH_EXPRESSION					= new IdentifierImpl(ID_PROFILE_MULTIPLE, "xpath-expression");
-	public static final Identifier ID_PROFILE_MULTIPLE_REPEATED_ATTRIBUTE_CATEGORIES	= new IdentifierImpl(ID_PROFILE_MULTIPLE, "repeated-attribute-categories");
-	public static final Identifier ID_PROFILE_MULTIPLE_REFERENCE						= new IdentifierImpl(ID_PROFILE_MULTIPLE, "reference");
-	public static final Identifier ID_PROFILE_MULTIPLE_COMBINED_DECISION				= new IdentifierImpl(ID_PROFILE_MULTIPLE, "combined-decision");
+	public static final Identifier ID_PROFILE_MULTIPLE									= IdentifierImpl.intern(ID_PROFILE, "multiple");
+	public static final Identifier ID_PROFILE_MULTIPLE_SCOPE							= IdentifierImpl.intern(ID_PROFILE_MULTIPLE, "scope");
+	public static final Identifier ID_PROFILE_MULTIPLE_XPATH_EXPRESSION					= IdentifierImpl.intern(ID_PROFILE_MULTIPLE, "xpath-expression");
+	public static final Identifier ID_PROFILE_MULTIPLE_REPEATED_ATTRIBUTE_CATEGORIES	= IdentifierImpl.intern(ID_PROFILE_MULTIPLE, "repeated-attribute-categories");
+	public static final Identifier ID_PROFILE_MULTIPLE_REFERENCE						= IdentifierImpl.intern(ID_PROFILE_MULTIPLE, "reference");
+	public static final Identifier ID_PROFILE_MULTIPLE_COMBINED_DECISION				= IdentifierImpl.intern(ID_PROFILE_MULTIPLE, "combined-decision");
 	
-	public static final Identifier ID_MULTIPLE_CONTENT_SELECTOR							= new IdentifierImpl(ID_XACML, "multiple:content-selector");
+	public static final Identifier ID_MULTIPLE_CONTENT_SELECTOR							= IdentifierImpl.intern(ID_XACML, "multiple:content-selector");
     public static final Identifier ID_RESOURCE_SCOPE									= XACML2.ID_RESOURCE_SCOPE;
     
     /*
      * XACML v3.0 Core and Hierarchical Role Based Access Control (RBAC) Profile Version 1.0
      */
-    public static final Identifier ID_PROFILES_RBAC_CORE_HIERARCHICAL				= new IdentifierImpl(ID_PROFILES, "rback:core-hierarchical");
+    public static final Identifier ID_PROFILES_RBAC_CORE_HIERARCHICAL				= IdentifierImpl.intern(ID_PROFILES, "rback:core-hierarchical");
     public static final Identifier ID_SUBJECT_ROLE									= XACML2.ID_SUBJECT_ROLE;
     public static final Identifier ID_SUBJECT_CATEGORY_ROLE_ENABLEMENT_AUTHORITY	= XACML2.ID_SUBJECT_CATEGORY_ROLE_ENABLEMENT_AUTHORITY;  
     public static final Identifier ID_ACTIONS_HASPRIVILEGESOFROLE					= XACML2.ID_ACTIONS_HASPRIVILEGESFROLE;
@@ -610,69 +610,69 @@ public class XACML3 {
     /*
      * XACML Intellectual Property Control (IPC) Profile Version 1.0
      */
-    public static final Identifier ID_IPC															= new IdentifierImpl(ID_XACML, "ipc");
-    public static final Identifier ID_IPC_RESOURCE													= new IdentifierImpl(ID_IPC, XACML.RESOURCE);
-    public static final Identifier ID_IPC_RESOURCE_COPYRIGHT										= new IdentifierImpl(ID_IPC_RESOURCE, "copyright");
-    public static final Identifier ID_IPC_RESOURCE_PATENT											= new IdentifierImpl(ID_IPC_RESOURCE, "patent");
-    public static final Identifier ID_IPC_RESOURCE_PROPRIETARY										= new IdentifierImpl(ID_IPC_RESOURCE, "proprietary");
-    public static final Identifier ID_IPC_RESOURCE_PUBLIC_DOMAIN									= new IdentifierImpl(ID_IPC_RESOURCE, "public-domain");
-    public static final Identifier ID_IPC_RESOURCE_TRADEMARK										= new IdentifierImpl(ID_IPC_RESOURCE, "trademark");
-    public static final Identifier ID_IPC_RESOURCE_IP_OWNER											= new IdentifierImpl(ID_IPC_RESOURCE, "ip-owner");
-    public static final Identifier ID_IPC_RESOURCE_IP_LICENSEE										= new IdentifierImpl(ID_IPC_RESOURCE, "ip-licensee");
-    public static final Identifier ID_IPC_RESOURCE_AGREEMENT_TYPE									= new IdentifierImpl(ID_IPC_RESOURCE, "agreement-type");
-    public static final Identifier ID_IPC_RESOURCE_AGREEMENT_ID										= new IdentifierImpl(ID_IPC_RESOURCE, "agreement-id");
-    public static final Identifier ID_IPC_RESOURCE_VALID_AGREEMENT_EXISTS							= new IdentifierImpl(ID_IPC_RESOURCE, "valid-agreement-exists");
-    public static final Identifier ID_IPC_RESOURCE_NUMBER_OF_VALID_AGREEMENTS						= new IdentifierImpl(ID_IPC_RESOURCE, "number-of-valid-agreements");
-    public static final Identifier ID_IPC_RESOURCE_WORK_EFFORT										= new IdentifierImpl(ID_IPC_RESOURCE, "work-effort");
-    public static final Identifier ID_IPC_RESOURCE_AUTHORIZED_END_USE								= new IdentifierImpl(ID_IPC_RESOURCE, "authorized-end-use");    
-    public static final Identifier ID_IPC_RESOURCE_AUTHORIZED_END_USE_DESIGN						= new IdentifierImpl(ID_IPC_RESOURCE_AUTHORIZED_END_USE, "design");
-    public static final Identifier ID_IPC_RESOURCE_AUTHORIZED_END_USE_MANUFACTURE					= new IdentifierImpl(ID_IPC_RESOURCE_AUTHORIZED_END_USE, "manufacture");
-    public static final Identifier ID_IPC_RESOURCE_AUTHORIZED_END_USE_MAINTENANCE					= new IdentifierImpl(ID_IPC_RESOURCE_AUTHORIZED_END_USE, "maintenance");
-    public static final Identifier ID_IPC_RESOURCE_EFFECTIVE_DATE									= new IdentifierImpl(ID_IPC_RESOURCE, "effective-date");
-    public static final Identifier ID_IPC_RESOURCE_EXPIRATION_DATE									= new IdentifierImpl(ID_IPC_RESOURCE, "expiration-date");
-    public static final Identifier ID_IPC_SUBJECT													= new IdentifierImpl(ID_IPC, XACML.SUBJECT);
-    public static final Identifier ID_IPC_SUBJECT_SUBJECT_ID										= new IdentifierImpl(ID_IPC_SUBJECT, "subject-id");
-    public static final Identifier ID_IPC_SUBJECT_ORGANIZATION										= new IdentifierImpl(ID_IPC_SUBJECT, "organization");
-    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT									= new IdentifierImpl(ID_IPC_SUBJECT, "business-context");
-    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT_CUSTOMER							= new IdentifierImpl(ID_IPC_SUBJECT_BUSINESS_CONTEXT, "customer");
-    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT_SUPPLIER							= new IdentifierImpl(ID_IPC_SUBJECT_BUSINESS_CONTEXT, "suppler");
-    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT_PARTNER							= new IdentifierImpl(ID_IPC_SUBJECT_BUSINESS_CONTEXT, "partner");
-    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT_PRIMARY_CONTRACTOR				= new IdentifierImpl(ID_IPC_SUBJECT_BUSINESS_CONTEXT, "primary-contractor");
-    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT_SUBCONTRACTOR					= new IdentifierImpl(ID_IPC_SUBJECT_BUSINESS_CONTEXT, "subcontractor");
-    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT_AUTHORIZED_SUBLICENSOR			= new IdentifierImpl(ID_IPC_SUBJECT_BUSINESS_CONTEXT, "authorized-sublicensor");
-    public static final Identifier ID_IPC_SUBJECT_SUBJECT_TO_ORGANIZATION_RELATIONSHIP				= new IdentifierImpl(ID_IPC_SUBJECT, "subject-to-organization-relationship");
-    public static final Identifier ID_IPC_SUBJECT_SUBJECT_TO_ORGANIZATION_RELATIONSHIP_EMPLOYEE		= new IdentifierImpl(ID_IPC_SUBJECT_SUBJECT_TO_ORGANIZATION_RELATIONSHIP, "employee");
-    public static final Identifier ID_IPC_SUBJECT_SUBJECT_TO_ORGANIZATION_RELATIONSHIP_CONTRACTOR	= new IdentifierImpl(ID_IPC_SUBJECT_SUBJECT_TO_ORGANIZATION_RELATIONSHIP, "contractor");
-    public static final Identifier ID_IPC_SUBJECT_AGREEMENT_ID										= new IdentifierImpl(ID_IPC_SUBJECT, "agreement-id");
-    public static final Identifier ID_IPC_OBLIGATION												= new IdentifierImpl(ID_IPC, "obligation");
-    public static final Identifier ID_IPC_OBLIGATION_ENCRYPT										= new IdentifierImpl(ID_IPC_OBLIGATION, "encrypt");
-    public static final Identifier ID_IPC_OBLIGATION_MARKING										= new IdentifierImpl(ID_IPC_OBLIGATION, "marking");
+    public static final Identifier ID_IPC															= IdentifierImpl.intern(ID_XACML, "ipc");
+    public static final Identifier ID_IPC_RESOURCE													= IdentifierImpl.intern(ID_IPC, XACML.RESOURCE);
+    public static final Identifier ID_IPC_RESOURCE_COPYRIGHT										= IdentifierImpl.intern(ID_IPC_RESOURCE, "copyright");
+    public static final Identifier ID_IPC_RESOURCE_PATENT											= IdentifierImpl.intern(ID_IPC_RESOURCE, "patent");
+    public static final Identifier ID_IPC_RESOURCE_PROPRIETARY										= IdentifierImpl.intern(ID_IPC_RESOURCE, "proprietary");
+    public static final Identifier ID_IPC_RESOURCE_PUBLIC_DOMAIN									= IdentifierImpl.intern(ID_IPC_RESOURCE, "public-domain");
+    public static final Identifier ID_IPC_RESOURCE_TRADEMARK										= IdentifierImpl.intern(ID_IPC_RESOURCE, "trademark");
+    public static final Identifier ID_IPC_RESOURCE_IP_OWNER											= IdentifierImpl.intern(ID_IPC_RESOURCE, "ip-owner");
+    public static final Identifier ID_IPC_RESOURCE_IP_LICENSEE										= IdentifierImpl.intern(ID_IPC_RESOURCE, "ip-licensee");
+    public static final Identifier ID_IPC_RESOURCE_AGREEMENT_TYPE									= IdentifierImpl.intern(ID_IPC_RESOURCE, "agreement-type");
+    public static final Identifier ID_IPC_RESOURCE_AGREEMENT_ID										= IdentifierImpl.intern(ID_IPC_RESOURCE, "agreement-id");
+    public static final Identifier ID_IPC_RESOURCE_VALID_AGREEMENT_EXISTS							= IdentifierImpl.intern(ID_IPC_RESOURCE, "valid-agreement-exists");
+    public static final Identifier ID_IPC_RESOURCE_NUMBER_OF_VALID_AGREEMENTS						= IdentifierImpl.intern(ID_IPC_RESOURCE, "number-of-valid-agreements");
+    public static final Identifier ID_IPC_RESOURCE_WORK_EFFORT										= IdentifierImpl.intern(ID_IPC_RESOURCE, "work-effort");
+    public static final Identifier ID_IPC_RESOURCE_AUTHORIZED_END_USE								= IdentifierImpl.intern(ID_IPC_RESOURCE, "authorized-end-use");    
+    public static final Identifier ID_IPC_RESOURCE_AUTHORIZED_END_USE_DESIGN						= IdentifierImpl.intern(ID_IPC_RESOURCE_AUTHORIZED_END_USE, "design");
+    public static final Identifier ID_IPC_RESOURCE_AUTHORIZED_END_USE_MANUFACTURE					= IdentifierImpl.intern(ID_IPC_RESOURCE_AUTHORIZED_END_USE, "manufacture");
+    public static final Identifier ID_IPC_RESOURCE_AUTHORIZED_END_USE_MAINTENANCE					= IdentifierImpl.intern(ID_IPC_RESOURCE_AUTHORIZED_END_USE, "maintenance");
+    public static final Identifier ID_IPC_RESOURCE_EFFECTIVE_DATE									= IdentifierImpl.intern(ID_IPC_RESOURCE, "effective-date");
+    public static final Identifier ID_IPC_RESOURCE_EXPIRATION_DATE									= IdentifierImpl.intern(ID_IPC_RESOURCE, "expiration-date");
+    public static final Identifier ID_IPC_SUBJECT													= IdentifierImpl.intern(ID_IPC, XACML.SUBJECT);
+    public static final Identifier ID_IPC_SUBJECT_SUBJECT_ID										= IdentifierImpl.intern(ID_IPC_SUBJECT, "subject-id");
+    public static final Identifier ID_IPC_SUBJECT_ORGANIZATION										= IdentifierImpl.intern(ID_IPC_SUBJECT, "organization");
+    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT									= IdentifierImpl.intern(ID_IPC_SUBJECT, "business-context");
+    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT_CUSTOMER							= IdentifierImpl.intern(ID_IPC_SUBJECT_BUSINESS_CONTEXT, "customer");
+    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT_SUPPLIER							= IdentifierImpl.intern(ID_IPC_SUBJECT_BUSINESS_CONTEXT, "suppler");
+    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT_PARTNER							= IdentifierImpl.intern(ID_IPC_SUBJECT_BUSINESS_CONTEXT, "partner");
+    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT_PRIMARY_CONTRACTOR				= IdentifierImpl.intern(ID_IPC_SUBJECT_BUSINESS_CONTEXT, "primary-contractor");
+    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT_SUBCONTRACTOR					= IdentifierImpl.intern(ID_IPC_SUBJECT_BUSINESS_CONTEXT, "subcontractor");
+    public static final Identifier ID_IPC_SUBJECT_BUSINESS_CONTEXT_AUTHORIZED_SUBLICENSOR			= IdentifierImpl.intern(ID_IPC_SUBJECT_BUSINESS_CONTEXT, "authorized-sublicensor");
+    public static final Identifier ID_IPC_SUBJECT_SUBJECT_TO_ORGANIZATION_RELATIONSHIP				= IdentifierImpl.intern(ID_IPC_SUBJECT, "subject-to-organization-relationship");
+    public static final Identifier ID_IPC_SUBJECT_SUBJECT_TO_ORGANIZATION_RELATIONSHIP_EMPLOYEE		= IdentifierImpl.intern(ID_IPC_SUBJECT_SUBJECT_TO_ORGANIZATION_RELATIONSHIP, "employee");
+    public static final Identifier ID_IPC_SUBJECT_SUBJECT_TO_ORGANIZATION_RELATIONSHIP_CONTRACTOR	= IdentifierImpl.intern(ID_IPC_SUBJECT_SUBJECT_TO_ORGANIZATION_RELATIONSHIP, "contractor");
+    public static final Identifier ID_IPC_SUBJECT_AGREEMENT_ID										= IdentifierImpl.intern(ID_IPC_SUBJECT, "agreement-id");
+    public static final Identifier ID_IPC_OBLIGATION												= IdentifierImpl.intern(ID_IPC, "obligation");
+    public static final Identifier ID_IPC_OBLIGATION_ENCRYPT										= IdentifierImpl.intern(ID_IPC_OBLIGATION, "encrypt");
+    public static final Identifier ID_IPC_OBLIGATION_MARKING										= IdentifierImpl.intern(ID_IPC_OBLIGATION, "marking");
     
     /*
      * XACML 3.0 Export Compliance-US (EC-US) Profile Version 1.0
      */
-    public static final Identifier ID_PROFILES_EC_US						= new IdentifierImpl(ID_PROFILES, "ec-us");
-    public static final Identifier ID_EC_US									= new IdentifierImpl(ID_XACML, "ec-us");
-    public static final Identifier ID_EC_US_RESOURCE						= new IdentifierImpl(ID_EC_US, XACML.RESOURCE);
-    public static final Identifier ID_EC_US_RESOURCE_JURISDICTION			= new IdentifierImpl(ID_EC_US_RESOURCE, "jurisdiction");
-    public static final Identifier ID_EC_US_RESOURCE_ECCN					= new IdentifierImpl(ID_EC_US_RESOURCE, "eccn");
-    public static final Identifier ID_EC_US_RESOURCE_USML					= new IdentifierImpl(ID_EC_US_RESOURCE, "usml");
-    public static final Identifier ID_EC_US_RESOURCE_AUTHORITY_TO_EXPORT	= new IdentifierImpl(ID_EC_US_RESOURCE, "authority-to-export");
-    public static final Identifier ID_EC_US_RESOURCE_EFFECTIVE_DATE			= new IdentifierImpl(ID_EC_US_RESOURCE, "effective-date");
-    public static final Identifier ID_EC_US_RESOURCE_EXPIRATION_DATE		= new IdentifierImpl(ID_EC_US_RESOURCE, "expiration-date");
-    public static final Identifier ID_EC_US_SUBJECT							= new IdentifierImpl(ID_EC_US, XACML.SUBJECT);
-    public static final Identifier ID_EC_US_SUBJECT_NATIONALITY				= new IdentifierImpl(ID_EC_US_SUBJECT, "nationality");
-    public static final Identifier ID_EC_US_SUBJECT_CURRENT_NATIONALITY		= new IdentifierImpl(ID_EC_US_SUBJECT, "current-nationality");
-    public static final Identifier ID_EC_US_SUBJECT_ORGANIZATION			= new IdentifierImpl(ID_EC_US_SUBJECT, "organization");
-    public static final Identifier ID_EC_US_SUBJECT_US_PERSON				= new IdentifierImpl(ID_EC_US_SUBJECT, "us-person");
+    public static final Identifier ID_PROFILES_EC_US						= IdentifierImpl.intern(ID_PROFILES, "ec-us");
+    public static final Identifier ID_EC_US									= IdentifierImpl.intern(ID_XACML, "ec-us");
+    public static final Identifier ID_EC_US_RESOURCE						= IdentifierImpl.intern(ID_EC_US, XACML.RESOURCE);
+    public static final Identifier ID_EC_US_RESOURCE_JURISDICTION			= IdentifierImpl.intern(ID_EC_US_RESOURCE, "jurisdiction");
+    public static final Identifier ID_EC_US_RESOURCE_ECCN					= IdentifierImpl.intern(ID_EC_US_RESOURCE, "eccn");
+    public static final Identifier ID_EC_US_RESOURCE_USML					= IdentifierImpl.intern(ID_EC_US_RESOURCE, "usml");
+    public static final Identifier ID_EC_US_RESOURCE_AUTHORITY_TO_EXPORT	= IdentifierImpl.intern(ID_EC_US_RESOURCE, "authority-to-export");
+    public static final Identifier ID_EC_US_RESOURCE_EFFECTIVE_DATE			= IdentifierImpl.intern(ID_EC_US_RESOURCE, "effective-date");
+    public static final Identifier ID_EC_US_RESOURCE_EXPIRATION_DATE		= IdentifierImpl.intern(ID_EC_US_RESOURCE, "expiration-date");
+    public static final Identifier ID_EC_US_SUBJECT							= IdentifierImpl.intern(ID_EC_US, XACML.SUBJECT);
+    public static final Identifier ID_EC_US_SUBJECT_NATIONALITY				= IdentifierImpl.intern(ID_EC_US_SUBJECT, "nationality");
+    public static final Identifier ID_EC_US_SUBJECT_CURRENT_NATIONALITY		= IdentifierImpl.intern(ID_EC_US_SUBJECT, "current-nationality");
+    public static final Identifier ID_EC_US_SUBJECT_ORGANIZATION			= IdentifierImpl.intern(ID_EC_US_SUBJECT, "organization");
+    public static final Identifier ID_EC_US_SUBJECT_US_PERSON				= IdentifierImpl.intern(ID_EC_US_SUBJECT, "us-person");
     
     /*
      * REST Profile of XACML v3.0 Version 1.0
      */
-    public static final Identifier ID_PROFILE_REST			= new IdentifierImpl(ID_PROFILE, "rest");
-    public static final Identifier ID_PROFILE_REST_HTTP		= new IdentifierImpl(ID_PROFILE_REST, "http");
-    public static final Identifier ID_PROFILE_REST_HOME		= new IdentifierImpl(ID_PROFILE_REST, "home");
-    public static final Identifier ID_PROFILE_REST_PDP		= new IdentifierImpl(ID_PROFILE_REST, "pdp");
+    public static final Identifier ID_PROFILE_REST			= IdentifierImpl.intern(ID_PROFILE, "rest");
+    public static final Identifier ID_PROFILE_REST_HTTP		= IdentifierImpl.intern(ID_PROFILE_REST, "http");
+    public static final Identifier ID_PROFILE_REST_HOME		= IdentifierImpl.intern(ID_PROFILE_REST, "home");
+    public static final Identifier ID_PROFILE_REST_PDP		= IdentifierImpl.intern(ID_PROFILE_REST, "pdp");
     
     /*
      * Request/Response Interface based on JSON and HTTP for XACML 3.0 Version 1.0
@@ -681,5 +681,5 @@ public class XACML3 {
     /*
      * XACML 3.0 Additional Combining Algorithms Profile Version 1.0
      */
-    public static final Identifier ID_POLICY_ON_PERMIT_APPLY_SECOND			= new IdentifierImpl(ID_POLICY_COMBINING_ALGORITHM, "on-permit-apply-second");
+    public static final Identifier ID_POLICY_ON_PERMIT_APPLY_SECOND			= IdentifierImpl.intern(ID_POLICY_COMBINING_ALGORITHM, "on-permit-apply-second");
 }
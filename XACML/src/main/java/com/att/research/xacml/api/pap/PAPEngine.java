@@ -6,6 +6,7 @@
 package com.att.research.xacml.api.pap;
 
 import java.io.InputStream;
+import java.util.HashSet;
 import java.util.Set;
 
 public interface PAPEngine {
@@ -55,6 +56,23 @@ public interface PAPEngine {
 	
 	public PDP						getPDP(String pdpId) throws PAPException;
 	
+	/**
+	 * Gets a consistent snapshot of the PDPs in every group.  By default the groups are read while holding the engine's lock,
+	 * engines whose lookups are safe to use while they are being changed should override this to avoid it.
+	 * 
+	 * @return the <code>PDP</code>s in all of the groups
+	 * @throws PAPException PAP Exception
+	 */
+	public default Set<PDP>			getPDPs() throws PAPException {
+		Set<PDP> pdps	= new HashSet<PDP>();
+		synchronized(this) {
+			for (PDPGroup group : this.getPDPGroups()) {
+				pdps.addAll(group.getPdps());
+			}
+		}
+		return pdps;
+	}
+	
 	public void						newPDP(String id, PDPGroup group, String name, String description) throws PAPException;
 	
 	public void						movePDP(PDP pdp, PDPGroup newGroup) throws PAPException;
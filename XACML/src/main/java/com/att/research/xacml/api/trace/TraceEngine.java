@@ -28,4 +28,14 @@ public interface TraceEngine {
 	 * @return true if this <code>TraceEngine</code> would perform an action on a <code>TraceEvent</code>.
 	 */
 	public boolean isTracing();
+	
+	/**
+	 * Gets the <code>TraceEngine</code> to use while evaluating a single request.  Implementations that decide for each request
+	 * whether to trace it, such as sampling profilers, return a different <code>TraceEngine</code> for each request.
+	 * 
+	 * @return the <code>TraceEngine</code> for a single request, by default this <code>TraceEngine</code>
+	 */
+	public default TraceEngine getRequestTraceEngine() {
+		return this;
+	}
 }
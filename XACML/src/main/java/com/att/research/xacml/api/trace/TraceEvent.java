@@ -7,6 +7,7 @@
 package com.att.research.xacml.api.trace;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Defines the API for objects that represent traceable events during evaluation of a XACML Policy or PolicySet.
@@ -24,6 +25,17 @@ public interface TraceEvent<T> {
 	 */
 	public Date getTimestamp();
 	
+	/**
+	 * Gets the value of <code>System.nanoTime()</code> when this <code>TraceEvent</code> occurred, for measuring the time
+	 * between <code>TraceEvent</code>s.  The default derives it from {@link #getTimestamp()}, so it is only as precise as
+	 * the <code>Date</code>.
+	 * 
+	 * @return the <code>System.nanoTime()</code> when this <code>TraceEvent</code> occurred
+	 */
+	public default long getNanoTime() {
+		return System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - this.getTimestamp().getTime());
+	}
+	
 	/**
 	 * Gets the <code>String</code> message associated with this <code>TraceEvent</code>.  If there is no message,
 	 * the implementation may return <code>null</code>.
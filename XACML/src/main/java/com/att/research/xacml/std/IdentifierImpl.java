@@ -11,15 +11,27 @@ import java.util.UUID;
 
 import com.att.research.xacml.api.Identifier;
 import com.att.research.xacml.util.ObjUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 /**
  * IdentifierImpl provides a common implementation of the {@link com.att.research.xacml.api.Identifier} interface with a stored, fixed <code>URI</code>.
+ * The string form and hash code of the <code>URI</code> are computed once, when the <code>IdentifierImpl</code> is created.
+ * 
+ * The {@link #intern(String)} methods return a canonical <code>IdentifierImpl</code> for each identifier string, so identifiers
+ * interned by the XACML constants and the parsers are the same instance and <code>equals</code> succeeds on the first
+ * comparison.  The registry only holds identifiers weakly, so identifiers that arrive in requests are not kept once they are
+ * no longer in use.
  *  
  * @author car
  * @version $Revision: 1.3 $
  */
 public class IdentifierImpl implements Identifier {
-	private URI	uri;
+	private static final Cache<String,IdentifierImpl> registry	= CacheBuilder.newBuilder().weakValues().build();
+	
+	private final URI		uri;
+	private final String	stringValue;
+	private final int		hashCode;
 	
 	/**
 	 * Creates a new <code>IdentifierImpl</code> with the given <code>URI</code> id.
@@ -30,7 +42,9 @@ public class IdentifierImpl implements Identifier {
 		if (uriIn == null) {
 			throw new IllegalArgumentException("Null URI");
 		}
-		this.uri	= uriIn;
+		this.uri			= uriIn;
+		this.stringValue	= uriIn.toString();
+		this.hashCode		= uriIn.hashCode();
 	}
 	
 	/**
@@ -46,6 +60,65 @@ public class IdentifierImpl implements Identifier {
 		this(URI.create(identifierBase.stringValue() + ":" + id));
 	}
 	
+	/**
+	 * Gets the canonical <code>Identifier</code> for the given <code>String</code> id, creating it if there is not one already.
+	 * 
+	 * @param idIn the <code>String</code> for the identifier
+	 * @return the canonical <code>Identifier</code> for <code>idIn</code>
+	 * @throws IllegalArgumentException if <code>idIn</code> is null or is not a valid <code>URI</code>
+	 */
+	public static Identifier intern(String idIn) {
+		if (idIn == null) {
+			throw new IllegalArgumentException("Null id");
+		}
+		IdentifierImpl identifier	= registry.getIfPresent(idIn);
+		if (identifier == null) {
+			IdentifierImpl identifierNew	= new IdentifierImpl(idIn);
+			if ((identifier = registry.asMap().putIfAbsent(identifierNew.stringValue, identifierNew)) == null) {
+				identifier	= identifierNew;
+			}
+		}
+		return identifier;
+	}
+	
+	/**
+	 * Gets the canonical <code>Identifier</code> for the given <code>URI</code>, creating it if there is not one already.
+	 * 
+	 * @param uriIn the <code>URI</code> for the identifier
+	 * @return the canonical <code>Identifier</code> for <code>uriIn</code>
+	 * @throws IllegalArgumentException if <code>uriIn</code> is null
+	 */
+	public static Identifier intern(URI uriIn) {
+		if (uriIn == null) {
+			throw new IllegalArgumentException("Null URI");
+		}
+		return intern(uriIn.toString());
+	}
+	
+	/**
+	 * Gets the canonical <code>Identifier</code> for the given id appended to the given base <code>Identifier</code>.
+	 * 
+	 * @param identifierBase the base <code>Identifier</code>
+	 * @param id the <code>String</code> to append to <code>identifierBase</code>
+	 * @return the canonical <code>Identifier</code> for <code>identifierBase:id</code>
+	 */
+	public static Identifier intern(Identifier identifierBase, String id) {
+		return intern(identifierBase.stringValue() + ":" + id);
+	}
+	
+	/**
+	 * Gets the canonical <code>Identifier</code> equal to the given <code>Identifier</code>.
+	 * 
+	 * @param identifier the <code>Identifier</code> to intern
+	 * @return the canonical <code>Identifier</code> for <code>identifier</code>, or null if it is null
+	 */
+	public static Identifier intern(Identifier identifier) {
+		if (identifier == null) {
+			return null;
+		}
+		return intern(identifier.stringValue());
+	}
+	
 	public static Identifier gensym(String pfx) {
 		UUID uuid	= UUID.randomUUID();
 		return new IdentifierImpl(pfx + ":" + uuid.toString());
@@ -69,6 +142,15 @@ public class IdentifierImpl implements Identifier {
 	public boolean equals(Object obj) {
 		if (obj == this) {
 			return true;
+		} else if (obj instanceof IdentifierImpl) {
+			IdentifierImpl identifierObj	= (IdentifierImpl)obj;
+			if (this.hashCode != identifierObj.hashCode) {
+				return false;
+			}
+			/*
+			 * Equal strings are always equal URIs, but equal URIs need not be equal strings (case of the scheme and host, escapes)
+			 */
+			return this.stringValue.equals(identifierObj.stringValue) || this.uri.equals(identifierObj.uri);
 		} else if (obj == null || !(obj instanceof Identifier)) {
 			return false;
 		} else {
@@ -78,13 +160,11 @@ public class IdentifierImpl implements Identifier {
 	
 	@Override
 	public int hashCode() {
-		URI thisURI	= this.getUri();
-		return (thisURI == null ? super.hashCode() : thisURI.hashCode());
+		return this.hashCode;
 	}
 
 	@Override
 	public String stringValue() {
-		URI thisURI	= this.getUri();
-		return (thisURI == null ? null : thisURI.toString());
+		return this.stringValue;
 	}
 }
@@ -5,13 +5,16 @@
  */
 package com.att.research.xacml.std;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -38,21 +41,35 @@ import com.att.research.xacml.std.datatypes.XPathExpressionWrapper;
  * StdIndividualDecisionRequestGenerator is a utility that PDP developers can use to take an original 
  * {@link com.att.research.xacml.api.Request} and turn it into a sequence of individual decision <code>Request</code>s.
  * This class implements all of the multiple-decision profiles specified in "XACML v3.0 Multiple Decision Profile Version 1.0"
+ * <p>
+ * The individual decision <code>Request</code>s are generated lazily as the <code>Iterator</code> returned by
+ * {@link #getIndividualDecisionRequests()} is consumed.  A subclass that overrides any of the protected <code>createIndividualDecisionRequests</code>,
+ * <code>processRepeatedCategories</code>, <code>processScopes</code> or <code>processContentSelectors</code> methods has them called
+ * as before, with all of the <code>Request</code>s generated at once the first time they are asked for.
+ * <p>
+ * An optional limit caps the number of <code>Request</code>s generated.  Repeated attribute categories that would expand past it are
+ * replaced by a single <code>Request</code> with a processing error <code>Status</code>.  Otherwise, once the limit has been reached, a
+ * <code>Request</code> with a processing error <code>Status</code> is generated in place of the rest.
  * 
  * @author car
  * @version $Revision$
  */
 public class StdIndividualDecisionRequestGenerator {
-	private static final Identifier[] idArray			= new Identifier[0];
+	private static final RequestAttributes[] requestAttributesArray	= new RequestAttributes[0];
 	private static final Status STATUS_NO_ATTRIBUTES	= new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "No attributes");
 	private static final Status STATUS_NO_XMLID			= new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "No xml:id");
 	private static final Status STATUS_NO_CATEGORY		= new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "No category");
 	private static final Status STATUS_NO_RESOURCE_ID	= new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "No " + XACML3.ID_RESOURCE_RESOURCE_ID.stringValue() + " attributes");
 	
+	private static final String[] EAGER_METHODS	= { "createIndividualDecisionRequests", "processRepeatedCategories", "processScopes", "processContentSelectors" };
+	
 	private static final Logger logger									= LoggerFactory.getLogger(StdIndividualDecisionRequestGenerator.class);
 	private Request originalRequest;
 	private List<Request> individualDecisionRequests	= new ArrayList<Request>();
 	private ScopeResolver scopeResolver;
+	private long maxIndividualDecisionRequests;
+	private boolean eager;
+	private boolean generated;
 	
 	private static StdMutableRequestAttributes removeMultipleContentSelector(RequestAttributes requestAttributes) {
 		StdMutableRequestAttributes stdRequestAttributes	= new StdMutableRequestAttributes();
@@ -74,8 +91,9 @@ public class StdIndividualDecisionRequestGenerator {
 	 * @param listRequestAttributes the <code>List</code> of <code>RequestAttribute</code>s for the new <code>Request</code>s
 	 * @param listPos the position within the <code>List</code>
 	 * @param requestInProgress the <code>StdMutableRequest</code> with all of the processed <code>RequestAttribute</code>s so far
+	 * @param individualDecisionRequests the <code>Collection</code> to add the generated <code>Request</code>s to
 	 */
-	private void explodeOnContentSelector(List<RequestAttributes> listRequestAttributes, int listPos, StdMutableRequest requestInProgress) {
+	private void explodeOnContentSelector(List<RequestAttributes> listRequestAttributes, int listPos, StdMutableRequest requestInProgress, Collection<Request> individualDecisionRequests) {
 		int listSize	= listRequestAttributes.size();
 		while (listPos < listSize) {
 			RequestAttributes requestAttributes	= listRequestAttributes.get(listPos++);
@@ -87,7 +105,7 @@ public class StdIndividualDecisionRequestGenerator {
 				assert(iterAttributesMultipleContentSelector != null && iterAttributesMultipleContentSelector.hasNext());
 				Attribute attributeMultipleContentSelector	= iterAttributesMultipleContentSelector.next();
 				if (iterAttributesMultipleContentSelector.hasNext()) {
-					this.individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "multiple " + XACML3.ID_MULTIPLE_CONTENT_SELECTOR.stringValue() + " in category " + requestAttributes.getCategory().stringValue())));
+					individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "multiple " + XACML3.ID_MULTIPLE_CONTENT_SELECTOR.stringValue() + " in category " + requestAttributes.getCategory().stringValue())));
 					return;
 				}
 				
@@ -96,7 +114,7 @@ public class StdIndividualDecisionRequestGenerator {
 				 */
 				Iterator<AttributeValue<XPathExpressionWrapper>> iterXPathExpressions	= attributeMultipleContentSelector.findValues(DataTypes.DT_XPATHEXPRESSION);
 				if (iterXPathExpressions == null || !iterXPathExpressions.hasNext()) {
-					this.individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "no XPathExpression values in " + XACML3.ID_MULTIPLE_CONTENT_SELECTOR.stringValue() + " in category " + requestAttributes.getCategory().stringValue())));
+					individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "no XPathExpression values in " + XACML3.ID_MULTIPLE_CONTENT_SELECTOR.stringValue() + " in category " + requestAttributes.getCategory().stringValue())));
 					return;
 				}
 				
@@ -106,12 +124,12 @@ public class StdIndividualDecisionRequestGenerator {
 				 */
 				AttributeValue<XPathExpressionWrapper> attributeValueXPathExpression	= iterXPathExpressions.next();
 				if (iterXPathExpressions.hasNext()) {
-					this.individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "multiple XPathExpression values in " + XACML3.ID_MULTIPLE_CONTENT_SELECTOR.stringValue() + " in category " + requestAttributes.getCategory().stringValue())));
+					individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "multiple XPathExpression values in " + XACML3.ID_MULTIPLE_CONTENT_SELECTOR.stringValue() + " in category " + requestAttributes.getCategory().stringValue())));
 					return;
 				}
 				XPathExpressionWrapper xpathExpression							= attributeValueXPathExpression.getValue();
 				if (xpathExpression == null) {
-					this.individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "null XPathExpression")));
+					individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "null XPathExpression")));
 					return;
 				}
 				
@@ -120,7 +138,7 @@ public class StdIndividualDecisionRequestGenerator {
 				 */
 				NodeList nodeListXPathExpressionResults	= requestAttributes.getContentNodeListByXpathExpression(xpathExpression);
 				if (nodeListXPathExpressionResults == null || nodeListXPathExpressionResults.getLength() == 0) {
-					this.individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "no matching nodes in the Content for XPathExpression " + xpathExpression.toString() + " in category " + requestAttributes.getCategory().stringValue())));
+					individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, "no matching nodes in the Content for XPathExpression " + xpathExpression.toString() + " in category " + requestAttributes.getCategory().stringValue())));
 					return;
 				}
 				
@@ -143,9 +161,9 @@ public class StdIndividualDecisionRequestGenerator {
 						/*
 						 * Recurse to get the remaining attribute categories
 						 */
-						this.explodeOnContentSelector(listRequestAttributes, listPos, stdRequestSingleContentSelector);
+						this.explodeOnContentSelector(listRequestAttributes, listPos, stdRequestSingleContentSelector, individualDecisionRequests);
 					} catch (Exception ex) {
-						this.individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_PROCESSING_ERROR, ex.getMessage())));
+						individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_PROCESSING_ERROR, ex.getMessage())));
 						return;
 					}
 				}
@@ -163,7 +181,7 @@ public class StdIndividualDecisionRequestGenerator {
 		/*
 		 * If we get here, then the request in progress is complete and should be added to the set
 		 */
-		this.individualDecisionRequests.add(requestInProgress);
+		individualDecisionRequests.add(requestInProgress);
 	}
 	
 	/**
@@ -171,11 +189,12 @@ public class StdIndividualDecisionRequestGenerator {
 	 * the multiple content selectors are resolved to individual content-selectors.
 	 * 
 	 * @param request
+	 * @param individualDecisionRequests the <code>Collection</code> to add the generated <code>Request</code>s to
 	 */
-	protected void processContentSelectors(Request request) {
+	private void processContentSelectors(Request request, Collection<Request> individualDecisionRequests) {
 		Iterator<RequestAttributes> iterRequestAttributes	= request.getRequestAttributes().iterator();
 		if (!iterRequestAttributes.hasNext()) {
-			this.individualDecisionRequests.add(request);
+			individualDecisionRequests.add(request);
 			return;
 		}
 		
@@ -191,7 +210,7 @@ public class StdIndividualDecisionRequestGenerator {
 		 * Iterate over all of the categories and see if there are any attributes in them with a multiple:content-selector
 		 */
 		if (!hasMultipleContentSelectors) {
-			this.individualDecisionRequests.add(request);
+			individualDecisionRequests.add(request);
 		} else {
 			List<RequestAttributes> listRequestAttributes	= new ArrayList<RequestAttributes>();
 			listRequestAttributes.addAll(request.getRequestAttributes());
@@ -199,7 +218,31 @@ public class StdIndividualDecisionRequestGenerator {
 			StdMutableRequest stdRequestInProgress	= new StdMutableRequest();
 			stdRequestInProgress.setRequestDefaults(request.getRequestDefaults());
 			stdRequestInProgress.setReturnPolicyIdList(request.getReturnPolicyIdList());
-			this.explodeOnContentSelector(listRequestAttributes, 0, stdRequestInProgress);
+			this.explodeOnContentSelector(listRequestAttributes, 0, stdRequestInProgress, individualDecisionRequests);
+		}
+	}
+	
+	/**
+	 * Checks to see if there are any categories that include an attribute with a "multiple:content-selector" identifier.  If so,
+	 * the multiple content selectors are resolved to individual content-selectors.
+	 * 
+	 * Overriding this method makes the generator create all of the individual decision <code>Request</code>s at once.
+	 * 
+	 * @param request
+	 */
+	protected void processContentSelectors(Request request) {
+		this.processContentSelectors(request, this.individualDecisionRequests);
+	}
+	
+	/*
+	 * Passes the Request on to the content selector stage, through the protected method when all of the Requests are being
+	 * generated at once so a subclass that overrides it sees them
+	 */
+	private void nextContentSelectors(Request request, Collection<Request> individualDecisionRequests) {
+		if (individualDecisionRequests == this.individualDecisionRequests) {
+			this.processContentSelectors(request);
+		} else {
+			this.processContentSelectors(request, individualDecisionRequests);
 		}
 	}
 	
@@ -289,15 +332,16 @@ public class StdIndividualDecisionRequestGenerator {
 	 * and individual decision requests are generated with the expanded scopes.
 	 * 
 	 * @param request
+	 * @param individualDecisionRequests the <code>Collection</code> to add the generated <code>Request</code>s to
 	 */
-	protected void processScopes(Request request) {
+	private void processScopes(Request request, Collection<Request> individualDecisionRequests) {
 		assert(request.getStatus() == null || request.getStatus().isOk());
 		
 		/*
 		 * If there is no scope resolver, then just move on to the content selectors
 		 */
 		if (this.scopeResolver == null) {
-			this.processContentSelectors(request);
+			this.nextContentSelectors(request, individualDecisionRequests);
 			return;
 		}
 		
@@ -306,7 +350,7 @@ public class StdIndividualDecisionRequestGenerator {
 		 */
 		Iterator<RequestAttributes> iterRequestAttributesResource	= request.getRequestAttributes(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE);
 		if (iterRequestAttributesResource == null || !iterRequestAttributesResource.hasNext()) {
-			this.processContentSelectors(request);
+			this.nextContentSelectors(request, individualDecisionRequests);
 			return;
 		}
 		RequestAttributes requestAttributesResource	= iterRequestAttributesResource.next();
@@ -319,11 +363,11 @@ public class StdIndividualDecisionRequestGenerator {
 		try {
 			scopeQualifier	= getScopeQualifier(requestAttributesResource);
 		} catch (ScopeResolverException ex) {
-			this.individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, ex.getMessage())));
+			individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR, ex.getMessage())));
 			return;
 		}
 		if (scopeQualifier == null) {
-			this.processContentSelectors(request);
+			this.nextContentSelectors(request, individualDecisionRequests);
 			return;
 		}
 		
@@ -333,7 +377,7 @@ public class StdIndividualDecisionRequestGenerator {
 		 */
 		Iterator<Attribute> iterAttributesResourceId	= requestAttributesResource.getAttributes(XACML3.ID_RESOURCE_RESOURCE_ID);
 		if (iterAttributesResourceId == null || !iterAttributesResourceId.hasNext()) {
-			this.individualDecisionRequests.add(new StdMutableRequest(STATUS_NO_RESOURCE_ID));
+			individualDecisionRequests.add(new StdMutableRequest(STATUS_NO_RESOURCE_ID));
 			return;
 		}
 		
@@ -357,7 +401,7 @@ public class StdIndividualDecisionRequestGenerator {
 				logger.error("ScopeResolverException resolving " + attributeResourceId.toString() + ": " + ex.getMessage(), ex);
 			}
 			if (scopeResolverResult.getStatus() != null && !scopeResolverResult.getStatus().isOk()) {
-				this.individualDecisionRequests.add(new StdMutableRequest(scopeResolverResult.getStatus()));
+				individualDecisionRequests.add(new StdMutableRequest(scopeResolverResult.getStatus()));
 				return;
 			}
 			Iterator<Attribute> iterAttributesResourceIdResolved	= scopeResolverResult.getAttributes();
@@ -367,7 +411,7 @@ public class StdIndividualDecisionRequestGenerator {
 					stdRequestAttributes.add(iterAttributesResourceIdResolved.next());
 					StdMutableRequest stdRequestExploded				= new StdMutableRequest(stdRequest);
 					stdRequestExploded.add(stdRequestAttributes);
-					this.processContentSelectors(stdRequestExploded);
+					this.nextContentSelectors(stdRequestExploded, individualDecisionRequests);
 					bAtLeastOne	= true;
 				}
 			}
@@ -380,55 +424,97 @@ public class StdIndividualDecisionRequestGenerator {
 				requestAttributesBase.add(iterAttributesResourceId.next());
 			}
 			stdRequest.add(requestAttributesBase);
-			this.processContentSelectors(stdRequest);
+			this.nextContentSelectors(stdRequest, individualDecisionRequests);
 		}
 	}
 	
 	/**
-	 * Checks to see if the category with the <code>Identifier</code> at the current <code>Iterator</code> position has
-	 * multiple <code>RequestAttribute</code>s associated with it.  If so, then for each copy, explode on the remaining categories.  Otherwise
-	 * store the single value in the requestInProgress and explode on the remaining values.
+	 * Checks to see if there are any categories that include an attribute with a "scope" identifier.  If so, the scopes are expanded
+	 * and individual decision requests are generated with the expanded scopes.
+	 * 
+	 * Overriding this method makes the generator create all of the individual decision <code>Request</code>s at once.
 	 * 
-	 * @param identifiers
-	 * @param pos
-	 * @param requestInProgress
-	 * @param mapCategories
+	 * @param request
+	 */
+	protected void processScopes(Request request) {
+		this.processScopes(request, this.individualDecisionRequests);
+	}
+	
+	/*
+	 * Passes the Request on to the scope stage, through the protected method when all of the Requests are being generated at
+	 * once so a subclass that overrides it sees them
+	 */
+	private void nextScopes(Request request, Collection<Request> individualDecisionRequests) {
+		if (individualDecisionRequests == this.individualDecisionRequests) {
+			this.processScopes(request);
+		} else {
+			this.processScopes(request, individualDecisionRequests);
+		}
+	}
+	
+	/**
+	 * RepeatedCategoryProduct walks the cartesian product of repeated attribute categories in a <code>Request</code>.  Rather than
+	 * copying a <code>StdMutableRequest</code> at every branch of the product, it keeps one index per category and builds each
+	 * individual decision <code>Request</code> on demand.  The <code>RequestAttributes</code> from the original <code>Request</code> are
+	 * shared by every generated <code>Request</code>; they are never copied.
 	 */
-	private void explodeOnCategory(Identifier[] identifiers, int pos, StdMutableRequest requestInProgress, Map<Identifier,List<RequestAttributes>> mapCategories) {
-		if (pos >= identifiers.length) {
+	private static class RepeatedCategoryProduct {
+		private final Request requestTemplate;
+		private final RequestAttributes[][] requestAttributesByCategory;
+		private final int[] indices;
+		private boolean hasNext	= true;
+		
+		public RepeatedCategoryProduct(Request requestTemplateIn, RequestAttributes[][] requestAttributesByCategoryIn) {
+			this.requestTemplate				= requestTemplateIn;
+			this.requestAttributesByCategory	= requestAttributesByCategoryIn;
+			this.indices						= new int[requestAttributesByCategoryIn.length];
+		}
+		
+		public boolean hasNext() {
+			return this.hasNext;
+		}
+		
+		public Request next() {
+			if (!this.hasNext) {
+				throw new NoSuchElementException();
+			}
+			StdMutableRequest stdRequest	= new StdMutableRequest();
+			stdRequest.setRequestDefaults(this.requestTemplate.getRequestDefaults());
+			stdRequest.setReturnPolicyIdList(this.requestTemplate.getReturnPolicyIdList());
+			for (int i = 0 ; i < this.indices.length ; i++) {
+				stdRequest.add(this.requestAttributesByCategory[i][this.indices[i]]);
+			}
+			
 			/*
-			 * Tail out of the recursion by performing the next stage of processing on the request in proress
+			 * Advance the index vector with the last category varying fastest, which matches the order of the
+			 * depth-first recursion this replaces.
 			 */
-			this.processScopes(requestInProgress);
-		} else {
-			List<RequestAttributes> listCategoryAttributes	= mapCategories.get(identifiers[pos]);
-			assert(listCategoryAttributes != null && listCategoryAttributes.size() > 0);
-			if (listCategoryAttributes.size() == 1) {
-				requestInProgress.add(listCategoryAttributes.get(0));
-				this.explodeOnCategory(identifiers, pos+1, requestInProgress, mapCategories);
-			} else {
-				for (RequestAttributes requestAttributes : listCategoryAttributes) {
-					StdMutableRequest stdRequestCopy	= new StdMutableRequest(requestInProgress);
-					stdRequestCopy.add(requestAttributes);
-					this.explodeOnCategory(identifiers, pos+1, stdRequestCopy, mapCategories);
-				}
+			int pos	= this.indices.length - 1;
+			while (pos >= 0 && ++this.indices[pos] == this.requestAttributesByCategory[pos].length) {
+				this.indices[pos--]	= 0;
 			}
+			this.hasNext	= (pos >= 0);
+			return stdRequest;
 		}
 	}
 	
 	/**
-	 * Checks to see if the given <code>Request</code> contains instances of repeated categories in the request attributes elements.
+	 * Checks to see if the given <code>Request</code> contains instances of repeated categories in the request attributes elements.  If so,
+	 * a {@link RepeatedCategoryProduct} is returned to generate the individual decision <code>Request</code>s on demand.  Otherwise the
+	 * <code>Request</code> is passed on to the next stage of processing and <code>null</code> is returned.
 	 * 
 	 * @param request the <code>Request</code> to check
+	 * @param individualDecisionRequests the <code>Collection</code> to add the generated <code>Request</code>s to
+	 * @return a <code>RepeatedCategoryProduct</code> if there are repeated categories, otherwise <code>null</code>
 	 */
-	protected void processRepeatedCategories(Request request) {
+	private RepeatedCategoryProduct processRepeatedCategories(Request request, Collection<Request> individualDecisionRequests) {
 		Iterator<RequestAttributes> iterRequestAttributes		= request.getRequestAttributes().iterator();
 		if (iterRequestAttributes == null || !iterRequestAttributes.hasNext()) {
 			/*
 			 * There are no attributes to process anyway.  The PDP will give an indeterminate result from this
 			 */
-			this.individualDecisionRequests.add(request);
-			return;
+			individualDecisionRequests.add(request);
+			return null;
 		}
 		
 		/*
@@ -440,8 +526,8 @@ public class StdIndividualDecisionRequestGenerator {
 			RequestAttributes requestAttributes	= iterRequestAttributes.next();
 			Identifier identifierCategory		= requestAttributes.getCategory();
 			if (identifierCategory == null) {
-				this.individualDecisionRequests.add(new StdMutableRequest(STATUS_NO_CATEGORY));
-				return;
+				individualDecisionRequests.add(new StdMutableRequest(STATUS_NO_CATEGORY));
+				return null;
 			}
 			if (setCategories.contains(identifierCategory)) {
 				bContainsMultiples	= true;
@@ -455,25 +541,55 @@ public class StdIndividualDecisionRequestGenerator {
 		 * just move on to the next check.
 		 */
 		if (!bContainsMultiples) {
-			this.processScopes(request);
-		} else {
-			iterRequestAttributes	= request.getRequestAttributes().iterator();
-			Map<Identifier,List<RequestAttributes>> mapCategories	= new HashMap<Identifier,List<RequestAttributes>>();
-			while (iterRequestAttributes.hasNext()) {
-				RequestAttributes requestAttributes	= iterRequestAttributes.next();
-				Identifier identifierCategory		= requestAttributes.getCategory();
-				List<RequestAttributes> listRequestAttributes	= mapCategories.get(identifierCategory);
-				if (listRequestAttributes == null) {
-					listRequestAttributes	= new ArrayList<RequestAttributes>();
-					mapCategories.put(identifierCategory, listRequestAttributes);
-				}
-				listRequestAttributes.add(requestAttributes);
+			this.nextScopes(request, individualDecisionRequests);
+			return null;
+		}
+		
+		iterRequestAttributes	= request.getRequestAttributes().iterator();
+		Map<Identifier,List<RequestAttributes>> mapCategories	= new HashMap<Identifier,List<RequestAttributes>>();
+		while (iterRequestAttributes.hasNext()) {
+			RequestAttributes requestAttributes	= iterRequestAttributes.next();
+			Identifier identifierCategory		= requestAttributes.getCategory();
+			if (identifierCategory == null) {
+				individualDecisionRequests.add(new StdMutableRequest(STATUS_NO_CATEGORY));
+				return null;
 			}
-			
-			StdMutableRequest requestRoot	= new StdMutableRequest();
-			requestRoot.setRequestDefaults(request.getRequestDefaults());
-			requestRoot.setReturnPolicyIdList(request.getReturnPolicyIdList());
-			this.explodeOnCategory(mapCategories.keySet().toArray(idArray), 0, requestRoot, mapCategories);
+			List<RequestAttributes> listRequestAttributes	= mapCategories.get(identifierCategory);
+			if (listRequestAttributes == null) {
+				listRequestAttributes	= new ArrayList<RequestAttributes>();
+				mapCategories.put(identifierCategory, listRequestAttributes);
+			}
+			listRequestAttributes.add(requestAttributes);
+		}
+		
+		/*
+		 * Check the size of the product before generating any of it
+		 */
+		RequestAttributes[][] requestAttributesByCategory	= new RequestAttributes[mapCategories.size()][];
+		long productSize	= 1;
+		int pos				= 0;
+		for (List<RequestAttributes> listRequestAttributes : mapCategories.values()) {
+			requestAttributesByCategory[pos++]	= listRequestAttributes.toArray(requestAttributesArray);
+			productSize	*= listRequestAttributes.size();
+			if (this.maxIndividualDecisionRequests > 0 && productSize > this.maxIndividualDecisionRequests) {
+				individualDecisionRequests.add(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_PROCESSING_ERROR, "Repeated attribute categories exceed the limit of " + this.maxIndividualDecisionRequests + " individual decision requests")));
+				return null;
+			}
+		}
+		return new RepeatedCategoryProduct(request, requestAttributesByCategory);
+	}
+	
+	/**
+	 * Checks to see if the given <code>Request</code> contains instances of repeated categories in the request attributes elements.
+	 * 
+	 * Overriding this method makes the generator create all of the individual decision <code>Request</code>s at once.
+	 * 
+	 * @param request the <code>Request</code> to check
+	 */
+	protected void processRepeatedCategories(Request request) {
+		RepeatedCategoryProduct repeatedCategoryProduct	= this.processRepeatedCategories(request, this.individualDecisionRequests);
+		while (repeatedCategoryProduct != null && repeatedCategoryProduct.hasNext()) {
+			this.processScopes(repeatedCategoryProduct.next());
 		}
 	}
 	
@@ -507,10 +623,97 @@ public class StdIndividualDecisionRequestGenerator {
 		return stdRequest;
 	}
 	
+	/**
+	 * IndividualDecisionRequestIterator generates the individual decision <code>Request</code>s for the original <code>Request</code>
+	 * as they are consumed.  Only the <code>Request</code>s derived from a single combination of repeated categories (after scope
+	 * and content selector expansion) are held at any one time.
+	 */
+	private class IndividualDecisionRequestIterator implements Iterator<Request> {
+		private final Request request;
+		private final Deque<Request> pendingRequests	= new ArrayDeque<Request>();
+		private Iterator<RequestReference> iterRequestReferences;
+		private RepeatedCategoryProduct repeatedCategoryProduct;
+		private boolean started							= false;
+		
+		public IndividualDecisionRequestIterator(Request requestIn) {
+			this.request	= requestIn;
+		}
+		
+		/**
+		 * Starts processing the original <code>Request</code>.  The process here is documented as step 1. of Section 4 of the XACML document.
+		 */
+		private void start() {
+			Request request	= this.request;
+			
+			/*
+			 * If the request is bad to begin with, just add it to the list and be done.
+			 */
+			if (request.getStatus() != null && !request.getStatus().isOk()) {
+				this.pendingRequests.add(request);
+				return;
+			}
+			
+			/*
+			 * Check to see if this Request is a MultiRequest
+			 */
+			Iterator<RequestReference> iterRequestReferencesOriginal	= request.getMultiRequests().iterator();
+			if (iterRequestReferencesOriginal != null && iterRequestReferencesOriginal.hasNext()) {
+				this.iterRequestReferences	= iterRequestReferencesOriginal;
+			} else {
+				this.repeatedCategoryProduct	= processRepeatedCategories(request, this.pendingRequests);
+			}
+		}
+		
+		private boolean fill() {
+			while (this.pendingRequests.isEmpty()) {
+				if (this.repeatedCategoryProduct != null) {
+					if (this.repeatedCategoryProduct.hasNext()) {
+						processScopes(this.repeatedCategoryProduct.next(), this.pendingRequests);
+					} else {
+						this.repeatedCategoryProduct	= null;
+					}
+				} else if (!this.started) {
+					this.started	= true;
+					this.start();
+				} else if (this.iterRequestReferences != null && this.iterRequestReferences.hasNext()) {
+					Request requestFromReferences	= processMultiRequest(this.request, this.iterRequestReferences.next());
+					assert(requestFromReferences != null);
+					if (requestFromReferences.getStatus() == null || requestFromReferences.getStatus().isOk()) {
+						this.repeatedCategoryProduct	= processRepeatedCategories(requestFromReferences, this.pendingRequests);
+					} else {
+						/*
+						 * Just add the bad request to the list.  It will be cause a Result with the same bad status
+						 * when the PDP actually runs the request.
+						 */
+						this.pendingRequests.add(requestFromReferences);
+					}
+				} else {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.fill();
+		}
+
+		@Override
+		public Request next() {
+			if (!this.fill()) {
+				throw new NoSuchElementException();
+			}
+			return this.pendingRequests.removeFirst();
+		}
+	}
+	
 	/**
 	 * Populates the individual decision <code>Request</code>s from the given <code>Request</code>
 	 * using all supported profiles.  The process here is documented as step 1. of Section 4 of the XACML document.
 	 * 
+	 * Overriding this method makes the generator create all of the individual decision <code>Request</code>s at once.
+	 * 
 	 * @param request the <code>Request</code> to explode
 	 */
 	protected void createIndividualDecisionRequests(Request request) {
@@ -533,10 +736,6 @@ public class StdIndividualDecisionRequestGenerator {
 				if (requestFromReferences.getStatus() == null || requestFromReferences.getStatus().isOk()) {
 					this.processRepeatedCategories(requestFromReferences);
 				} else {
-					/*
-					 * Just add the bad request to the list.  It will be cause a Result with the same bad status
-					 * when the PDP actually runs the request.
-					 */
 					this.individualDecisionRequests.add(requestFromReferences);
 				}
 			}
@@ -545,10 +744,66 @@ public class StdIndividualDecisionRequestGenerator {
 		}
 	}
 	
+	/**
+	 * LimitedIterator passes on the individual decision <code>Request</code>s from another <code>Iterator</code> until the limit
+	 * is reached, and then a single <code>Request</code> with a processing error <code>Status</code> in place of any more.
+	 */
+	private static class LimitedIterator implements Iterator<Request> {
+		private final Iterator<Request> iterRequests;
+		private final long maxRequests;
+		private long requests		= 0;
+		private boolean exceeded	= false;
+		
+		public LimitedIterator(Iterator<Request> iterRequestsIn, long maxRequestsIn) {
+			this.iterRequests	= iterRequestsIn;
+			this.maxRequests	= maxRequestsIn;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !this.exceeded && this.iterRequests.hasNext();
+		}
+
+		@Override
+		public Request next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			if (this.maxRequests > 0 && this.requests >= this.maxRequests) {
+				this.exceeded	= true;
+				return new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_PROCESSING_ERROR, "Individual decision requests exceed the limit of " + this.maxRequests));
+			}
+			this.requests++;
+			return this.iterRequests.next();
+		}
+	}
+	
+	/*
+	 * Determines whether the given class overrides any of the protected methods that generate the Requests all at once
+	 */
+	private static boolean overridesEagerMethods(Class<?> clazz) {
+		for ( ; clazz != StdIndividualDecisionRequestGenerator.class ; clazz = clazz.getSuperclass()) {
+			for (String methodName : EAGER_METHODS) {
+				try {
+					clazz.getDeclaredMethod(methodName, Request.class);
+					return true;
+				} catch (NoSuchMethodException ex) {
+					continue;
+				}
+			}
+		}
+		return false;
+	}
+	
+	public StdIndividualDecisionRequestGenerator(ScopeResolver scopeResolverIn, Request request, long maxIndividualDecisionRequestsIn) {
+		this.originalRequest				= request;
+		this.scopeResolver					= scopeResolverIn;
+		this.maxIndividualDecisionRequests	= maxIndividualDecisionRequestsIn;
+		this.eager							= overridesEagerMethods(this.getClass());
+	}
+	
 	public StdIndividualDecisionRequestGenerator(ScopeResolver scopeResolverIn, Request request) {
-		this.originalRequest	= request;
-		this.scopeResolver		= scopeResolverIn;
-		this.createIndividualDecisionRequests(request);
+		this(scopeResolverIn, request, 0);
 	}
 	
 	public StdIndividualDecisionRequestGenerator(Request request) {
@@ -564,13 +819,30 @@ public class StdIndividualDecisionRequestGenerator {
 		return this.originalRequest;
 	}
 	
+	/**
+	 * Gets the maximum number of individual decision <code>Request</code>s that are generated.  A value of zero or less means there is
+	 * no limit.
+	 * 
+	 * @return the maximum number of individual decision <code>Request</code>s
+	 */
+	public long getMaxIndividualDecisionRequests() {
+		return this.maxIndividualDecisionRequests;
+	}
+	
 	/**
 	 * Gets an <code>Iterator</code> over the individual decision <code>Request</code>s for
-	 * the original <code>Request</code>.
+	 * the original <code>Request</code>.  The <code>Request</code>s are generated as the <code>Iterator</code> is
+	 * advanced, and each call returns a new <code>Iterator</code> that starts from the beginning.  If a subclass overrides the methods
+	 * that generate them all at once, or has already called them, the <code>Iterator</code> is over those instead.
 	 * 
 	 * @return an <code>Iterator</code> over the individual decision <code>Request</code>s.
 	 */
 	public Iterator<Request> getIndividualDecisionRequests() {
-		return this.individualDecisionRequests.iterator();
+		if (this.eager && !this.generated && this.individualDecisionRequests.isEmpty()) {
+			this.generated	= true;
+			this.createIndividualDecisionRequests(this.originalRequest);
+		}
+		Iterator<Request> iterRequests	= (this.eager || !this.individualDecisionRequests.isEmpty() ? this.individualDecisionRequests.iterator() : new IndividualDecisionRequestIterator(this.originalRequest));
+		return new LimitedIterator(iterRequests, this.maxIndividualDecisionRequests);
 	}
 }
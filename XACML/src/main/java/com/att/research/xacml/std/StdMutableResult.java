@@ -34,14 +34,15 @@ public class StdMutableResult implements Result {
 	
 	private Decision decision;
 	private Status status;
-	private List<Obligation> obligations			= new ArrayList<Obligation>();
-	private List<Advice> associatedAdvice			= new ArrayList<Advice>();
-	private List<AttributeCategory>	attributes		= new ArrayList<AttributeCategory>();
-	private List<IdReference> policyIdentifiers		= new ArrayList<IdReference>();
-	private List<IdReference> policySetIdentifiers	= new ArrayList<IdReference>();
+	private List<Obligation> obligations;
+	private List<Advice> associatedAdvice;
+	private List<AttributeCategory>	attributes;
+	private List<IdReference> policyIdentifiers;
+	private List<IdReference> policySetIdentifiers;
 
 	/**
-	 * Creates a new empty <code>StdMutableResult</code>.
+	 * Creates a new empty <code>StdMutableResult</code>.  The lists start out as shared empty lists and are only allocated when
+	 * something is added to them.
 	 */
 	public StdMutableResult() {
 		this.obligations			= EMPTY_OBLIGATION_LIST;
@@ -72,7 +72,34 @@ public class RequestParser {
 		return dataTypeFactory;
 	}
 
+	/**
+	 * Creates a {@link com.att.research.xacml.api.Request} from the XACML annotations on the given object's class.  The
+	 * annotations are read once per class into a {@link com.att.research.xacml.std.annotations.RequestTemplate}, so after the first
+	 * call for a class only the field values are read.
+	 *
+	 * @param obj an instance of a class annotated with {@link com.att.research.xacml.std.annotations.XACMLRequest}
+	 * @return a new <code>Request</code>
+	 * @throws IllegalAccessException if a field cannot be read
+	 * @throws DataTypeException if a field value cannot be converted to its XACML data type
+	 */
 	public static Request	parseRequest(Object obj) throws IllegalAccessException, DataTypeException {
+		StdMutableRequest stdMutableRequest	= RequestTemplate.forClass(obj.getClass()).newRequest(obj);
+		if (logger.isDebugEnabled()) {
+			logger.debug(AttributeUtils.prettyPrint(stdMutableRequest));
+		}
+		return stdMutableRequest;
+	}
+
+	/**
+	 * Creates a {@link com.att.research.xacml.api.Request} by reflecting over the given object's class on every call.  This is
+	 * how <code>parseRequest</code> worked before request templates were cached and is kept so the tests can compare the two.
+	 *
+	 * @param obj an instance of a class annotated with {@link com.att.research.xacml.std.annotations.XACMLRequest}
+	 * @return a new <code>Request</code>
+	 * @throws IllegalAccessException if a field cannot be read
+	 * @throws DataTypeException if a field value cannot be converted to its XACML data type
+	 */
+	static Request	parseRequestReflective(Object obj) throws IllegalAccessException, DataTypeException {
 		//
 		// Our returned object
 		//
@@ -118,8 +145,8 @@ public class RequestParser {
 			XACMLSubject subject = field.getAnnotation(XACMLSubject.class);
 			if (subject != null) {
 				RequestParser.addAttribute(attributes, 
-						new IdentifierImpl(subject.category()), 
-						new IdentifierImpl(subject.attributeId()), 
+						IdentifierImpl.intern(subject.category()), 
+						IdentifierImpl.intern(subject.attributeId()), 
 						subject.includeInResults(), 
 						(subject.datatype().equals(XACMLRequest.nullString) ? null : subject.datatype()), 
 						(subject.issuer().equals(XACMLRequest.nullString) ? null : subject.issuer()),
@@ -130,8 +157,8 @@ public class RequestParser {
 			XACMLAction action = field.getAnnotation(XACMLAction.class);
 			if (action != null) {
 				RequestParser.addAttribute(attributes, 
-						new IdentifierImpl(action.category()), 
-						new IdentifierImpl(action.attributeId()), 
+						IdentifierImpl.intern(action.category()), 
+						IdentifierImpl.intern(action.attributeId()), 
 						action.includeInResults(), 
 						(action.datatype().equals(XACMLRequest.nullString) ? null : action.datatype()), 
 						(action.issuer().equals(XACMLRequest.nullString) ? null : action.issuer()),
@@ -142,8 +169,8 @@ public class RequestParser {
 			XACMLResource resource = field.getAnnotation(XACMLResource.class);
 			if (resource != null) {
 				RequestParser.addAttribute(attributes, 
-						new IdentifierImpl(resource.category()), 
-						new IdentifierImpl(resource.attributeId()), 
+						IdentifierImpl.intern(resource.category()), 
+						IdentifierImpl.intern(resource.attributeId()), 
 						resource.includeInResults(), 
 						(resource.datatype().equals(XACMLRequest.nullString) ? null : resource.datatype()),
 						(resource.issuer().equals(XACMLRequest.nullString) ? null : resource.issuer()), 
@@ -154,8 +181,8 @@ public class RequestParser {
 			XACMLEnvironment environment = field.getAnnotation(XACMLEnvironment.class);
 			if (environment != null) {
 				RequestParser.addAttribute(attributes,
-						new IdentifierImpl(environment.category()), 
-						new IdentifierImpl(environment.attributeId()), 
+						IdentifierImpl.intern(environment.category()), 
+						IdentifierImpl.intern(environment.attributeId()), 
 						environment.includeInResults(),
 						(environment.datatype().equals(XACMLRequest.nullString) ? null : environment.datatype()), 
 						(environment.issuer().equals(XACMLRequest.nullString) ? null : environment.issuer()),
@@ -166,8 +193,8 @@ public class RequestParser {
 			XACMLAttribute attribute = field.getAnnotation(XACMLAttribute.class);
 			if (attribute != null) {
 				RequestParser.addAttribute(attributes, 
-						new IdentifierImpl(attribute.category()), 
-						new IdentifierImpl(attribute.attributeId()), 
+						IdentifierImpl.intern(attribute.category()), 
+						IdentifierImpl.intern(attribute.attributeId()), 
 						attribute.includeInResults(), 
 						(attribute.datatype().equals(XACMLRequest.nullString) ? null : attribute.datatype()), 
 						(attribute.issuer().equals(XACMLRequest.nullString) ? null : attribute.issuer()),
@@ -218,6 +245,18 @@ public class RequestParser {
 			logger.warn("Unable to extract attribute value from object: {}", attributeId);
 			return;
 		}
+		addToRequestAttributes(attributes, mutableAttribute, id);
+	}
+
+	/**
+	 * Adds the given attribute to the <code>StdMutableRequestAttributes</code> with the same category and xml:id, creating one if
+	 * there is none yet.
+	 *
+	 * @param attributes the <code>StdMutableRequestAttributes</code> built so far
+	 * @param mutableAttribute the <code>StdMutableAttribute</code> to add
+	 * @param id the xml:id of the <code>StdMutableRequestAttributes</code> or null
+	 */
+	static void addToRequestAttributes(List<StdMutableRequestAttributes> attributes, StdMutableAttribute mutableAttribute, String id) {
 		//
 		// Does the category exist?
 		//
@@ -360,7 +399,7 @@ public class RequestParser {
 				datatypeId = XACML3.ID_DATATYPE_STRING;
 			}
 		} else {
-			datatypeId = new IdentifierImpl(datatype);
+			datatypeId = IdentifierImpl.intern(datatype);
 		}
 		DataType<?> dataTypeExtended	= getDataTypeFactory().getDataType(datatypeId);
 		if (dataTypeExtended == null) {
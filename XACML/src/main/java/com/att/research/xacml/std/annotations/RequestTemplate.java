@@ -0,0 +1,265 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.annotations;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.att.research.xacml.api.AttributeValue;
+import com.att.research.xacml.api.DataType;
+import com.att.research.xacml.api.DataTypeException;
+import com.att.research.xacml.api.DataTypeFactory;
+import com.att.research.xacml.api.Identifier;
+import com.att.research.xacml.api.RequestAttributesReference;
+import com.att.research.xacml.std.IdentifierImpl;
+import com.att.research.xacml.std.StdMutableAttribute;
+import com.att.research.xacml.std.StdMutableRequest;
+import com.att.research.xacml.std.StdMutableRequestAttributes;
+import com.att.research.xacml.std.StdRequestAttributesReference;
+import com.att.research.xacml.std.StdRequestDefaults;
+import com.att.research.xacml.std.StdRequestReference;
+
+/**
+ * RequestTemplate holds everything {@link com.att.research.xacml.std.annotations.RequestParser} learns from the XACML annotations on
+ * a class: the request level settings, the multi-request references and, for each annotated field, the pre-built
+ * {@link com.att.research.xacml.api.Identifier}s, the resolved {@link com.att.research.xacml.api.DataType} and a
+ * <code>MethodHandle</code> that reads the field.  Templates are computed once per class and cached in a <code>ClassValue</code>, so
+ * parsing a request only reads the field values and wraps them.
+ *
+ * @version $Revision$
+ */
+final class RequestTemplate {
+	private static final Logger logger	= LoggerFactory.getLogger(RequestTemplate.class);
+
+	private static final ClassValue<RequestTemplate> templates	= new ClassValue<RequestTemplate>() {
+		@Override
+		protected RequestTemplate computeValue(Class<?> type) {
+			return new RequestTemplate(type);
+		}
+	};
+
+	private static final MethodType GETTER_TYPE	= MethodType.methodType(Object.class, Object.class);
+
+	/**
+	 * FieldTemplate describes a single annotated field.
+	 */
+	static final class FieldTemplate {
+		private final Identifier category;
+		private final Identifier attributeId;
+		private final boolean includeInResults;
+		private final String datatype;
+		private final DataType<?> dataType;
+		private final String issuer;
+		private final String id;
+		private final MethodHandle getter;
+
+		private FieldTemplate(String categoryIn, String attributeIdIn, boolean includeInResultsIn, String datatypeIn, String issuerIn, String idIn, MethodHandle getterIn) {
+			this.category			= IdentifierImpl.intern(categoryIn);
+			this.attributeId		= IdentifierImpl.intern(attributeIdIn);
+			this.includeInResults	= includeInResultsIn;
+			this.datatype			= (datatypeIn.equals(XACMLRequest.nullString) ? null : datatypeIn);
+			this.issuer				= (issuerIn.equals(XACMLRequest.nullString) || issuerIn.isEmpty() ? null : issuerIn);
+			this.id					= (idIn.equals(XACMLRequest.nullString) ? null : idIn);
+			this.getter				= getterIn;
+			/*
+			 * Resolve an explicit data type now.  If the factory does not know it, leave it to RequestParser.extractValue to
+			 * report the error on each request as it always has.
+			 */
+			DataType<?> dataTypeResolved	= null;
+			if (this.datatype != null) {
+				DataTypeFactory dataTypeFactory	= RequestParser.getDataTypeFactory();
+				if (dataTypeFactory != null) {
+					dataTypeResolved	= dataTypeFactory.getDataType(IdentifierImpl.intern(this.datatype));
+				}
+			}
+			this.dataType	= dataTypeResolved;
+		}
+
+		private Object getFieldObject(Object object) {
+			try {
+				return (Object)this.getter.invokeExact(object);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		private AttributeValue<?> extractValue(Object object) throws DataTypeException {
+			if (this.dataType != null) {
+				return this.dataType.createAttributeValue(object);
+			}
+			return RequestParser.extractValue(this.datatype, object);
+		}
+
+		/**
+		 * Reads the field from the given object and adds its values to the matching <code>StdMutableRequestAttributes</code>.
+		 */
+		void addAttribute(List<StdMutableRequestAttributes> attributes, Object object) throws DataTypeException {
+			StdMutableAttribute mutableAttribute	= new StdMutableAttribute();
+			mutableAttribute.setCategory(this.category);
+			mutableAttribute.setAttributeId(this.attributeId);
+			mutableAttribute.setIncludeInResults(this.includeInResults);
+			if (this.issuer != null) {
+				mutableAttribute.setIssuer(this.issuer);
+			}
+
+			Collection<AttributeValue<?>> values	= new ArrayList<AttributeValue<?>>();
+			Object fieldObject	= this.getFieldObject(object);
+			if (fieldObject instanceof Collection) {
+				for (Object obj : (Collection<?>)fieldObject) {
+					values.add(this.extractValue(obj));
+				}
+			} else if (fieldObject != null && fieldObject.getClass().isArray()) {
+				int length	= Array.getLength(fieldObject);
+				for (int i = 0 ; i < length ; i++) {
+					values.add(this.extractValue(Array.get(fieldObject, i)));
+				}
+			} else if (fieldObject != null) {
+				values.add(this.extractValue(fieldObject));
+			}
+			if (values.isEmpty()) {
+				logger.warn("Unable to extract attribute value from object: {}", this.attributeId);
+				return;
+			}
+			mutableAttribute.addValues(values);
+			RequestParser.addToRequestAttributes(attributes, mutableAttribute, this.id);
+		}
+	}
+
+	private final boolean returnPolicyIdList;
+	private final boolean combinedDecision;
+	private final URI requestDefaults;
+	private final List<Collection<RequestAttributesReference>> requestReferences	= new ArrayList<Collection<RequestAttributesReference>>();
+	private final List<FieldTemplate> fieldTemplates							= new ArrayList<FieldTemplate>();
+
+	private RequestTemplate(Class<?> type) {
+		XACMLRequest requestAnnotation	= type.getAnnotation(XACMLRequest.class);
+		if (requestAnnotation == null) {
+			throw new IllegalArgumentException(type.getName() + " is not annotated with @XACMLRequest");
+		}
+		this.returnPolicyIdList	= requestAnnotation.ReturnPolicyIdList();
+		this.combinedDecision	= requestAnnotation.CombinedDecision();
+		this.requestDefaults	= (requestAnnotation.Defaults().equals(XACMLRequest.nullString) ? null : URI.create(requestAnnotation.Defaults()));
+		XACMLMultiRequest multi	= requestAnnotation.multiRequest();
+		if (multi != null) {
+			for (XACMLRequestReference reference : multi.values()) {
+				Collection<RequestAttributesReference> refs	= new ArrayList<RequestAttributesReference>();
+				for (String id : reference.values()) {
+					refs.add(new StdRequestAttributesReference(id));
+				}
+				if (! refs.isEmpty()) {
+					this.requestReferences.add(Collections.unmodifiableCollection(refs));
+				}
+			}
+		}
+
+		MethodHandles.Lookup lookup	= MethodHandles.lookup();
+		for (Field field : type.getDeclaredFields()) {
+			Annotation[] annotations	= new Annotation[] {
+					field.getAnnotation(XACMLSubject.class),
+					field.getAnnotation(XACMLAction.class),
+					field.getAnnotation(XACMLResource.class),
+					field.getAnnotation(XACMLEnvironment.class),
+					field.getAnnotation(XACMLAttribute.class)
+			};
+			MethodHandle getter	= null;
+			for (Annotation annotation : annotations) {
+				if (annotation == null) {
+					continue;
+				}
+				if (getter == null) {
+					getter	= getGetter(lookup, field);
+				}
+				this.fieldTemplates.add(newFieldTemplate(annotation, getter));
+			}
+		}
+	}
+
+	private static MethodHandle getGetter(MethodHandles.Lookup lookup, Field field) {
+		field.setAccessible(true);
+		MethodHandle getter;
+		try {
+			getter	= lookup.unreflectGetter(field);
+		} catch (IllegalAccessException ex) {
+			throw new IllegalArgumentException("Cannot access field " + field, ex);
+		}
+		if (Modifier.isStatic(field.getModifiers())) {
+			getter	= MethodHandles.dropArguments(getter, 0, Object.class);
+		}
+		return getter.asType(GETTER_TYPE);
+	}
+
+	private static FieldTemplate newFieldTemplate(Annotation annotation, MethodHandle getter) {
+		if (annotation instanceof XACMLSubject) {
+			XACMLSubject subject	= (XACMLSubject) annotation;
+			return new FieldTemplate(subject.category(), subject.attributeId(), subject.includeInResults(), subject.datatype(), subject.issuer(), subject.id(), getter);
+		} else if (annotation instanceof XACMLAction) {
+			XACMLAction action	= (XACMLAction) annotation;
+			return new FieldTemplate(action.category(), action.attributeId(), action.includeInResults(), action.datatype(), action.issuer(), action.id(), getter);
+		} else if (annotation instanceof XACMLResource) {
+			XACMLResource resource	= (XACMLResource) annotation;
+			return new FieldTemplate(resource.category(), resource.attributeId(), resource.includeInResults(), resource.datatype(), resource.issuer(), resource.id(), getter);
+		} else if (annotation instanceof XACMLEnvironment) {
+			XACMLEnvironment environment	= (XACMLEnvironment) annotation;
+			return new FieldTemplate(environment.category(), environment.attributeId(), environment.includeInResults(), environment.datatype(), environment.issuer(), environment.id(), getter);
+		} else {
+			XACMLAttribute attribute	= (XACMLAttribute) annotation;
+			return new FieldTemplate(attribute.category(), attribute.attributeId(), attribute.includeInResults(), attribute.datatype(), attribute.issuer(), attribute.id(), getter);
+		}
+	}
+
+	/**
+	 * Gets the <code>RequestTemplate</code> for the given class, computing it on first use.
+	 *
+	 * @param type the annotated <code>Class</code>
+	 * @return the <code>RequestTemplate</code> for the class
+	 * @throws IllegalArgumentException if the class is not annotated with <code>XACMLRequest</code>
+	 */
+	static RequestTemplate forClass(Class<?> type) {
+		return templates.get(type);
+	}
+
+	/**
+	 * Builds a new <code>StdMutableRequest</code> from the fields of the given object.
+	 *
+	 * @param object an instance of the class this template was built from
+	 * @return a new <code>StdMutableRequest</code>
+	 * @throws DataTypeException if a field value cannot be converted
+	 */
+	StdMutableRequest newRequest(Object object) throws DataTypeException {
+		StdMutableRequest stdMutableRequest	= new StdMutableRequest();
+		stdMutableRequest.setReturnPolicyIdList(this.returnPolicyIdList);
+		stdMutableRequest.setCombinedDecision(this.combinedDecision);
+		if (this.requestDefaults != null) {
+			stdMutableRequest.setRequestDefaults(new StdRequestDefaults(this.requestDefaults));
+		}
+		for (Collection<RequestAttributesReference> refs : this.requestReferences) {
+			stdMutableRequest.add(new StdRequestReference(refs));
+		}
+		List<StdMutableRequestAttributes> attributes	= new ArrayList<StdMutableRequestAttributes>();
+		for (FieldTemplate fieldTemplate : this.fieldTemplates) {
+			fieldTemplate.addAttribute(attributes, object);
+		}
+		for (StdMutableRequestAttributes a : attributes) {
+			stdMutableRequest.add(a);
+		}
+		return stdMutableRequest;
+	}
+}
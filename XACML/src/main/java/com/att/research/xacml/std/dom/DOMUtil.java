@@ -301,7 +301,7 @@ public class DOMUtil {
 		} else {
 			Identifier	identifierResult	= null;
 			try {
-				identifierResult	= new IdentifierImpl(stringAttribute);
+				identifierResult	= IdentifierImpl.intern(stringAttribute);
 			} catch (IllegalArgumentException ex) {
 				throw new DOMStructureException(node, "Invalid Identifier \"" + stringAttribute + "\" in \"" + getNodeLabel(node) + "\"", ex);
 			}
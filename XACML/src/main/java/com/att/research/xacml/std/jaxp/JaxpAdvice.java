@@ -37,7 +37,7 @@ public class JaxpAdvice extends StdMutableAdvice {
 		} else if (obligationType.getAdviceId() == null) {
 			throw new IllegalArgumentException("Null obligationId for AdviceType");
 		}
-		Identifier						obligationId			= new IdentifierImpl(obligationType.getAdviceId());
+		Identifier						obligationId			= IdentifierImpl.intern(obligationType.getAdviceId());
 		List<AttributeAssignment>	attributeAssignments	= null;
 		if (obligationType.getAttributeAssignment() != null && obligationType.getAttributeAssignment().size() > 0) {
 			attributeAssignments	= new ArrayList<AttributeAssignment>();
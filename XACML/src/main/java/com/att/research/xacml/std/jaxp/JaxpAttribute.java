@@ -39,7 +39,7 @@ public class JaxpAttribute extends StdMutableAttribute {
 		} else if (attributeType.getAttributeValue() == null) {
 			throw new IllegalArgumentException("Null attributeValue in AttributeType");
 		}
-		Identifier						attributeId				= new IdentifierImpl(attributeType.getAttributeId());
+		Identifier						attributeId				= IdentifierImpl.intern(attributeType.getAttributeId());
 		List<AttributeValue<?>>			values					= new ArrayList<AttributeValue<?>>();
 		Iterator<AttributeValueType>	iterAttributeValueTypes	= attributeType.getAttributeValue().iterator();
 		while (iterAttributeValueTypes.hasNext()) {
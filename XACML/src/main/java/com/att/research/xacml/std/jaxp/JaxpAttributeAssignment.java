@@ -44,9 +44,9 @@ public class JaxpAttributeAssignment extends StdMutableAttributeAssignment {
 		} else if (attributeAssignmentType.getContent() == null || attributeAssignmentType.getContent().get(0) == null) {
 			throw new IllegalArgumentException("Null value in AttributeAssignmentType");
 		}
-		Identifier		attributeId	= new IdentifierImpl(attributeAssignmentType.getAttributeId());
-		Identifier		categoryId	= new IdentifierImpl(attributeAssignmentType.getCategory());
-		Identifier		dataTypeId	= new IdentifierImpl(attributeAssignmentType.getDataType());
+		Identifier		attributeId	= IdentifierImpl.intern(attributeAssignmentType.getAttributeId());
+		Identifier		categoryId	= IdentifierImpl.intern(attributeAssignmentType.getCategory());
+		Identifier		dataTypeId	= IdentifierImpl.intern(attributeAssignmentType.getDataType());
 		DataTypeFactory dataTypeFactory		= null;
 		try {
 			dataTypeFactory	= DataTypeFactory.newInstance();
@@ -36,7 +36,7 @@ public class JaxpAttributeCategory {
 		} else if (attributesType.getCategory() == null) {
 			throw new IllegalArgumentException("Null categoryId for AttributesType");
 		}
-		Identifier identifierCategory	= new IdentifierImpl(attributesType.getCategory());
+		Identifier identifierCategory	= IdentifierImpl.intern(attributesType.getCategory());
 		List<Attribute> listAttributes	= new ArrayList<Attribute>();
 		
 		if (attributesType.getAttribute() != null && attributesType.getAttribute().size() > 0) {
@@ -43,7 +43,7 @@ public class JaxpIdReference extends StdIdReference {
 				throw new IllegalArgumentException("Invalid version");
 			}
 		}
-		return new JaxpIdReference(new IdentifierImpl(idReferenceType.getValue()), version);
+		return new JaxpIdReference(IdentifierImpl.intern(idReferenceType.getValue()), version);
 	}
 
 }
@@ -62,6 +62,6 @@ public class JaxpIdReferenceMatch extends StdIdReferenceMatch {
 			}
 		}
 		
-		return new JaxpIdReferenceMatch(new IdentifierImpl(idReferenceType.getValue()), version, earliestVersion, latestVersion);
+		return new JaxpIdReferenceMatch(IdentifierImpl.intern(idReferenceType.getValue()), version, earliestVersion, latestVersion);
 	}
 }
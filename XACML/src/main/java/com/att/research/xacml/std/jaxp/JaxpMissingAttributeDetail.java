@@ -41,9 +41,9 @@ public class JaxpMissingAttributeDetail extends StdMutableMissingAttributeDetail
 		} else if (missingAttributeDetailType.getDataType() == null) {
 			throw new IllegalArgumentException("Null dataTypeId for MissingAttributeDetailType");
 		}
-		Identifier	categoryId	= new IdentifierImpl(missingAttributeDetailType.getCategory());
-		Identifier	attributeId	= new IdentifierImpl(missingAttributeDetailType.getAttributeId());
-		Identifier	dataTypeId	= new IdentifierImpl(missingAttributeDetailType.getDataType());
+		Identifier	categoryId	= IdentifierImpl.intern(missingAttributeDetailType.getCategory());
+		Identifier	attributeId	= IdentifierImpl.intern(missingAttributeDetailType.getAttributeId());
+		Identifier	dataTypeId	= IdentifierImpl.intern(missingAttributeDetailType.getDataType());
 		
 		List<AttributeValue<?>>	attributeValues	= null;
 		if (missingAttributeDetailType.getAttributeValue() != null && missingAttributeDetailType.getAttributeValue().size() > 0) {
@@ -37,7 +37,7 @@ public class JaxpObligation extends StdMutableObligation {
 		} else if (obligationType.getObligationId() == null) {
 			throw new IllegalArgumentException("Null obligationId for ObligationType");
 		}
-		Identifier						obligationId			= new IdentifierImpl(obligationType.getObligationId());
+		Identifier						obligationId			= IdentifierImpl.intern(obligationType.getObligationId());
 		List<AttributeAssignment>	attributeAssignments	= null;
 		if (obligationType.getAttributeAssignment() != null && obligationType.getAttributeAssignment().size() > 0) {
 			attributeAssignments	= new ArrayList<AttributeAssignment>();
@@ -37,7 +37,7 @@ public class JaxpRequestAttributes {
 		} else if (attributesType.getCategory() == null) {
 			throw new IllegalArgumentException("Null categoryId for AttributesType");
 		}
-		Identifier identifierCategory	= new IdentifierImpl(attributesType.getCategory());
+		Identifier identifierCategory	= IdentifierImpl.intern(attributesType.getCategory());
 		Node nodeContentRoot			= null;
 		List<Attribute> listAttributes	= new ArrayList<Attribute>();
 		
@@ -31,7 +31,7 @@ public class JaxpStatusCode extends StdStatusCode {
 		} else if (statusCodeType.getValue() == null) {
 			throw new IllegalArgumentException("Null StatusCodeValue");
 		}
-		Identifier	statusCodeValue	= new IdentifierImpl(statusCodeType.getValue());
+		Identifier	statusCodeValue	= IdentifierImpl.intern(statusCodeType.getValue());
 		
 		StatusCode		statusCodeChild	= null;
 		if (statusCodeType.getStatusCode() != null) {
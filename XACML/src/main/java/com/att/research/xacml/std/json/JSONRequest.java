@@ -195,7 +195,7 @@ public class JSONRequest {
 			throw new JSONStructureException("XPathCategory or XPath missing or 0-length");
 		}
 
-		Identifier xpathCategoryId = new IdentifierImpl(xpathCategoryString);
+		Identifier xpathCategoryId = IdentifierImpl.intern(xpathCategoryString);
 		
 		// get the Namespaces, if any.
 		// Use StringNamespaceContext because we need to use the add functions to incrementally add the namespaces
@@ -362,7 +362,7 @@ public class JSONRequest {
 		if (! (idString instanceof String)) {
 			throw new JSONStructureException ("AttributeId must be String, got " + idString.getClass());
 		}
-		Identifier id = new IdentifierImpl(idString.toString());
+		Identifier id = IdentifierImpl.intern(idString.toString());
 		
 		Object Value = attributeMap.remove("Value");
 		if (Value == null) {
@@ -626,7 +626,7 @@ public class JSONRequest {
 				throw new JSONStructureException ("Expect '" + categoryName + "' CategoryId to be String got " + categoryIDString.getClass());
 			} else {				
 //TODO Spec says CategoryId may be shorthand, but none have been specified
-				categoryId = new IdentifierImpl(categoryIDString.toString());
+				categoryId = IdentifierImpl.intern(categoryIDString.toString());
 			}
 		}
 		// if we know the category, make sure user gave correct Id
@@ -728,7 +728,7 @@ public class JSONRequest {
 	private static void parseDefaultCategory(Map<?,?> jsonRequestMap, String categoryName, String categoryIdString, StdMutableRequest stdMutableRequest) throws JSONStructureException {
 		Object categoryMap = jsonRequestMap.remove(categoryName);
 		if (categoryMap != null) {
-			Identifier defaultIdentifier = new IdentifierImpl(categoryIdString);
+			Identifier defaultIdentifier = IdentifierImpl.intern(categoryIdString);
 			// The contents may be either a single item (whose attributes are in a Map)
 			// or a list of items
 			if (categoryMap instanceof Map) {
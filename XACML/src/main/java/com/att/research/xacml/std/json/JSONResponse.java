@@ -266,7 +266,7 @@ public class JSONResponse {
 		Object valueObject = statusCodeMap.remove("Value");
 		Identifier identifier = null;
 		if (valueObject != null) {
-			identifier = new IdentifierImpl(valueObject.toString());
+			identifier = IdentifierImpl.intern(valueObject.toString());
 		}
 		
 		// get optional child status code
@@ -312,7 +312,7 @@ public class JSONResponse {
 			throw new JSONStructureException("XPathExpression must contain URI (string) XPathCategory");
 		}
 
-		Identifier xpathCategoryIdentifier = new IdentifierImpl(xpathCategoryObject.toString());
+		Identifier xpathCategoryIdentifier = IdentifierImpl.intern(xpathCategoryObject.toString());
 
 		
 		// optional Namespaces
@@ -408,7 +408,7 @@ public class JSONResponse {
 			if (idObject == null) {
 				throw new JSONStructureException(oaTypeName + " array item must have Id");
 			}
-			Identifier oaId = new IdentifierImpl(idObject.toString());
+			Identifier oaId = IdentifierImpl.intern(idObject.toString());
 			
 			// get optional list of AttributeAssignment
 			Object aaListObject = oaMap.remove("AttributeAssignment");
@@ -432,12 +432,12 @@ public class JSONResponse {
 					if (aaIdObject == null) {
 						throw new JSONStructureException("AttributeAssignment list item missing AttributeId in " + oaTypeName);
 					}
-					stdMutableAttributeAssignment.setAttributeId(new IdentifierImpl(aaIdObject.toString()));
+					stdMutableAttributeAssignment.setAttributeId(IdentifierImpl.intern(aaIdObject.toString()));
 					
 					// optional Category
 					Object categoryObject = aaMap.remove("Category");
 					if (categoryObject != null) {
-						stdMutableAttributeAssignment.setCategory(new IdentifierImpl(categoryObject.toString()));
+						stdMutableAttributeAssignment.setCategory(IdentifierImpl.intern(categoryObject.toString()));
 					}
 
 					// get the optional DataType so we know what to do with the mandatory value
@@ -531,7 +531,7 @@ public class JSONResponse {
 			if (idReferenceIdObject == null) {
 				throw new JSONStructureException(idTypeName + " array item must contain Id");
 			}
-			Identifier idReferenceId = new IdentifierImpl(idReferenceIdObject.toString());
+			Identifier idReferenceId = IdentifierImpl.intern(idReferenceIdObject.toString());
 			
 			// optional Version
 			StdVersion version = null;
@@ -785,17 +785,17 @@ public class JSONResponse {
 				    		if (attributeNode == null) {
 				    			throw new JSONStructureException("MissingAttributeDetail missing AttributeId");
 				    		}
-				    		mutableMAD.setAttributeId(new IdentifierImpl(attributeNode.getNodeValue()));
+				    		mutableMAD.setAttributeId(IdentifierImpl.intern(attributeNode.getNodeValue()));
 				    		Node categoryNode = attributeMap.getNamedItem("Category");
 				    		if (categoryNode == null) {
 				    			throw new JSONStructureException("MissingAttributeDetail missing Category");
 				    		}
-				    		mutableMAD.setCategory(new IdentifierImpl(categoryNode.getNodeValue()));
+				    		mutableMAD.setCategory(IdentifierImpl.intern(categoryNode.getNodeValue()));
 				    		Node dataTypeNode = attributeMap.getNamedItem("DataType");
 				    		if (dataTypeNode == null) {
 				    			throw new JSONStructureException("MissingAttributeDetail missing DataType");
 				    		}
-				    		mutableMAD.setDataTypeId(new IdentifierImpl(dataTypeNode.getNodeValue()));
+				    		mutableMAD.setDataTypeId(IdentifierImpl.intern(dataTypeNode.getNodeValue()));
 				    		Node issuerNode = attributeMap.getNamedItem("Issuer");
 				    		if (issuerNode != null) {
 					    		mutableMAD.setIssuer(issuerNode.getNodeValue());
@@ -891,7 +891,7 @@ public class JSONResponse {
 						if (categoryIdObject == null) {
 							throw new JSONStructureException("Category array item must contain CategoryId");
 						}
-						Identifier categoryId = new IdentifierImpl(categoryIdObject.toString());
+						Identifier categoryId = IdentifierImpl.intern(categoryIdObject.toString());
 						
 						stdMutableAttributeCategory.setCategory(categoryId);
 						
@@ -940,7 +940,7 @@ public class JSONResponse {
 								if (aaIdObject == null) {
 									throw new JSONStructureException("Category member Attribute list item missing AttributeId");
 								}
-								stdMutableAttribute.setAttributeId(new IdentifierImpl(aaIdObject.toString()));
+								stdMutableAttribute.setAttributeId(IdentifierImpl.intern(aaIdObject.toString()));
 								
 								// get the optional DataType so we know what to do with the mandatory value
 								Object dataTypeObject = attributeMap.remove("DataType");
@@ -0,0 +1,254 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.pap;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PropertiesJournal keeps a properties file up to date without rewriting it on every change.  Each change is appended to
+ * a journal file next to it as the keys that were set or removed, and the properties file is only rewritten (compacted)
+ * once the journal holds <code>compactThreshold</code> entries.  Loading reads the properties file and replays the journal.
+ *
+ * Each journal line is <code>S&lt;tab&gt;key&lt;tab&gt;value</code> or <code>R&lt;tab&gt;key</code>, and each change ends with a
+ * <code>C</code> line so a change that was only partly written is ignored.  Replaying a journal over a properties file
+ * that already contains its changes gives the same result, so a crash during compaction loses nothing.
+ *
+ * @version $Revision$
+ */
+final class PropertiesJournal {
+	private static final Logger	logger	= LoggerFactory.getLogger(PropertiesJournal.class);
+
+	public static final String	JOURNAL_SUFFIX	= ".journal";
+
+	private final Path file;
+	private final Path journal;
+	private final int compactThreshold;
+	private Properties persisted	= new Properties();
+	private int journalEntries		= 0;
+
+	public PropertiesJournal(Path fileIn, int compactThresholdIn) {
+		this.file				= fileIn;
+		this.journal			= Paths.get(fileIn.toString() + JOURNAL_SUFFIX);
+		this.compactThreshold	= Math.max(1, compactThresholdIn);
+	}
+
+	/**
+	 * Loads the properties file and replays the journal over it.
+	 *
+	 * @return the current <code>Properties</code>
+	 * @throws IOException if the properties file exists but cannot be read
+	 */
+	public synchronized Properties load() throws IOException {
+		Properties properties	= new Properties();
+		if (Files.exists(this.file)) {
+			try (InputStream is = Files.newInputStream(this.file)) {
+				properties.load(is);
+			}
+		}
+		this.journalEntries	= 0;
+		if (Files.exists(this.journal)) {
+			this.journalEntries	= replay(this.journal, properties);
+			logger.info("Replayed " + this.journalEntries + " journal entries from " + this.journal);
+		}
+		this.persisted	= copy(properties);
+		return properties;
+	}
+
+	/**
+	 * Appends whatever differs between the given <code>Properties</code> and the ones last saved to the journal, compacting
+	 * it if it has grown past the threshold.
+	 *
+	 * @param properties the current <code>Properties</code>
+	 * @throws IOException if the journal cannot be written
+	 */
+	public synchronized void save(Properties properties) throws IOException {
+		StringBuilder change	= new StringBuilder();
+		int entries				= 0;
+		for (String key : properties.stringPropertyNames()) {
+			String value	= properties.getProperty(key);
+			if (! value.equals(this.persisted.getProperty(key))) {
+				change.append("S\t").append(escape(key)).append('\t').append(escape(value)).append('\n');
+				entries++;
+			}
+		}
+		for (String key : this.persisted.stringPropertyNames()) {
+			if (properties.getProperty(key) == null) {
+				change.append("R\t").append(escape(key)).append('\n');
+				entries++;
+			}
+		}
+		if (entries == 0) {
+			return;
+		}
+		if (this.journalEntries + entries >= this.compactThreshold) {
+			this.compact(properties);
+			return;
+		}
+		change.append("C\n");
+		try (Writer writer = Files.newBufferedWriter(this.journal, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			writer.write(change.toString());
+		}
+		this.journalEntries	+= entries;
+		this.persisted		= copy(properties);
+	}
+
+	/**
+	 * Rewrites the properties file with the given <code>Properties</code> and empties the journal.
+	 *
+	 * @param properties the current <code>Properties</code>
+	 * @throws IOException if the properties file cannot be written
+	 */
+	public synchronized void compact(Properties properties) throws IOException {
+		Properties sorted = new Properties() {
+			private static final long serialVersionUID = 1L;
+			// For Debugging it is helpful for the file to be in a sorted order,
+			// any by returning the keys in the natural Alpha order for strings we get close enough.
+			// TreeSet is sorted, and this just overrides the normal Properties method to get the keys.
+			@Override
+		    public synchronized Enumeration<Object> keys() {
+		        return Collections.enumeration(new TreeSet<Object>(super.keySet()));
+		    }
+	    };
+		sorted.putAll(properties);
+		Path temp	= Paths.get(this.file.toString() + ".tmp");
+		try (OutputStream os = Files.newOutputStream(temp)) {
+			sorted.store(os, "");
+		}
+		try {
+			Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		Files.deleteIfExists(this.journal);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Compacted " + this.journalEntries + " journal entries into " + this.file);
+		}
+		this.journalEntries	= 0;
+		this.persisted		= copy(properties);
+	}
+
+	/**
+	 * Gets the number of entries in the journal that have not been compacted into the properties file yet.
+	 *
+	 * @return the number of journal entries
+	 */
+	public synchronized int getJournalEntries() {
+		return this.journalEntries;
+	}
+
+	private static int replay(Path journal, Properties properties) throws IOException {
+		int entries			= 0;
+		List<String[]> change	= new ArrayList<String[]>();
+		try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.equals("C")) {
+					for (String[] entry : change) {
+						if (entry.length == 3) {
+							properties.setProperty(entry[1], entry[2]);
+						} else {
+							properties.remove(entry[1]);
+						}
+					}
+					entries	+= change.size();
+					change.clear();
+					continue;
+				}
+				String[] fields	= line.split("\t", -1);
+				if ((fields[0].equals("S") && fields.length == 3) || (fields[0].equals("R") && fields.length == 2)) {
+					for (int i = 1 ; i < fields.length ; i++) {
+						fields[i]	= unescape(fields[i]);
+					}
+					change.add(fields);
+				} else {
+					logger.warn("Ignoring malformed journal line in " + journal + ": " + line);
+				}
+			}
+		}
+		if (! change.isEmpty()) {
+			logger.warn("Ignoring " + change.size() + " uncommitted journal entries in " + journal);
+		}
+		return entries;
+	}
+
+	private static Properties copy(Properties properties) {
+		Properties result	= new Properties();
+		for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+			result.put(entry.getKey(), entry.getValue());
+		}
+		return result;
+	}
+
+	private static String escape(String string) {
+		StringBuilder result	= new StringBuilder(string.length());
+		for (int i = 0 ; i < string.length() ; i++) {
+			char c	= string.charAt(i);
+			switch (c) {
+			case '\\':
+				result.append("\\\\");
+				break;
+			case '\t':
+				result.append("\\t");
+				break;
+			case '\n':
+				result.append("\\n");
+				break;
+			case '\r':
+				result.append("\\r");
+				break;
+			default:
+				result.append(c);
+			}
+		}
+		return result.toString();
+	}
+
+	private static String unescape(String string) {
+		StringBuilder result	= new StringBuilder(string.length());
+		for (int i = 0 ; i < string.length() ; i++) {
+			char c	= string.charAt(i);
+			if (c == '\\' && i + 1 < string.length()) {
+				c	= string.charAt(++i);
+				switch (c) {
+				case 't':
+					c	= '\t';
+					break;
+				case 'n':
+					c	= '\n';
+					break;
+				case 'r':
+					c	= '\r';
+					break;
+				default:
+					break;
+				}
+			}
+			result.append(c);
+		}
+		return result.toString();
+	}
+}
@@ -7,7 +7,6 @@ package com.att.research.xacml.std.pap;
 
 
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -19,12 +18,13 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +35,7 @@ import com.att.research.xacml.api.pap.PDP;
 import com.att.research.xacml.api.pap.PDPGroup;
 import com.att.research.xacml.api.pap.PDPPolicy;
 import com.att.research.xacml.api.pap.PDPStatus;
+import com.att.research.xacml.std.pap.StdPDPItemSetChangeNotifier.StdItemSetChangeListener;
 import com.att.research.xacml.util.XACMLProperties;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
@@ -44,6 +45,10 @@ import com.google.common.collect.Sets;
  * This is a simple PAP engine that uses some property files and a simple directory
  * structure in the file system to manage a policy repository and set of PDP nodes.
  * 
+ * The groups and PDPs are indexed in memory so lookups do not scan every group, and lookups
+ * do not lock the engine. Changes are serialized on the engine and saved by appending to a journal
+ * next to xacml.properties, which is rewritten once the journal has xacml.pap.journal.compact entries.
+ * 
  * @author pameladragosh
  *
  */
@@ -54,15 +59,49 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 	public static String	PROP_PAP_GROUPS = "xacml.pap.groups";
 	public static String	PROP_PAP_GROUPS_DEFAULT = "xacml.pap.groups.default";
 	public static String	PROP_PAP_GROUPS_DEFAULT_NAME = "default";
+	public static String	PROP_PAP_JOURNAL_COMPACT = "xacml.pap.journal.compact";
+	public static String	DEFAULT_PAP_JOURNAL_COMPACT = "1000";
 
     protected final Path repository;
 	protected Set<StdPDPGroup> groups;
+	
+	//
+	// The indexes, only changed while synchronized on the engine
+	//
+	private final ConcurrentMap<String, StdPDPGroup> groupsById = new ConcurrentHashMap<String, StdPDPGroup>();
+	private final ConcurrentMap<String, StdPDPGroup> groupsByPdpId = new ConcurrentHashMap<String, StdPDPGroup>();
+	private final ConcurrentMap<String, PDP> pdpsById = new ConcurrentHashMap<String, PDP>();
+	private final ConcurrentMap<String, Set<StdPDPGroup>> groupsByPolicyId = new ConcurrentHashMap<String, Set<StdPDPGroup>>();
+	
+	//
+	// Keeps the policy index up to date as policies are added to or removed from a group
+	//
+	private final StdItemSetChangeListener policyIndexer = new StdItemSetChangeListener() {
+		@Override
+		public void changed() {
+		}
+
+		@Override
+		public void groupChanged(PDPGroup group) {
+			if (group instanceof StdPDPGroup) {
+				indexPolicies((StdPDPGroup) group);
+			}
+		}
+
+		@Override
+		public void pdpChanged(PDP pdp) {
+		}
+	};
+	
+	private final int journalCompact;
+	private PropertiesJournal journal;
 		
 	public StdEngine() throws PAPException, IOException {
 		//
 		// Get the location in the file system of our repository
 		//
 		this.repository = Paths.get(XACMLProperties.getProperty(PROP_PAP_REPO));
+		this.journalCompact = Integer.parseInt(XACMLProperties.getProperty(PROP_PAP_JOURNAL_COMPACT, DEFAULT_PAP_JOURNAL_COMPACT));
 		//
 		// Initialize
 		//
@@ -74,6 +113,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 		// Get the location in the file system of our repository
 		//
 		this.repository = Paths.get(properties.getProperty(PROP_PAP_REPO));
+		this.journalCompact = Integer.parseInt(properties.getProperty(PROP_PAP_JOURNAL_COMPACT, DEFAULT_PAP_JOURNAL_COMPACT));
 		//
 		// Initialize
 		//
@@ -85,6 +125,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 		// Save our location
 		//
 		this.repository = repository;
+		this.journalCompact = Integer.parseInt(XACMLProperties.getProperty(PROP_PAP_JOURNAL_COMPACT, DEFAULT_PAP_JOURNAL_COMPACT));
 		//
 		// Initialize
 		//
@@ -111,38 +152,51 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 		// Load our groups
 		//
 		this.loadGroups();
+		//
+		// Start with an empty journal
+		//
+		try {
+			this.journal.compact(this.buildProperties());
+		} catch (IOException e) {
+			logger.error("Failed to save configuration", e);
+		}
 	}
 	
-	private void loadGroups() throws PAPException {
+	private synchronized void loadGroups() throws PAPException {
 		//
 		// Create a properties object
 		//
 		Properties properties = new Properties();
 		Path file = Paths.get(this.repository.toString(), XACMLProperties.XACML_PROPERTIES_NAME);
+		this.journal = new PropertiesJournal(file, this.journalCompact);
+		this.groups = ConcurrentHashMap.newKeySet();
 		try {
 			//
-			// Load the properties
+			// Load the properties and any changes since they were last written
 			//
-			try (InputStream is = new FileInputStream(file.toFile())) {
-				properties.load(is);
+			if (Files.notExists(file)) {
+				logger.error("Failed to load " + file.toAbsolutePath().toString());
 			}
+			properties = this.journal.load();
 
 			//
 			// Parse it
 			//
-			this.groups = this.readProperties(this.repository, properties);
+			this.groups.addAll(this.readProperties(this.repository, properties));
 		} catch (IOException e) {
 			logger.error("Failed to load " + file.toAbsolutePath().toString());
-			this.groups = new HashSet<StdPDPGroup>();
+		}
+		for (StdPDPGroup group : this.groups) {
+			this.indexGroup(group);
 		}
 		//
 		// Initialize the default group
 		//
-		PDPGroup defaultGroup = this.initializeDefaultGroup(file, properties);
+		PDPGroup defaultGroup = this.initializeDefaultGroup(properties);
 		logger.info("Default group is: " + defaultGroup.getId() + "=" + defaultGroup.getName());
 	}
 	
-	private PDPGroup initializeDefaultGroup(Path file, Properties properties) throws PAPException {
+	private PDPGroup initializeDefaultGroup(Properties properties) throws PAPException {
 		//
 		// Make sure we have the default group
 		//
@@ -197,24 +251,11 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 			//
 			StdPDPGroup newDefault = new StdPDPGroup(defaultId, true, "default", "The default group where new PDP's are put.", defaultPath);
 			//
-			// Add it to our list
+			// Add it to our list, it is saved along
+			// with the rest of the configuration.
 			//
 			this.groups.add(newDefault);
-			//
-			// Save our properties out since we have
-			// a new default group.
-			//
-			StdEngine.setGroupProperties(newDefault, properties);
-			//
-			// Save it to disk
-			//
-			try {
-				try (OutputStream os = Files.newOutputStream(file)) {
-					properties.store(os, "");
-				}
-			} catch (IOException e) {
-				logger.error("Failed to save properties with new default group information.", e);
-			}
+			this.indexGroup(newDefault);
 			//
 			// Return it
 			//
@@ -243,7 +284,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 	}
 
 	@Override
-	public void	SetDefaultGroup(PDPGroup group) throws PAPException {
+	public synchronized void	SetDefaultGroup(PDPGroup group) throws PAPException {
 		
 		boolean changesMade = false;
 		for (PDPGroup aGroup : groups) {
@@ -288,16 +329,11 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 	
 	@Override
 	public PDPGroup	getGroup(String id) throws PAPException {
-		for (PDPGroup g: this.groups) {
-			if (g.getId().equals(id)) {
-				return g;
-			}
-		}
-		return null;
+		return (id == null ? null : this.groupsById.get(id));
 	}
 
 	@Override
-	public void	newGroup(String name, String description) throws PAPException, NullPointerException
+	public synchronized void	newGroup(String name, String description) throws PAPException, NullPointerException
 	{	
 		//
 		// Null check
@@ -387,6 +423,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 		//
 		StdPDPGroup newGroup = new StdPDPGroup(id, name, description, groupPath);
 		if (this.groups.add(newGroup)) {
+			this.indexGroup(newGroup);
 			// save the new group in our properties and notify any listeners of the change
 			groupChanged(newGroup);
 		}
@@ -432,7 +469,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 	
 
 	@Override
-	public void updateGroup(PDPGroup group) throws PAPException {
+	public synchronized void updateGroup(PDPGroup group) throws PAPException {
 		if (group == null || group.getId() == null) {
 			throw new PAPException("Group or id is null");
 		}
@@ -457,7 +494,9 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 			}
 			// update the group in the set by simply replacing the old instance with the new one
 			this.groups.remove(existingGroup);
+			this.unindexGroup(existingGroup);
 			this.groups.add((StdPDPGroup)group);
+			this.indexGroup((StdPDPGroup)group);
 			
 		} else {
 			// the name/identity of the group has changed
@@ -495,7 +534,9 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 			
 			// save the new group into the Set
 			groups.remove(existingGroup);
+			this.unindexGroup(existingGroup);
 			groups.add((StdPDPGroup)group);
+			this.indexGroup((StdPDPGroup)group);
 			
 		}
 		
@@ -505,7 +546,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 	}
 		
 	@Override
-	public void	removeGroup(PDPGroup group, PDPGroup newGroup) throws PAPException, NullPointerException
+	public synchronized void	removeGroup(PDPGroup group, PDPGroup newGroup) throws PAPException, NullPointerException
 	{
 		if (group == null) {
 			throw new NullPointerException();
@@ -582,6 +623,9 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 		
 		// remove the group from the set of all groups
 		groups.remove(group);
+		if (group instanceof StdPDPGroup) {
+			this.unindexGroup((StdPDPGroup) group);
+		}
 		
 		//
 		// Save changes
@@ -593,40 +637,43 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 	
 	@Override
 	public PDPGroup getPDPGroup(PDP pdp) throws PAPException {
-		for (PDPGroup group : this.groups) {
-			if (group.getPdps().contains(pdp)) {
-				return group;
-			}
-		}
-		return null;
+		return (pdp == null ? null : this.getPDPGroup(pdp.getId()));
 	}	
 	
 	@Override
 	public PDPGroup getPDPGroup(String pdpId) throws PAPException {
-		for (PDPGroup group : this.groups) {
-			for (PDP pdp : group.getPdps()) {
-				if (pdp.getId().equals(pdpId)) {
-					return group;
-				}
-			}
-		}
-		return null;
+		return (pdpId == null ? null : this.groupsByPdpId.get(pdpId));
 	}
 	
 	@Override
 	public PDP	getPDP(String pdpId) throws PAPException {
-		for (PDPGroup group : this.groups) {
-			for (PDP pdp : group.getPdps()) {
-				if (pdp.getId().equals(pdpId)) {
-					return pdp;
-				}
-			}
+		return (pdpId == null ? null : this.pdpsById.get(pdpId));
+	}
+	
+	@Override
+	public Set<PDP> getPDPs() throws PAPException {
+		//
+		// The index is safe to read while the engine is being changed, so there is no need to lock it
+		//
+		return new HashSet<PDP>(this.pdpsById.values());
+	}
+	
+	/**
+	 * Gets the groups a policy has been published to.
+	 * 
+	 * @param policyId the id of the <code>PDPPolicy</code>
+	 * @return the <code>PDPGroup</code>s that contain the policy
+	 */
+	public Set<PDPGroup> getPolicyGroups(String policyId) {
+		Set<StdPDPGroup> policyGroups = (policyId == null ? null : this.groupsByPolicyId.get(policyId));
+		if (policyGroups == null) {
+			return Collections.emptySet();
 		}
-		return null;
+		return Collections.unmodifiableSet(new HashSet<PDPGroup>(policyGroups));
 	}
 	
 	@Override
-	public void newPDP(String id, PDPGroup group, String name, String description) throws PAPException, NullPointerException {
+	public synchronized void newPDP(String id, PDPGroup group, String name, String description) throws PAPException, NullPointerException {
 		if (group == null) {
 			throw new PAPException("You must specify which group the PDP will belong to.");
 		}
@@ -641,6 +688,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 		if (group instanceof StdPDPGroup) {
 			StdPDP pdp = new StdPDP(id, name, description);
 			if (((StdPDPGroup) group).addPDP(pdp)) {
+				this.indexPDP(pdp, (StdPDPGroup) group);
 				//
 				// Save the properties and notify any listeners
 				//
@@ -653,7 +701,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 
 	
 	@Override
-	public void movePDP(PDP pdp, PDPGroup newGroup) throws PAPException {
+	public synchronized void movePDP(PDP pdp, PDPGroup newGroup) throws PAPException {
 		if (newGroup == null) {
 			throw new NullPointerException("You must specify which group the PDP will belong to.");
 		}
@@ -669,13 +717,14 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 			if (((StdPDPGroup) currentGroup).removePDP(pdp)) {
 				boolean result = ((StdPDPGroup) newGroup).addPDP(pdp);
 				if (result) {
+					this.indexPDP(pdp, (StdPDPGroup) newGroup);
 					//
 					// Save the configuration
 					//
 					this.doSave();
 				} else {
 					logger.error("Failed to add to new group, putting back into original group.");
-					if (((StdPDPGroup) currentGroup).removePDP(pdp) == false) {
+					if (((StdPDPGroup) currentGroup).addPDP(pdp) == false) {
 						logger.error("Failed to put PDP back into original group.");
 					}
 				}
@@ -689,7 +738,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 
 	
 	@Override
-	public void	updatePDP(PDP pdp) throws PAPException {
+	public synchronized void	updatePDP(PDP pdp) throws PAPException {
 		PDP currentPDP = this.getPDP(pdp.getId());
 		if (currentPDP == null) {
 			String message = "Unknown PDP id '" + pdp.getId() + "'";
@@ -705,7 +754,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 	}
 	
 	@Override
-	public void removePDP(PDP pdp) throws PAPException {
+	public synchronized void removePDP(PDP pdp) throws PAPException {
 		PDPGroup group = this.getPDPGroup(pdp);
 		if (group == null) {
 			throw new NullPointerException();
@@ -713,6 +762,8 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 		if (group instanceof StdPDPGroup) {
 			boolean result = ((StdPDPGroup) group).removePDP(pdp);
 			if (result) {
+				this.groupsByPdpId.remove(pdp.getId());
+				this.pdpsById.remove(pdp.getId());
 				this.doSave();
 			}
 			return;
@@ -732,7 +783,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 	}
 	
 	@Override
-	public void publishPolicy(String id, String name, boolean isRoot, InputStream policy, PDPGroup group) throws PAPException {
+	public synchronized void publishPolicy(String id, String name, boolean isRoot, InputStream policy, PDPGroup group) throws PAPException {
 		if (group == null) {
 			throw new NullPointerException();
 		}
@@ -752,7 +803,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 	
 	
 	@Override
-	public void removePolicy(PDPPolicy policy, PDPGroup group) throws PAPException {
+	public synchronized void removePolicy(PDPPolicy policy, PDPGroup group) throws PAPException {
 		if (group == null) {
 			throw new NullPointerException();
 		}
@@ -769,6 +820,48 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 	// HELPER methods
 	//
 	
+	private void indexGroup(StdPDPGroup group) {
+		this.groupsById.put(group.getId(), group);
+		for (PDP pdp : group.getPdps()) {
+			this.indexPDP(pdp, group);
+		}
+		this.indexPolicies(group);
+		group.addItemSetChangeListener(this.policyIndexer);
+	}
+	
+	private void unindexGroup(StdPDPGroup group) {
+		group.removeItemSetChangeListener(this.policyIndexer);
+		this.groupsById.remove(group.getId(), group);
+		for (PDP pdp : group.getPdps()) {
+			if (this.groupsByPdpId.remove(pdp.getId(), group)) {
+				this.pdpsById.remove(pdp.getId());
+			}
+		}
+		for (Set<StdPDPGroup> policyGroups : this.groupsByPolicyId.values()) {
+			policyGroups.remove(group);
+		}
+		this.groupsByPolicyId.values().removeIf(Set::isEmpty);
+	}
+	
+	private void indexPDP(PDP pdp, StdPDPGroup group) {
+		this.groupsByPdpId.put(pdp.getId(), group);
+		this.pdpsById.put(pdp.getId(), pdp);
+	}
+	
+	private synchronized void indexPolicies(StdPDPGroup group) {
+		Set<String> policyIds = new HashSet<String>();
+		for (PDPPolicy policy : group.getPolicies()) {
+			policyIds.add(policy.getId());
+			this.groupsByPolicyId.computeIfAbsent(policy.getId(), key -> ConcurrentHashMap.newKeySet()).add(group);
+		}
+		for (Map.Entry<String, Set<StdPDPGroup>> entry : this.groupsByPolicyId.entrySet()) {
+			if (! policyIds.contains(entry.getKey())) {
+				entry.getValue().remove(group);
+			}
+		}
+		this.groupsByPolicyId.values().removeIf(Set::isEmpty);
+	}
+	
 	private Set<StdPDPGroup>	readProperties(Path repository, Properties properties) throws PAPException {
 		Set<StdPDPGroup> groups = new HashSet<StdPDPGroup>();
 		//
@@ -808,20 +901,11 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 		return groups;
 	}
 	
-	private void saveConfiguration() throws PAPException, IOException {
+	private Properties buildProperties() throws PAPException {
 		//
 		// Create our properties object
 		//
-		Properties properties = new Properties() {
-			private static final long serialVersionUID = 1L;
-			// For Debugging it is helpful for the file to be in a sorted order,
-			// any by returning the keys in the natural Alpha order for strings we get close enough.
-			// TreeSet is sorted, and this just overrides the normal Properties method to get the keys.
-			@Override
-		    public synchronized Enumeration<Object> keys() {
-		        return Collections.enumeration(new TreeSet<Object>(super.keySet()));
-		    }
-	    };
+		Properties properties = new Properties();
 		//
 		// Iterate our groups
 		//
@@ -870,13 +954,15 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 			throw new PAPException("Invalid state - no default group.");
 		}
 		properties.setProperty(PROP_PAP_GROUPS_DEFAULT, defaultGroup.getId());
+		return properties;
+	}
+	
+	private void saveConfiguration() throws PAPException, IOException {
 		//
-		// Now we can save the file
+		// Only what changed is written, the file itself is
+		// rewritten when the journal gets too long.
 		//
-		Path file = Paths.get(this.repository.toString(), "xacml.properties");
-		try (OutputStream os = Files.newOutputStream(file)) {
-			properties.store(os, "");
-		}
+		this.journal.save(this.buildProperties());
 	}
 	
 	public static void	removeGroupProperties(String id, Properties properties) {
@@ -936,7 +1022,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 	}
 
 	
-	public void changed() {
+	public synchronized void changed() {
 		if (logger.isDebugEnabled()) {
 			logger.debug("changed");
 		}
@@ -944,7 +1030,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 		this.fireChanged();
 	}
 
-	public void groupChanged(PDPGroup group) {
+	public synchronized void groupChanged(PDPGroup group) {
 		if (logger.isDebugEnabled()) {
 			logger.debug("groupChanged: " + group);
 		}
@@ -953,7 +1039,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 	}
 
 
-	public void pdpChanged(PDP pdp) {
+	public synchronized void pdpChanged(PDP pdp) {
 		if (logger.isDebugEnabled()) {
 			logger.debug("pdpChanged: " + pdp);
 		}
@@ -961,7 +1047,7 @@ public class StdEngine extends StdPDPItemSetChangeNotifier implements PAPEngine
 		this.firePDPChanged(pdp);
 	}
 
-	private void doSave() {
+	private synchronized void doSave() {
 		try {
 			//
 			// Save the configuration
@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -20,6 +21,7 @@ import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +38,8 @@ import com.att.research.xacml.util.XACMLProperties;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 
 public class StdPDPGroup extends StdPDPItemSetChangeNotifier implements PDPGroup, StdItemSetChangeListener, Comparable<Object>, Serializable {
@@ -52,9 +56,12 @@ public class StdPDPGroup extends StdPDPItemSetChangeNotifier implements PDPGroup
 	
 	private StdPDPGroupStatus status = new StdPDPGroupStatus(Status.UNKNOWN);
 	
-	private Set<PDP>	pdps = new HashSet<>();
+	//
+	// Concurrent so the PAP can read them while they are being changed
+	//
+	private Set<PDP>	pdps = ConcurrentHashMap.newKeySet();
 	
-	private Set<PDPPolicy> policies = new HashSet<>();
+	private Set<PDPPolicy> policies = ConcurrentHashMap.newKeySet();
 	
 	private Set<PDPPIPConfig> pipConfigs = new HashSet<>();
 	
@@ -408,10 +415,56 @@ public class StdPDPGroup extends StdPDPItemSetChangeNotifier implements PDPGroup
 		
 		properties.setProperty(XACMLProperties.PROP_ROOTPOLICIES, Joiner.on(',').join(roots));
 		properties.setProperty(XACMLProperties.PROP_REFERENCEDPOLICIES, Joiner.on(',').join(refs));
+		//
+		// Tell the PDP the content hash of each policy so it only pulls the ones that changed. The manifest
+		// is only meaningful if every policy could be hashed.
+		//
+		boolean hashedAll = true;
+		for (PDPPolicy policy : this.policies) {
+			try {
+				String hash = StdPDPPolicy.getHash(policy);
+				if (hash != null) {
+					properties.setProperty(policy.getId() + XACMLProperties.PROP_POLICY_HASH, hash);
+				} else {
+					hashedAll = false;
+				}
+			} catch (PAPException | IOException e) {
+				logger.warn("Failed to hash policy " + policy.getId() + ": " + e);
+				hashedAll = false;
+			}
+		}
+		if (hashedAll) {
+			properties.setProperty(XACMLProperties.PROP_MANIFEST, computeManifest(properties, this.getPipConfigProperties()));
+		}
 	
 		return properties;
 	}
 	
+	/**
+	 * Computes the hash of a group's policy and PIP configuration.  PDPs that report the same manifest have the same
+	 * policies and PIP configuration, and need not be sent or reload anything.  Any existing manifest, and the ".url"
+	 * entries which depend on the PAP's address, are left out of the hash.
+	 * 
+	 * @param policyProperties the policy properties including the ".hash" entries
+	 * @param pipProperties the PIP configuration properties
+	 * @return the hex encoded SHA-256 hash
+	 */
+	public static String computeManifest(Properties policyProperties, Properties pipProperties) {
+		Hasher hasher = Hashing.sha256().newHasher();
+		for (Properties properties : new Properties[] {policyProperties, pipProperties}) {
+			TreeSet<String> keys = new TreeSet<String>(properties.stringPropertyNames());
+			for (String key : keys) {
+				if (key.equals(XACMLProperties.PROP_MANIFEST) || key.endsWith(".url")) {
+					continue;
+				}
+				hasher.putString(key, StandardCharsets.UTF_8).putByte((byte) '=');
+				hasher.putString(properties.getProperty(key), StandardCharsets.UTF_8).putByte((byte) '\n');
+			}
+			hasher.putByte((byte) 0);
+		}
+		return hasher.hash().toString();
+	}
+	
 	public PDPPolicy publishPolicy(String id, String name, boolean isRoot, InputStream policy) throws PAPException {
 		//
 		// Does it exist already?
@@ -870,6 +923,12 @@ public class StdPDPGroup extends StdPDPItemSetChangeNotifier implements PDPGroup
 		// save the lists of policies
 		Properties policyProperties = this.getPolicyProperties();
 		
+		// the hashes are worked out from the policy files whenever they are needed, do not save them
+		policyProperties.remove(XACMLProperties.PROP_MANIFEST);
+		for (PDPPolicy policy : this.policies) {
+			policyProperties.remove(policy.getId() + XACMLProperties.PROP_POLICY_HASH);
+		}
+		
 		// save info about each policy
 		for (PDPPolicy policy : this.policies){
 			policyProperties.put(policy.getId() + ".name", policy.getName());
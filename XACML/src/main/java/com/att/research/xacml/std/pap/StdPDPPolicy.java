@@ -11,6 +11,9 @@ import java.io.InputStream;
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Properties;
 
@@ -26,6 +29,9 @@ import com.att.research.xacml.util.XACMLPolicyScanner;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
 
 public class StdPDPPolicy implements PDPPolicy, Serializable {
 	private static final long serialVersionUID = 1L;
@@ -47,6 +53,15 @@ public class StdPDPPolicy implements PDPPolicy, Serializable {
 	
 	private URI location = null;
 	
+	//
+	// The content hash is cached until the policy file changes
+	//
+	private transient String hash = null;
+	
+	private transient long hashLastModified = -1;
+	
+	private transient long hashSize = -1;
+	
 
 	public StdPDPPolicy(String id, boolean isRoot) {
 		this.id = id;
@@ -198,6 +213,38 @@ public class StdPDPPolicy implements PDPPolicy, Serializable {
 		return this.location;
 	}
 
+	/**
+	 * Gets the SHA-256 hash of the policy content as a lower case hex string.  The hash is used as the policy's ETag, letting
+	 * a PDP tell whether the copy it has cached is current.  It is cached as long as the policy file's size and last
+	 * modified time stay the same.
+	 * 
+	 * @return the content hash, or null if the policy has no location
+	 * @throws PAPException
+	 * @throws IOException
+	 */
+	@JsonIgnore
+	public synchronized String getHash() throws PAPException, IOException {
+		if (this.location == null) {
+			return null;
+		}
+		Path path = ("file".equals(this.location.getScheme()) ? Paths.get(this.location) : null);
+		long lastModified = -1;
+		long size = -1;
+		if (path != null && Files.exists(path)) {
+			lastModified = Files.getLastModifiedTime(path).toMillis();
+			size = Files.size(path);
+			if (this.hash != null && lastModified == this.hashLastModified && size == this.hashSize) {
+				return this.hash;
+			}
+		}
+		try (InputStream is = this.getStream()) {
+			this.hash = computeHash(is);
+		}
+		this.hashLastModified = lastModified;
+		this.hashSize = size;
+		return this.hash;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -247,6 +294,37 @@ public class StdPDPPolicy implements PDPPolicy, Serializable {
 	}
 	
 	
+	/**
+	 * Computes the SHA-256 hash of the given stream as a lower case hex string, the form used for the ".hash" policy
+	 * properties and the policy ETags.  The stream is read to the end but not closed.
+	 * 
+	 * @param is
+	 * @return the hex encoded hash
+	 * @throws IOException
+	 */
+	public static String computeHash(InputStream is) throws IOException {
+		HashingInputStream his = new HashingInputStream(Hashing.sha256(), is);
+		ByteStreams.exhaust(his);
+		return his.hash().toString();
+	}
+	
+	/**
+	 * Gets the content hash of any <code>PDPPolicy</code>, using the cached one for a <code>StdPDPPolicy</code>.
+	 * 
+	 * @param policy
+	 * @return the hex encoded hash, or null if the policy has no content
+	 * @throws PAPException
+	 * @throws IOException
+	 */
+	public static String getHash(PDPPolicy policy) throws PAPException, IOException {
+		if (policy instanceof StdPDPPolicy) {
+			return ((StdPDPPolicy) policy).getHash();
+		}
+		try (InputStream is = policy.getStream()) {
+			return (is == null ? null : computeHash(is));
+		}
+	}
+	
 	/**
 	 * Given a version string consisting of integers with dots between them, convert it into an array of ints.
 	 * 
@@ -308,8 +386,9 @@ public class StdPDPPolicy implements PDPPolicy, Serializable {
 	public void setValid(boolean isValid) {
 		this.isValid = isValid;
 	}
-	public void setLocation(URI location) {
+	public synchronized void setLocation(URI location) {
 		this.location = location;
+		this.hash = null;
 	}
 	
 }
@@ -6,6 +6,10 @@
 package com.att.research.xacml.std.pep;
 
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,15 +27,21 @@ import com.att.research.xacml.util.FactoryException;
  * StdEngine implements the {@link com.att.research.xacml.api.pep.PEPEngine} interface by creating
  * an instance of the {@link com.att.research.xacml.api.pdp.PDPEngine} interface using the {@link com.att.research.xacml.api.pdp.PDPEngineFactory} and
  * passing requests through to that engine, forwarding the {@link com.att.research.xacml.api.Response} object back to the caller.
- * 
+ * <p>
+ * The <code>PDPEngine</code> is created on the first request and shared by all threads calling this <code>StdEngine</code>
+ * until {@link #reload()} replaces it.
+ *
  * @author car
  * @version $Revision: 1.2 $
  */
 public class StdEngine implements PEPEngine {
 	private Logger	logger	= LoggerFactory.getLogger(this.getClass());
-	
+
 	protected Properties properties = null;
-	
+
+	private volatile PDPEngine pdpEngine;
+	private volatile Executor executor	= ForkJoinPool.commonPool();
+
 	public StdEngine() {
 	}
 
@@ -39,32 +49,88 @@ public class StdEngine implements PEPEngine {
 		this.properties = properties;
 	}
 
-	@Override
-	public Response decide(Request pepRequest) throws PEPException {
+	/**
+	 * Creates a new <code>PDPEngine</code> from the <code>PDPEngineFactory</code>, using this <code>StdEngine</code>'s
+	 * <code>Properties</code> if it was given any.
+	 *
+	 * @return a new <code>PDPEngine</code>
+	 * @throws PEPException if the <code>PDPEngineFactory</code> or <code>PDPEngine</code> could not be created
+	 */
+	protected PDPEngine newPDPEngine() throws PEPException {
 		/*
 		 * Get the PDP engine factory
 		 */
 		PDPEngineFactory pdpEngineFactory	= null;
 		try {
-			pdpEngineFactory	= PDPEngineFactory.newInstance();
+			pdpEngineFactory	= (this.properties == null ? PDPEngineFactory.newInstance() : PDPEngineFactory.newInstance(this.properties));
 		} catch (FactoryException ex) {
 			this.logger.error("FactoryException creating the PDPEngineFactory", ex);
 			throw new PEPException("FactoryException creating the PDPEngineFactory", ex);
 		}
 		assert(pdpEngineFactory != null);
-		
-		PDPEngine pdpEngine	= null;
+
+		PDPEngine pdpEngineNew	= null;
 		try {
-			pdpEngine	= pdpEngineFactory.newEngine();
+			pdpEngineNew	= (this.properties == null ? pdpEngineFactory.newEngine() : pdpEngineFactory.newEngine(this.properties));
 		} catch (FactoryException ex) {
 			this.logger.error("PDPException creating the PDPEngine", ex);
 			throw new PEPException("PDPException creating the PDPEngine", ex);
 		}
-		assert(pdpEngine != null);
-		
+		assert(pdpEngineNew != null);
+		return pdpEngineNew;
+	}
+
+	/**
+	 * Gets the shared <code>PDPEngine</code>, creating it if this is the first call.
+	 *
+	 * @return the <code>PDPEngine</code> requests are passed to
+	 * @throws PEPException if the <code>PDPEngine</code> could not be created
+	 */
+	public PDPEngine getPDPEngine() throws PEPException {
+		PDPEngine pdpEngineCurrent	= this.pdpEngine;
+		if (pdpEngineCurrent == null) {
+			synchronized(this) {
+				pdpEngineCurrent	= this.pdpEngine;
+				if (pdpEngineCurrent == null) {
+					pdpEngineCurrent	= this.newPDPEngine();
+					this.pdpEngine		= pdpEngineCurrent;
+				}
+			}
+		}
+		return pdpEngineCurrent;
+	}
+
+	/**
+	 * Creates a new <code>PDPEngine</code> (picking up any changes to the policies and configuration) and swaps it in for
+	 * the current one.  Requests already in progress finish on the engine they started with.  If the new engine cannot be
+	 * created, the current one is kept.
+	 *
+	 * @throws PEPException if the new <code>PDPEngine</code> could not be created
+	 */
+	public void reload() throws PEPException {
+		PDPEngine pdpEngineNew	= this.newPDPEngine();
+		synchronized(this) {
+			this.pdpEngine	= pdpEngineNew;
+		}
+	}
+
+	/**
+	 * Sets the <code>Executor</code> that {@link #decideAsync(Request)} runs decisions on.  The default is the common
+	 * <code>ForkJoinPool</code>; callers whose <code>PIPEngine</code>s block on I/O should supply their own.
+	 *
+	 * @param executorIn the <code>Executor</code> to use
+	 */
+	public void setExecutor(Executor executorIn) {
+		this.executor	= (executorIn == null ? ForkJoinPool.commonPool() : executorIn);
+	}
+
+	@Override
+	public Response decide(Request pepRequest) throws PEPException {
+		PDPEngine pdpEngineCurrent	= this.getPDPEngine();
+
 		Response response	= null;
 		try {
-			response	= pdpEngine.decide(pepRequest);
+			response	= pdpEngineCurrent.decide(pepRequest);
 		} catch (PDPException ex) {
 			this.logger.error("PDPException deciding on Request", ex);
 			throw new PEPException("PDPException deciding on Request", ex);
@@ -72,4 +138,21 @@ public class StdEngine implements PEPEngine {
 		return response;
 	}
 
+	/**
+	 * Evaluates the given <code>Request</code> on this <code>StdEngine</code>'s <code>Executor</code>.  A <code>PEPException</code>
+	 * completes the returned future exceptionally.
+	 *
+	 * @param pepRequest the <code>Request</code> to evaluate
+	 * @return a <code>CompletableFuture</code> that completes with the <code>Response</code>
+	 */
+	public CompletableFuture<Response> decideAsync(Request pepRequest) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return this.decide(pepRequest);
+			} catch (PEPException ex) {
+				throw new CompletionException(ex);
+			}
+		}, this.executor);
+	}
+
 }
@@ -13,7 +13,9 @@ import org.slf4j.LoggerFactory;
 import com.att.research.xacml.api.pip.PIPException;
 import com.att.research.xacml.api.pip.PIPFinder;
 import com.att.research.xacml.api.pip.PIPFinderFactory;
+import com.att.research.xacml.std.pip.finders.CachingFinder;
 import com.att.research.xacml.std.pip.finders.ConfigurableEngineFinder;
+import com.att.research.xacml.std.pip.finders.PIPEngineMetrics;
 import com.att.research.xacml.util.XACMLProperties;
 
 public class StdPIPFinderFactory extends PIPFinderFactory {
@@ -32,7 +34,6 @@ public class StdPIPFinderFactory extends PIPFinderFactory {
 		if (pipFinder == null) {
 			synchronized(this) {
 				if (pipFinder == null) {
-					pipFinder					= new ConfigurableEngineFinder();
 					Properties xacmlProperties	= null;
 					try {
 						xacmlProperties	= XACMLProperties.getProperties();
@@ -40,8 +41,17 @@ public class StdPIPFinderFactory extends PIPFinderFactory {
 						this.logger.error("Exception getting XACML properties: " + ex.getMessage(), ex);
 						return null;
 					}
+					if (PIPEngineMetrics.isEnabled(xacmlProperties)) {
+						PIPEngineMetrics.enable();
+					}
+					ConfigurableEngineFinder configurableEngineFinder	= new ConfigurableEngineFinder();
 					if (xacmlProperties != null) {
-						((ConfigurableEngineFinder)pipFinder).configure(xacmlProperties);
+						configurableEngineFinder.configure(xacmlProperties);
+					}
+					if (CachingFinder.isEnabled(xacmlProperties)) {
+						pipFinder	= new CachingFinder(configurableEngineFinder, xacmlProperties);
+					} else {
+						pipFinder	= configurableEngineFinder;
 					}
 				}
 			}
@@ -54,8 +64,16 @@ public class StdPIPFinderFactory extends PIPFinderFactory {
 		if (pipFinder == null) {
 			synchronized(this) {
 				if (pipFinder == null) {
-					pipFinder					= new ConfigurableEngineFinder();
-					((ConfigurableEngineFinder)pipFinder).configure(properties);
+					if (PIPEngineMetrics.isEnabled(properties)) {
+						PIPEngineMetrics.enable();
+					}
+					ConfigurableEngineFinder configurableEngineFinder	= new ConfigurableEngineFinder();
+					configurableEngineFinder.configure(properties);
+					if (CachingFinder.isEnabled(properties)) {
+						pipFinder	= new CachingFinder(configurableEngineFinder, properties);
+					} else {
+						pipFinder	= configurableEngineFinder;
+					}
 				}
 			}
 		}
@@ -200,7 +200,7 @@ public class Configurables {
 			throw new PIPException(errMsg.toString());						
 		}	
 		
-		return new StdPIPRequest(new IdentifierImpl(categoryId), new IdentifierImpl(attributeId), new IdentifierImpl(dataTypeId), issuer);
+		return new StdPIPRequest(IdentifierImpl.intern(categoryId), IdentifierImpl.intern(attributeId), IdentifierImpl.intern(dataTypeId), issuer);
 	}
 
 	public static void setPIPRequest(PIPRequest pipRequest, String prefix, Properties properties) throws PIPException {
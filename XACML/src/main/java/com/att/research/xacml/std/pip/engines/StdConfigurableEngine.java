@@ -76,7 +76,7 @@ public abstract class StdConfigurableEngine implements ConfigurableEngine {
 		 * Configure the cache IF it is defined
 		 */
 		if (properties.getProperty(id + "." + PROP_CACHESPEC) != null) {
-			this.cache	= CacheBuilder.from(properties.getProperty(id + "." + PROP_CACHESPEC)).build();
+			this.cache	= CacheBuilder.from(properties.getProperty(id + "." + PROP_CACHESPEC)).recordStats().build();
 		}
 	}
 
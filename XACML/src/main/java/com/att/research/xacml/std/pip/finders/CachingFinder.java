@@ -0,0 +1,647 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.pip.finders;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.att.research.xacml.api.Attribute;
+import com.att.research.xacml.api.AttributeValue;
+import com.att.research.xacml.api.Status;
+import com.att.research.xacml.api.pip.PIPEngine;
+import com.att.research.xacml.api.pip.PIPException;
+import com.att.research.xacml.api.pip.PIPFinder;
+import com.att.research.xacml.api.pip.PIPRequest;
+import com.att.research.xacml.api.pip.PIPResponse;
+import com.att.research.xacml.std.StdMutableAttribute;
+import com.att.research.xacml.std.StdStatus;
+import com.att.research.xacml.std.StdStatusCode;
+import com.att.research.xacml.std.pip.StdMutablePIPResponse;
+import com.att.research.xacml.std.pip.StdPIPRequest;
+import com.att.research.xacml.std.pip.StdPIPResponse;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * CachingFinder extends {@link com.att.research.xacml.std.pip.finders.WrappingFinder} with a cache of
+ * {@link com.att.research.xacml.api.pip.PIPResponse}s that is shared across requests.  Rather than passing a lookup on to the
+ * wrapped <code>PIPFinder</code> as a whole, the <code>CachingFinder</code> calls each of the wrapped finder's
+ * {@link com.att.research.xacml.api.pip.PIPEngine}s itself so that each engine has its own cache and settings.
+ * <p>
+ * Entries are keyed on a {@link com.att.research.xacml.std.pip.finders.PIPRequestKey} made from the <code>PIPRequest</code> and
+ * the values of the attributes the engine lists in {@link com.att.research.xacml.api.pip.PIPEngine#attributesRequired()}, resolved
+ * through the <code>PIPFinder</code> of the current request.  Non-empty results are kept for the engine's time-to-live, empty results
+ * for its negative time-to-live.  Once an entry expires it may still be served for the engine's stale time while a single background
+ * refresh replaces it.  The refresh resolves the engine's required attributes from the values in the entry's key rather than from the
+ * request that found the stale entry, so it never touches request state.  Errors are never cached.
+ * <p>
+ * Concurrent misses on the same key are coalesced: the first caller loads the entry from the engine and the others wait for its
+ * result, up to the engine's coalesce timeout, instead of each sending the same query to the engine's back end.  If the load fails
+ * the waiting callers get the same error.
+ * <p>
+ * The cache is configured with the following properties, where <code>&lt;name&gt;</code> is the name of a <code>PIPEngine</code>.  The
+ * per-engine properties override the defaults.  Times are in milliseconds.
+ * <ul>
+ * <li><code>xacml.pip.cache</code> - true to put a <code>CachingFinder</code> in front of the configured engines</li>
+ * <li><code>xacml.pip.cache.ttl</code>, <code>xacml.pip.cache.&lt;name&gt;.ttl</code> - how long non-empty results are fresh, 0 disables caching</li>
+ * <li><code>xacml.pip.cache.negativeTtl</code>, <code>xacml.pip.cache.&lt;name&gt;.negativeTtl</code> - how long empty results are fresh</li>
+ * <li><code>xacml.pip.cache.staleTtl</code>, <code>xacml.pip.cache.&lt;name&gt;.staleTtl</code> - how long an expired result may be served while it is refreshed</li>
+ * <li><code>xacml.pip.cache.maxSize</code>, <code>xacml.pip.cache.&lt;name&gt;.maxSize</code> - the maximum number of entries</li>
+ * <li><code>xacml.pip.cache.maxWeight</code>, <code>xacml.pip.cache.&lt;name&gt;.maxWeight</code> - the maximum number of attribute values held, overrides <code>maxSize</code></li>
+ * <li><code>xacml.pip.cache.coalesceTimeout</code>, <code>xacml.pip.cache.&lt;name&gt;.coalesceTimeout</code> - how long a miss waits for an identical load already in progress, 0 disables coalescing</li>
+ * <li><code>xacml.pip.cache.refreshThreads</code> - the number of threads used for background refreshes</li>
+ * </ul>
+ * The statistics for each engine are published through {@link com.att.research.xacml.std.pip.finders.PIPEngineMetrics} when it is
+ * enabled.
+ *
+ * @version $Revision$
+ */
+public class CachingFinder extends WrappingFinder {
+	public static final String PROP_CACHE					= "xacml.pip.cache";
+	public static final String PROP_TTL						= "ttl";
+	public static final String PROP_NEGATIVE_TTL			= "negativeTtl";
+	public static final String PROP_STALE_TTL				= "staleTtl";
+	public static final String PROP_MAX_SIZE				= "maxSize";
+	public static final String PROP_MAX_WEIGHT				= "maxWeight";
+	public static final String PROP_REFRESH_THREADS			= "refreshThreads";
+	public static final String PROP_COALESCE_TIMEOUT		= "coalesceTimeout";
+
+	public static final long DEFAULT_TTL					= 60000;
+	public static final long DEFAULT_NEGATIVE_TTL			= 10000;
+	public static final long DEFAULT_STALE_TTL				= 0;
+	public static final long DEFAULT_MAX_SIZE				= 10000;
+	public static final int DEFAULT_REFRESH_THREADS			= 1;
+	public static final long DEFAULT_COALESCE_TIMEOUT		= 5000;
+
+	/*
+	 * How long an idle refresh thread is kept, so that a CachingFinder that is no longer used does not hold on to threads
+	 */
+	private static final long REFRESH_KEEP_ALIVE_SECONDS	= 60;
+
+	private static final Logger logger	= LoggerFactory.getLogger(CachingFinder.class);
+
+	private final Properties properties;
+	private final Map<PIPEngine, EngineCache> mapEngineCaches	= new ConcurrentHashMap<PIPEngine, EngineCache>();
+	private volatile ExecutorService refreshExecutor;
+
+	/*
+	 * The PIPRequests this thread is currently building keys for, so that engines that depend on each other do not recurse forever
+	 */
+	private final ThreadLocal<Set<PIPRequest>> threadLocalKeying	= ThreadLocal.withInitial(() -> new HashSet<PIPRequest>());
+	
+	/*
+	 * The keys this thread is currently loading, so that an engine that ends up asking for its own key does not wait on itself
+	 */
+	private final ThreadLocal<Set<PIPRequestKey>> threadLocalLoading	= ThreadLocal.withInitial(() -> new HashSet<PIPRequestKey>());
+
+	/**
+	 * CacheEntry is a cached <code>PIPResponse</code> with the times at which it stops being fresh and stops being usable.
+	 */
+	private static final class CacheEntry {
+		private final PIPResponse pipResponse;
+		private final long expiresNanos;
+		private final long staleNanos;
+		private final AtomicBoolean refreshing	= new AtomicBoolean(false);
+
+		public CacheEntry(PIPResponse pipResponseIn, long expiresNanosIn, long staleNanosIn) {
+			this.pipResponse	= pipResponseIn;
+			this.expiresNanos	= expiresNanosIn;
+			this.staleNanos		= staleNanosIn;
+		}
+	}
+
+	/**
+	 * RefreshFinder is the <code>PIPFinder</code> a background refresh loads through.  It answers for the engine's required attributes
+	 * with the values in the key of the entry being refreshed, and passes everything else to this <code>CachingFinder</code> without
+	 * any request.
+	 */
+	private final class RefreshFinder extends WrappingFinder {
+		private final List<PIPRequest> dependencies;
+		private final List<List<AttributeValue<?>>> dependencyValues;
+
+		public RefreshFinder(List<PIPRequest> dependenciesIn, PIPRequestKey key) {
+			super(CachingFinder.this);
+			this.dependencies		= dependenciesIn;
+			this.dependencyValues	= key.getDependencyValues();
+		}
+
+		@Override
+		protected PIPResponse getAttributesInternal(PIPRequest pipRequest, PIPEngine exclude, PIPFinder pipFinderParent) throws PIPException {
+			int index	= this.dependencies.indexOf(new StdPIPRequest(pipRequest));
+			if (index >= 0 && index < this.dependencyValues.size()) {
+				List<AttributeValue<?>> values	= this.dependencyValues.get(index);
+				if (values.isEmpty()) {
+					return StdPIPResponse.PIP_RESPONSE_EMPTY;
+				}
+				return new StdPIPResponse(new StdMutableAttribute(pipRequest.getCategory(), pipRequest.getAttributeId(), values, pipRequest.getIssuer(), false));
+			}
+			return CachingFinder.this.getAttributesInternal(pipRequest, exclude, this);
+		}
+
+		@Override
+		public Collection<PIPEngine> getPIPEngines() {
+			return CachingFinder.this.getPIPEngines();
+		}
+	}
+
+	/**
+	 * EngineCache holds the settings, cache and statistics for a single <code>PIPEngine</code>.
+	 */
+	private final class EngineCache {
+		private final PIPEngine pipEngine;
+		private final long ttlNanos;
+		private final long negativeTtlNanos;
+		private final long staleTtlNanos;
+		private final long coalesceTimeoutNanos;
+		private final Cache<PIPRequestKey, CacheEntry> cache;
+		private final ConcurrentMap<PIPRequestKey, CompletableFuture<PIPResponse>> mapLoading	= new ConcurrentHashMap<PIPRequestKey, CompletableFuture<PIPResponse>>();
+		private final Map<PIPRequest, List<PIPRequest>> mapDependencies	= new ConcurrentHashMap<PIPRequest, List<PIPRequest>>();
+		private final LongAdder hits			= new LongAdder();
+		private final LongAdder negativeHits	= new LongAdder();
+		private final LongAdder staleHits		= new LongAdder();
+		private final LongAdder misses			= new LongAdder();
+		private final LongAdder loads			= new LongAdder();
+		private final LongAdder loadFailures	= new LongAdder();
+		private final LongAdder loadTimeNanos	= new LongAdder();
+		private final LongAdder refreshes		= new LongAdder();
+		private final LongAdder coalesced		= new LongAdder();
+		private final LongAdder coalesceTimeouts	= new LongAdder();
+
+		public EngineCache(PIPEngine pipEngineIn) {
+			this.pipEngine			= pipEngineIn;
+			String prefix			= PROP_CACHE + "." + pipEngineIn.getName() + ".";
+			this.ttlNanos			= TimeUnit.MILLISECONDS.toNanos(getLong(prefix + PROP_TTL, PROP_CACHE + "." + PROP_TTL, DEFAULT_TTL));
+			this.negativeTtlNanos	= TimeUnit.MILLISECONDS.toNanos(getLong(prefix + PROP_NEGATIVE_TTL, PROP_CACHE + "." + PROP_NEGATIVE_TTL, DEFAULT_NEGATIVE_TTL));
+			this.staleTtlNanos		= TimeUnit.MILLISECONDS.toNanos(getLong(prefix + PROP_STALE_TTL, PROP_CACHE + "." + PROP_STALE_TTL, DEFAULT_STALE_TTL));
+			this.coalesceTimeoutNanos	= TimeUnit.MILLISECONDS.toNanos(getLong(prefix + PROP_COALESCE_TIMEOUT, PROP_CACHE + "." + PROP_COALESCE_TIMEOUT, DEFAULT_COALESCE_TIMEOUT));
+			PIPEngineMetrics.getInstance().register(pipEngineIn, CachingFinder.this);
+			if (this.ttlNanos <= 0) {
+				this.cache	= null;
+				return;
+			}
+
+			CacheBuilder<Object,Object> cacheBuilder	= CacheBuilder.newBuilder().recordStats();
+			long maxWeight	= getLong(prefix + PROP_MAX_WEIGHT, PROP_CACHE + "." + PROP_MAX_WEIGHT, -1);
+			if (maxWeight > 0) {
+				cacheBuilder.maximumWeight(maxWeight).weigher((PIPRequestKey key, CacheEntry cacheEntry) -> {
+					int weight	= 1;
+					for (Attribute attribute : cacheEntry.pipResponse.getAttributes()) {
+						weight	+= attribute.getValues().size();
+					}
+					return weight;
+				});
+			} else {
+				cacheBuilder.maximumSize(getLong(prefix + PROP_MAX_SIZE, PROP_CACHE + "." + PROP_MAX_SIZE, DEFAULT_MAX_SIZE));
+			}
+			cacheBuilder.expireAfterWrite(Math.max(this.ttlNanos, this.negativeTtlNanos) + this.staleTtlNanos, TimeUnit.NANOSECONDS);
+			this.cache	= cacheBuilder.build();
+		}
+
+		public boolean isEnabled() {
+			return this.cache != null;
+		}
+
+		public List<PIPRequest> getDependencies(PIPRequest pipRequest) {
+			List<PIPRequest> dependencies	= this.mapDependencies.get(pipRequest);
+			if (dependencies == null) {
+				Set<PIPRequest> setDependencies	= new LinkedHashSet<PIPRequest>();
+				PIPRequestKey.addDependencies(this.pipEngine, pipRequest, setDependencies);
+				dependencies	= Collections.unmodifiableList(new ArrayList<PIPRequest>(setDependencies));
+				this.mapDependencies.put(new StdPIPRequest(pipRequest), dependencies);
+			}
+			return dependencies;
+		}
+
+		/**
+		 * Calls the <code>PIPEngine</code> and caches the result if it is not an error.
+		 */
+		public PIPResponse load(PIPRequestKey key, PIPRequest pipRequest, PIPFinder pipFinderParent) throws PIPException {
+			long startNanos	= System.nanoTime();
+			PIPResponse pipResponse;
+			try {
+				pipResponse	= PIPEngineMetrics.getAttributes(this.pipEngine, pipRequest, pipFinderParent);
+			} catch (PIPException | RuntimeException ex) {
+				this.loadFailures.increment();
+				throw ex;
+			} finally {
+				this.loads.increment();
+				this.loadTimeNanos.add(System.nanoTime() - startNanos);
+			}
+			if (pipResponse == null) {
+				return null;
+			}
+			if (pipResponse.getStatus() != null && !pipResponse.getStatus().isOk()) {
+				this.loadFailures.increment();
+				return pipResponse;
+			}
+			long nowNanos	= System.nanoTime();
+			long expiresNanos	= nowNanos + (pipResponse.getAttributes().isEmpty() ? this.negativeTtlNanos : this.ttlNanos);
+			if (expiresNanos > nowNanos) {
+				this.cache.put(key, new CacheEntry(new StdPIPResponse(pipResponse), expiresNanos, expiresNanos + this.staleTtlNanos));
+			}
+			return pipResponse;
+		}
+
+		public PIPResponse getAttributes(PIPRequest pipRequest, PIPFinder pipFinderParent) throws PIPException {
+			Set<PIPRequest> setKeying	= threadLocalKeying.get();
+			PIPRequest pipRequestKeying	= new StdPIPRequest(pipRequest);
+			if (!setKeying.add(pipRequestKeying)) {
+				return PIPEngineMetrics.getAttributes(this.pipEngine, pipRequest, pipFinderParent);
+			}
+			PIPRequestKey key;
+			try {
+				key	= PIPRequestKey.newInstance(pipRequest, this.getDependencies(pipRequest), pipFinderParent);
+			} finally {
+				setKeying.remove(pipRequestKeying);
+			}
+			if (key == null) {
+				return PIPEngineMetrics.getAttributes(this.pipEngine, pipRequest, pipFinderParent);
+			}
+			CacheEntry cacheEntry	= this.cache.getIfPresent(key);
+			if (cacheEntry != null) {
+				long nowNanos	= System.nanoTime();
+				if (nowNanos - cacheEntry.expiresNanos < 0) {
+					if (cacheEntry.pipResponse.getAttributes().isEmpty()) {
+						this.negativeHits.increment();
+					} else {
+						this.hits.increment();
+					}
+					return cacheEntry.pipResponse;
+				} else if (nowNanos - cacheEntry.staleNanos < 0) {
+					this.staleHits.increment();
+					if (cacheEntry.refreshing.compareAndSet(false, true)) {
+						this.refresh(key, cacheEntry, pipRequest);
+					}
+					return cacheEntry.pipResponse;
+				}
+			}
+			this.misses.increment();
+			return this.loadCoalesced(key, pipRequest, pipFinderParent);
+		}
+		
+		/**
+		 * Loads the given key unless another thread is already loading it, in which case this waits for that load instead.
+		 */
+		private PIPResponse loadCoalesced(PIPRequestKey key, PIPRequest pipRequest, PIPFinder pipFinderParent) throws PIPException {
+			Set<PIPRequestKey> setLoading	= threadLocalLoading.get();
+			if (this.coalesceTimeoutNanos <= 0 || setLoading.contains(key)) {
+				return this.load(key, pipRequest, pipFinderParent);
+			}
+			CompletableFuture<PIPResponse> futureLoad		= new CompletableFuture<PIPResponse>();
+			CompletableFuture<PIPResponse> futureLoading	= this.mapLoading.putIfAbsent(key, futureLoad);
+			if (futureLoading != null) {
+				this.coalesced.increment();
+				return this.await(key, futureLoading);
+			}
+			setLoading.add(key);
+			try {
+				PIPResponse pipResponse	= this.load(key, pipRequest, pipFinderParent);
+				futureLoad.complete(pipResponse);
+				return pipResponse;
+			} catch (PIPException | RuntimeException ex) {
+				futureLoad.completeExceptionally(ex);
+				throw ex;
+			} finally {
+				setLoading.remove(key);
+				this.mapLoading.remove(key, futureLoad);
+			}
+		}
+		
+		private PIPResponse await(PIPRequestKey key, CompletableFuture<PIPResponse> futureLoading) throws PIPException {
+			try {
+				return futureLoading.get(this.coalesceTimeoutNanos, TimeUnit.NANOSECONDS);
+			} catch (TimeoutException ex) {
+				this.coalesceTimeouts.increment();
+				throw new PIPException("Timed out waiting for PIPEngine " + this.pipEngine.getName() + " to load " + key);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new PIPException("Interrupted waiting for PIPEngine " + this.pipEngine.getName() + " to load " + key, ex);
+			} catch (ExecutionException ex) {
+				if (ex.getCause() instanceof PIPException) {
+					throw (PIPException)ex.getCause();
+				} else if (ex.getCause() instanceof RuntimeException) {
+					throw (RuntimeException)ex.getCause();
+				}
+				throw new PIPException("PIPEngine " + this.pipEngine.getName() + " failed to load " + key, ex.getCause());
+			}
+		}
+
+		/**
+		 * Reloads the given entry in the background.  The <code>PIPFinder</code> of the request that found the stale entry belongs to that
+		 * request and may not be used from another thread, so the engine's required attributes are resolved from the values in the key.
+		 */
+		private void refresh(PIPRequestKey key, CacheEntry cacheEntry, PIPRequest pipRequest) {
+			try {
+				getRefreshExecutor().execute(() -> {
+					try {
+						this.refreshes.increment();
+						this.load(key, pipRequest, new RefreshFinder(this.getDependencies(pipRequest), key));
+					} catch (Exception ex) {
+						logger.warn("Exception refreshing {} from PIPEngine {}: {}", key, this.pipEngine.getName(), ex.getMessage());
+					} finally {
+						cacheEntry.refreshing.set(false);
+					}
+				});
+			} catch (RejectedExecutionException ex) {
+				cacheEntry.refreshing.set(false);
+			}
+		}
+
+		public CacheStatistics getStatistics() {
+			return new CacheStatistics(this.pipEngine.getName(),
+									   this.hits.sum(),
+									   this.negativeHits.sum(),
+									   this.staleHits.sum(),
+									   this.misses.sum(),
+									   this.loads.sum(),
+									   this.loadFailures.sum(),
+									   this.loadTimeNanos.sum(),
+									   this.refreshes.sum(),
+									   this.coalesced.sum(),
+									   this.coalesceTimeouts.sum(),
+									   (this.cache == null ? 0 : this.cache.stats().evictionCount()),
+									   (this.cache == null ? 0 : this.cache.size()));
+		}
+	}
+
+	/**
+	 * CacheStatistics is a snapshot of the counters for a single <code>PIPEngine</code>'s cache.
+	 */
+	public static class CacheStatistics {
+		private final String engineName;
+		private final long hits;
+		private final long negativeHits;
+		private final long staleHits;
+		private final long misses;
+		private final long loads;
+		private final long loadFailures;
+		private final long loadTimeNanos;
+		private final long refreshes;
+		private final long coalesced;
+		private final long coalesceTimeouts;
+		private final long evictions;
+		private final long size;
+
+		public CacheStatistics(String engineNameIn, long hitsIn, long negativeHitsIn, long staleHitsIn, long missesIn, long loadsIn, long loadFailuresIn,
+							   long loadTimeNanosIn, long refreshesIn, long coalescedIn, long coalesceTimeoutsIn, long evictionsIn, long sizeIn) {
+			this.engineName		= engineNameIn;
+			this.hits			= hitsIn;
+			this.negativeHits	= negativeHitsIn;
+			this.staleHits		= staleHitsIn;
+			this.misses			= missesIn;
+			this.loads			= loadsIn;
+			this.loadFailures	= loadFailuresIn;
+			this.loadTimeNanos	= loadTimeNanosIn;
+			this.refreshes		= refreshesIn;
+			this.coalesced		= coalescedIn;
+			this.coalesceTimeouts	= coalesceTimeoutsIn;
+			this.evictions		= evictionsIn;
+			this.size			= sizeIn;
+		}
+
+		public String getEngineName() {
+			return this.engineName;
+		}
+
+		public long getHits() {
+			return this.hits;
+		}
+
+		public long getNegativeHits() {
+			return this.negativeHits;
+		}
+
+		public long getStaleHits() {
+			return this.staleHits;
+		}
+
+		public long getMisses() {
+			return this.misses;
+		}
+
+		public long getLoads() {
+			return this.loads;
+		}
+
+		public long getLoadFailures() {
+			return this.loadFailures;
+		}
+
+		public long getLoadTimeNanos() {
+			return this.loadTimeNanos;
+		}
+
+		public long getRefreshes() {
+			return this.refreshes;
+		}
+
+		/**
+		 * Gets the number of misses that waited for an identical load by another thread instead of calling the engine.
+		 *
+		 * @return the number of coalesced misses
+		 */
+		public long getCoalesced() {
+			return this.coalesced;
+		}
+
+		public long getCoalesceTimeouts() {
+			return this.coalesceTimeouts;
+		}
+
+		public long getEvictions() {
+			return this.evictions;
+		}
+
+		public long getSize() {
+			return this.size;
+		}
+
+		public double getHitRate() {
+			long requests	= this.hits + this.negativeHits + this.staleHits + this.misses;
+			return (requests == 0 ? 1.0 : (double)(this.hits + this.negativeHits + this.staleHits) / requests);
+		}
+
+		public double getAverageLoadTimeNanos() {
+			return (this.loads == 0 ? 0.0 : (double)this.loadTimeNanos / this.loads);
+		}
+
+		@Override
+		public String toString() {
+			return "{engineName=" + this.engineName +
+					",hits=" + this.hits +
+					",negativeHits=" + this.negativeHits +
+					",staleHits=" + this.staleHits +
+					",misses=" + this.misses +
+					",loads=" + this.loads +
+					",loadFailures=" + this.loadFailures +
+					",loadTimeNanos=" + this.loadTimeNanos +
+					",refreshes=" + this.refreshes +
+					",coalesced=" + this.coalesced +
+					",coalesceTimeouts=" + this.coalesceTimeouts +
+					",evictions=" + this.evictions +
+					",size=" + this.size + "}";
+		}
+	}
+
+	private long getLong(String propertyName, String propertyNameDefault, long defaultValue) {
+		String value	= this.properties.getProperty(propertyName);
+		if (value == null) {
+			value	= this.properties.getProperty(propertyNameDefault);
+		}
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException ex) {
+			logger.error("Invalid value \"{}\" for {}, using {}", value, propertyName, defaultValue);
+			return defaultValue;
+		}
+	}
+
+	private ExecutorService getRefreshExecutor() {
+		if (this.refreshExecutor == null) {
+			synchronized(this) {
+				if (this.refreshExecutor == null) {
+					int threads	= (int)this.getLong(PROP_CACHE + "." + PROP_REFRESH_THREADS, PROP_CACHE + "." + PROP_REFRESH_THREADS, DEFAULT_REFRESH_THREADS);
+					ThreadPoolExecutor threadPoolExecutor	= new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), REFRESH_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+																					 new LinkedBlockingQueue<Runnable>(),
+																					 new ThreadFactoryBuilder().setDaemon(true).setNameFormat("xacml-pip-cache-refresh-%d").build());
+					threadPoolExecutor.allowCoreThreadTimeOut(true);
+					this.refreshExecutor	= threadPoolExecutor;
+				}
+			}
+		}
+		return this.refreshExecutor;
+	}
+
+	protected EngineCache getEngineCache(PIPEngine pipEngine) {
+		EngineCache engineCache	= this.mapEngineCaches.get(pipEngine);
+		if (engineCache == null) {
+			engineCache	= this.mapEngineCaches.computeIfAbsent(pipEngine, EngineCache::new);
+		}
+		return engineCache;
+	}
+
+	/**
+	 * Determines whether the given <code>Properties</code> ask for a <code>CachingFinder</code>.
+	 *
+	 * @param properties the <code>Properties</code> to check
+	 * @return true if <code>xacml.pip.cache</code> is true
+	 */
+	public static boolean isEnabled(Properties properties) {
+		return properties != null && Boolean.parseBoolean(properties.getProperty(PROP_CACHE, "false"));
+	}
+
+	public CachingFinder(PIPFinder wrappedFinderIn, Properties propertiesIn) {
+		super(wrappedFinderIn);
+		this.properties	= (propertiesIn == null ? new Properties() : propertiesIn);
+	}
+
+	@Override
+	protected PIPResponse getAttributesInternal(PIPRequest pipRequest, PIPEngine exclude, PIPFinder pipFinderParent) throws PIPException {
+		PIPFinder thisWrappedFinder	= this.getWrappedFinder();
+		if (thisWrappedFinder == null) {
+			return StdPIPResponse.PIP_RESPONSE_EMPTY;
+		}
+		PIPFinder pipFinderRoot	= (pipFinderParent == null ? this : pipFinderParent);
+
+		StdMutablePIPResponse pipResponse	= new StdMutablePIPResponse();
+		Status firstErrorStatus				= null;
+		for (PIPEngine pipEngine : thisWrappedFinder.getPIPEngines()) {
+			if (pipEngine == exclude || !PIPRequestKey.mayProvide(pipEngine, pipRequest)) {
+				continue;
+			}
+			PIPResponse pipResponseEngine	= null;
+			try {
+				EngineCache engineCache	= this.getEngineCache(pipEngine);
+				if (engineCache.isEnabled()) {
+					pipResponseEngine	= engineCache.getAttributes(pipRequest, pipFinderRoot);
+				} else {
+					pipResponseEngine	= PIPEngineMetrics.getAttributes(pipEngine, pipRequest, pipFinderRoot);
+				}
+			} catch (Exception ex) {
+				logger.warn("PIPEngine {} failed getting {}: {}", pipEngine.getName(), pipRequest, ex.toString());
+				pipResponseEngine	= new StdPIPResponse(new StdStatus(StdStatusCode.STATUS_CODE_PROCESSING_ERROR, "PIPEngine " + pipEngine.getName() + " failed: " + ex.getMessage()));
+			}
+			if (pipResponseEngine != null) {
+				if (pipResponseEngine.getStatus() == null || pipResponseEngine.getStatus().isOk()) {
+					pipResponse.addAttributes(pipResponseEngine.getAttributes());
+				} else if (firstErrorStatus == null) {
+					firstErrorStatus	= pipResponseEngine.getStatus();
+				}
+			}
+		}
+		if (pipResponse.getAttributes().size() == 0 && firstErrorStatus != null) {
+			pipResponse.setStatus(firstErrorStatus);
+		}
+		return new StdPIPResponse(pipResponse);
+	}
+
+	/**
+	 * Gets a snapshot of the cache statistics for the given <code>PIPEngine</code>.
+	 *
+	 * @param pipEngine the <code>PIPEngine</code>
+	 * @return the <code>CacheStatistics</code>, or null if the engine has not been consulted through this <code>CachingFinder</code>
+	 */
+	public CacheStatistics getStatistics(PIPEngine pipEngine) {
+		EngineCache engineCache	= this.mapEngineCaches.get(pipEngine);
+		return (engineCache == null ? null : engineCache.getStatistics());
+	}
+
+	/**
+	 * Gets a snapshot of the cache statistics for each <code>PIPEngine</code> that has been consulted.
+	 *
+	 * @return a <code>List</code> of <code>CacheStatistics</code>
+	 */
+	public List<CacheStatistics> getStatistics() {
+		List<CacheStatistics> statistics	= new ArrayList<CacheStatistics>();
+		for (EngineCache engineCache : this.mapEngineCaches.values()) {
+			statistics.add(engineCache.getStatistics());
+		}
+		return statistics;
+	}
+
+	/**
+	 * Discards all cached entries.
+	 */
+	public void invalidateAll() {
+		for (EngineCache engineCache : this.mapEngineCaches.values()) {
+			if (engineCache.isEnabled()) {
+				engineCache.cache.invalidateAll();
+			}
+		}
+	}
+
+	@Override
+	public Collection<PIPEngine> getPIPEngines() {
+		PIPFinder thisWrappedFinder	= this.getWrappedFinder();
+		return (thisWrappedFinder == null ? Collections.<PIPEngine>emptyList() : thisWrappedFinder.getPIPEngines());
+	}
+}
@@ -13,6 +13,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.att.research.xacml.api.Status;
 import com.att.research.xacml.api.pip.PIPEngine;
 import com.att.research.xacml.api.pip.PIPException;
@@ -32,6 +35,8 @@ import com.att.research.xacml.std.pip.StdPIPResponse;
  * @version $Revision: 1.1 $
  */
 public class EngineFinder implements PIPFinder {
+	private static final Logger logger	= LoggerFactory.getLogger(EngineFinder.class);
+
 	private Map<String,List<PIPEngine>> pipEngines	= new HashMap<String,List<PIPEngine>>();
 
 	/**
@@ -53,6 +58,7 @@ public class EngineFinder implements PIPFinder {
 				this.pipEngines.put(pipEngine.getName(), pipEnginesForName);
 			}
 			pipEnginesForName.add(pipEngine);
+			PIPEngineMetrics.getInstance().register(pipEngine);
 		}
 	}
 	
@@ -67,10 +73,11 @@ public class EngineFinder implements PIPFinder {
 				if (pipEngine != exclude) {
 					PIPResponse pipResponseEngine = null;
 					try {
-						pipResponseEngine = pipEngine.getAttributes(pipRequest, pipFinderParent);
+						pipResponseEngine = PIPEngineMetrics.getAttributes(pipEngine, pipRequest, pipFinderParent);
 					} catch (Exception e) {
+						logger.warn("PIPEngine {} failed getting {}: {}", pipEngine.getName(), pipRequest, e.toString());
 						pipResponseEngine = new StdPIPResponse(new
-								StdStatus(StdStatusCode.STATUS_CODE_PROCESSING_ERROR));
+								StdStatus(StdStatusCode.STATUS_CODE_PROCESSING_ERROR, "PIPEngine " + pipEngine.getName() + " failed: " + e.getMessage()));
 					}
 					if (pipResponseEngine != null) {
 						if (pipResponseEngine.getStatus() == null || pipResponseEngine.getStatus().isOk()) {
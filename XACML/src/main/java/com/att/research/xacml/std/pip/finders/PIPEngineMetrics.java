@@ -0,0 +1,379 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.pip.finders;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.att.research.xacml.api.pip.PIPEngine;
+import com.att.research.xacml.api.pip.PIPException;
+import com.att.research.xacml.api.pip.PIPFinder;
+import com.att.research.xacml.api.pip.PIPRequest;
+import com.att.research.xacml.api.pip.PIPResponse;
+import com.att.research.xacml.std.pip.engines.StdConfigurableEngine;
+import com.att.research.xacml.util.Histogram;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
+
+/**
+ * PIPEngineMetrics records the latency, errors and number of attributes returned of every call the standard finders make to a
+ * {@link com.att.research.xacml.api.pip.PIPEngine}, grouped by engine name, along with the statistics of the cache of each
+ * {@link com.att.research.xacml.std.pip.engines.StdConfigurableEngine} that has one and of the
+ * {@link com.att.research.xacml.std.pip.finders.CachingFinder} in front of it, if there is one.
+ *
+ * It is shared by the whole JVM and is off until a finder is created with <code>xacml.pip.metrics=true</code> or it is enabled
+ * through JMX, and while it is off engine calls only check the flag.  Once enabled it is registered with the platform MBean
+ * server as {@link #OBJECT_NAME}.
+ *
+ * @version $Revision$
+ */
+public class PIPEngineMetrics implements PIPEngineMetricsMXBean {
+	public static final String PROP_METRICS	= "xacml.pip.metrics";
+	public static final String OBJECT_NAME	= "com.att.research.xacml:type=PIPEngineMetrics";
+
+	private static final Logger logger	= LoggerFactory.getLogger(PIPEngineMetrics.class);
+
+	private static final PIPEngineMetrics INSTANCE	= new PIPEngineMetrics();
+
+	private volatile boolean enabled;
+	private volatile boolean registered;
+	private final ConcurrentMap<String, EngineMetrics> mapEngines	= new ConcurrentHashMap<String, EngineMetrics>();
+
+	/**
+	 * EngineMetrics holds the counters for every <code>PIPEngine</code> with the same name.
+	 */
+	public static final class EngineMetrics {
+		private final String engineName;
+		private final Histogram latency			= new Histogram();
+		private final LongAdder errors			= new LongAdder();
+		private final LongAdder errorResponses	= new LongAdder();
+		private final LongAdder attributes		= new LongAdder();
+		private volatile WeakReference<PIPEngine> pipEngine	= new WeakReference<PIPEngine>(null);
+		private volatile WeakReference<CachingFinder> cachingFinder	= new WeakReference<CachingFinder>(null);
+
+		private EngineMetrics(String engineNameIn) {
+			this.engineName	= engineNameIn;
+		}
+
+		private void setCachingFinder(CachingFinder cachingFinderIn) {
+			if (this.cachingFinder.get() != cachingFinderIn) {
+				this.cachingFinder	= new WeakReference<CachingFinder>(cachingFinderIn);
+			}
+		}
+
+		private CachingFinder.CacheStatistics getSharedCacheStatistics() {
+			PIPEngine thisPIPEngine				= this.pipEngine.get();
+			CachingFinder thisCachingFinder		= this.cachingFinder.get();
+			return (thisPIPEngine == null || thisCachingFinder == null ? null : thisCachingFinder.getStatistics(thisPIPEngine));
+		}
+
+		private void setPIPEngine(PIPEngine pipEngineIn) {
+			if (this.pipEngine.get() != pipEngineIn) {
+				this.pipEngine	= new WeakReference<PIPEngine>(pipEngineIn);
+			}
+		}
+
+		private void reset() {
+			this.latency.reset();
+			this.errors.reset();
+			this.errorResponses.reset();
+			this.attributes.reset();
+		}
+
+		private CacheStats getCacheStats() {
+			PIPEngine thisPIPEngine	= this.pipEngine.get();
+			if (thisPIPEngine instanceof StdConfigurableEngine) {
+				Cache<String, PIPResponse> cache	= ((StdConfigurableEngine) thisPIPEngine).getCache();
+				if (cache != null) {
+					return cache.stats();
+				}
+			}
+			return null;
+		}
+
+		public String getEngineName() {
+			return this.engineName;
+		}
+
+		/**
+		 * Gets the latency of the calls to the engine, whether they succeeded or not.
+		 *
+		 * @return the <code>Histogram</code> of latencies in nanoseconds
+		 */
+		public Histogram getLatency() {
+			return this.latency;
+		}
+
+		public long getCalls() {
+			return this.latency.getCount();
+		}
+
+		/**
+		 * Gets the number of calls that threw an exception.
+		 *
+		 * @return the number of errors
+		 */
+		public long getErrors() {
+			return this.errors.sum();
+		}
+
+		/**
+		 * Gets the number of calls that returned a response with a status that is not OK.
+		 *
+		 * @return the number of error responses
+		 */
+		public long getErrorResponses() {
+			return this.errorResponses.sum();
+		}
+
+		public long getAttributes() {
+			return this.attributes.sum();
+		}
+
+		public boolean isCached() {
+			return this.getCacheStats() != null;
+		}
+
+		public double getCacheHitRate() {
+			CacheStats cacheStats	= this.getCacheStats();
+			return (cacheStats == null ? 0.0 : cacheStats.hitRate());
+		}
+
+		public long getCacheHits() {
+			CacheStats cacheStats	= this.getCacheStats();
+			return (cacheStats == null ? 0 : cacheStats.hitCount());
+		}
+
+		public long getCacheMisses() {
+			CacheStats cacheStats	= this.getCacheStats();
+			return (cacheStats == null ? 0 : cacheStats.missCount());
+		}
+
+		public long getCacheLoads() {
+			CacheStats cacheStats	= this.getCacheStats();
+			return (cacheStats == null ? 0 : cacheStats.loadCount());
+		}
+
+		public long getCacheEvictions() {
+			CacheStats cacheStats	= this.getCacheStats();
+			return (cacheStats == null ? 0 : cacheStats.evictionCount());
+		}
+
+		/**
+		 * Determines whether the engine is behind a {@link com.att.research.xacml.std.pip.finders.CachingFinder}, whose cache is
+		 * shared across requests.
+		 *
+		 * @return true if there are shared cache statistics for the engine
+		 */
+		public boolean isSharedCached() {
+			return this.getSharedCacheStatistics() != null;
+		}
+
+		public double getSharedCacheHitRate() {
+			CachingFinder.CacheStatistics cacheStatistics	= this.getSharedCacheStatistics();
+			return (cacheStatistics == null ? 0.0 : cacheStatistics.getHitRate());
+		}
+
+		public long getSharedCacheHits() {
+			CachingFinder.CacheStatistics cacheStatistics	= this.getSharedCacheStatistics();
+			return (cacheStatistics == null ? 0 : cacheStatistics.getHits() + cacheStatistics.getNegativeHits() + cacheStatistics.getStaleHits());
+		}
+
+		public long getSharedCacheMisses() {
+			CachingFinder.CacheStatistics cacheStatistics	= this.getSharedCacheStatistics();
+			return (cacheStatistics == null ? 0 : cacheStatistics.getMisses());
+		}
+
+		public long getSharedCacheRefreshes() {
+			CachingFinder.CacheStatistics cacheStatistics	= this.getSharedCacheStatistics();
+			return (cacheStatistics == null ? 0 : cacheStatistics.getRefreshes());
+		}
+
+		public long getSharedCacheCoalesced() {
+			CachingFinder.CacheStatistics cacheStatistics	= this.getSharedCacheStatistics();
+			return (cacheStatistics == null ? 0 : cacheStatistics.getCoalesced());
+		}
+
+		public long getSharedCacheEvictions() {
+			CachingFinder.CacheStatistics cacheStatistics	= this.getSharedCacheStatistics();
+			return (cacheStatistics == null ? 0 : cacheStatistics.getEvictions());
+		}
+
+		public long getSharedCacheSize() {
+			CachingFinder.CacheStatistics cacheStatistics	= this.getSharedCacheStatistics();
+			return (cacheStatistics == null ? 0 : cacheStatistics.getSize());
+		}
+
+		@Override
+		public String toString() {
+			return "{engineName=" + this.engineName +
+					",calls=" + this.getCalls() +
+					",errors=" + this.getErrors() +
+					",errorResponses=" + this.getErrorResponses() +
+					",attributes=" + this.getAttributes() +
+					",latency=" + this.latency +
+					(this.isCached() ? ",cacheHitRate=" + this.getCacheHitRate() + ",cacheEvictions=" + this.getCacheEvictions() : "") +
+					(this.isSharedCached() ? ",sharedCacheHitRate=" + this.getSharedCacheHitRate() + ",sharedCacheSize=" + this.getSharedCacheSize() : "") + "}";
+		}
+	}
+
+	protected PIPEngineMetrics() {
+	}
+
+	public static PIPEngineMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Determines whether the given <code>Properties</code> ask for <code>PIPEngine</code> metrics.
+	 *
+	 * @param properties the <code>Properties</code> to check
+	 * @return true if <code>xacml.pip.metrics</code> is true
+	 */
+	public static boolean isEnabled(Properties properties) {
+		return properties != null && Boolean.parseBoolean(properties.getProperty(PROP_METRICS, "false"));
+	}
+
+	/**
+	 * Turns on the shared <code>PIPEngineMetrics</code> and makes sure it is registered with the platform MBean server.
+	 */
+	public static void enable() {
+		INSTANCE.setEnabled(true);
+	}
+
+	/**
+	 * Calls the given <code>PIPEngine</code>, recording the call if metrics are enabled.
+	 *
+	 * @param pipEngine the <code>PIPEngine</code> to call
+	 * @param pipRequest the <code>PIPRequest</code> to pass to it
+	 * @param pipFinder the <code>PIPFinder</code> to pass to it
+	 * @return the engine's <code>PIPResponse</code>
+	 * @throws PIPException if the engine throws one
+	 */
+	public static PIPResponse getAttributes(PIPEngine pipEngine, PIPRequest pipRequest, PIPFinder pipFinder) throws PIPException {
+		if (! INSTANCE.enabled) {
+			return pipEngine.getAttributes(pipRequest, pipFinder);
+		}
+		EngineMetrics engineMetrics	= INSTANCE.getEngineMetrics(pipEngine);
+		long startNanos				= System.nanoTime();
+		try {
+			PIPResponse pipResponse	= pipEngine.getAttributes(pipRequest, pipFinder);
+			if (pipResponse != null) {
+				if (pipResponse.getStatus() == null || pipResponse.getStatus().isOk()) {
+					engineMetrics.attributes.add(pipResponse.getAttributes().size());
+				} else {
+					engineMetrics.errorResponses.increment();
+				}
+			}
+			return pipResponse;
+		} catch (PIPException | RuntimeException ex) {
+			engineMetrics.errors.increment();
+			throw ex;
+		} finally {
+			engineMetrics.latency.record(System.nanoTime() - startNanos);
+		}
+	}
+
+	/**
+	 * Makes the given <code>PIPEngine</code> known along with the {@link com.att.research.xacml.std.pip.finders.CachingFinder} in front
+	 * of it, so the statistics of that shared cache are reported with the engine's.
+	 *
+	 * @param pipEngine the <code>PIPEngine</code>
+	 * @param cachingFinder the <code>CachingFinder</code> that caches the engine's results
+	 */
+	public void register(PIPEngine pipEngine, CachingFinder cachingFinder) {
+		if (this.enabled) {
+			this.getEngineMetrics(pipEngine).setCachingFinder(cachingFinder);
+		}
+	}
+
+	/**
+	 * Makes the given <code>PIPEngine</code> known before it is first called, so its cache statistics can be reported.
+	 *
+	 * @param pipEngine the <code>PIPEngine</code>
+	 */
+	public void register(PIPEngine pipEngine) {
+		if (this.enabled) {
+			this.getEngineMetrics(pipEngine);
+		}
+	}
+
+	protected EngineMetrics getEngineMetrics(PIPEngine pipEngine) {
+		String engineName			= String.valueOf(pipEngine.getName());
+		EngineMetrics engineMetrics	= this.mapEngines.get(engineName);
+		if (engineMetrics == null) {
+			engineMetrics	= this.mapEngines.computeIfAbsent(engineName, EngineMetrics::new);
+		}
+		engineMetrics.setPIPEngine(pipEngine);
+		return engineMetrics;
+	}
+
+	private synchronized void registerMBean() {
+		if (this.registered) {
+			return;
+		}
+		this.registered	= true;
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+		} catch (InstanceAlreadyExistsException e) {
+			logger.warn("{} is already registered", OBJECT_NAME);
+		} catch (Exception e) {
+			logger.error("Failed to register {}: {}", OBJECT_NAME, e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabledIn) {
+		if (enabledIn) {
+			this.registerMBean();
+		}
+		this.enabled	= enabledIn;
+	}
+
+	/**
+	 * Gets the <code>EngineMetrics</code> for the named engine.
+	 *
+	 * @param engineName the name of the <code>PIPEngine</code>
+	 * @return the <code>EngineMetrics</code> or null if no engine with that name has been called
+	 */
+	public EngineMetrics getEngine(String engineName) {
+		return this.mapEngines.get(engineName);
+	}
+
+	@Override
+	public Map<String, EngineMetrics> getEngines() {
+		return new TreeMap<String, EngineMetrics>(this.mapEngines);
+	}
+
+	@Override
+	public void reset() {
+		for (EngineMetrics engineMetrics : this.mapEngines.values()) {
+			engineMetrics.reset();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "{enabled=" + this.isEnabled() + ",engines=" + this.getEngines().values() + "}";
+	}
+}
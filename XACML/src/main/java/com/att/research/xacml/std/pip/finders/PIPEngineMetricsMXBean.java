@@ -0,0 +1,23 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.pip.finders;
+
+import java.util.Map;
+
+/**
+ * PIPEngineMetricsMXBean is the JMX view of {@link PIPEngineMetrics}.  Latencies are in nanoseconds.
+ *
+ * @version $Revision$
+ */
+public interface PIPEngineMetricsMXBean {
+	public boolean isEnabled();
+
+	public void setEnabled(boolean enabled);
+
+	public Map<String, PIPEngineMetrics.EngineMetrics> getEngines();
+
+	public void reset();
+}
@@ -0,0 +1,144 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.pip.finders;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.att.research.xacml.api.Attribute;
+import com.att.research.xacml.api.AttributeValue;
+import com.att.research.xacml.api.pip.PIPEngine;
+import com.att.research.xacml.api.pip.PIPException;
+import com.att.research.xacml.api.pip.PIPFinder;
+import com.att.research.xacml.api.pip.PIPRequest;
+import com.att.research.xacml.api.pip.PIPResponse;
+import com.att.research.xacml.std.pip.StdPIPRequest;
+import com.att.research.xacml.util.ObjUtil;
+
+/**
+ * PIPRequestKey identifies the result of a {@link com.att.research.xacml.api.pip.PIPRequest} by combining it with the values of
+ * the attributes the answering {@link com.att.research.xacml.api.pip.PIPEngine}s list in
+ * {@link com.att.research.xacml.api.pip.PIPEngine#attributesRequired()}.  Two lookups with equal keys may share the same
+ * {@link com.att.research.xacml.api.pip.PIPResponse}.
+ *
+ * @version $Revision$
+ */
+public final class PIPRequestKey {
+	private final PIPRequest pipRequest;
+	private final List<List<AttributeValue<?>>> dependencyValues;
+	private final int hashCode;
+
+	public PIPRequestKey(PIPRequest pipRequestIn, List<List<AttributeValue<?>>> dependencyValuesIn) {
+		this.pipRequest			= new StdPIPRequest(pipRequestIn);
+		this.dependencyValues	= dependencyValuesIn;
+		this.hashCode			= 31 * this.pipRequest.hashCode() + dependencyValuesIn.hashCode();
+	}
+
+	/**
+	 * Determines whether the given <code>PIPEngine</code> may provide attributes for the given <code>PIPRequest</code>.  An engine
+	 * that does not list the attributes it provides is assumed to be able to provide any of them.
+	 *
+	 * @param pipEngine the <code>PIPEngine</code> to check
+	 * @param pipRequest the <code>PIPRequest</code> to check
+	 * @return true if the <code>PIPEngine</code> may provide the requested attributes
+	 */
+	public static boolean mayProvide(PIPEngine pipEngine, PIPRequest pipRequest) {
+		Collection<PIPRequest> attributesProvided	= pipEngine.attributesProvided();
+		if (attributesProvided == null || attributesProvided.isEmpty()) {
+			return true;
+		}
+		for (PIPRequest pipRequestProvided : attributesProvided) {
+			if (ObjUtil.equalsAllowNull(pipRequestProvided.getCategory(), pipRequest.getCategory()) &&
+				ObjUtil.equalsAllowNull(pipRequestProvided.getAttributeId(), pipRequest.getAttributeId()) &&
+				(pipRequestProvided.getDataTypeId() == null || pipRequest.getDataTypeId() == null || pipRequestProvided.getDataTypeId().equals(pipRequest.getDataTypeId()))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the <code>PIPRequest</code>s for the attributes that the given <code>PIPEngine</code> requires, not including the
+	 * <code>PIPRequest</code> being looked up itself.
+	 *
+	 * @param pipEngine the <code>PIPEngine</code>
+	 * @param pipRequest the <code>PIPRequest</code> being looked up
+	 * @param dependencies the <code>Collection</code> to add the required <code>PIPRequest</code>s to
+	 */
+	public static void addDependencies(PIPEngine pipEngine, PIPRequest pipRequest, Collection<PIPRequest> dependencies) {
+		Collection<PIPRequest> attributesRequired	= pipEngine.attributesRequired();
+		if (attributesRequired != null) {
+			for (PIPRequest pipRequestRequired : attributesRequired) {
+				if (!pipRequestRequired.equals(pipRequest)) {
+					dependencies.add(new StdPIPRequest(pipRequestRequired));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a new <code>PIPRequestKey</code> for the given <code>PIPRequest</code>, resolving the values of each of the given
+	 * dependency <code>PIPRequest</code>s with the given <code>PIPFinder</code>.
+	 *
+	 * @param pipRequest the <code>PIPRequest</code>
+	 * @param dependencies the <code>List</code> of <code>PIPRequest</code>s to resolve
+	 * @param pipFinder the <code>PIPFinder</code> to resolve the values with
+	 * @return a new <code>PIPRequestKey</code> or null if any of the dependencies could not be resolved
+	 * @throws PIPException if there is an error resolving the values
+	 */
+	public static PIPRequestKey newInstance(PIPRequest pipRequest, List<PIPRequest> dependencies, PIPFinder pipFinder) throws PIPException {
+		if (dependencies.isEmpty()) {
+			return new PIPRequestKey(pipRequest, Collections.<List<AttributeValue<?>>>emptyList());
+		}
+		List<List<AttributeValue<?>>> dependencyValues	= new ArrayList<List<AttributeValue<?>>>(dependencies.size());
+		for (PIPRequest pipRequestDependency : dependencies) {
+			PIPResponse pipResponseDependency	= pipFinder.getMatchingAttributes(pipRequestDependency, null);
+			if (pipResponseDependency == null || (pipResponseDependency.getStatus() != null && !pipResponseDependency.getStatus().isOk())) {
+				return null;
+			}
+			List<AttributeValue<?>> values	= new ArrayList<AttributeValue<?>>();
+			for (Attribute attribute : pipResponseDependency.getAttributes()) {
+				values.addAll(attribute.getValues());
+			}
+			dependencyValues.add(values);
+		}
+		return new PIPRequestKey(pipRequest, dependencyValues);
+	}
+
+	public PIPRequest getPIPRequest() {
+		return this.pipRequest;
+	}
+
+	public List<List<AttributeValue<?>>> getDependencyValues() {
+		return this.dependencyValues;
+	}
+
+	@Override
+	public int hashCode() {
+		return this.hashCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		} else if (!(obj instanceof PIPRequestKey)) {
+			return false;
+		} else {
+			PIPRequestKey key	= (PIPRequestKey)obj;
+			return this.hashCode == key.hashCode &&
+				   this.pipRequest.equals(key.pipRequest) &&
+				   this.dependencyValues.equals(key.dependencyValues);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "{pipRequest=" + this.pipRequest + ",dependencyValues=" + this.dependencyValues + "}";
+	}
+}
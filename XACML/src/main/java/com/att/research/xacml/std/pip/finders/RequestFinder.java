@@ -10,8 +10,16 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import com.att.research.xacml.api.Status;
 import com.att.research.xacml.api.XACML3;
@@ -29,6 +37,10 @@ import com.att.research.xacml.std.pip.engines.RequestEngine;
  * <code>PIPFinder</code> a {@link com.att.research.xacml.std.pip.engines.RequestEngine} and a {@link com.att.research.xacml.std.pip.engines.EnvironmentEngine}.
  * When attributes are requested, the
  * <code>RequestEngine</code> is searched first, followed by the <code>EnvironmentEngine</code> and if no results are found, the wrapped <code>PIPFinder</code> is searched.
+ * <p>
+ * Results from the wrapped <code>PIPFinder</code> are cached for the lifetime of the <code>RequestFinder</code>.  If a
+ * {@link com.att.research.xacml.std.pip.finders.RequestScopedCache} is given, results are also shared with the other
+ * <code>RequestFinder</code>s for individual decisions derived from the same original request.
  * 
  * @author car
  * @version $Revision: 1.3 $
@@ -37,6 +49,9 @@ public class RequestFinder extends WrappingFinder {
 	private RequestEngine requestEngine;
 	private EnvironmentEngine environmentEngine;
 	private Map<PIPRequest, PIPResponse>	mapCache	= new HashMap<PIPRequest,PIPResponse>();
+	private RequestScopedCache requestScopedCache;
+	private Set<PIPRequest> setPIPRequestsKeying		= new HashSet<PIPRequest>();
+	private boolean usedExternalAttributes;
 	
 	protected RequestEngine getRequestEngine() {
 		return this.requestEngine;
@@ -46,10 +61,59 @@ public class RequestFinder extends WrappingFinder {
 		return this.environmentEngine;
 	}
 	
+	protected RequestScopedCache getRequestScopedCache() {
+		return this.requestScopedCache;
+	}
+	
+	/**
+	 * Gets whether any lookup through this <code>RequestFinder</code> went outside the request itself, to the
+	 * <code>EnvironmentEngine</code> or to the wrapped <code>PIPFinder</code>, whatever they returned.  A decision that relied on
+	 * one of them finding nothing depends on them as much as one that used their values.
+	 * 
+	 * @return true if attributes from outside the request were used
+	 */
+	public boolean usedExternalAttributes() {
+		return this.usedExternalAttributes;
+	}
+	
 	public RequestFinder(PIPFinder pipFinder, RequestEngine requestEngineIn) {
+		this(pipFinder, requestEngineIn, new EnvironmentEngine(new Date()));
+	}
+	
+	/*
+	 * Used for the lookups made for another RequestFinder, which have to see the same current time
+	 */
+	private RequestFinder(PIPFinder pipFinder, RequestEngine requestEngineIn, EnvironmentEngine environmentEngineIn) {
 		super(pipFinder);
 		this.requestEngine	= requestEngineIn;
-		this.environmentEngine	= new EnvironmentEngine(new Date());
+		this.environmentEngine	= environmentEngineIn;
+	}
+	
+	public RequestFinder(PIPFinder pipFinder, RequestEngine requestEngineIn, RequestScopedCache requestScopedCacheIn) {
+		this(pipFinder, requestEngineIn);
+		this.requestScopedCache	= requestScopedCacheIn;
+	}
+	
+	/**
+	 * Gets the {@link com.att.research.xacml.std.pip.finders.PIPRequestKey} for the given <code>PIPRequest</code>.  The
+	 * values the key depends on are resolved through this <code>RequestFinder</code>, so a <code>PIPRequest</code> that is
+	 * already being keyed further up the stack is not shared to avoid cycles between engines.
+	 * 
+	 * @param pipRequest the <code>PIPRequest</code>
+	 * @param thisWrappedFinder the wrapped <code>PIPFinder</code>
+	 * @param pipFinderRoot the <code>PIPFinder</code> to resolve dependencies with
+	 * @return the <code>Key</code> or null if the <code>PIPRequest</code> should not be shared
+	 * @throws PIPException
+	 */
+	private PIPRequestKey getRequestScopedCacheKey(PIPRequest pipRequest, PIPFinder thisWrappedFinder, PIPFinder pipFinderRoot) throws PIPException {
+		if (!this.setPIPRequestsKeying.add(pipRequest)) {
+			return null;
+		}
+		try {
+			return this.requestScopedCache.getKey(pipRequest, thisWrappedFinder.getPIPEngines(), pipFinderRoot);
+		} finally {
+			this.setPIPRequestsKeying.remove(pipRequest);
+		}
 	}
 	
 	@Override
@@ -80,7 +144,8 @@ public class RequestFinder extends WrappingFinder {
 		 */
 		if (XACML3.ID_ATTRIBUTE_CATEGORY_ENVIRONMENT.equals(pipRequest.getCategory()) && (pipRequest.getIssuer() == null || pipRequest.getIssuer().length() == 0)) {
 			EnvironmentEngine thisEnvironmentEngine	= this.getEnvironmentEngine();
-			pipResponse	= thisEnvironmentEngine.getAttributes(pipRequest, this);
+			pipResponse					= thisEnvironmentEngine.getAttributes(pipRequest, this);
+			this.usedExternalAttributes	= true;
 			if (pipResponse.getStatus() == null || pipResponse.getStatus().isOk()) {
 				/*
 				 * We know how the EnvironmentEngine works.  It does not return multiple results
@@ -100,6 +165,7 @@ public class RequestFinder extends WrappingFinder {
 		 * Try the cache
 		 */
 		if (this.mapCache.containsKey(pipRequest)) {
+			this.usedExternalAttributes	= true;
 			return this.mapCache.get(pipRequest);
 		}
 		
@@ -108,7 +174,26 @@ public class RequestFinder extends WrappingFinder {
 		 */
 		PIPFinder thisWrappedFinder	= this.getWrappedFinder();
 		if (thisWrappedFinder != null) {
-			pipResponse	= thisWrappedFinder.getAttributes(pipRequest, exclude, (pipFinderRoot == null ? this : pipFinderRoot));
+			/*
+			 * Try the cache shared with the other individual decisions from the same request.  The exclude
+			 * engine changes what the wrapped Finder will return, so only unrestricted lookups are shared.
+			 */
+			RequestScopedCache thisRequestScopedCache	= this.getRequestScopedCache();
+			PIPRequestKey requestScopedCacheKey	= null;
+			if (thisRequestScopedCache != null && exclude == null) {
+				requestScopedCacheKey	= this.getRequestScopedCacheKey(pipRequest, thisWrappedFinder, (pipFinderRoot == null ? this : pipFinderRoot));
+				if (requestScopedCacheKey != null) {
+					PIPResponse pipResponseShared	= thisRequestScopedCache.get(requestScopedCacheKey);
+					if (pipResponseShared != null) {
+						this.usedExternalAttributes	= true;
+						this.mapCache.put(pipRequest, pipResponseShared);
+						return pipResponseShared;
+					}
+				}
+			}
+			
+			pipResponse					= thisWrappedFinder.getAttributes(pipRequest, exclude, (pipFinderRoot == null ? this : pipFinderRoot));
+			this.usedExternalAttributes	= true;
 			if (pipResponse != null) {
 				if (pipResponse.getStatus() == null || pipResponse.getStatus().isOk()) {
 					if (pipResponse.getAttributes().size() > 0) {
@@ -121,6 +206,9 @@ public class RequestFinder extends WrappingFinder {
 								this.mapCache.put(pipRequestSplit, mapResponses.get(pipRequestSplit));
 							}
 						}
+						if (requestScopedCacheKey != null) {
+							thisRequestScopedCache.put(requestScopedCacheKey, pipResponse);
+						}
 						return pipResponse;
 					}
 				} else if (status == null || status.isOk()) {
@@ -141,6 +229,116 @@ public class RequestFinder extends WrappingFinder {
 		}
 	}
 
+	/*
+	 * Determines whether the given PIPRequest would be answered without going to the wrapped PIPFinder
+	 */
+	private boolean isAnsweredLocally(PIPRequest pipRequest) throws PIPException {
+		if (this.mapCache.containsKey(pipRequest)) {
+			return true;
+		}
+		RequestEngine thisRequestEngine	= this.getRequestEngine();
+		if (thisRequestEngine != null) {
+			PIPResponse pipResponse	= thisRequestEngine.getAttributes(pipRequest, this);
+			if ((pipResponse.getStatus() == null || pipResponse.getStatus().isOk()) && pipResponse.getAttributes().size() > 0) {
+				return true;
+			}
+		}
+		if (XACML3.ID_ATTRIBUTE_CATEGORY_ENVIRONMENT.equals(pipRequest.getCategory()) && (pipRequest.getIssuer() == null || pipRequest.getIssuer().length() == 0)) {
+			PIPResponse pipResponse	= this.getEnvironmentEngine().getAttributes(pipRequest, this);
+			if ((pipResponse.getStatus() == null || pipResponse.getStatus().isOk()) && pipResponse.getAttributes().size() > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Looks up the given attributes from the wrapped <code>PIPFinder</code> in parallel on the given <code>Executor</code> and
+	 * caches every successful, non-empty response so that later lookups through this <code>RequestFinder</code> are answered
+	 * without waiting on the PIP engines one after another.  Attributes that are in the request, come from the
+	 * <code>EnvironmentEngine</code>, are already cached or that no wrapped engine provides are not looked up.
+	 * <p>
+	 * The lookups run with their own <code>RequestFinder</code> over the request and this one's <code>EnvironmentEngine</code>
+	 * as the root <code>PIPFinder</code>, so nothing else in this one is touched off the calling thread and they see the same
+	 * current time.  Lookups that fail are left for evaluation to make again, as are those still running after the timeout,
+	 * which are cancelled.  None of the prefetched attributes count towards {@link #usedExternalAttributes()} until a lookup
+	 * is answered from them.
+	 * 
+	 * @param pipRequests the <code>PIPRequest</code>s to look up
+	 * @param executor the <code>Executor</code> to run the lookups on
+	 * @param timeout how long to wait for the lookups in milliseconds
+	 * @return the number of <code>PIPRequest</code>s whose responses were cached
+	 * @throws PIPException if there is an error checking the request for the attributes
+	 */
+	public int prefetch(Collection<PIPRequest> pipRequests, Executor executor, long timeout) throws PIPException {
+		final PIPFinder thisWrappedFinder	= this.getWrappedFinder();
+		if (thisWrappedFinder == null || pipRequests.isEmpty()) {
+			return 0;
+		}
+		Collection<PIPEngine> pipEngines	= thisWrappedFinder.getPIPEngines();
+		final RequestEngine thisRequestEngine	= this.getRequestEngine();
+		final EnvironmentEngine thisEnvironmentEngine	= this.getEnvironmentEngine();
+		Map<PIPRequest,CompletableFuture<PIPResponse>> mapLookups	= new LinkedHashMap<PIPRequest,CompletableFuture<PIPResponse>>();
+		for (final PIPRequest pipRequest : pipRequests) {
+			if (mapLookups.containsKey(pipRequest) || this.isAnsweredLocally(pipRequest)) {
+				continue;
+			}
+			boolean provided	= false;
+			for (PIPEngine pipEngine : pipEngines) {
+				if (PIPRequestKey.mayProvide(pipEngine, pipRequest)) {
+					provided	= true;
+					break;
+				}
+			}
+			if (!provided) {
+				continue;
+			}
+			mapLookups.put(pipRequest, CompletableFuture.supplyAsync(() -> {
+				try {
+					return thisWrappedFinder.getAttributes(pipRequest, null, new RequestFinder(thisWrappedFinder, thisRequestEngine, thisEnvironmentEngine));
+				} catch (PIPException ex) {
+					return null;
+				}
+			}, executor));
+		}
+		if (mapLookups.isEmpty()) {
+			return 0;
+		}
+		
+		try {
+			CompletableFuture.allOf(mapLookups.values().toArray(new CompletableFuture<?>[mapLookups.size()])).get(timeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException ex) {
+			/*
+			 * Whatever did finish in time is still cached
+			 */
+		}
+		
+		int prefetched	= 0;
+		for (Map.Entry<PIPRequest,CompletableFuture<PIPResponse>> entry : mapLookups.entrySet()) {
+			CompletableFuture<PIPResponse> future	= entry.getValue();
+			if (!future.isDone()) {
+				/*
+				 * Nobody will use it, so one still waiting for a thread never takes one
+				 */
+				future.cancel(false);
+				continue;
+			}
+			if (future.isCompletedExceptionally()) {
+				continue;
+			}
+			PIPResponse pipResponse	= future.getNow(null);
+			if (pipResponse == null || (pipResponse.getStatus() != null && !pipResponse.getStatus().isOk()) || pipResponse.getAttributes().isEmpty()) {
+				continue;
+			}
+			this.mapCache.putAll(StdPIPResponse.splitResponse(pipResponse));
+			this.mapCache.put(entry.getKey(), pipResponse);
+			prefetched++;
+		}
+		return prefetched;
+	}
+
 	@Override
 	public Collection<PIPEngine> getPIPEngines() {
 		List<PIPEngine>	engines = new ArrayList<PIPEngine>();
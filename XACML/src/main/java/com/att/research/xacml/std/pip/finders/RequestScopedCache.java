@@ -0,0 +1,107 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.pip.finders;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.att.research.xacml.api.pip.PIPEngine;
+import com.att.research.xacml.api.pip.PIPException;
+import com.att.research.xacml.api.pip.PIPFinder;
+import com.att.research.xacml.api.pip.PIPRequest;
+import com.att.research.xacml.api.pip.PIPResponse;
+import com.att.research.xacml.std.pip.StdPIPRequest;
+
+/**
+ * RequestScopedCache holds {@link com.att.research.xacml.api.pip.PIPResponse}s that may be shared by all of the individual
+ * decision requests derived from a single original {@link com.att.research.xacml.api.Request}.  Entries are keyed on a
+ * {@link com.att.research.xacml.std.pip.finders.PIPRequestKey} built from the values of every attribute that the <code>PIPEngine</code>s
+ * able to provide the <code>PIPRequest</code> list in {@link com.att.research.xacml.api.pip.PIPEngine#attributesRequired()}.  A lookup
+ * that depends on an attribute that differs between individual decisions (a resource-id, for instance) therefore gets a different
+ * key in each of them.
+ *
+ * @version $Revision$
+ */
+public class RequestScopedCache {
+	private final Map<PIPRequest, List<PIPRequest>> mapDependencies	= new ConcurrentHashMap<PIPRequest, List<PIPRequest>>();
+	private final Map<PIPRequestKey, PIPResponse> mapResponses		= new ConcurrentHashMap<PIPRequestKey, PIPResponse>();
+
+	/**
+	 * Gets the <code>PIPRequest</code>s the given <code>PIPRequest</code> depends on across all of the given <code>PIPEngine</code>s.
+	 * The result is computed once per <code>PIPRequest</code> for the lifetime of this <code>RequestScopedCache</code>.
+	 *
+	 * @param pipRequest the <code>PIPRequest</code>
+	 * @param pipEngines the <code>PIPEngine</code>s that may be consulted for the <code>PIPRequest</code>
+	 * @return the <code>List</code> of dependency <code>PIPRequest</code>s
+	 */
+	protected List<PIPRequest> getDependencies(PIPRequest pipRequest, Collection<PIPEngine> pipEngines) {
+		List<PIPRequest> dependencies	= this.mapDependencies.get(pipRequest);
+		if (dependencies == null) {
+			Set<PIPRequest> setDependencies	= new LinkedHashSet<PIPRequest>();
+			if (pipEngines != null) {
+				for (PIPEngine pipEngine : pipEngines) {
+					if (PIPRequestKey.mayProvide(pipEngine, pipRequest)) {
+						PIPRequestKey.addDependencies(pipEngine, pipRequest, setDependencies);
+					}
+				}
+			}
+			dependencies	= Collections.unmodifiableList(new ArrayList<PIPRequest>(setDependencies));
+			this.mapDependencies.put(new StdPIPRequest(pipRequest), dependencies);
+		}
+		return dependencies;
+	}
+
+	public RequestScopedCache() {
+	}
+
+	/**
+	 * Gets the <code>PIPRequestKey</code> for the given <code>PIPRequest</code>, resolving the values it depends on with the given <code>PIPFinder</code>.
+	 *
+	 * @param pipRequest the <code>PIPRequest</code>
+	 * @param pipEngines the <code>PIPEngine</code>s that may be consulted for the <code>PIPRequest</code>
+	 * @param pipFinder the <code>PIPFinder</code> for the current individual decision request
+	 * @return the <code>PIPRequestKey</code> or null if the values it depends on could not be resolved
+	 * @throws PIPException if there is an error resolving the values
+	 */
+	public PIPRequestKey getKey(PIPRequest pipRequest, Collection<PIPEngine> pipEngines, PIPFinder pipFinder) throws PIPException {
+		return PIPRequestKey.newInstance(pipRequest, this.getDependencies(pipRequest, pipEngines), pipFinder);
+	}
+
+	/**
+	 * Gets the cached <code>PIPResponse</code> for the given <code>PIPRequestKey</code>.
+	 *
+	 * @param key the <code>PIPRequestKey</code>
+	 * @return the cached <code>PIPResponse</code> or null if there is none
+	 */
+	public PIPResponse get(PIPRequestKey key) {
+		return this.mapResponses.get(key);
+	}
+
+	/**
+	 * Caches the given <code>PIPResponse</code> under the given <code>PIPRequestKey</code>.
+	 *
+	 * @param key the <code>PIPRequestKey</code>
+	 * @param pipResponse the <code>PIPResponse</code> to cache
+	 */
+	public void put(PIPRequestKey key, PIPResponse pipResponse) {
+		this.mapResponses.put(key, pipResponse);
+	}
+
+	/**
+	 * Gets the number of cached <code>PIPResponse</code>s.
+	 *
+	 * @return the number of cached <code>PIPResponse</code>s
+	 */
+	public int size() {
+		return this.mapResponses.size();
+	}
+}
@@ -6,6 +6,7 @@
 package com.att.research.xacml.std.trace;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import com.att.research.xacml.api.trace.TraceEvent;
 import com.att.research.xacml.api.trace.Traceable;
@@ -13,26 +14,45 @@ import com.att.research.xacml.api.trace.Traceable;
 /**
  * Immutable implementation of the {@link com.att.research.xacml.api.trace.TraceEvent} interface.
  * 
+ * Events are stamped with <code>System.nanoTime()</code> and <code>System.currentTimeMillis()</code>, and the <code>Date</code>
+ * is only created if {@link #getTimestamp()} is called, so creating a <code>StdTraceEvent</code> is no more than two clock reads.
+ * 
  * @author Christopher A. Rath
  * @version $Revision$
  * 
  * @param <T>
  */
 public class StdTraceEvent<T> implements TraceEvent<T> {
-	private Date	timestamp;
-	private String	message;
-	private Traceable cause;
-	private T value;
+	private final long nanoTime;
+	private final long millis;
+	private volatile Date timestamp;
+	private final String	message;
+	private final Traceable cause;
+	private final T value;
 	
-	public StdTraceEvent(Date timestampIn, String messageIn, Traceable causeIn, T valueIn) {
+	protected StdTraceEvent(long nanoTimeIn, long millisIn, Date timestampIn, String messageIn, Traceable causeIn, T valueIn) {
+		this.nanoTime	= nanoTimeIn;
+		this.millis		= millisIn;
 		this.timestamp	= timestampIn;
 		this.message	= messageIn;
 		this.cause		= causeIn;
 		this.value		= valueIn;
 	}
 	
+	/**
+	 * Creates a new <code>StdTraceEvent</code> that occurred at the given <code>Date</code>, or now if it is null.
+	 * 
+	 * @param timestampIn the <code>Date</code> the event occurred, or null
+	 * @param messageIn the message for the event
+	 * @param causeIn the <code>Traceable</code> that caused the event
+	 * @param valueIn the value for the event
+	 */
+	public StdTraceEvent(Date timestampIn, String messageIn, Traceable causeIn, T valueIn) {
+		this((timestampIn == null ? System.nanoTime() : getNanoTime(timestampIn)), (timestampIn == null ? System.currentTimeMillis() : timestampIn.getTime()), timestampIn, messageIn, causeIn, valueIn);
+	}
+	
 	public StdTraceEvent(String messageIn, Traceable causeIn, T valueIn) {
-		this(new Date(), messageIn, causeIn, valueIn);
+		this(System.nanoTime(), System.currentTimeMillis(), null, messageIn, causeIn, valueIn);
 	}
 	
 	public StdTraceEvent(Date timestampIn, String messageIn, T valueIn) {
@@ -40,16 +60,32 @@ public class StdTraceEvent<T> implements TraceEvent<T> {
 	}
 	
 	public StdTraceEvent(String messageIn, T valueIn) {
-		this(new Date(), messageIn, null, valueIn);
+		this(messageIn, null, valueIn);
 	}
 	
 	public StdTraceEvent() {
-		this(new Date(), null, null, null);
+		this(System.nanoTime(), System.currentTimeMillis(), null, null, null, null);
+	}
+	
+	/*
+	 * Gets the System.nanoTime() value corresponding to the given Date
+	 */
+	private static long getNanoTime(Date date) {
+		return System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - date.getTime());
 	}
 
 	@Override
 	public Date getTimestamp() {
-		return this.timestamp;
+		Date date	= this.timestamp;
+		if (date == null) {
+			this.timestamp	= date	= new Date(this.millis);
+		}
+		return date;
+	}
+
+	@Override
+	public long getNanoTime() {
+		return this.nanoTime;
 	}
 
 	@Override
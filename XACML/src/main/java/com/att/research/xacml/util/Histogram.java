@@ -0,0 +1,145 @@
+/*
+ *
+ *          Copyright (c) 2019  AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram records the distribution of non-negative <code>long</code> values, such as latencies in nanoseconds, in a fixed
+ * set of log-linear buckets.  Each power of two is split into 32 buckets, so any value is reported to within about 3% of what
+ * was recorded, whatever its magnitude.
+ *
+ * Recording a value is lock free and does not allocate, so a <code>Histogram</code> can be updated from every request thread.
+ * Reading it while values are being recorded gives a close, but not necessarily consistent, picture.
+ *
+ * @version $Revision$
+ */
+public class Histogram {
+	private static final int	SUB_BUCKET_BITS	= 5;
+	private static final int	SUB_BUCKETS		= 1 << SUB_BUCKET_BITS;
+	private static final int	BUCKETS			= (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray	counts	= new AtomicLongArray(BUCKETS);
+	private final LongAdder			count	= new LongAdder();
+	private final LongAdder			total	= new LongAdder();
+	private final AtomicLong		max		= new AtomicLong();
+
+	private static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent	= (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+		int subBucket	= (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	private static long highestValueIn(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift	= (bucket / SUB_BUCKETS) - 1;
+		long lowest	= ((long) (SUB_BUCKETS + (bucket % SUB_BUCKETS))) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * Records the given value.  Negative values are recorded as zero.
+	 *
+	 * @param value the value to record
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value	= 0;
+		}
+		this.counts.incrementAndGet(bucketOf(value));
+		this.count.increment();
+		this.total.add(value);
+		if (value > this.max.get()) {
+			this.max.accumulateAndGet(value, Math::max);
+		}
+	}
+
+	/**
+	 * Gets the value that the given percentage of the recorded values are less than or equal to.
+	 *
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the value at the percentile, or 0 if nothing has been recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long countTotal	= this.count.sum();
+		if (countTotal == 0) {
+			return 0;
+		}
+		long target		= Math.max(1, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * countTotal));
+		long seen		= 0;
+		long maxValue	= this.max.get();
+		for (int bucket = 0 ; bucket < BUCKETS ; bucket++) {
+			seen	+= this.counts.get(bucket);
+			if (seen >= target) {
+				return Math.min(highestValueIn(bucket), maxValue);
+			}
+		}
+		return maxValue;
+	}
+
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	public long getTotal() {
+		return this.total.sum();
+	}
+
+	public long getMax() {
+		return this.max.get();
+	}
+
+	public double getMean() {
+		long countTotal	= this.count.sum();
+		return (countTotal == 0 ? 0.0 : (double) this.total.sum() / countTotal);
+	}
+
+	public long getMedian() {
+		return this.getValueAtPercentile(50.0);
+	}
+
+	public long getPercentile90() {
+		return this.getValueAtPercentile(90.0);
+	}
+
+	public long getPercentile99() {
+		return this.getValueAtPercentile(99.0);
+	}
+
+	public long getPercentile999() {
+		return this.getValueAtPercentile(99.9);
+	}
+
+	/**
+	 * Discards everything that has been recorded.
+	 */
+	public void reset() {
+		for (int bucket = 0 ; bucket < BUCKETS ; bucket++) {
+			this.counts.set(bucket, 0);
+		}
+		this.count.reset();
+		this.total.reset();
+		this.max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return "{count=" + this.getCount() +
+				",mean=" + (long) this.getMean() +
+				",median=" + this.getMedian() +
+				",p90=" + this.getPercentile90() +
+				",p99=" + this.getPercentile99() +
+				",p999=" + this.getPercentile999() +
+				",max=" + this.getMax() + "}";
+	}
+}
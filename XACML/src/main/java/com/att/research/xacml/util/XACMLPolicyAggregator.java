@@ -241,9 +241,9 @@ public class XACMLPolicyAggregator extends SimpleCallback  {
 	protected void evaluteExpression(Object obj, Object parent, Object container) {
 		if (obj instanceof AttributeDesignatorType) {
 			AttributeDesignatorType designator = (AttributeDesignatorType) obj;
-			StdAttribute attribute = new StdAttribute(new IdentifierImpl(designator.getCategory()),
-					new IdentifierImpl(designator.getAttributeId()),
-					new StdAttributeValue<List<?>>(new IdentifierImpl(designator.getDataType()), Collections.emptyList()),
+			StdAttribute attribute = new StdAttribute(IdentifierImpl.intern(designator.getCategory()),
+					IdentifierImpl.intern(designator.getAttributeId()),
+					new StdAttributeValue<List<?>>(IdentifierImpl.intern(designator.getDataType()), Collections.emptyList()),
 					designator.getIssuer(),
 					false);
 			this.onAttribute(parent, container, attribute);
@@ -276,9 +276,9 @@ public class XACMLPolicyAggregator extends SimpleCallback  {
 			*/
 		} else if (obj instanceof AttributeSelectorType) {
 			AttributeSelectorType selector = (AttributeSelectorType)obj;
-			StdAttribute attribute = new StdAttribute(new IdentifierImpl(selector.getCategory()),
-					new IdentifierImpl(selector.getContextSelectorId()),
-					new StdAttributeValue<List<?>>(new IdentifierImpl(selector.getDataType()), Collections.emptyList()),
+			StdAttribute attribute = new StdAttribute(IdentifierImpl.intern(selector.getCategory()),
+					IdentifierImpl.intern(selector.getContextSelectorId()),
+					new StdAttributeValue<List<?>>(IdentifierImpl.intern(selector.getDataType()), Collections.emptyList()),
 					null,
 					false);
 			this.onAttribute(parent, container, attribute);
@@ -47,6 +47,7 @@ import org.w3c.dom.NodeList;
 import com.att.research.xacml.api.Advice;
 import com.att.research.xacml.api.Attribute;
 import com.att.research.xacml.api.AttributeAssignment;
+import com.att.research.xacml.api.Identifier;
 import com.att.research.xacml.api.Obligation;
 import com.att.research.xacml.std.IdentifierImpl;
 import com.att.research.xacml.std.StdAttribute;
@@ -592,16 +593,16 @@ public class XACMLPolicyScanner {
 									//
 									// The content may be tricky
 									//
-									attribute = new StdAttribute(new IdentifierImpl(designator.getCategory()),
-																			new IdentifierImpl(designator.getAttributeId()),
-																			new StdAttributeValue<List<?>>(new IdentifierImpl(value.getDataType()), value.getContent()),
+									attribute = new StdAttribute(IdentifierImpl.intern(designator.getCategory()),
+																			IdentifierImpl.intern(designator.getAttributeId()),
+																			new StdAttributeValue<List<?>>(IdentifierImpl.intern(value.getDataType()), value.getContent()),
 																			designator.getIssuer(),
 																			false);
 								} else if (match.getAttributeSelector() != null && value != null) {
 									AttributeSelectorType selector = match.getAttributeSelector();
-									attribute = new StdAttribute(new IdentifierImpl(selector.getCategory()),
-																			new IdentifierImpl(selector.getContextSelectorId()),
-																			new StdAttributeValue<List<?>>(new IdentifierImpl(value.getDataType()), value.getContent()),
+									attribute = new StdAttribute(IdentifierImpl.intern(selector.getCategory()),
+																			IdentifierImpl.intern(selector.getContextSelectorId()),
+																			new StdAttributeValue<List<?>>(IdentifierImpl.intern(value.getDataType()), value.getContent()),
 																			null,
 																			false);
 								} else {
@@ -637,18 +638,18 @@ public class XACMLPolicyScanner {
 			return CallbackResult.CONTINUE;
 		}
 		for (ObligationExpressionType expression : expressions) {
-			StdMutableObligation ob = new StdMutableObligation(new IdentifierImpl(expression.getObligationId()));
+			StdMutableObligation ob = new StdMutableObligation(IdentifierImpl.intern(expression.getObligationId()));
 			List<AttributeAssignmentExpressionType> assignments = expression.getAttributeAssignmentExpression();
 			if (assignments != null) {
 				for (AttributeAssignmentExpressionType assignment : assignments) {
 					// category is optional and may be null
-					IdentifierImpl categoryId = null;
+					Identifier categoryId = null;
 					if (assignment.getCategory() != null) {
-						categoryId = new IdentifierImpl(assignment.getCategory());
+						categoryId = IdentifierImpl.intern(assignment.getCategory());
 					}
 					AttributeAssignment attribute = new StdAttributeAssignment(
 												categoryId,
-												new IdentifierImpl(assignment.getAttributeId()),
+												IdentifierImpl.intern(assignment.getAttributeId()),
 												assignment.getIssuer(),
 												new StdAttributeValue<Object>(null, null)
 												);
@@ -681,17 +682,17 @@ public class XACMLPolicyScanner {
 			return CallbackResult.CONTINUE;
 		}
 		for (AdviceExpressionType expression : expressions) {
-			StdMutableAdvice ob = new StdMutableAdvice(new IdentifierImpl(expression.getAdviceId()));
+			StdMutableAdvice ob = new StdMutableAdvice(IdentifierImpl.intern(expression.getAdviceId()));
 			List<AttributeAssignmentExpressionType> assignments = expression.getAttributeAssignmentExpression();
 			if (assignments != null) {
 				for (AttributeAssignmentExpressionType assignment : assignments) {
-					IdentifierImpl categoryId = null;
+					Identifier categoryId = null;
 					if (assignment.getCategory() != null) {
-						categoryId = new IdentifierImpl(assignment.getCategory());
+						categoryId = IdentifierImpl.intern(assignment.getCategory());
 					}
 					AttributeAssignment attribute = new StdAttributeAssignment(
 												categoryId,
-												new IdentifierImpl(assignment.getAttributeId()),
+												IdentifierImpl.intern(assignment.getAttributeId()),
 												assignment.getIssuer(),
 												new StdAttributeValue<Object>(null, null)
 												);
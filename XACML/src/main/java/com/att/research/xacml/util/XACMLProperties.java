@@ -46,6 +46,12 @@ public class XACMLProperties {
 	
 	public static final String	PROP_ROOTPOLICIES		= "xacml.rootPolicies";
 	public static final String	PROP_REFERENCEDPOLICIES	= "xacml.referencedPolicies";
+	/*
+	 * The SHA-256 content hash of a policy is sent to the PDPs as "<PolicyId>.hash", and the hash of a group's whole
+	 * policy and PIP configuration as xacml.manifest, so a PDP can tell which policies have changed.
+	 */
+	public static final String	PROP_POLICY_HASH		= ".hash";
+	public static final String	PROP_MANIFEST			= "xacml.manifest";
 	
 	public static final String	PROP_PDP_BEHAVIOR		= "xacml.pdp.behavior";
 	public static final String	PROP_PIP_ENGINES		= "xacml.pip.engines";
@@ -152,6 +158,10 @@ public class XACMLProperties {
 			logger.error(LOG_MSG + XACMLProperties.PROP_REFERENCEDPOLICIES);
 			throw new XacmlPropertyException(LOG_MSG + XACMLProperties.PROP_REFERENCEDPOLICIES);
 		}
+		// the manifest is optional, it is only there when the PAP could hash every policy
+		if (current.getProperty(XACMLProperties.PROP_MANIFEST) != null) {
+			props.setProperty(XACMLProperties.PROP_MANIFEST, current.getProperty(XACMLProperties.PROP_MANIFEST));
+		}
 		Set<Object> keys = current.keySet();
 		for (String list : lists) {
 			if (list == null || list.length() == 0) {
@@ -9,6 +9,7 @@ import static org.junit.Assert.*;
 import java.net.URI;
 import org.junit.Test;
 import com.att.research.xacml.api.Identifier;
+import com.att.research.xacml.api.XACML3;
 
 public class IdentifierImplTest {
 
@@ -81,4 +82,40 @@ public class IdentifierImplTest {
     Object foo = null;
     assertFalse(id1.equals(foo));
   }
+
+  @Test
+  public void testEqualsURI() {
+    Identifier id1 = new IdentifierImpl("HTTP://Example.com/test");
+    Identifier id2 = new IdentifierImpl("http://example.com/test");
+    assertEquals(id1, id2);
+    assertEquals(id1.hashCode(), id2.hashCode());
+    assertFalse(id1.equals(new IdentifierImpl("http://example.com/Test")));
+  }
+
+  @Test
+  public void testIntern() {
+    Identifier id1 = IdentifierImpl.intern("com:test:intern");
+    assertSame(id1, IdentifierImpl.intern("com:test:intern"));
+    assertSame(id1, IdentifierImpl.intern(URI.create("com:test:intern")));
+    assertSame(id1, IdentifierImpl.intern(new IdentifierImpl("com:test:intern")));
+    assertSame(id1, IdentifierImpl.intern(IdentifierImpl.intern("com:test"), "intern"));
+    assertEquals(new IdentifierImpl("com:test:intern"), id1);
+    assertNull(IdentifierImpl.intern((Identifier)null));
+  }
+
+  @Test
+  public void testInternConstants() {
+    assertSame(XACML3.ID_DATATYPE_STRING, IdentifierImpl.intern("http://www.w3.org/2001/XMLSchema#string"));
+    assertSame(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, IdentifierImpl.intern("urn:oasis:names:tc:xacml:3.0:attribute-category:resource"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInternNull() {
+    IdentifierImpl.intern((String)null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInternInvalid() {
+    IdentifierImpl.intern("not a uri");
+  }
 }
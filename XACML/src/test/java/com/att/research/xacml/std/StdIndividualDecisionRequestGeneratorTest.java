@@ -0,0 +1,239 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import com.att.research.xacml.api.Identifier;
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.api.RequestAttributes;
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.std.datatypes.DataTypes;
+import com.att.research.xacml.std.datatypes.XPathExpressionWrapper;
+
+public class StdIndividualDecisionRequestGeneratorTest {
+
+  private static StdMutableRequestAttributes newRequestAttributes(Identifier category, Identifier attributeId, String value) throws Exception {
+    StdMutableRequestAttributes requestAttributes = new StdMutableRequestAttributes();
+    requestAttributes.setCategory(category);
+    requestAttributes.add(new StdMutableAttribute(category, attributeId, DataTypes.DT_STRING.createAttributeValue(value)));
+    return requestAttributes;
+  }
+
+  private static StdMutableRequest newRequest(int subjects, int resources, int actions) throws Exception {
+    StdMutableRequest request = new StdMutableRequest();
+    for (int i = 0; i < subjects; i++) {
+      request.add(newRequestAttributes(XACML3.ID_SUBJECT_CATEGORY_ACCESS_SUBJECT, XACML3.ID_SUBJECT_SUBJECT_ID, "subject" + i));
+    }
+    for (int i = 0; i < resources; i++) {
+      request.add(newRequestAttributes(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, XACML3.ID_RESOURCE_RESOURCE_ID, "resource" + i));
+    }
+    for (int i = 0; i < actions; i++) {
+      request.add(newRequestAttributes(XACML3.ID_ATTRIBUTE_CATEGORY_ACTION, XACML3.ID_ACTION_ACTION_ID, "action" + i));
+    }
+    return request;
+  }
+
+  @Test
+  public void testSingleRequest() throws Exception {
+    StdMutableRequest request = newRequest(1, 1, 1);
+    Iterator<Request> iterRequests = new StdIndividualDecisionRequestGenerator(request).getIndividualDecisionRequests();
+    assertTrue(iterRequests.hasNext());
+    assertSame(request, iterRequests.next());
+    assertFalse(iterRequests.hasNext());
+  }
+
+  @Test
+  public void testRepeatedCategories() throws Exception {
+    StdMutableRequest request = newRequest(3, 4, 2);
+    StdIndividualDecisionRequestGenerator generator = new StdIndividualDecisionRequestGenerator(request);
+
+    Set<RequestAttributes> originalRequestAttributes = new HashSet<>(request.getRequestAttributes());
+    Set<String> combinations = new HashSet<>();
+    Iterator<Request> iterRequests = generator.getIndividualDecisionRequests();
+    while (iterRequests.hasNext()) {
+      Request requestIndividual = iterRequests.next();
+      assertNull(requestIndividual.getStatus());
+      assertEquals(3, requestIndividual.getRequestAttributes().size());
+      StringBuilder combination = new StringBuilder();
+      for (RequestAttributes requestAttributes : requestIndividual.getRequestAttributes()) {
+        //
+        // The RequestAttributes are shared with the original request, not copied
+        //
+        assertTrue(originalRequestAttributes.stream().anyMatch(original -> original == requestAttributes));
+        combination.append(requestAttributes.getAttributes().iterator().next().getValues().iterator().next().getValue()).append(',');
+      }
+      combinations.add(combination.toString());
+    }
+    assertEquals(24, combinations.size());
+
+    //
+    // Each iterator starts the generation over again
+    //
+    int count = 0;
+    iterRequests = generator.getIndividualDecisionRequests();
+    while (iterRequests.hasNext()) {
+      iterRequests.next();
+      count++;
+    }
+    assertEquals(24, count);
+  }
+
+  @Test
+  public void testMaxIndividualDecisionRequests() throws Exception {
+    StdMutableRequest request = newRequest(50, 50, 4);
+    Iterator<Request> iterRequests = new StdIndividualDecisionRequestGenerator(null, request, 1000).getIndividualDecisionRequests();
+    assertTrue(iterRequests.hasNext());
+    Request requestIndividual = iterRequests.next();
+    assertNotNull(requestIndividual.getStatus());
+    assertEquals(StdStatusCode.STATUS_CODE_PROCESSING_ERROR, requestIndividual.getStatus().getStatusCode());
+    assertFalse(iterRequests.hasNext());
+
+    iterRequests = new StdIndividualDecisionRequestGenerator(null, request, 10000).getIndividualDecisionRequests();
+    int count = 0;
+    while (iterRequests.hasNext()) {
+      assertNull(iterRequests.next().getStatus());
+      count++;
+    }
+    assertEquals(10000, count);
+  }
+
+  /*
+   * A request for the given number of subjects, with a resource whose Content has the given number of items selected by a
+   * multiple:content-selector
+   */
+  private static StdMutableRequest newContentRequest(int subjects, int items) throws Exception {
+    StringBuilder content = new StringBuilder("<items>");
+    for (int i = 0; i < items; i++) {
+      content.append("<item/>");
+    }
+    Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new InputSource(new StringReader(content.append("</items>").toString())));
+    StdMutableRequestAttributes requestAttributes = newRequestAttributes(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, XACML3.ID_RESOURCE_RESOURCE_ID, "resource");
+    requestAttributes.setContentRoot(document);
+    requestAttributes.add(new StdMutableAttribute(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, XACML3.ID_MULTIPLE_CONTENT_SELECTOR,
+        DataTypes.DT_XPATHEXPRESSION.createAttributeValue(new XPathExpressionWrapper("/items/item"))));
+    StdMutableRequest request = newRequest(subjects, 0, 1);
+    request.add(requestAttributes);
+    return request;
+  }
+
+  @Test
+  public void testMaxIndividualDecisionRequestsTotal() throws Exception {
+    //
+    // The repeated categories are within the limit, but the content selector expands past it
+    //
+    StdMutableRequest request = newContentRequest(2, 5);
+    Iterator<Request> iterRequests = new StdIndividualDecisionRequestGenerator(null, request, 6).getIndividualDecisionRequests();
+    int count = 0;
+    while (iterRequests.hasNext()) {
+      Request requestIndividual = iterRequests.next();
+      if (count++ < 6) {
+        assertNull(requestIndividual.getStatus());
+      } else {
+        assertEquals(StdStatusCode.STATUS_CODE_PROCESSING_ERROR, requestIndividual.getStatus().getStatusCode());
+      }
+    }
+    assertEquals(7, count);
+
+    iterRequests = new StdIndividualDecisionRequestGenerator(null, request, 10).getIndividualDecisionRequests();
+    count = 0;
+    while (iterRequests.hasNext()) {
+      assertNull(iterRequests.next().getStatus());
+      count++;
+    }
+    assertEquals(10, count);
+  }
+
+  @Test
+  public void testOverriddenMethodsAreCalled() throws Exception {
+    StdMutableRequest request = newRequest(3, 4, 2);
+    List<Request> requestsSeen = new ArrayList<>();
+    StdIndividualDecisionRequestGenerator generator = new StdIndividualDecisionRequestGenerator(request) {
+      @Override
+      protected void processContentSelectors(Request requestIn) {
+        requestsSeen.add(requestIn);
+        super.processContentSelectors(requestIn);
+      }
+    };
+    Iterator<Request> iterRequests = generator.getIndividualDecisionRequests();
+    int count = 0;
+    while (iterRequests.hasNext()) {
+      assertSame(requestsSeen.get(count++), iterRequests.next());
+    }
+    assertEquals(24, count);
+    assertEquals(24, requestsSeen.size());
+    //
+    // The requests are only generated once
+    //
+    iterRequests = generator.getIndividualDecisionRequests();
+    count = 0;
+    while (iterRequests.hasNext()) {
+      iterRequests.next();
+      count++;
+    }
+    assertEquals(24, count);
+    assertEquals(24, requestsSeen.size());
+
+    //
+    // As are overrides further up the chain
+    //
+    requestsSeen.clear();
+    generator = new StdIndividualDecisionRequestGenerator(request) {
+      @Override
+      protected void processScopes(Request requestIn) {
+        requestsSeen.add(requestIn);
+      }
+    };
+    assertFalse(generator.getIndividualDecisionRequests().hasNext());
+    assertEquals(24, requestsSeen.size());
+  }
+
+  @Test
+  public void testSubclassGeneratingEagerly() throws Exception {
+    StdMutableRequest request = newRequest(3, 4, 2);
+    //
+    // A subclass that generates the requests itself gets the same requests back
+    //
+    StdIndividualDecisionRequestGenerator generator = new StdIndividualDecisionRequestGenerator(request) {
+      {
+        this.createIndividualDecisionRequests(request);
+      }
+    };
+    int count = 0;
+    Iterator<Request> iterRequests = generator.getIndividualDecisionRequests();
+    while (iterRequests.hasNext()) {
+      assertEquals(3, iterRequests.next().getRequestAttributes().size());
+      count++;
+    }
+    assertEquals(24, count);
+
+    generator = new StdIndividualDecisionRequestGenerator(request) {
+      {
+        this.processRepeatedCategories(request);
+      }
+    };
+    count = 0;
+    iterRequests = generator.getIndividualDecisionRequests();
+    while (iterRequests.hasNext()) {
+      iterRequests.next();
+      count++;
+    }
+    assertEquals(24, count);
+  }
+}
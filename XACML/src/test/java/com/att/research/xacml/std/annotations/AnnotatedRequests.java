@@ -0,0 +1,86 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.annotations;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+
+import com.att.research.xacml.std.datatypes.HexBinary;
+
+/**
+ * Annotated request classes used by the RequestParser tests.
+ */
+public class AnnotatedRequests {
+
+  @XACMLRequest(ReturnPolicyIdList = true)
+  public static class SimpleRequest {
+    @XACMLSubject(includeInResults = true)
+    String userID;
+
+    @XACMLSubject(attributeId = "urn:oasis:names:tc:xacml:1.0:subject:subject-id-qualifier")
+    boolean admin = false;
+
+    @XACMLSubject(attributeId = "urn:oasis:names:tc:xacml:1.0:subject:key-info", issuer = "com:foo:security")
+    HexBinary publicKey = new HexBinary(new byte[] {'1', '0'});
+
+    @XACMLSubject(attributeId = "urn:oasis:names:tc:xacml:1.0:subject:request-time", datatype = "http://www.w3.org/2001/XMLSchema#time")
+    String requestTime = "13:20:00-05:00";
+
+    @XACMLSubject(attributeId = "urn:test:missing")
+    String missing = null;
+
+    @XACMLAction()
+    String action;
+
+    @XACMLAction(attributeId = "urn:oasis:names:tc:xacml:1.0:action:implied-action")
+    long impliedAction = 7;
+
+    @XACMLResource()
+    String resource;
+
+    @XACMLEnvironment()
+    Date today = new Date(0);
+
+    @XACMLAttribute(attributeId = "foo:bar:attribute")
+    Collection<Double> fooBar = Arrays.asList(2.5, 3.5);
+
+    @XACMLAttribute(category = "foo:bar:category", attributeId = "foo:bar:attribute:many")
+    URI[] fooBarMany = new URI[] {URI.create("file://opt/app/test"), URI.create("https://localhost:8443/")};
+
+    @XACMLAttribute(category = "foo:bar:category", attributeId = "foo:bar:static")
+    static String staticValue = "shared";
+
+    public SimpleRequest(String userID, String action, String resource) {
+      this.userID = userID;
+      this.action = action;
+      this.resource = resource;
+    }
+  }
+
+  @XACMLRequest(
+      Defaults = "http://www.w3.org/TR/1999/Rec-xpath-19991116",
+      multiRequest = @XACMLMultiRequest(values = {
+          @XACMLRequestReference(values = {"subject1", "action", "resource"}),
+          @XACMLRequestReference(values = {"subject2", "action", "resource"})}))
+  public static class MultiRequest {
+    @XACMLSubject(id = "subject1")
+    String userID1 = "John";
+
+    @XACMLSubject(id = "subject2")
+    String userID2 = "Ringo";
+
+    @XACMLAction(id = "action")
+    String action = "access";
+
+    @XACMLResource(id = "resource")
+    String resource = "www.mywebsite.com";
+  }
+
+  private AnnotatedRequests() {
+  }
+}
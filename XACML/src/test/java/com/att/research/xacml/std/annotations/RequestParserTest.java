@@ -0,0 +1,48 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.annotations;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.api.RequestAttributes;
+import com.att.research.xacml.api.XACML3;
+
+public class RequestParserTest {
+
+  @Test
+  public void testTemplateMatchesReflection() throws Exception {
+    AnnotatedRequests.SimpleRequest simpleRequest = new AnnotatedRequests.SimpleRequest("John", "access", "www.mywebsite.com");
+    Request request = RequestParser.parseRequest(simpleRequest);
+    assertEquals(RequestParser.parseRequestReflective(simpleRequest), request);
+    assertTrue(request.getReturnPolicyIdList());
+    assertEquals(5, request.getRequestAttributes().size());
+    RequestAttributes subject = request.getRequestAttributes(XACML3.ID_SUBJECT_CATEGORY_ACCESS_SUBJECT).next();
+    assertEquals(5, subject.getAttributes().size());
+
+    //
+    // The template is reused for the next object of the same class
+    //
+    simpleRequest = new AnnotatedRequests.SimpleRequest("Ringo", "delete", "www.mywebsite.com");
+    assertEquals(RequestParser.parseRequestReflective(simpleRequest), RequestParser.parseRequest(simpleRequest));
+  }
+
+  @Test
+  public void testMultiRequest() throws Exception {
+    AnnotatedRequests.MultiRequest multiRequest = new AnnotatedRequests.MultiRequest();
+    Request request = RequestParser.parseRequest(multiRequest);
+    assertEquals(RequestParser.parseRequestReflective(multiRequest), request);
+    assertEquals(2, request.getMultiRequests().size());
+    assertNotNull(request.getRequestDefaults());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNotAnnotated() throws Exception {
+    RequestParser.parseRequest(new Object());
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.pap;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.att.research.xacml.api.pap.PDP;
+import com.att.research.xacml.api.pap.PDPGroup;
+
+public class StdEngineTest {
+  private static final String POLICY = "<Policy xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" PolicyId=\"urn:test:policy\" Version=\"1.0\""
+      + " RuleCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:rule-combining-algorithm:deny-overrides\"><Target/></Policy>";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path repository;
+
+  private StdEngine newEngine(int compact) throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty(StdEngine.PROP_PAP_REPO, this.repository.toString());
+    properties.setProperty(StdEngine.PROP_PAP_JOURNAL_COMPACT, Integer.toString(compact));
+    return new StdEngine(properties);
+  }
+
+  private Path journal() {
+    return this.repository.resolve("xacml.properties" + PropertiesJournal.JOURNAL_SUFFIX);
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.repository = folder.newFolder("repository").toPath();
+  }
+
+  @Test
+  public void testIndexes() throws Exception {
+    StdEngine engine = this.newEngine(1000);
+    PDPGroup defaultGroup = engine.getDefaultGroup();
+    engine.newGroup("other", "another group");
+    PDPGroup other = engine.getGroup("other");
+    assertNotNull(other);
+
+    engine.newPDP("http://pdp1/", defaultGroup, "pdp1", "");
+    engine.newPDP("http://pdp2/", defaultGroup, "pdp2", "");
+    PDP pdp1 = engine.getPDP("http://pdp1/");
+    assertEquals("pdp1", pdp1.getName());
+    assertSame(defaultGroup, engine.getPDPGroup("http://pdp1/"));
+    assertSame(defaultGroup, engine.getPDPGroup(pdp1));
+    assertEquals(2, engine.getPDPs().size());
+
+    engine.movePDP(pdp1, other);
+    assertSame(other, engine.getPDPGroup("http://pdp1/"));
+    assertFalse(defaultGroup.getPdps().contains(pdp1));
+
+    engine.removePDP(engine.getPDP("http://pdp2/"));
+    assertNull(engine.getPDP("http://pdp2/"));
+    assertNull(engine.getPDPGroup("http://pdp2/"));
+    assertEquals(Collections.singleton(pdp1), engine.getPDPs());
+
+    assertTrue(engine.getPolicyGroups("policy1").isEmpty());
+    engine.publishPolicy("policy1", "policy1", true, new ByteArrayInputStream(POLICY.getBytes(StandardCharsets.UTF_8)), other);
+    assertEquals(1, engine.getPolicyGroups("policy1").size());
+    assertTrue(engine.getPolicyGroups("policy1").contains(other));
+    engine.removePolicy(other.getPolicy("policy1"), other);
+    assertTrue(engine.getPolicyGroups("policy1").isEmpty());
+
+    engine.removeGroup(other, defaultGroup);
+    assertNull(engine.getGroup("other"));
+    assertSame(defaultGroup, engine.getPDPGroup("http://pdp1/"));
+  }
+
+  @Test
+  public void testChangesAreJournaled() throws Exception {
+    StdEngine engine = this.newEngine(1000);
+    assertTrue(Files.exists(this.repository.resolve("xacml.properties")));
+    assertFalse(Files.exists(this.journal()));
+
+    engine.newPDP("http://pdp1/", engine.getDefaultGroup(), "pdp1", "first");
+    engine.newPDP("http://pdp2/", engine.getDefaultGroup(), "pdp2", "second\nline");
+    assertTrue(Files.exists(this.journal()));
+    //
+    // A new engine sees the changes in the journal, and starts a new one
+    //
+    StdEngine reloaded = this.newEngine(1000);
+    assertEquals("first", reloaded.getPDP("http://pdp1/").getDescription());
+    assertEquals("second\nline", reloaded.getPDP("http://pdp2/").getDescription());
+    assertSame(reloaded.getDefaultGroup(), reloaded.getPDPGroup("http://pdp2/"));
+    assertFalse(Files.exists(this.journal()));
+  }
+
+  @Test
+  public void testJournalIsCompacted() throws Exception {
+    StdEngine engine = this.newEngine(4);
+    engine.newPDP("http://pdp1/", engine.getDefaultGroup(), "pdp1", "");
+    assertTrue(Files.exists(this.journal()));
+    engine.newPDP("http://pdp2/", engine.getDefaultGroup(), "pdp2", "");
+    assertFalse(Files.exists(this.journal()));
+
+    Properties properties = new Properties();
+    try (InputStream is = Files.newInputStream(this.repository.resolve("xacml.properties"))) {
+      properties.load(is);
+    }
+    assertEquals("pdp2", properties.getProperty("http://pdp2/.name"));
+  }
+
+  @Test
+  public void testUncommittedJournalEntriesAreIgnored() throws Exception {
+    Path file = this.repository.resolve("test.properties");
+    PropertiesJournal journal = new PropertiesJournal(file, 1000);
+    journal.load();
+    Properties properties = new Properties();
+    properties.setProperty("a", "1");
+    properties.setProperty("b", "tab\there");
+    journal.save(properties);
+    properties.remove("a");
+    journal.save(properties);
+    Files.write(file.resolveSibling("test.properties" + PropertiesJournal.JOURNAL_SUFFIX), "S\tc\t3\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+    Properties loaded = new PropertiesJournal(file, 1000).load();
+    assertNull(loaded.getProperty("a"));
+    assertEquals("tab\there", loaded.getProperty("b"));
+    assertNull(loaded.getProperty("c"));
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.pap;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.att.research.xacml.util.XACMLProperties;
+
+public class StdPDPGroupTest {
+  private static final String POLICY = "<Policy xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" PolicyId=\"urn:test:policy:%s\" Version=\"1.0\""
+      + " RuleCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:rule-combining-algorithm:deny-overrides\">"
+      + "<Target/><Rule RuleId=\"urn:test:rule\" Effect=\"%s\"/></Policy>";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private StdPDPGroup group;
+
+  private static InputStream policy(String id, String effect) {
+    return new ByteArrayInputStream(String.format(POLICY, id, effect).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String hash(String id, String effect) throws Exception {
+    return StdPDPPolicy.computeHash(policy(id, effect));
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.group = new StdPDPGroup("test", true, "test", "test group", folder.getRoot().toPath());
+    this.group.publishPolicy("policy1", "policy1", true, policy("policy1", "Permit"));
+    this.group.publishPolicy("policy2", "policy2", false, policy("policy2", "Deny"));
+  }
+
+  @Test
+  public void testPolicyHash() throws Exception {
+    StdPDPPolicy policy1 = (StdPDPPolicy) this.group.getPolicy("policy1");
+    assertEquals(hash("policy1", "Permit"), policy1.getHash());
+    assertEquals(64, policy1.getHash().length());
+    assertNotEquals(policy1.getHash(), StdPDPPolicy.getHash(this.group.getPolicy("policy2")));
+    //
+    // Replacing the file changes the hash
+    //
+    this.group.copyPolicyToFile("policy1", policy("policy1", "Deny"));
+    assertEquals(hash("policy1", "Deny"), policy1.getHash());
+  }
+
+  @Test
+  public void testPolicyPropertiesHaveHashesAndManifest() throws Exception {
+    Properties properties = this.group.getPolicyProperties();
+    assertEquals(hash("policy1", "Permit"), properties.getProperty("policy1" + XACMLProperties.PROP_POLICY_HASH));
+    assertEquals(hash("policy2", "Deny"), properties.getProperty("policy2" + XACMLProperties.PROP_POLICY_HASH));
+    String manifest = properties.getProperty(XACMLProperties.PROP_MANIFEST);
+    assertNotNull(manifest);
+    assertEquals(manifest, this.group.getPolicyProperties().getProperty(XACMLProperties.PROP_MANIFEST));
+    //
+    // The manifest survives being picked out for a PDP and ignores the policy URLs
+    //
+    properties.setProperty("policy1.url", "http://localhost/pap/?id=policy1");
+    properties.setProperty("policy2.url", "http://localhost/pap/?id=policy2");
+    Properties pdpProperties = XACMLProperties.getPolicyProperties(properties, true);
+    assertEquals(manifest, pdpProperties.getProperty(XACMLProperties.PROP_MANIFEST));
+    assertEquals(manifest, StdPDPGroup.computeManifest(pdpProperties, this.group.getPipConfigProperties()));
+    //
+    // Changing a policy's content, or the pip configuration, changes the manifest
+    //
+    this.group.copyPolicyToFile("policy2", policy("policy2", "Permit"));
+    String changed = this.group.getPolicyProperties().getProperty(XACMLProperties.PROP_MANIFEST);
+    assertNotEquals(manifest, changed);
+    Properties pipProperties = this.group.getPipConfigProperties();
+    pipProperties.setProperty("pip.classname", "com.example.Engine");
+    assertNotEquals(changed, StdPDPGroup.computeManifest(this.group.getPolicyProperties(), pipProperties));
+  }
+
+  @Test
+  public void testSavedConfigurationHasNoHashes() throws Exception {
+    this.group.saveGroupConfiguration();
+    Path file = folder.getRoot().toPath().resolve("xacml.policy.properties");
+    Properties saved = new Properties();
+    try (InputStream is = Files.newInputStream(file)) {
+      saved.load(is);
+    }
+    assertEquals("policy1", saved.getProperty(XACMLProperties.PROP_ROOTPOLICIES));
+    assertNull(saved.getProperty(XACMLProperties.PROP_MANIFEST));
+    assertNull(saved.getProperty("policy1" + XACMLProperties.PROP_POLICY_HASH));
+  }
+}
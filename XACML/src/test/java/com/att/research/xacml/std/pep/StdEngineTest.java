@@ -0,0 +1,112 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.pep;
+
+import static org.junit.Assert.*;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.att.research.xacml.api.Decision;
+import com.att.research.xacml.api.Request;
+import com.att.research.xacml.api.Response;
+import com.att.research.xacml.api.pdp.PDPEngine;
+import com.att.research.xacml.api.pdp.PDPEngineFactory;
+import com.att.research.xacml.api.pdp.PDPException;
+import com.att.research.xacml.api.pep.PEPException;
+import com.att.research.xacml.std.StdMutableRequest;
+import com.att.research.xacml.std.StdMutableResponse;
+import com.att.research.xacml.std.StdMutableResult;
+import com.att.research.xacml.std.StdStatus;
+import com.att.research.xacml.std.StdStatusCode;
+import com.att.research.xacml.util.XACMLProperties;
+
+public class StdEngineTest {
+  private static final AtomicInteger ENGINES_CREATED = new AtomicInteger();
+
+  /**
+   * A fake factory whose engines permit everything, or fail on a request with a status.
+   */
+  public static class CountingPDPEngineFactory extends PDPEngineFactory {
+    public CountingPDPEngineFactory(Properties properties) {
+    }
+
+    @Override
+    public PDPEngine newEngine() {
+      ENGINES_CREATED.incrementAndGet();
+      return new PDPEngine() {
+        @Override
+        public Response decide(Request pepRequest) throws PDPException {
+          if (pepRequest.getStatus() != null) {
+            throw new PDPException("Bad request");
+          }
+          return new StdMutableResponse(new StdMutableResult(Decision.PERMIT));
+        }
+
+        @Override
+        public Collection<URI> getProfiles() {
+          return Collections.emptyList();
+        }
+
+        @Override
+        public boolean hasProfile(URI uriProfile) {
+          return false;
+        }
+      };
+    }
+
+    @Override
+    public PDPEngine newEngine(Properties properties) {
+      return this.newEngine();
+    }
+  }
+
+  private StdEngine stdEngine;
+
+  @Before
+  public void setUp() {
+    Properties properties = new Properties();
+    properties.setProperty(XACMLProperties.PROP_PDPENGINEFACTORY, CountingPDPEngineFactory.class.getName());
+    this.stdEngine = new StdEngine(properties);
+    ENGINES_CREATED.set(0);
+  }
+
+  @Test
+  public void testEngineIsReused() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      assertEquals(Decision.PERMIT, this.stdEngine.decide(new StdMutableRequest()).getResults().iterator().next().getDecision());
+    }
+    assertEquals(1, ENGINES_CREATED.get());
+
+    PDPEngine pdpEngine = this.stdEngine.getPDPEngine();
+    this.stdEngine.reload();
+    assertEquals(2, ENGINES_CREATED.get());
+    assertNotSame(pdpEngine, this.stdEngine.getPDPEngine());
+  }
+
+  @Test
+  public void testDecideAsync() throws Exception {
+    CompletableFuture<Response> future = this.stdEngine.decideAsync(new StdMutableRequest());
+    assertEquals(Decision.PERMIT, future.get(10, TimeUnit.SECONDS).getResults().iterator().next().getDecision());
+
+    future = this.stdEngine.decideAsync(new StdMutableRequest(new StdStatus(StdStatusCode.STATUS_CODE_SYNTAX_ERROR)));
+    try {
+      future.get(10, TimeUnit.SECONDS);
+      fail("Expected the future to complete exceptionally");
+    } catch (ExecutionException ex) {
+      assertTrue(ex.getCause() instanceof PEPException);
+    }
+  }
+}
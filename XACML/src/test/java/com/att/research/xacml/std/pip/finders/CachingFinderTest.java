@@ -0,0 +1,268 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.pip.finders;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.att.research.xacml.api.Identifier;
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.api.pip.PIPRequest;
+import com.att.research.xacml.api.pip.PIPResponse;
+import com.att.research.xacml.std.IdentifierImpl;
+import com.att.research.xacml.std.StdMutableAttribute;
+import com.att.research.xacml.std.StdMutableRequest;
+import com.att.research.xacml.std.StdMutableRequestAttributes;
+import com.att.research.xacml.std.datatypes.DataTypes;
+import com.att.research.xacml.std.pip.StdPIPRequest;
+import com.att.research.xacml.std.pip.engines.RequestEngine;
+
+public class CachingFinderTest {
+  private static final PIPRequest SUBJECT_ID = new StdPIPRequest(XACML3.ID_SUBJECT_CATEGORY_ACCESS_SUBJECT, XACML3.ID_SUBJECT_SUBJECT_ID, XACML3.ID_DATATYPE_STRING);
+  private static final PIPRequest RESOURCE_ID = new StdPIPRequest(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, XACML3.ID_RESOURCE_RESOURCE_ID, XACML3.ID_DATATYPE_STRING);
+  private static final PIPRequest SUBJECT_ROLE = new StdPIPRequest(XACML3.ID_SUBJECT_CATEGORY_ACCESS_SUBJECT, new IdentifierImpl("urn:test:role"), XACML3.ID_DATATYPE_STRING);
+  private static final PIPRequest RESOURCE_OWNER = new StdPIPRequest(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, new IdentifierImpl("urn:test:owner"), XACML3.ID_DATATYPE_STRING);
+
+  private CountingPIPEngine roleEngine;
+  private CountingPIPEngine ownerEngine;
+  private EngineFinder engineFinder;
+  private CachingFinder cachingFinder;
+
+  private static void add(StdMutableRequest request, Identifier category, Identifier attributeId, String value) throws Exception {
+    StdMutableRequestAttributes requestAttributes = new StdMutableRequestAttributes();
+    requestAttributes.setCategory(category);
+    requestAttributes.add(new StdMutableAttribute(category, attributeId, DataTypes.DT_STRING.createAttributeValue(value)));
+    request.add(requestAttributes);
+  }
+
+  private static RequestFinder newRequestFinder(CachingFinder cachingFinder, String subject, String resource) throws Exception {
+    StdMutableRequest request = new StdMutableRequest();
+    if (subject != null) {
+      add(request, XACML3.ID_SUBJECT_CATEGORY_ACCESS_SUBJECT, XACML3.ID_SUBJECT_SUBJECT_ID, subject);
+    }
+    add(request, XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, XACML3.ID_RESOURCE_RESOURCE_ID, resource);
+    return new RequestFinder(cachingFinder, new RequestEngine(request));
+  }
+
+  private static String getValue(PIPResponse pipResponse) {
+    return pipResponse.getAttributes().iterator().next().getValues().iterator().next().getValue().toString();
+  }
+
+  private CachingFinder newCachingFinder(Properties properties) {
+    this.cachingFinder = new CachingFinder(this.engineFinder, properties);
+    return this.cachingFinder;
+  }
+
+  private CachingFinder.CacheStatistics getStatistics(String engineName) {
+    for (CachingFinder.CacheStatistics cacheStatistics : this.cachingFinder.getStatistics()) {
+      if (cacheStatistics.getEngineName().equals(engineName)) {
+        return cacheStatistics;
+      }
+    }
+    return null;
+  }
+
+  @Before
+  public void setUp() {
+    this.roleEngine = new CountingPIPEngine("role", SUBJECT_ROLE, SUBJECT_ID);
+    this.ownerEngine = new CountingPIPEngine("owner", RESOURCE_OWNER, RESOURCE_ID);
+    this.engineFinder = new EngineFinder();
+    this.engineFinder.register(this.roleEngine);
+    this.engineFinder.register(this.ownerEngine);
+  }
+
+  @Test
+  public void testSharedAcrossRequests() throws Exception {
+    CachingFinder cachingFinder = newCachingFinder(new Properties());
+    for (int i = 0; i < 10; i++) {
+      RequestFinder requestFinder = newRequestFinder(cachingFinder, (i % 2 == 0 ? "alice" : "bob"), "resource");
+      assertEquals("role:" + (i % 2 == 0 ? "alice" : "bob"), getValue(requestFinder.getMatchingAttributes(SUBJECT_ROLE, null)));
+      assertEquals("owner:resource", getValue(requestFinder.getMatchingAttributes(RESOURCE_OWNER, null)));
+    }
+    assertEquals(2, this.roleEngine.getCalls());
+    assertEquals(1, this.ownerEngine.getCalls());
+
+    CachingFinder.CacheStatistics cacheStatistics = getStatistics("role");
+    assertEquals(8, cacheStatistics.getHits());
+    assertEquals(2, cacheStatistics.getMisses());
+    assertEquals(2, cacheStatistics.getSize());
+
+    cachingFinder.invalidateAll();
+    assertEquals("role:alice", getValue(newRequestFinder(cachingFinder, "alice", "resource").getMatchingAttributes(SUBJECT_ROLE, null)));
+    assertEquals(3, this.roleEngine.getCalls());
+  }
+
+  @Test
+  public void testPerEngineTtl() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("xacml.pip.cache.ttl", "60000");
+    properties.setProperty("xacml.pip.cache.owner.ttl", "0");
+    CachingFinder cachingFinder = newCachingFinder(properties);
+    for (int i = 0; i < 3; i++) {
+      RequestFinder requestFinder = newRequestFinder(cachingFinder, "alice", "resource");
+      assertEquals("role:alice", getValue(requestFinder.getMatchingAttributes(SUBJECT_ROLE, null)));
+      assertEquals("owner:resource", getValue(requestFinder.getMatchingAttributes(RESOURCE_OWNER, null)));
+    }
+    assertEquals(1, this.roleEngine.getCalls());
+    assertEquals(3, this.ownerEngine.getCalls());
+  }
+
+  @Test
+  public void testExpiry() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("xacml.pip.cache.ttl", "50");
+    CachingFinder cachingFinder = newCachingFinder(properties);
+    assertEquals("role:alice", getValue(newRequestFinder(cachingFinder, "alice", "resource").getMatchingAttributes(SUBJECT_ROLE, null)));
+    assertEquals("role:alice", getValue(newRequestFinder(cachingFinder, "alice", "resource").getMatchingAttributes(SUBJECT_ROLE, null)));
+    assertEquals(1, this.roleEngine.getCalls());
+    Thread.sleep(100);
+    assertEquals("role:alice", getValue(newRequestFinder(cachingFinder, "alice", "resource").getMatchingAttributes(SUBJECT_ROLE, null)));
+    assertEquals(2, this.roleEngine.getCalls());
+  }
+
+  @Test
+  public void testNegativeCaching() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("xacml.pip.cache.negativeTtl", "60000");
+    CachingFinder cachingFinder = newCachingFinder(properties);
+    for (int i = 0; i < 3; i++) {
+      assertTrue(newRequestFinder(cachingFinder, null, "resource").getMatchingAttributes(SUBJECT_ROLE, null).getAttributes().isEmpty());
+    }
+    assertEquals(1, this.roleEngine.getCalls());
+    assertEquals(2, getStatistics("role").getNegativeHits());
+  }
+
+  @Test
+  public void testErrorsNotCached() throws Exception {
+    CachingFinder cachingFinder = newCachingFinder(new Properties());
+    this.roleEngine.setFailing(true);
+    PIPResponse pipResponse = newRequestFinder(cachingFinder, "alice", "resource").getMatchingAttributes(SUBJECT_ROLE, null);
+    assertFalse(pipResponse.getStatus().isOk());
+    this.roleEngine.setFailing(false);
+    assertEquals("role:alice", getValue(newRequestFinder(cachingFinder, "alice", "resource").getMatchingAttributes(SUBJECT_ROLE, null)));
+    assertEquals(2, this.roleEngine.getCalls());
+    assertEquals(1, getStatistics("role").getLoadFailures());
+  }
+
+  @Test
+  public void testStaleWhileRefreshing() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("xacml.pip.cache.ttl", "50");
+    properties.setProperty("xacml.pip.cache.staleTtl", "60000");
+    CachingFinder cachingFinder = newCachingFinder(properties);
+    assertEquals("role:alice", getValue(newRequestFinder(cachingFinder, "alice", "resource").getMatchingAttributes(SUBJECT_ROLE, null)));
+    Thread.sleep(100);
+    //
+    // The expired value is served while a single refresh runs in the background
+    //
+    this.roleEngine.setDelayMillis(200);
+    for (int i = 0; i < 5; i++) {
+      assertEquals("role:alice", getValue(newRequestFinder(cachingFinder, "alice", "resource").getMatchingAttributes(SUBJECT_ROLE, null)));
+    }
+    assertEquals(5, getStatistics("role").getStaleHits());
+    long deadline = System.currentTimeMillis() + 5000;
+    while (getStatistics("role").getLoads() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(2, this.roleEngine.getCalls());
+    assertEquals(1, getStatistics("role").getRefreshes());
+    //
+    // The refresh resolved the subject from the cache key, not through the finder of the request that found the stale entry
+    //
+    assertFalse(this.roleEngine.getLastPIPFinder() instanceof RequestFinder);
+  }
+
+  private List<PIPResponse> getConcurrently(CachingFinder cachingFinder, int threads) throws Exception {
+    ExecutorService executorService = Executors.newFixedThreadPool(threads);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<PIPResponse>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executorService.submit((Callable<PIPResponse>) () -> {
+          start.await();
+          return newRequestFinder(cachingFinder, "alice", "resource").getMatchingAttributes(SUBJECT_ROLE, null);
+        }));
+      }
+      start.countDown();
+      List<PIPResponse> pipResponses = new ArrayList<>();
+      for (Future<PIPResponse> future : futures) {
+        pipResponses.add(future.get());
+      }
+      return pipResponses;
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testConcurrentMissesCoalesced() throws Exception {
+    CachingFinder cachingFinder = newCachingFinder(new Properties());
+    this.roleEngine.setDelayMillis(300);
+    for (PIPResponse pipResponse : getConcurrently(cachingFinder, 8)) {
+      assertEquals("role:alice", getValue(pipResponse));
+    }
+    assertEquals(1, this.roleEngine.getCalls());
+    CachingFinder.CacheStatistics cacheStatistics = getStatistics("role");
+    assertEquals(1, cacheStatistics.getLoads());
+    assertTrue(cacheStatistics.getCoalesced() > 0);
+    assertEquals(7, cacheStatistics.getCoalesced() + cacheStatistics.getHits());
+  }
+
+  @Test
+  public void testCoalescedErrors() throws Exception {
+    CachingFinder cachingFinder = newCachingFinder(new Properties());
+    this.roleEngine.setDelayMillis(300);
+    this.roleEngine.setFailing(true);
+    for (PIPResponse pipResponse : getConcurrently(cachingFinder, 8)) {
+      assertFalse(pipResponse.getStatus().isOk());
+    }
+    assertEquals(1, this.roleEngine.getCalls());
+    assertEquals(7, getStatistics("role").getCoalesced());
+  }
+
+  @Test
+  public void testCoalesceTimeout() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("xacml.pip.cache.role.coalesceTimeout", "50");
+    CachingFinder cachingFinder = newCachingFinder(properties);
+    this.roleEngine.setDelayMillis(500);
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    try {
+      Future<PIPResponse> future = executorService.submit(() -> newRequestFinder(cachingFinder, "alice", "resource").getMatchingAttributes(SUBJECT_ROLE, null));
+      Thread.sleep(100);
+      PIPResponse pipResponse = newRequestFinder(cachingFinder, "alice", "resource").getMatchingAttributes(SUBJECT_ROLE, null);
+      assertFalse(pipResponse.getStatus().isOk());
+      assertTrue(pipResponse.getStatus().getStatusMessage().contains("Timed out"));
+      assertEquals("role:alice", getValue(future.get()));
+    } finally {
+      executorService.shutdownNow();
+    }
+    assertEquals(1, this.roleEngine.getCalls());
+    assertEquals(1, getStatistics("role").getCoalesceTimeouts());
+  }
+
+  @Test
+  public void testCoalescingDisabled() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("xacml.pip.cache.coalesceTimeout", "0");
+    CachingFinder cachingFinder = newCachingFinder(properties);
+    this.roleEngine.setDelayMillis(300);
+    getConcurrently(cachingFinder, 4);
+    assertEquals(0, getStatistics("role").getCoalesced());
+    assertTrue(this.roleEngine.getCalls() > 1);
+  }
+}
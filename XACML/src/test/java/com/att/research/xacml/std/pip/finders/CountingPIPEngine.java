@@ -0,0 +1,109 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.pip.finders;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.att.research.xacml.api.Attribute;
+import com.att.research.xacml.api.AttributeValue;
+import com.att.research.xacml.api.pip.PIPEngine;
+import com.att.research.xacml.api.pip.PIPException;
+import com.att.research.xacml.api.pip.PIPFinder;
+import com.att.research.xacml.api.pip.PIPRequest;
+import com.att.research.xacml.api.pip.PIPResponse;
+import com.att.research.xacml.std.StdMutableAttribute;
+import com.att.research.xacml.std.datatypes.DataTypes;
+import com.att.research.xacml.std.pip.StdPIPResponse;
+
+/**
+ * A fake engine for tests that provides a single string attribute computed from the value of the single attribute
+ * it requires, and counts how many times it is called.
+ */
+public class CountingPIPEngine implements PIPEngine {
+  private final String name;
+  private final PIPRequest provided;
+  private final PIPRequest required;
+  private final AtomicInteger calls = new AtomicInteger();
+  private volatile long delayMillis;
+  private volatile boolean failing;
+  private volatile PIPFinder lastPIPFinder;
+
+  public CountingPIPEngine(String name, PIPRequest provided, PIPRequest required) {
+    this.name = name;
+    this.provided = provided;
+    this.required = required;
+  }
+
+  public int getCalls() {
+    return this.calls.get();
+  }
+
+  public void setDelayMillis(long delayMillis) {
+    this.delayMillis = delayMillis;
+  }
+
+  public PIPFinder getLastPIPFinder() {
+    return this.lastPIPFinder;
+  }
+
+  public void setFailing(boolean failing) {
+    this.failing = failing;
+  }
+
+  @Override
+  public String getName() {
+    return this.name;
+  }
+
+  @Override
+  public String getDescription() {
+    return "Counting test engine";
+  }
+
+  @Override
+  public Collection<PIPRequest> attributesRequired() {
+    return Collections.singletonList(this.required);
+  }
+
+  @Override
+  public Collection<PIPRequest> attributesProvided() {
+    return Collections.singletonList(this.provided);
+  }
+
+  @Override
+  public PIPResponse getAttributes(PIPRequest pipRequest, PIPFinder pipFinder) throws PIPException {
+    if (!this.provided.equals(pipRequest)) {
+      return StdPIPResponse.PIP_RESPONSE_EMPTY;
+    }
+    this.calls.incrementAndGet();
+    this.lastPIPFinder = pipFinder;
+    if (this.delayMillis > 0) {
+      try {
+        Thread.sleep(this.delayMillis);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new PIPException("Interrupted", ex);
+      }
+    }
+    if (this.failing) {
+      throw new PIPException("Engine " + this.name + " is failing");
+    }
+    PIPResponse pipResponseRequired = pipFinder.getMatchingAttributes(this.required, this);
+    if (pipResponseRequired.getAttributes().isEmpty()) {
+      return StdPIPResponse.PIP_RESPONSE_EMPTY;
+    }
+    Attribute attributeRequired = pipResponseRequired.getAttributes().iterator().next();
+    AttributeValue<?> value = attributeRequired.getValues().iterator().next();
+    try {
+      return new StdPIPResponse(new StdMutableAttribute(this.provided.getCategory(), this.provided.getAttributeId(),
+          DataTypes.DT_STRING.createAttributeValue(this.name + ":" + value.getValue()), this.provided.getIssuer(), false));
+    } catch (Exception ex) {
+      throw new PIPException("Failed to create value", ex);
+    }
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.pip.finders;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Properties;
+
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.api.pip.PIPFinder;
+import com.att.research.xacml.api.pip.PIPRequest;
+import com.att.research.xacml.api.pip.PIPResponse;
+import com.att.research.xacml.std.IdentifierImpl;
+import com.att.research.xacml.std.StdMutableAttribute;
+import com.att.research.xacml.std.StdMutableRequest;
+import com.att.research.xacml.std.StdMutableRequestAttributes;
+import com.att.research.xacml.std.datatypes.DataTypes;
+import com.att.research.xacml.std.pip.StdPIPRequest;
+import com.att.research.xacml.std.pip.StdPIPResponse;
+import com.att.research.xacml.std.pip.engines.RequestEngine;
+import com.att.research.xacml.std.pip.engines.StdConfigurableEngine;
+
+public class PIPEngineMetricsTest {
+  private static final PIPRequest SUBJECT_ID = new StdPIPRequest(XACML3.ID_SUBJECT_CATEGORY_ACCESS_SUBJECT, XACML3.ID_SUBJECT_SUBJECT_ID, XACML3.ID_DATATYPE_STRING);
+  private static final PIPRequest SUBJECT_ROLE = new StdPIPRequest(XACML3.ID_SUBJECT_CATEGORY_ACCESS_SUBJECT, new IdentifierImpl("urn:test:role"), XACML3.ID_DATATYPE_STRING);
+
+  /**
+   * A fake engine that only looks requests up in its cache.
+   */
+  public static class CachedEngine extends StdConfigurableEngine {
+    @Override
+    public Collection<PIPRequest> attributesRequired() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Collection<PIPRequest> attributesProvided() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public PIPResponse getAttributes(PIPRequest pipRequest, PIPFinder pipFinder) {
+      String key = pipRequest.getAttributeId().stringValue();
+      if (this.getCache().getIfPresent(key) == null) {
+        this.getCache().put(key, StdPIPResponse.PIP_RESPONSE_EMPTY);
+      }
+      return StdPIPResponse.PIP_RESPONSE_EMPTY;
+    }
+  }
+
+  private final PIPEngineMetrics metrics = PIPEngineMetrics.getInstance();
+  private CountingPIPEngine roleEngine;
+  private EngineFinder engineFinder;
+
+  private RequestFinder newRequestFinder(String subject) throws Exception {
+    return newRequestFinder(this.engineFinder, subject);
+  }
+
+  private static RequestFinder newRequestFinder(PIPFinder pipFinder, String subject) throws Exception {
+    StdMutableRequest request = new StdMutableRequest();
+    StdMutableRequestAttributes requestAttributes = new StdMutableRequestAttributes();
+    requestAttributes.setCategory(XACML3.ID_SUBJECT_CATEGORY_ACCESS_SUBJECT);
+    requestAttributes.add(new StdMutableAttribute(XACML3.ID_SUBJECT_CATEGORY_ACCESS_SUBJECT, XACML3.ID_SUBJECT_SUBJECT_ID, DataTypes.DT_STRING.createAttributeValue(subject)));
+    request.add(requestAttributes);
+    return new RequestFinder(pipFinder, new RequestEngine(request));
+  }
+
+  @Before
+  public void setUp() {
+    this.metrics.setEnabled(true);
+    this.metrics.reset();
+    this.roleEngine = new CountingPIPEngine("role", SUBJECT_ROLE, SUBJECT_ID);
+    this.engineFinder = new EngineFinder();
+    this.engineFinder.register(this.roleEngine);
+  }
+
+  @After
+  public void tearDown() {
+    this.metrics.setEnabled(false);
+    this.metrics.reset();
+  }
+
+  @Test
+  public void testCallsAreRecordedByEngine() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      PIPResponse pipResponse = this.newRequestFinder("alice").getMatchingAttributes(SUBJECT_ROLE, null);
+      assertEquals(1, pipResponse.getAttributes().size());
+    }
+    PIPEngineMetrics.EngineMetrics engineMetrics = this.metrics.getEngine("role");
+    assertEquals(3, engineMetrics.getCalls());
+    assertEquals(3, engineMetrics.getAttributes());
+    assertEquals(0, engineMetrics.getErrors());
+    assertEquals(3, engineMetrics.getLatency().getCount());
+    assertFalse(engineMetrics.isCached());
+    assertTrue(this.metrics.getEngines().containsKey("role"));
+    assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(PIPEngineMetrics.OBJECT_NAME)));
+  }
+
+  @Test
+  public void testErrorsAreRecordedAndReported() throws Exception {
+    this.roleEngine.setFailing(true);
+    PIPResponse pipResponse = this.newRequestFinder("alice").getMatchingAttributes(SUBJECT_ROLE, null);
+    assertFalse(pipResponse.getStatus().isOk());
+    assertTrue(pipResponse.getStatus().getStatusMessage().contains("role"));
+    assertEquals(1, this.metrics.getEngine("role").getErrors());
+    assertEquals(1, this.metrics.getEngine("role").getCalls());
+  }
+
+  @Test
+  public void testDisabledRecordsNothing() throws Exception {
+    this.metrics.setEnabled(false);
+    this.newRequestFinder("alice").getMatchingAttributes(SUBJECT_ROLE, null);
+    assertEquals(0, this.metrics.getEngine("role").getCalls());
+  }
+
+  @Test
+  public void testCacheStatistics() throws Exception {
+    CachedEngine cachedEngine = new CachedEngine();
+    Properties properties = new Properties();
+    properties.setProperty("cached." + StdConfigurableEngine.PROP_CACHESPEC, "maximumSize=10");
+    cachedEngine.configure("cached", properties);
+    EngineFinder cachedFinder = new EngineFinder();
+    cachedFinder.register(cachedEngine);
+    for (int i = 0; i < 3; i++) {
+      cachedFinder.getAttributes(SUBJECT_ROLE, null);
+    }
+    PIPEngineMetrics.EngineMetrics engineMetrics = this.metrics.getEngine("cached");
+    assertEquals(3, engineMetrics.getCalls());
+    assertTrue(engineMetrics.isCached());
+    assertEquals(2, engineMetrics.getCacheHits());
+    assertEquals(1, engineMetrics.getCacheMisses());
+    assertEquals(2.0 / 3.0, engineMetrics.getCacheHitRate(), 0.001);
+  }
+
+  @Test
+  public void testSharedCacheStatistics() throws Exception {
+    CachingFinder cachingFinder = new CachingFinder(this.engineFinder, new Properties());
+    for (int i = 0; i < 4; i++) {
+      newRequestFinder(cachingFinder, "alice").getMatchingAttributes(SUBJECT_ROLE, null);
+    }
+    PIPEngineMetrics.EngineMetrics engineMetrics = this.metrics.getEngine("role");
+    assertEquals(1, engineMetrics.getCalls());
+    assertTrue(engineMetrics.isSharedCached());
+    assertEquals(3, engineMetrics.getSharedCacheHits());
+    assertEquals(1, engineMetrics.getSharedCacheMisses());
+    assertEquals(1, engineMetrics.getSharedCacheSize());
+    assertTrue(engineMetrics.toString().contains("sharedCacheHitRate=0.75"));
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.pip.finders;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.att.research.xacml.api.Identifier;
+import com.att.research.xacml.api.XACML3;
+import com.att.research.xacml.api.pip.PIPRequest;
+import com.att.research.xacml.api.pip.PIPResponse;
+import com.att.research.xacml.std.IdentifierImpl;
+import com.att.research.xacml.std.StdMutableAttribute;
+import com.att.research.xacml.std.StdMutableRequest;
+import com.att.research.xacml.std.StdMutableRequestAttributes;
+import com.att.research.xacml.std.datatypes.DataTypes;
+import com.att.research.xacml.std.pip.StdPIPRequest;
+import com.att.research.xacml.std.pip.engines.RequestEngine;
+
+public class RequestScopedCacheTest {
+  private static final PIPRequest SUBJECT_ID = new StdPIPRequest(XACML3.ID_SUBJECT_CATEGORY_ACCESS_SUBJECT, XACML3.ID_SUBJECT_SUBJECT_ID, XACML3.ID_DATATYPE_STRING);
+  private static final PIPRequest RESOURCE_ID = new StdPIPRequest(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, XACML3.ID_RESOURCE_RESOURCE_ID, XACML3.ID_DATATYPE_STRING);
+  private static final PIPRequest SUBJECT_ROLE = new StdPIPRequest(XACML3.ID_SUBJECT_CATEGORY_ACCESS_SUBJECT, new IdentifierImpl("urn:test:role"), XACML3.ID_DATATYPE_STRING);
+  private static final PIPRequest RESOURCE_OWNER = new StdPIPRequest(XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, new IdentifierImpl("urn:test:owner"), XACML3.ID_DATATYPE_STRING);
+
+  private CountingPIPEngine roleEngine;
+  private CountingPIPEngine ownerEngine;
+  private EngineFinder engineFinder;
+
+  private static void add(StdMutableRequest request, Identifier category, Identifier attributeId, String value) throws Exception {
+    StdMutableRequestAttributes requestAttributes = new StdMutableRequestAttributes();
+    requestAttributes.setCategory(category);
+    requestAttributes.add(new StdMutableAttribute(category, attributeId, DataTypes.DT_STRING.createAttributeValue(value)));
+    request.add(requestAttributes);
+  }
+
+  private static StdMutableRequest newRequest(String subject, String resource) throws Exception {
+    StdMutableRequest request = new StdMutableRequest();
+    add(request, XACML3.ID_SUBJECT_CATEGORY_ACCESS_SUBJECT, XACML3.ID_SUBJECT_SUBJECT_ID, subject);
+    add(request, XACML3.ID_ATTRIBUTE_CATEGORY_RESOURCE, XACML3.ID_RESOURCE_RESOURCE_ID, resource);
+    return request;
+  }
+
+  private static String getValue(PIPResponse pipResponse) {
+    return pipResponse.getAttributes().iterator().next().getValues().iterator().next().getValue().toString();
+  }
+
+  @Before
+  public void setUp() {
+    this.roleEngine = new CountingPIPEngine("role", SUBJECT_ROLE, SUBJECT_ID);
+    this.ownerEngine = new CountingPIPEngine("owner", RESOURCE_OWNER, RESOURCE_ID);
+    this.engineFinder = new EngineFinder();
+    this.engineFinder.register(this.roleEngine);
+    this.engineFinder.register(this.ownerEngine);
+  }
+
+  @Test
+  public void testSharedAcrossIndividualDecisions() throws Exception {
+    RequestScopedCache requestScopedCache = new RequestScopedCache();
+    for (int i = 0; i < 10; i++) {
+      RequestFinder requestFinder = new RequestFinder(this.engineFinder, new RequestEngine(newRequest("alice", "resource" + i)), requestScopedCache);
+      assertEquals("role:alice", getValue(requestFinder.getMatchingAttributes(SUBJECT_ROLE, null)));
+      assertEquals("owner:resource" + i, getValue(requestFinder.getMatchingAttributes(RESOURCE_OWNER, null)));
+    }
+    //
+    // The subject lookup only depends on the subject-id, which is the same in every individual decision
+    //
+    assertEquals(1, this.roleEngine.getCalls());
+    //
+    // The resource lookup depends on the resource-id, which is different in every individual decision
+    //
+    assertEquals(10, this.ownerEngine.getCalls());
+    assertEquals(11, requestScopedCache.size());
+  }
+
+  @Test
+  public void testDifferentDependencyValues() throws Exception {
+    RequestScopedCache requestScopedCache = new RequestScopedCache();
+    RequestFinder requestFinderAlice = new RequestFinder(this.engineFinder, new RequestEngine(newRequest("alice", "resource")), requestScopedCache);
+    RequestFinder requestFinderBob = new RequestFinder(this.engineFinder, new RequestEngine(newRequest("bob", "resource")), requestScopedCache);
+    assertEquals("role:alice", getValue(requestFinderAlice.getMatchingAttributes(SUBJECT_ROLE, null)));
+    assertEquals("role:bob", getValue(requestFinderBob.getMatchingAttributes(SUBJECT_ROLE, null)));
+    assertEquals(2, this.roleEngine.getCalls());
+  }
+
+  @Test
+  public void testWithoutSharedCache() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      RequestFinder requestFinder = new RequestFinder(this.engineFinder, new RequestEngine(newRequest("alice", "resource" + i)));
+      assertEquals("role:alice", getValue(requestFinder.getMatchingAttributes(SUBJECT_ROLE, null)));
+      assertEquals("role:alice", getValue(requestFinder.getMatchingAttributes(SUBJECT_ROLE, null)));
+    }
+    assertEquals(3, this.roleEngine.getCalls());
+  }
+}
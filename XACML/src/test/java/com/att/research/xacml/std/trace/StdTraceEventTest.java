@@ -0,0 +1,59 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.std.trace;
+
+import static org.junit.Assert.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class StdTraceEventTest {
+
+  @Test
+  public void testNanoTime() {
+    long before = System.nanoTime();
+    StdTraceEvent<String> first = new StdTraceEvent<String>("first", "value");
+    StdTraceEvent<String> second = new StdTraceEvent<String>("second", "value");
+    long after = System.nanoTime();
+    assertTrue(first.getNanoTime() >= before);
+    assertTrue(second.getNanoTime() >= first.getNanoTime());
+    assertTrue(second.getNanoTime() <= after);
+    assertEquals("first", first.getMessage());
+    assertEquals("value", first.getValue());
+    assertNull(first.getCause());
+  }
+
+  @Test
+  public void testTimestamp() {
+    long millis = System.currentTimeMillis();
+    StdTraceEvent<String> event = new StdTraceEvent<String>("message", "value");
+    Date timestamp = event.getTimestamp();
+    assertSame(timestamp, event.getTimestamp());
+    assertTrue(Math.abs(timestamp.getTime() - millis) < TimeUnit.SECONDS.toMillis(1));
+  }
+
+  @Test
+  public void testGivenTimestamp() {
+    Date date = new Date(System.currentTimeMillis() - 5000);
+    StdTraceEvent<String> event = new StdTraceEvent<String>(date, "message", "value");
+    assertSame(date, event.getTimestamp());
+    long ageMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - event.getNanoTime());
+    assertTrue(ageMillis >= 4000 && ageMillis < 6000);
+  }
+
+  @Test
+  public void testNullTimestamp() {
+    long before = System.nanoTime();
+    long millis = System.currentTimeMillis();
+    StdTraceEvent<String> event = new StdTraceEvent<String>((Date) null, "message", "value");
+    assertTrue(event.getNanoTime() >= before);
+    assertTrue(event.getNanoTime() <= System.nanoTime());
+    assertNotNull(event.getTimestamp());
+    assertTrue(Math.abs(event.getTimestamp().getTime() - millis) < TimeUnit.SECONDS.toMillis(1));
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ *
+ *          Copyright (c) 2019 AT&T Knowledge Ventures
+ *                     SPDX-License-Identifier: MIT
+ */
+package com.att.research.xacml.util;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+  @Test
+  public void testEmpty() {
+    Histogram histogram = new Histogram();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0.0, histogram.getMean(), 0.0);
+    assertEquals(0, histogram.getMedian());
+  }
+
+  @Test
+  public void testSmallValuesAreExact() {
+    Histogram histogram = new Histogram();
+    for (int i = 1 ; i <= 20 ; i++) {
+      histogram.record(i);
+    }
+    assertEquals(20, histogram.getCount());
+    assertEquals(210, histogram.getTotal());
+    assertEquals(20, histogram.getMax());
+    assertEquals(10.5, histogram.getMean(), 0.0);
+    assertEquals(10, histogram.getMedian());
+    assertEquals(18, histogram.getPercentile90());
+    assertEquals(20, histogram.getValueAtPercentile(100.0));
+    assertEquals(1, histogram.getValueAtPercentile(0.0));
+  }
+
+  @Test
+  public void testLargeValuesAreWithinPrecision() {
+    Histogram histogram = new Histogram();
+    for (long i = 1 ; i <= 100000 ; i++) {
+      histogram.record(i * 1000);
+    }
+    assertEquals(100000000, histogram.getMax());
+    assertEquals(50000000, histogram.getMedian(), 50000000 * 0.035);
+    assertEquals(99000000, histogram.getPercentile99(), 99000000 * 0.035);
+    assertEquals(100000000, histogram.getValueAtPercentile(100.0));
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100.0));
+    histogram.record(-5);
+    assertEquals(0, histogram.getValueAtPercentile(0.0));
+
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getPercentile999());
+  }
+
+  @Test
+  public void testConcurrentRecording() throws Exception {
+    final Histogram histogram = new Histogram();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    for (int t = 0 ; t < 4 ; t++) {
+      executor.execute(() -> {
+        for (int i = 0 ; i < 10000 ; i++) {
+          histogram.record(i);
+        }
+      });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+    assertEquals(40000, histogram.getCount());
+    assertEquals(9999, histogram.getMax());
+  }
+}